@@ -5,6 +5,9 @@ import static org.openstreetmap.josm.tools.I18n.marktr;
 import static org.openstreetmap.josm.tools.I18n.tr;
 import static org.openstreetmap.josm.tools.I18n.trn;
 
+import java.awt.GraphicsEnvironment;
+import java.awt.SecondaryLoop;
+import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
@@ -19,9 +22,11 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 import org.openstreetmap.josm.actions.ReverseWayAction.ReverseWayResult;
 import org.openstreetmap.josm.command.AddCommand;
@@ -45,6 +50,9 @@ import org.openstreetmap.josm.data.osm.Way;
 import org.openstreetmap.josm.gui.Notification;
 import org.openstreetmap.josm.gui.conflict.tags.CombinePrimitiveResolverDialog;
 import org.openstreetmap.josm.gui.layer.OsmDataLayer;
+import org.openstreetmap.josm.gui.progress.NullProgressMonitor;
+import org.openstreetmap.josm.gui.progress.ProgressMonitor;
+import org.openstreetmap.josm.gui.progress.swing.PleaseWaitProgressMonitor;
 import org.openstreetmap.josm.tools.Geometry;
 import org.openstreetmap.josm.tools.JosmRuntimeException;
 import org.openstreetmap.josm.tools.Logging;
@@ -480,7 +488,12 @@ public class JoinAreasAction extends JosmAction {
      */
     @Override
     public void actionPerformed(ActionEvent e) {
-        join(getLayerManager().getEditDataSet().getSelectedWays());
+        PleaseWaitProgressMonitor monitor = new PleaseWaitProgressMonitor(tr("Join Areas"));
+        try {
+            join(getLayerManager().getEditDataSet().getSelectedWays(), monitor);
+        } finally {
+            monitor.close();
+        }
         clearFields();
     }
 
@@ -496,6 +509,18 @@ public class JoinAreasAction extends JosmAction {
      * @since 7534
      */
     public void join(Collection<Way> ways) {
+        join(ways, NullProgressMonitor.INSTANCE);
+    }
+
+    /**
+     * Joins the given ways, reporting the progress of the search of their intersections,
+     * which is the longest step for ways with many nodes.
+     * The task of the monitor only begins after the confirmations, when the ways are known to be joinable.
+     * @param ways Ways to join
+     * @param monitor the progress monitor. If it is canceled, nothing is changed
+     * @since xxx
+     */
+    public void join(Collection<Way> ways, ProgressMonitor monitor) {
         clearFields();
 
         if (ways.isEmpty()) {
@@ -538,7 +563,23 @@ public class JoinAreasAction extends JosmAction {
             //too complex multipolygon relations found
             return;
 
-        if (!testJoin(areas)) {
+        monitor.beginTask(tr("Joining areas..."), 2);
+        try {
+            join(areas, monitor);
+        } finally {
+            monitor.finishTask();
+        }
+    }
+
+    private void join(List<Multipolygon> areas, ProgressMonitor monitor) {
+        boolean joinable;
+        try {
+            joinable = testJoin(areas, monitor.createSubTaskMonitor(1, false));
+        } catch (UserCancelException exception) {
+            Logging.trace(exception);
+            return;
+        }
+        if (!joinable) {
             new Notification(
                     tr("No intersection found. Nothing was changed."))
                     .setIcon(JOptionPane.INFORMATION_MESSAGE)
@@ -552,7 +593,7 @@ public class JoinAreasAction extends JosmAction {
 
         try {
             // Do the job of joining areas
-            JoinAreasResult result = joinAreas(areas);
+            JoinAreasResult result = joinAreas(areas, monitor.createSubTaskMonitor(1, false));
 
             if (result.hasChanges) {
                 // move tags from ways to newly created relations
@@ -604,9 +645,11 @@ public class JoinAreasAction extends JosmAction {
     /**
      * Tests if the areas have some intersections to join.
      * @param areas Areas to test
+     * @param monitor the progress monitor
      * @return {@code true} if areas are joinable
+     * @throws UserCancelException if the progress monitor is canceled
      */
-    private boolean testJoin(List<Multipolygon> areas) {
+    private boolean testJoin(List<Multipolygon> areas, ProgressMonitor monitor) throws UserCancelException {
         List<Way> allStartingWays = new ArrayList<>();
 
         for (Multipolygon area : areas) {
@@ -615,18 +658,61 @@ public class JoinAreasAction extends JosmAction {
         }
 
         //find intersection points
-        Set<Node> nodes = Geometry.addIntersections(allStartingWays, true, cmds);
+        Set<Node> nodes = addIntersections(allStartingWays, true, monitor);
+        if (monitor.isCanceled()) {
+            throw new UserCancelException();
+        }
         return !nodes.isEmpty();
     }
 
+    /**
+     * Searches the intersections of the ways, see {@link Geometry#addIntersections}.
+     * <p>
+     * On the event dispatch thread, the search runs in a worker thread while a secondary loop keeps dispatching the
+     * events, so that the progress dialog is painted and can be canceled. The search only creates commands without
+     * executing them, and the modal dialog blocks the user input until the search is finished.
+     * @param ways the ways
+     * @param test if {@code true}, stops at the first intersection found
+     * @param monitor the progress monitor
+     * @return the intersection nodes
+     */
+    private Set<Node> addIntersections(List<Way> ways, boolean test, ProgressMonitor monitor) {
+        if (ways.isEmpty() || !SwingUtilities.isEventDispatchThread() || GraphicsEnvironment.isHeadless()) {
+            return Geometry.addIntersections(ways, test, cmds, monitor);
+        }
+        SecondaryLoop loop = Toolkit.getDefaultToolkit().getSystemEventQueue().createSecondaryLoop();
+        AtomicReference<Set<Node>> result = new AtomicReference<>();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Thread worker = new Thread(() -> {
+            DataSet dataSet = ways.get(0).getDataSet();
+            dataSet.getReadLock().lock();
+            try {
+                result.set(Geometry.addIntersections(ways, test, cmds, monitor));
+            } catch (RuntimeException e) {
+                failure.set(e);
+            } finally {
+                dataSet.getReadLock().unlock();
+                // exit from the loop itself, so that it cannot happen before the loop is entered
+                SwingUtilities.invokeLater(loop::exit);
+            }
+        }, "join-areas-intersections");
+        worker.start();
+        loop.enter();
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return result.get();
+    }
+
     /**
      * Will join two or more overlapping areas
      * @param areas list of areas to join
+     * @param monitor the progress monitor of the search of intersections
      * @return new area formed.
      * @throws UserCancelException if user cancels the operation
      * @since 15852 : visibility changed from public to private
      */
-    private JoinAreasResult joinAreas(List<Multipolygon> areas) throws UserCancelException {
+    private JoinAreasResult joinAreas(List<Multipolygon> areas, ProgressMonitor monitor) throws UserCancelException {
 
         // see #11026 - Because <ways> is a dynamic filtered (on ways) of a filtered (on selected objects) collection,
         // retrieve effective dataset before joining the ways (which affects the selection, thus, the <ways> collection)
@@ -669,7 +755,10 @@ public class JoinAreasAction extends JosmAction {
         }
 
         //find intersection points
-        Set<Node> nodes = Geometry.addIntersections(allStartingWays, false, cmds);
+        Set<Node> nodes = addIntersections(allStartingWays, false, monitor);
+        if (monitor.isCanceled()) {
+            throw new UserCancelException();
+        }
 
         //no intersections, return.
         if (nodes.isEmpty())
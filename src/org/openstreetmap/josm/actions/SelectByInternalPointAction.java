@@ -55,14 +55,16 @@ public final class SelectByInternalPointAction {
             return Collections.emptySet();
         }
         final Node n = new Node(internalPoint);
+        // only the polygons whose bounding box contains the point may contain it
+        final BBox pointBBox = new BBox(n);
         final Map<Double, OsmPrimitive> found = new TreeMap<>();
-        for (Way w : ds.getWays()) {
+        for (Way w : ds.searchWays(pointBBox)) {
             if (w.isUsable() && w.isClosed() && w.isSelectable() && Geometry.nodeInsidePolygon(n, w.getNodes())) {
                 found.put(Geometry.closedWayArea(w), w);
             }
         }
         Projection projection = MainApplication.getMap().mapView.getProjection();
-        for (Relation r : ds.getRelations()) {
+        for (Relation r : ds.searchRelations(pointBBox)) {
             if (r.isUsable() && r.isMultipolygon() && r.isSelectable() && Geometry.isNodeInsideMultiPolygon(n, r, null)) {
                 if (!includeMultipolygonWays) {
                     for (RelationMember m : r.getMembers()) {
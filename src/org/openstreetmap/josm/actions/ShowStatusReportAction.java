@@ -46,6 +46,7 @@ import org.openstreetmap.josm.gui.bugreport.DebugTextDisplay;
 import org.openstreetmap.josm.gui.util.GuiHelper;
 import org.openstreetmap.josm.io.OsmApi;
 import org.openstreetmap.josm.plugins.PluginHandler;
+import org.openstreetmap.josm.spi.lifecycle.Lifecycle;
 import org.openstreetmap.josm.spi.preferences.Config;
 import org.openstreetmap.josm.tools.Logging;
 import org.openstreetmap.josm.tools.PlatformHookUnixoid;
@@ -216,6 +217,9 @@ public final class ShowStatusReportAction extends JosmAction {
         appendCollection(text, "Tagging presets", getCustomUrls(PresetPrefHelper.INSTANCE));
         appendCollection(text, "Map paint styles", getCustomUrls(MapPaintPrefHelper.INSTANCE));
         appendCollection(text, "Validator rules", getCustomUrls(ValidatorPrefHelper.INSTANCE));
+        appendCollection(text, "Startup timings", Lifecycle.getInitializationTimes().entrySet().stream()
+                .map(e -> "- " + e.getKey() + ": " + Utils.getDurationString(e.getValue())).collect(Collectors.toList()));
+        appendCollection(text, "Plugin loading timings", Utils.transform(PluginHandler.getLoadingTimesInformation(), i -> "- " + i));
         appendCollection(text, "Last errors/warnings", Utils.transform(Logging.getLastErrorAndWarnings(), i -> "- " + i));
 
         String osmApi = OsmApi.getOsmApi().getServerUrl();
@@ -13,9 +13,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -25,15 +27,20 @@ import org.openstreetmap.josm.actions.ActionParameter;
 import org.openstreetmap.josm.actions.ExpertToggleAction;
 import org.openstreetmap.josm.actions.JosmAction;
 import org.openstreetmap.josm.actions.ParameterizedAction;
+import org.openstreetmap.josm.data.osm.DataSet;
 import org.openstreetmap.josm.data.osm.IPrimitive;
 import org.openstreetmap.josm.data.osm.OsmData;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.search.ParallelMatcher;
 import org.openstreetmap.josm.data.osm.search.PushbackTokenizer;
 import org.openstreetmap.josm.data.osm.search.SearchCompiler;
 import org.openstreetmap.josm.data.osm.search.SearchCompiler.Match;
 import org.openstreetmap.josm.data.osm.search.SearchCompiler.SimpleMatchFactory;
 import org.openstreetmap.josm.data.osm.search.SearchMode;
 import org.openstreetmap.josm.data.osm.search.SearchParseError;
+import org.openstreetmap.josm.data.osm.search.SearchPlanner;
 import org.openstreetmap.josm.data.osm.search.SearchSetting;
+import org.openstreetmap.josm.data.preferences.BooleanProperty;
 import org.openstreetmap.josm.gui.MainApplication;
 import org.openstreetmap.josm.gui.MapFrame;
 import org.openstreetmap.josm.gui.Notification;
@@ -64,6 +71,12 @@ public class SearchAction extends JosmAction implements ParameterizedAction {
      */
     public static final int MAX_LENGTH_SEARCH_EXPRESSION_DISPLAY = 100;
 
+    /**
+     * If searches should look up candidates in the indexes of the data set instead of testing every primitive.
+     * @since xxx
+     */
+    public static final BooleanProperty PROP_USE_INDEX = new BooleanProperty("search.use-index", true);
+
     private static final String SEARCH_EXPRESSION = "searchExpression";
 
     private static final LinkedList<SearchSetting> searchHistory = new LinkedList<>();
@@ -399,8 +412,10 @@ public class SearchAction extends JosmAction implements ParameterizedAction {
                     foundMatches = selection.size();
                 }
 
-                Collection<? extends IPrimitive> all;
-                if (setting.allElements) {
+                Collection<? extends IPrimitive> all = getIndexedCandidates(matcher);
+                if (all != null) {
+                    Logging.debug("Search {0}: {1} candidates found in indexes", setting.text, all.size());
+                } else if (setting.allElements) {
                     all = ds.allPrimitives();
                 } else {
                     all = ds.getPrimitives(p -> p.isSelectable()); // Do not use method reference before Java 11!
@@ -408,22 +423,26 @@ public class SearchAction extends JosmAction implements ParameterizedAction {
                 final ProgressMonitor subMonitor = getProgressMonitor().createSubTaskMonitor(all.size(), false);
                 subMonitor.beginTask(trn("Searching in {0} object", "Searching in {0} objects", all.size(), all.size()));
 
+                Predicate<IPrimitive> matches = getParallelMatches(matcher, all);
+                if (matches == null) {
+                    matches = matcher::match;
+                }
                 for (IPrimitive osm : all) {
                     if (canceled) {
                         return;
                     }
                     if (setting.mode == SearchMode.replace) {
-                        if (matcher.match(osm)) {
+                        if (matches.test(osm)) {
                             selection.add(osm);
                             ++foundMatches;
                         }
-                    } else if (setting.mode == SearchMode.add && !predicate.test(osm) && matcher.match(osm)) {
+                    } else if (setting.mode == SearchMode.add && !predicate.test(osm) && matches.test(osm)) {
                         selection.add(osm);
                         ++foundMatches;
-                    } else if (setting.mode == SearchMode.remove && predicate.test(osm) && matcher.match(osm)) {
+                    } else if (setting.mode == SearchMode.remove && predicate.test(osm) && matches.test(osm)) {
                         selection.remove(osm);
                         ++foundMatches;
-                    } else if (setting.mode == SearchMode.in_selection && predicate.test(osm) && !matcher.match(osm)) {
+                    } else if (setting.mode == SearchMode.in_selection && predicate.test(osm) && !matches.test(osm)) {
                         selection.remove(osm);
                         --foundMatches;
                     }
@@ -441,6 +460,43 @@ public class SearchAction extends JosmAction implements ParameterizedAction {
             }
         }
 
+        /**
+         * Tests the primitives in parallel, if the search is thread-safe and there are many primitives to test,
+         * see {@link ParallelMatcher}.
+         * @param matcher the compiled search
+         * @param all the primitives to search in
+         * @return a test of the precomputed matches, or {@code null} if the primitives have to be tested sequentially
+         */
+        private Predicate<IPrimitive> getParallelMatches(Match matcher, Collection<? extends IPrimitive> all) {
+            if (!ParallelMatcher.isParallel(matcher, all.size())) {
+                return null;
+            }
+            // only test the primitives which may be added to or removed from the selection
+            List<IPrimitive> toTest = all.stream()
+                    .filter(osm -> setting.mode == SearchMode.replace || (setting.mode == SearchMode.add) != predicate.test(osm))
+                    .collect(Collectors.toList());
+            Set<IPrimitive> found = Collections.newSetFromMap(new IdentityHashMap<>());
+            found.addAll(ParallelMatcher.filter(toTest, matcher::match));
+            return found::contains;
+        }
+
+        /**
+         * Looks up the primitives which can match in the indexes of the data set, see {@link SearchPlanner}.
+         * @param matcher the compiled search
+         * @return the primitives which can match, or {@code null} if all primitives have to be tested
+         */
+        private Collection<? extends IPrimitive> getIndexedCandidates(Match matcher) {
+            // in selection mode, all selected primitives which do not match have to be found
+            if (setting.mode == SearchMode.in_selection || !(ds instanceof DataSet) || !PROP_USE_INDEX.get()) {
+                return null;
+            }
+            Collection<OsmPrimitive> candidates = SearchPlanner.getCandidates((DataSet) ds, matcher);
+            if (candidates != null && !setting.allElements) {
+                return candidates.stream().filter(OsmPrimitive::isSelectable).collect(Collectors.toList());
+            }
+            return candidates;
+        }
+
         @Override
         protected void finish() {
             if (canceled) {
@@ -51,12 +51,18 @@ public abstract class AbstractNodesCommand<C extends Collection<Node>> extends C
 
     @Override
     public boolean executeCommand() {
-        super.executeCommand();
-        modifyWay();
-        way.setModified(true);
+        executeChange(way, () -> {
+            modifyWay();
+            way.setModified(true);
+        });
         return true;
     }
 
+    @Override
+    public long getMemoryFootprint() {
+        return super.getMemoryFootprint() + PrimitiveDelta.OBJECT + cmdNodes.size() * PrimitiveDelta.REFERENCE;
+    }
+
     @Override
     public void fillModifiedData(Collection<OsmPrimitive> modified, Collection<OsmPrimitive> deleted, Collection<OsmPrimitive> added) {
         modified.add(way);
@@ -63,12 +63,18 @@ public class ChangeCommand extends Command {
 
     @Override
     public boolean executeCommand() {
-        super.executeCommand();
-        osm.cloneFrom(newOsm);
-        osm.setModified(true);
+        executeChange(osm, () -> {
+            osm.cloneFrom(newOsm);
+            osm.setModified(true);
+        });
         return true;
     }
 
+    @Override
+    public long getMemoryFootprint() {
+        return super.getMemoryFootprint() + PrimitiveDelta.getMemoryFootprint(newOsm);
+    }
+
     @Override
     public void fillModifiedData(Collection<OsmPrimitive> modified, Collection<OsmPrimitive> deleted, Collection<OsmPrimitive> added) {
         modified.add(osm);
@@ -48,11 +48,16 @@ public class ChangeMembersCommand extends Command {
 
     @Override
     public boolean executeCommand() {
-        super.executeCommand();
-        relation.setMembers(cmdMembers);
-        relation.setModified(true);
+        executeChange(relation, () -> {
+            relation.setMembers(cmdMembers);
+            relation.setModified(true);
+        });
         return true;
+    }
 
+    @Override
+    public long getMemoryFootprint() {
+        return super.getMemoryFootprint() + PrimitiveDelta.OBJECT + cmdMembers.size() * PrimitiveDelta.REFERENCE;
     }
 
     @Override
@@ -124,6 +124,9 @@ public abstract class Command implements PseudoCommand {
     /** the map of OsmPrimitives in the original state to OsmPrimitives in cloned state */
     private Map<OsmPrimitive, PrimitiveData> cloneMap = Collections.emptyMap();
 
+    /** the map of OsmPrimitives changed by {@link #executeChange} to the differences with their original state */
+    private Map<OsmPrimitive, PrimitiveDelta> deltaMap = Collections.emptyMap();
+
     /** the dataset which this command is applied to */
     private final DataSet data;
 
@@ -157,6 +160,20 @@ public abstract class Command implements PseudoCommand {
         return true;
     }
 
+    /**
+     * Executes a change of a single primitive. Instead of a full copy of the primitive, only the differences of its
+     * tags, nodes or members with its original state are remembered for undo, which is much smaller for long ways
+     * or large relations. Commands using this method must not call {@link #executeCommand()} of this class.
+     * @param osm the primitive to change
+     * @param change the change, run immediately
+     * @since xxx
+     */
+    protected final void executeChange(OsmPrimitive osm, Runnable change) {
+        PrimitiveData orig = osm.save();
+        change.run();
+        deltaMap = Collections.singletonMap(osm, PrimitiveDelta.of(orig, osm));
+    }
+
     /**
      * Undoes the command.
      * It can be assumed that all objects are in the same state they were before.
@@ -171,6 +188,12 @@ public abstract class Command implements PseudoCommand {
                 e.getKey().load(e.getValue());
             }
         }
+        for (Entry<OsmPrimitive, PrimitiveDelta> e : deltaMap.entrySet()) {
+            OsmPrimitive primitive = e.getKey();
+            if (primitive.getDataSet() != null) {
+                primitive.load(e.getValue().revert());
+            }
+        }
     }
 
     /**
@@ -180,7 +203,27 @@ public abstract class Command implements PseudoCommand {
      * @return The original version of the requested object, if any
      */
     public PrimitiveData getOrig(OsmPrimitive osm) {
-        return cloneMap.get(osm);
+        PrimitiveDelta delta = deltaMap.get(osm);
+        return delta != null ? delta.revert() : cloneMap.get(osm);
+    }
+
+    /**
+     * Returns an estimate of the memory used by this command to undo or redo its changes, so that the undo stack
+     * can be limited in size. This implementation counts the copies of the primitives remembered by
+     * {@link #executeCommand()} and the differences remembered by {@link #executeChange}. Commands holding other
+     * large data should override it.
+     * @return an estimate of the memory used by this command, in bytes
+     * @since xxx
+     */
+    public long getMemoryFootprint() {
+        long size = PrimitiveDelta.OBJECT + 3 * PrimitiveDelta.REFERENCE;
+        for (PrimitiveData orig : cloneMap.values()) {
+            size += 2 * PrimitiveDelta.OBJECT + PrimitiveDelta.getMemoryFootprint(orig);
+        }
+        for (PrimitiveDelta delta : deltaMap.values()) {
+            size += PrimitiveDelta.OBJECT + delta.getMemoryFootprint();
+        }
+        return size;
     }
 
     /**
@@ -210,7 +253,14 @@ public abstract class Command implements PseudoCommand {
      */
     @Override
     public Collection<? extends OsmPrimitive> getParticipatingPrimitives() {
-        return cloneMap.keySet();
+        if (deltaMap.isEmpty()) {
+            return cloneMap.keySet();
+        } else if (cloneMap.isEmpty()) {
+            return deltaMap.keySet();
+        }
+        Collection<OsmPrimitive> result = new ArrayList<>(cloneMap.keySet());
+        result.addAll(deltaMap.keySet());
+        return result;
     }
 
     /**
@@ -252,7 +302,7 @@ public abstract class Command implements PseudoCommand {
 
     @Override
     public int hashCode() {
-        return Objects.hash(cloneMap, data);
+        return Objects.hash(cloneMap, deltaMap, data);
     }
 
     @Override
@@ -261,6 +311,7 @@ public abstract class Command implements PseudoCommand {
         if (obj == null || getClass() != obj.getClass()) return false;
         Command command = (Command) obj;
         return Objects.equals(cloneMap, command.cloneMap) &&
+               Objects.equals(deltaMap, command.deltaMap) &&
                Objects.equals(data, command.data);
     }
 }
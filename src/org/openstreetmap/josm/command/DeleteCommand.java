@@ -285,6 +285,15 @@ public class DeleteCommand extends Command {
         return toDelete;
     }
 
+    @Override
+    public long getMemoryFootprint() {
+        long size = super.getMemoryFootprint() + PrimitiveDelta.OBJECT + toDelete.size() * PrimitiveDelta.REFERENCE;
+        for (PrimitiveData orig : clonedPrimitives.values()) {
+            size += 2 * PrimitiveDelta.OBJECT + PrimitiveDelta.getMemoryFootprint(orig);
+        }
+        return size;
+    }
+
     /**
      * Delete the primitives and everything they reference.
      *
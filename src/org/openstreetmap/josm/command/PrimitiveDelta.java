@@ -0,0 +1,256 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.NodeData;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.PrimitiveData;
+import org.openstreetmap.josm.data.osm.Relation;
+import org.openstreetmap.josm.data.osm.RelationData;
+import org.openstreetmap.josm.data.osm.RelationMember;
+import org.openstreetmap.josm.data.osm.RelationMemberData;
+import org.openstreetmap.josm.data.osm.TagMap;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.data.osm.WayData;
+
+/**
+ * Compact original state of a primitive modified by a command.
+ * <p>
+ * Instead of a full copy of the primitive, only its attributes (flags, version, coordinates…) are copied. Tags are
+ * stored as the original values of the changed keys, and nodes or members as the original slice between the prefix
+ * and the suffix which are shared with the modified primitive. The tags and nodes of the modified state are kept by
+ * reference, as primitives never modify them in place, and the members are copied without their content. The original
+ * state can thus be restored even after other commands changed the primitive.
+ * @since xxx
+ */
+final class PrimitiveDelta {
+
+    /** Rough size of an object header, in bytes */
+    static final long OBJECT = 16;
+    /** Rough size of a reference, in bytes */
+    static final long REFERENCE = 8;
+
+    /** the original attributes, without tags, nodes or members */
+    private final PrimitiveData attributes;
+    /** the changed keys and their original values, {@code null} for keys which did not exist */
+    private final String[] tags;
+    /** the number of nodes or members shared at the beginning */
+    private final int prefix;
+    /** the number of nodes or members shared at the end */
+    private final int suffix;
+    /** the original node ids or members between the prefix and the suffix */
+    private final List<Object> children;
+    /** the tags of the modified state, sharing the array of the primitive */
+    private final TagMap modifiedKeys;
+    /** the nodes of the modified state, sharing the array of the way, or the members of the modified state */
+    private final List<?> modifiedChildren;
+
+    private PrimitiveDelta(PrimitiveData attributes, String[] tags, int prefix, int suffix, List<Object> children,
+            TagMap modifiedKeys, List<?> modifiedChildren) {
+        this.attributes = attributes;
+        this.tags = tags;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.children = children;
+        this.modifiedKeys = modifiedKeys;
+        this.modifiedChildren = modifiedChildren;
+    }
+
+    /**
+     * Computes the differences between the original and the modified state of a primitive.
+     * @param orig the original state, as returned by {@link OsmPrimitive#save()}. It is modified by this method
+     * @param current the primitive in its modified state
+     * @return the differences
+     */
+    static PrimitiveDelta of(PrimitiveData orig, OsmPrimitive current) {
+        Map<String, String> origKeys = orig.getKeys();
+        TagMap currentKeys = current.getKeys();
+        Set<String> keys = new TreeSet<>(origKeys.keySet());
+        keys.addAll(currentKeys.keySet());
+        List<String> changed = new ArrayList<>();
+        for (String key : keys) {
+            String value = origKeys.get(key);
+            if (!Objects.equals(value, currentKeys.get(key))) {
+                changed.add(key);
+                changed.add(value);
+            }
+        }
+
+        List<?> modifiedChildren = getModifiedChildren(current);
+        List<Object> origChildren = getChildren(orig);
+        List<Object> currentChildren = getChildren(modifiedChildren);
+        int max = Math.min(origChildren.size(), currentChildren.size());
+        int prefix = 0;
+        while (prefix < max && origChildren.get(prefix).equals(currentChildren.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix && origChildren.get(origChildren.size() - 1 - suffix).equals(
+                currentChildren.get(currentChildren.size() - 1 - suffix))) {
+            suffix++;
+        }
+        List<Object> slice = new ArrayList<>(origChildren.subList(prefix, origChildren.size() - suffix));
+
+        orig.setKeys(null);
+        setChildren(orig, Collections.emptyList());
+        return new PrimitiveDelta(orig, changed.toArray(new String[0]), prefix, suffix, slice, currentKeys, modifiedChildren);
+    }
+
+    /**
+     * Restores the original state of a primitive, whatever its current state.
+     * @return the original state, to be loaded with {@link OsmPrimitive#load(PrimitiveData)}
+     */
+    PrimitiveData revert() {
+        PrimitiveData data = attributes.makeCopy();
+        Map<String, String> keys = new HashMap<>(modifiedKeys);
+        for (int i = 0; i < tags.length; i += 2) {
+            if (tags[i + 1] == null) {
+                keys.remove(tags[i]);
+            } else {
+                keys.put(tags[i], tags[i + 1]);
+            }
+        }
+        data.setKeys(keys);
+
+        List<Object> currentChildren = getChildren(modifiedChildren);
+        List<Object> result = new ArrayList<>(prefix + children.size() + suffix);
+        result.addAll(currentChildren.subList(0, prefix));
+        result.addAll(children);
+        result.addAll(currentChildren.subList(currentChildren.size() - suffix, currentChildren.size()));
+        setChildren(data, result);
+        return data;
+    }
+
+    /**
+     * Returns an estimate of the memory used by this object.
+     * @return an estimate of the memory used by this object, in bytes
+     */
+    long getMemoryFootprint() {
+        // the modified tags and nodes are shared with the primitive, the members are a copy of the references
+        long size = OBJECT + 7 * REFERENCE + getMemoryFootprint(attributes) + OBJECT + REFERENCE;
+        if (attributes instanceof RelationData) {
+            size += modifiedChildren.size() * REFERENCE;
+        }
+        size += OBJECT + tags.length * REFERENCE;
+        for (int i = 1; i < tags.length; i += 2) {
+            size += getMemoryFootprint(tags[i]);
+        }
+        return size + OBJECT + children.size() * (REFERENCE + (attributes instanceof RelationData ? 2 * OBJECT : OBJECT + REFERENCE));
+    }
+
+    /**
+     * Returns an estimate of the memory used by a copy of a primitive.
+     * @param data the copy
+     * @return an estimate of the memory used by the copy, in bytes
+     */
+    static long getMemoryFootprint(PrimitiveData data) {
+        long size = 2 * OBJECT + 8 * REFERENCE + getMemoryFootprint(data.getKeys());
+        if (data instanceof NodeData) {
+            size += 2 * REFERENCE;
+        } else if (data instanceof WayData) {
+            size += OBJECT + ((WayData) data).getNodesCount() * (REFERENCE + OBJECT + REFERENCE);
+        } else if (data instanceof RelationData) {
+            size += OBJECT + ((RelationData) data).getMembersCount() * (REFERENCE + 2 * OBJECT);
+        }
+        return size;
+    }
+
+    /**
+     * Returns an estimate of the memory used by a primitive which is not part of a data set.
+     * @param osm the primitive
+     * @return an estimate of the memory used by the primitive, in bytes
+     */
+    static long getMemoryFootprint(OsmPrimitive osm) {
+        long size = 2 * OBJECT + 10 * REFERENCE + getMemoryFootprint(osm.getKeys());
+        if (osm instanceof Way) {
+            size += OBJECT + ((Way) osm).getNodesCount() * REFERENCE;
+        } else if (osm instanceof Relation) {
+            size += OBJECT + ((Relation) osm).getMembersCount() * (REFERENCE + 2 * OBJECT);
+        }
+        return size;
+    }
+
+    private static long getMemoryFootprint(Map<String, String> keys) {
+        // keys are interned, values are often shared, but this is an upper bound
+        long size = OBJECT + keys.size() * 2 * REFERENCE;
+        for (String value : keys.values()) {
+            size += getMemoryFootprint(value);
+        }
+        return size;
+    }
+
+    private static long getMemoryFootprint(String value) {
+        return value == null ? 0 : 2 * OBJECT + REFERENCE + value.length();
+    }
+
+    private static List<Object> getChildren(PrimitiveData data) {
+        if (data instanceof WayData) {
+            return new ArrayList<>(((WayData) data).getNodeIds());
+        } else if (data instanceof RelationData) {
+            return new ArrayList<>(((RelationData) data).getMembers());
+        }
+        return Collections.emptyList();
+    }
+
+    private static List<?> getModifiedChildren(OsmPrimitive osm) {
+        if (osm instanceof Way) {
+            // the list shares the array of the way, which is replaced and not modified when the nodes change
+            return ((Way) osm).getNodes();
+        } else if (osm instanceof Relation) {
+            // members can be replaced in place, see Relation#setMember
+            return Arrays.asList(((Relation) osm).getMembers().toArray(new RelationMember[0]));
+        }
+        return Collections.emptyList();
+    }
+
+    private static List<Object> getChildren(List<?> modifiedChildren) {
+        List<Object> result = new ArrayList<>(modifiedChildren.size());
+        for (Object child : modifiedChildren) {
+            if (child instanceof Node) {
+                result.add(((Node) child).getUniqueId());
+            } else {
+                RelationMember member = (RelationMember) child;
+                result.add(new RelationMemberData(member.getRole(), member.getMember()));
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void setChildren(PrimitiveData data, List<?> children) {
+        if (data instanceof WayData) {
+            ((WayData) data).setNodeIds((List<Long>) children);
+        } else if (data instanceof RelationData) {
+            ((RelationData) data).setMembers((List<RelationMemberData>) children);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(attributes, Arrays.hashCode(tags), prefix, suffix, children, modifiedKeys, modifiedChildren);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        PrimitiveDelta that = (PrimitiveDelta) obj;
+        return prefix == that.prefix &&
+               suffix == that.suffix &&
+               Objects.equals(attributes, that.attributes) &&
+               Arrays.equals(tags, that.tags) &&
+               Objects.equals(children, that.children) &&
+               Objects.equals(modifiedKeys, that.modifiedKeys) &&
+               Objects.equals(modifiedChildren, that.modifiedChildren);
+    }
+}
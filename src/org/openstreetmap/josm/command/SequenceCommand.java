@@ -207,6 +207,15 @@ public class SequenceCommand extends Command {
         return prims;
     }
 
+    @Override
+    public long getMemoryFootprint() {
+        long size = super.getMemoryFootprint();
+        for (Command c : sequence) {
+            size += c.getMemoryFootprint();
+        }
+        return size;
+    }
+
     protected final void setSequence(Command... sequence) {
         this.sequence = Utils.copyArray(sequence);
     }
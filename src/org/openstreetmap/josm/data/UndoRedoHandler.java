@@ -36,6 +36,13 @@ public final class UndoRedoHandler {
      */
     private final LinkedList<Command> redoCommands = new LinkedList<>();
 
+    /**
+     * Estimated memory used by the commands that can be undone, in bytes
+     *
+     * @see Command#getMemoryFootprint()
+     */
+    private long commandsMemory;
+
     private final LinkedList<CommandQueueListener> listenerCommands = new LinkedList<>();
     private final LinkedList<CommandQueuePreciseListener> preciseListenerCommands = new LinkedList<>();
 
@@ -299,14 +306,38 @@ public final class UndoRedoHandler {
         if (execute) {
             c.executeCommand();
         }
+        addUndoCommand(c);
+        redoCommands.clear();
+    }
+
+    private void addUndoCommand(Command c) {
         commands.add(c);
-        // Limit the number of commands in the undo list.
+        commandsMemory += c.getMemoryFootprint();
+        // Limit the number of commands in the undo list, and the memory they use.
         // Currently you have to undo the commands one by one. If
         // this changes, a higher default value may be reasonable.
-        if (commands.size() > Config.getPref().getInt("undo.max", 1000)) {
-            commands.removeFirst();
+        int maxCommands = Config.getPref().getInt("undo.max", 1000);
+        long maxMemory = Config.getPref().getLong("undo.max-memory", 256) * 1024 * 1024;
+        while (commands.size() > 1 && (commands.size() > maxCommands || commandsMemory > maxMemory)) {
+            commandsMemory -= commands.removeFirst().getMemoryFootprint();
         }
-        redoCommands.clear();
+    }
+
+    private Command removeUndoCommand() {
+        Command c = commands.removeLast();
+        commandsMemory = commands.isEmpty() ? 0 : commandsMemory - c.getMemoryFootprint();
+        return c;
+    }
+
+    /**
+     * Returns an estimate of the memory used by the commands that can be undone.
+     * The undo list is limited to the number of megabytes given by the preference {@code undo.max-memory}.
+     * @return an estimate of the memory used by the commands that can be undone, in bytes
+     * @see Command#getMemoryFootprint()
+     * @since xxx
+     */
+    public long getUndoCommandsMemory() {
+        return commandsMemory;
     }
 
     /**
@@ -376,12 +407,13 @@ public final class UndoRedoHandler {
             }
             try {
                 for (int i = 1; i <= num; ++i) {
-                    final Command c = commands.removeLast();
+                    final Command c = removeUndoCommand();
                     try {
                         c.undoCommand();
                     } catch (Exception e) { // NOPMD
                         // fix #20098: restore command stack as we will not fire an event
                         commands.add(c);
+                        commandsMemory += c.getMemoryFootprint();
                         throw e;
                     }
                     redoCommands.addFirst(c);
@@ -416,7 +448,7 @@ public final class UndoRedoHandler {
         for (int i = 0; i < num; ++i) {
             final Command c = redoCommands.removeFirst();
             c.executeCommand();
-            commands.add(c);
+            addUndoCommand(c);
             fireEvent(new CommandRedoneEvent(this, c));
             if (redoCommands.isEmpty()) {
                 break;
@@ -444,6 +476,7 @@ public final class UndoRedoHandler {
     public void clean() {
         redoCommands.clear();
         commands.clear();
+        commandsMemory = 0;
         fireEvent(new CommandQueueCleanedEvent(this, null));
         fireCommandsChanged();
     }
@@ -460,6 +493,7 @@ public final class UndoRedoHandler {
         changed |= commands.removeIf(c -> c.getAffectedDataSet() == dataSet);
         changed |= redoCommands.removeIf(c -> c.getAffectedDataSet() == dataSet);
         if (changed) {
+            commandsMemory = commands.stream().mapToLong(Command::getMemoryFootprint).sum();
             fireEvent(new CommandQueueCleanedEvent(this, dataSet));
             fireCommandsChanged();
         }
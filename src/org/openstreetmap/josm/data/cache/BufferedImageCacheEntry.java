@@ -2,7 +2,6 @@
 package org.openstreetmap.josm.data.cache;
 
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -61,7 +60,7 @@ public class BufferedImageCacheEntry extends CacheEntry {
                 return img;
             byte[] content = getContent();
             if (content.length > 0) {
-                img = ImageIO.read(new ByteArrayInputStream(content));
+                img = TileImageDecoder.decode(content, 1);
                 imageLoaded = true;
             }
         }
@@ -3,11 +3,14 @@ package org.openstreetmap.josm.data.cache;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.openstreetmap.josm.tools.Logging;
 
@@ -22,6 +25,10 @@ import org.openstreetmap.josm.tools.Logging;
  * [2] If we have a queue, and for all hosts in queue we will fail to acquire semaphore, the thread
  *     take the first available job and wait for semaphore. It might be the case, that semaphore was released
  *     for some task further in queue, but this implementation doesn't try to detect such situation
+ * <p>
+ * Among the jobs whose host limit is not reached, the one with the lowest {@link JCSCachedTileLoaderJob#getPriority() priority}
+ * value is taken first. Jobs that became {@link JCSCachedTileLoaderJob#isStale() stale} while waiting are dropped from the
+ * queue and canceled instead of being executed. Queue depth, waiting time and download time are tracked for each host.
  *
  * @author Wiktor Niesiobędzki
  */
@@ -29,8 +36,64 @@ public class HostLimitQueue extends LinkedBlockingDeque<Runnable> {
     private static final long serialVersionUID = 1L;
 
     private final Map<String, Semaphore> hostSemaphores = new ConcurrentHashMap<>();
+    private final Map<String, HostStatistics> hostStatistics = new ConcurrentHashMap<>();
     private final int hostLimit;
 
+    /**
+     * Download statistics of a single host.
+     * @since xxx
+     */
+    public static final class HostStatistics {
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong finished = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong waitNanos = new AtomicLong();
+        private final AtomicLong waitCount = new AtomicLong();
+        private final AtomicLong executionNanos = new AtomicLong();
+
+        /**
+         * Returns the number of jobs taken from the queue for execution.
+         * @return the number of jobs taken from the queue for execution
+         */
+        public long getStartedCount() {
+            return started.get();
+        }
+
+        /**
+         * Returns the number of jobs which finished execution.
+         * @return the number of jobs which finished execution
+         */
+        public long getFinishedCount() {
+            return finished.get();
+        }
+
+        /**
+         * Returns the number of stale jobs dropped from the queue without execution.
+         * @return the number of stale jobs dropped from the queue
+         */
+        public long getDroppedCount() {
+            return dropped.get();
+        }
+
+        /**
+         * Returns the average time jobs spent in the queue before execution.
+         * @return the average time jobs spent in the queue, in milliseconds
+         */
+        public double getAverageWaitTime() {
+            long count = waitCount.get();
+            return count == 0 ? 0 : waitNanos.get() / (count * 1e6);
+        }
+
+        /**
+         * Returns the average execution time of jobs (download or cache lookup).
+         * @return the average execution time of jobs, in milliseconds
+         */
+        public double getAverageExecutionTime() {
+            long count = finished.get();
+            return count == 0 ? 0 : executionNanos.get() / (count * 1e6);
+        }
+    }
+
     /**
      * Creates an unbounded queue
      * @param hostLimit how many parallel calls to host to allow
@@ -51,31 +114,72 @@ public class HostLimitQueue extends LinkedBlockingDeque<Runnable> {
     }
 
     private JCSCachedTileLoaderJob<?, ?> findJob() {
+        JCSCachedTileLoaderJob<?, ?> best = null;
+        double bestPriority = Double.POSITIVE_INFINITY;
         for (Runnable r : this) {
             if (r instanceof JCSCachedTileLoaderJob) {
                 JCSCachedTileLoaderJob<?, ?> job = (JCSCachedTileLoaderJob<?, ?>) r;
-                if (tryAcquireSemaphore(job)) {
-                    if (remove(job)) {
-                        return job;
-                    } else {
-                        // we have acquired the semaphore, but we didn't manage to remove job, as someone else did
-                        // release the semaphore and look for another candidate
-                        releaseSemaphore(job);
+                if (job.isStale()) {
+                    dropStaleJob(job);
+                } else if (getSemaphore(job).availablePermits() > 0) {
+                    double priority = job.getPriority();
+                    if (best == null || priority < bestPriority) {
+                        best = job;
+                        bestPriority = priority;
                     }
-                } else {
+                } else if (Logging.isTraceEnabled()) {
                     URL url = null;
                     try {
                         url = job.getUrl();
                     } catch (IOException e) {
                         Logging.debug(e);
                     }
-                    Logging.debug("TMS - Skipping job {0} because host limit reached", url);
+                    Logging.trace("TMS - Skipping job {0} because host limit reached", url);
                 }
             }
         }
+        if (best != null && getSemaphore(best).tryAcquire()) {
+            if (remove(best)) {
+                jobStarted(best);
+                return best;
+            }
+            // we have acquired the semaphore, but we didn't manage to remove job, as someone else did
+            releaseSemaphore(best);
+        }
         return null;
     }
 
+    private boolean isStale(Runnable job) {
+        return job instanceof JCSCachedTileLoaderJob && ((JCSCachedTileLoaderJob<?, ?>) job).isStale();
+    }
+
+    private void dropStaleJob(JCSCachedTileLoaderJob<?, ?> job) {
+        if (remove(job)) {
+            cancelStaleJob(job);
+        }
+    }
+
+    private void cancelStaleJob(JCSCachedTileLoaderJob<?, ?> job) {
+        getStatistics(job).dropped.incrementAndGet();
+        job.handleJobCancellation();
+    }
+
+    /**
+     * Removes from the queue all jobs which became stale, and cancels them.
+     * @return the number of dropped jobs
+     * @since xxx
+     */
+    public int dropStaleJobs() {
+        int count = 0;
+        for (Runnable r : this) {
+            if (isStale(r) && remove(r)) {
+                cancelStaleJob((JCSCachedTileLoaderJob<?, ?>) r);
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Override
     public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
         Runnable job = findJob();
@@ -84,6 +188,10 @@ public class HostLimitQueue extends LinkedBlockingDeque<Runnable> {
         }
         job = pollFirst(timeout, unit);
         if (job != null) {
+            if (isStale(job)) {
+                cancelStaleJob((JCSCachedTileLoaderJob<?, ?>) job);
+                return null;
+            }
             try {
                 boolean gotLock = tryAcquireSemaphore(job, timeout, unit);
                 return gotLock ? job : null;
@@ -105,6 +213,14 @@ public class HostLimitQueue extends LinkedBlockingDeque<Runnable> {
             return job;
         }
         job = takeFirst();
+        while (isStale(job)) {
+            cancelStaleJob((JCSCachedTileLoaderJob<?, ?>) job);
+            job = findJob();
+            if (job != null) {
+                return job;
+            }
+            job = takeFirst();
+        }
         try {
             acquireSemaphore(job);
         } catch (InterruptedException e) {
@@ -117,6 +233,95 @@ public class HostLimitQueue extends LinkedBlockingDeque<Runnable> {
         return job;
     }
 
+    /**
+     * Returns the number of jobs waiting in the queue for each host.
+     * @return the number of jobs waiting in the queue for each host
+     * @since xxx
+     */
+    public Map<String, Integer> getQueueDepthPerHost() {
+        Map<String, Integer> ret = new HashMap<>();
+        for (Runnable r : this) {
+            if (r instanceof JCSCachedTileLoaderJob) {
+                String host = getHost((JCSCachedTileLoaderJob<?, ?>) r);
+                if (host != null) {
+                    ret.merge(host, 1, Integer::sum);
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the number of jobs of the given host currently being executed.
+     * @param host host name
+     * @return the number of jobs of the given host currently being executed
+     * @since xxx
+     */
+    public int getActiveCount(String host) {
+        Semaphore limit = hostSemaphores.get(host);
+        return limit == null ? 0 : Math.max(0, hostLimit - limit.availablePermits());
+    }
+
+    /**
+     * Returns download statistics for each host seen by this queue.
+     * @return download statistics for each host, sorted by host name
+     * @since xxx
+     */
+    public Map<String, HostStatistics> getHostStatistics() {
+        return new TreeMap<>(hostStatistics);
+    }
+
+    /**
+     * Returns a human readable summary of queue depth, waiting time and execution time for each host.
+     * @return statistics, one line per host
+     * @since xxx
+     */
+    public String getStatistics() {
+        Map<String, Integer> depth = getQueueDepthPerHost();
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, HostStatistics> e : getHostStatistics().entrySet()) {
+            HostStatistics stats = e.getValue();
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append(String.format("%s: queued %d, active %d, finished %d, dropped %d, wait %.0f ms, execution %.0f ms",
+                    e.getKey(), depth.getOrDefault(e.getKey(), 0), getActiveCount(e.getKey()), stats.getFinishedCount(),
+                    stats.getDroppedCount(), stats.getAverageWaitTime(), stats.getAverageExecutionTime()));
+        }
+        return sb.toString();
+    }
+
+    private static String getHost(JCSCachedTileLoaderJob<?, ?> job) {
+        try {
+            URL url = job.getUrl();
+            return url == null ? null : url.getHost();
+        } catch (IOException e) {
+            Logging.trace(e);
+            return null;
+        }
+    }
+
+    private HostStatistics getStatistics(JCSCachedTileLoaderJob<?, ?> job) {
+        String host = getHost(job);
+        return hostStatistics.computeIfAbsent(host == null ? "" : host, k -> new HostStatistics());
+    }
+
+    private void jobStarted(final JCSCachedTileLoaderJob<?, ?> job) {
+        final HostStatistics stats = getStatistics(job);
+        final long start = System.nanoTime();
+        stats.started.incrementAndGet();
+        long enqueued = job.getEnqueueTime();
+        if (enqueued != 0) {
+            stats.waitNanos.addAndGet(start - enqueued);
+            stats.waitCount.incrementAndGet();
+        }
+        job.setFinishedTask(() -> {
+            stats.executionNanos.addAndGet(System.nanoTime() - start);
+            stats.finished.incrementAndGet();
+            releaseSemaphore(job);
+        });
+    }
+
     private Semaphore getSemaphore(JCSCachedTileLoaderJob<?, ?> job) {
         String host;
         try {
@@ -136,22 +341,10 @@ public class HostLimitQueue extends LinkedBlockingDeque<Runnable> {
         if (job instanceof JCSCachedTileLoaderJob) {
             final JCSCachedTileLoaderJob<?, ?> jcsJob = (JCSCachedTileLoaderJob<?, ?>) job;
             getSemaphore(jcsJob).acquire();
-            jcsJob.setFinishedTask(() -> releaseSemaphore(jcsJob));
+            jobStarted(jcsJob);
         }
     }
 
-    private boolean tryAcquireSemaphore(final JCSCachedTileLoaderJob<?, ?> job) {
-        boolean ret = true;
-        Semaphore limit = getSemaphore(job);
-        if (limit != null) {
-            ret = limit.tryAcquire();
-            if (ret) {
-                job.setFinishedTask(() -> releaseSemaphore(job));
-            }
-        }
-        return ret;
-    }
-
     private boolean tryAcquireSemaphore(Runnable job, long timeout, TimeUnit unit) throws InterruptedException {
         boolean ret = true;
         if (job instanceof JCSCachedTileLoaderJob) {
@@ -160,7 +353,7 @@ public class HostLimitQueue extends LinkedBlockingDeque<Runnable> {
             if (limit != null) {
                 ret = limit.tryAcquire(timeout, unit);
                 if (ret) {
-                    jcsJob.setFinishedTask(() -> releaseSemaphore(jcsJob));
+                    jobStarted(jcsJob);
                 }
             }
         }
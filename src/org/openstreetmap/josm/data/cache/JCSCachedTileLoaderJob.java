@@ -93,6 +93,7 @@ public abstract class JCSCachedTileLoaderJob<K, V extends CacheEntry> implements
     private Runnable finishTask;
     private boolean force;
     private final long minimumExpiryTime;
+    private volatile long enqueueTime;
 
     /**
      * @param cache cache instance that we will work on
@@ -159,10 +160,39 @@ public abstract class JCSCachedTileLoaderJob<K, V extends CacheEntry> implements
         if (first || force) {
             // submit all jobs to separate thread, so calling thread is not blocked with IO when loading from disk
             Logging.debug("JCS - Submitting job for execution for url: {0}", getUrlNoException());
+            enqueueTime = System.nanoTime();
             downloadJobExecutor.execute(this);
         }
     }
 
+    /**
+     * Returns the download priority of this job. When several jobs are waiting for execution in a
+     * {@link HostLimitQueue}, the one with the lowest value is executed first.
+     * @return the download priority of this job, {@code 0} by default
+     * @since xxx
+     */
+    public double getPriority() {
+        return 0;
+    }
+
+    /**
+     * Determines if the result of this job is not needed anymore, for instance because the tile scrolled out of view.
+     * Stale jobs waiting in a {@link HostLimitQueue} are canceled instead of being executed.
+     * @return {@code true} if this job does not need to be executed anymore, {@code false} by default
+     * @since xxx
+     */
+    public boolean isStale() {
+        return false;
+    }
+
+    /**
+     * Returns the time this job has been submitted to the download executor.
+     * @return the value of {@link System#nanoTime()} when the job was submitted, or {@code 0} if unknown
+     */
+    long getEnqueueTime() {
+        return enqueueTime;
+    }
+
     /**
      * This method is run when job has finished
      */
@@ -0,0 +1,187 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.cache;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.spi.ImageReaderSpi;
+import javax.imageio.stream.ImageInputStream;
+
+import org.openstreetmap.josm.data.preferences.IntegerProperty;
+import org.openstreetmap.josm.tools.Logging;
+import org.openstreetmap.josm.tools.Utils;
+
+/**
+ * Decodes tile images.
+ * <p>
+ * Compared to {@link ImageIO#read}, image readers are reused by each decoding thread instead of being looked up and
+ * created for each tile, images are decoded directly into a pixel format which can be drawn without conversion whenever
+ * the reader supports it, and can be subsampled while decoding when tiles are displayed smaller than their native size.
+ * <p>
+ * Decoding is done in a dedicated bounded pool, see {@link #getExecutor()}, so that it neither blocks the download
+ * threads nor the Event Dispatch Thread.
+ * @since xxx
+ */
+public final class TileImageDecoder {
+
+    /** Number of threads used to decode tile images */
+    public static final IntegerProperty THREADS = new IntegerProperty("imagery.decode.threads",
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
+    /** Maximum number of tile images waiting to be decoded. When full, images are decoded by the submitting thread */
+    private static final int QUEUE_SIZE = 256;
+
+    /** Destination types that Java2D draws without conversion, in order of preference */
+    private static final int[] PREFERRED_TYPES = {
+            BufferedImage.TYPE_INT_ARGB_PRE, BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB};
+
+    /** Image readers, per thread and per format, reused between tiles */
+    private static final ThreadLocal<Map<ImageReaderSpi, ImageReader>> READERS = ThreadLocal.withInitial(HashMap::new);
+
+    /** Subsampling used to decode images, when greater than 1 */
+    private static final Map<BufferedImage, Integer> SUBSAMPLING = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static ThreadPoolExecutor executor;
+
+    private TileImageDecoder() {
+        // Hide default constructor for utilities classes
+    }
+
+    /**
+     * Returns the executor used to decode tile images.
+     * @return the executor used to decode tile images
+     */
+    public static synchronized Executor getExecutor() {
+        if (executor == null) {
+            int threads = Math.max(1, THREADS.get());
+            executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(QUEUE_SIZE),
+                    Utils.newThreadFactory("tile-decoder-%d", Thread.NORM_PRIORITY),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    /**
+     * Returns the subsampling to apply to tiles displayed at the given scale.
+     * @param scale number of screen pixels per tile pixel, in each direction
+     * @return the greatest power of two such that the tile is not displayed with less screen pixels than decoded pixels
+     */
+    public static int getSubsampling(double scale) {
+        if (!(scale > 0) || scale >= 0.5) {
+            return 1;
+        }
+        return Integer.highestOneBit((int) Math.min(1 / scale, 1 << 16));
+    }
+
+    /**
+     * Returns the subsampling that has been used to decode an image.
+     * @param image image returned by {@link #decode}
+     * @return subsampling used to decode the image, {@code 1} if it has been decoded at full resolution
+     */
+    public static int getSubsampling(BufferedImage image) {
+        Integer subsampling = image == null ? null : SUBSAMPLING.get(image);
+        return subsampling == null ? 1 : subsampling;
+    }
+
+    /**
+     * Decodes an image.
+     * @param content encoded image
+     * @param subsampling decode only one pixel out of {@code subsampling} in each direction
+     * @return decoded image, or {@code null} if no image reader can decode it
+     * @throws IOException if an error occurs during reading
+     */
+    public static BufferedImage decode(byte[] content, int subsampling) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+            ImageReader reader = in != null ? getReader(in) : null;
+            if (reader == null) {
+                return null;
+            }
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                ImageTypeSpecifier type = getPreferredType(reader);
+                if (type != null) {
+                    param.setDestinationType(type);
+                }
+                BufferedImage image = reader.read(0, param);
+                reader.setInput(null);
+                if (subsampling > 1) {
+                    SUBSAMPLING.put(image, subsampling);
+                }
+                return image;
+            } catch (IOException | RuntimeException e) {
+                // the reader might be left in an inconsistent state, do not reuse it
+                Logging.trace(e);
+                READERS.get().remove(reader.getOriginatingProvider());
+                reader.dispose();
+            }
+        }
+        return ImageIO.read(new ByteArrayInputStream(content));
+    }
+
+    private static ImageReader getReader(ImageInputStream in) throws IOException {
+        Map<ImageReaderSpi, ImageReader> readers = READERS.get();
+        for (Map.Entry<ImageReaderSpi, ImageReader> e : readers.entrySet()) {
+            if (canDecode(e.getKey(), in)) {
+                return e.getValue();
+            }
+        }
+        Iterator<ImageReader> it = ImageIO.getImageReaders(in);
+        if (it.hasNext()) {
+            ImageReader reader = it.next();
+            if (reader.getOriginatingProvider() != null) {
+                readers.put(reader.getOriginatingProvider(), reader);
+            }
+            return reader;
+        }
+        return null;
+    }
+
+    private static boolean canDecode(ImageReaderSpi spi, ImageInputStream in) throws IOException {
+        in.mark();
+        try {
+            return spi.canDecodeInput(in);
+        } catch (IOException e) {
+            // like ImageIO, consider that the reader cannot decode truncated content
+            Logging.trace(e);
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+
+    private static ImageTypeSpecifier getPreferredType(ImageReader reader) throws IOException {
+        ImageTypeSpecifier best = null;
+        int bestRank = PREFERRED_TYPES.length;
+        for (Iterator<ImageTypeSpecifier> it = reader.getImageTypes(0); it.hasNext();) {
+            ImageTypeSpecifier type = it.next();
+            for (int i = 0; i < bestRank; i++) {
+                if (type.getBufferedImageType() == PREFERRED_TYPES[i]) {
+                    best = type;
+                    bestRank = i;
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+}
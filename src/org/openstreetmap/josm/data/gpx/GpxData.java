@@ -20,6 +20,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import org.openstreetmap.josm.data.Bounds;
@@ -721,8 +723,7 @@ public class GpxData extends WithAttributes implements Data {
      */
     public static Date[] getMinMaxTimeForTrack(IGpxTrack trk) {
         final LongSummaryStatistics statistics = trk.getSegments().stream()
-                .flatMap(seg -> seg.getWayPoints().stream())
-                .mapToLong(WayPoint::getTimeInMillis)
+                .flatMapToLong(GpxData::getTimesInMillis)
                 .summaryStatistics();
         return statistics.getCount() == 0 || (statistics.getMin() == 0 && statistics.getMax() == 0)
                 ? null
@@ -740,8 +741,7 @@ public class GpxData extends WithAttributes implements Data {
         long now = System.currentTimeMillis();
         final LongSummaryStatistics statistics = tracks.stream()
                 .flatMap(trk -> trk.getSegments().stream())
-                .flatMap(seg -> seg.getWayPoints().stream())
-                .mapToLong(WayPoint::getTimeInMillis)
+                .flatMapToLong(GpxData::getTimesInMillis)
                 .filter(t -> t > 0 && t <= now)
                 .summaryStatistics();
         return statistics.getCount() == 0
@@ -749,6 +749,34 @@ public class GpxData extends WithAttributes implements Data {
                 : new Date[]{new Date(statistics.getMin()), new Date(statistics.getMax())};
     }
 
+    private static GpxTrackPoints getCompactTrackPoints(IGpxTrackSegment seg) {
+        return seg instanceof GpxTrackSegment ? ((GpxTrackSegment) seg).getTrackPoints() : null;
+    }
+
+    /**
+     * Returns the times of the points of a segment, without creating the way points of compact segments.
+     * @param seg track segment
+     * @return the times of the points in milliseconds since the epoch, {@code 0} for points without time
+     */
+    private static LongStream getTimesInMillis(IGpxTrackSegment seg) {
+        GpxTrackPoints points = getCompactTrackPoints(seg);
+        return points != null
+                ? IntStream.range(0, points.size()).mapToLong(points::getTimeInMillis)
+                : seg.getWayPoints().stream().mapToLong(WayPoint::getTimeInMillis);
+    }
+
+    /**
+     * Returns the time of a point, given by index either in the compact storage of a segment or in its way points.
+     * @return the time of the point in seconds since the epoch, {@code NaN} if the point has no time
+     */
+    private static double getTime(GpxTrackPoints points, List<WayPoint> wps, int index) {
+        if (points != null) {
+            return points.hasTime(index) ? points.getTimeInMillis(index) / 1000. : Double.NaN;
+        }
+        WayPoint wp = wps.get(index);
+        return wp.hasDate() ? wp.getTime() : Double.NaN;
+    }
+
     /**
      * Makes a WayPoint at the projection of point p onto the track providing p is less than
      * tolerance away from the track
@@ -790,11 +818,20 @@ public class GpxData extends WithAttributes implements Data {
         double rx = 0.0, ry = 0.0, sx, sy, x, y;
         for (IGpxTrack track : privateTracks) {
             for (IGpxTrackSegment seg : track.getSegments()) {
-                WayPoint r = null;
-                for (WayPoint wpSeg : seg.getWayPoints()) {
-                    EastNorth en = wpSeg.getEastNorth(ProjectionRegistry.getProjection());
-                    if (r == null) {
-                        r = wpSeg;
+                // index-based access, to avoid creating the way points of compact segments
+                GpxTrackPoints points = getCompactTrackPoints(seg);
+                List<WayPoint> wps = points != null ? null : new ArrayList<>(seg.getWayPoints());
+                int size = points != null ? points.size() : wps.size();
+                boolean first = true;
+                double rTime = Double.NaN;
+                for (int i = 0; i < size; i++) {
+                    EastNorth en = points != null
+                            ? points.getEastNorth(i, ProjectionRegistry.getProjection())
+                            : wps.get(i).getEastNorth(ProjectionRegistry.getProjection());
+                    double sTime = getTime(points, wps, i);
+                    if (first) {
+                        first = false;
+                        rTime = sTime;
                         rx = en.east();
                         ry = en.north();
                         x = px - rx;
@@ -803,8 +840,8 @@ public class GpxData extends WithAttributes implements Data {
                         if (pRsq < pnminsq) {
                             pnminsq = pRsq;
                             bestEN = en;
-                            if (r.hasDate()) {
-                                bestTime = r.getTime();
+                            if (!Double.isNaN(rTime)) {
+                                bestTime = rTime;
                             }
                         }
                     } else {
@@ -831,30 +868,27 @@ public class GpxData extends WithAttributes implements Data {
                                 double nx = rx - rnoverRS * b;
                                 double ny = ry + rnoverRS * a;
                                 bestEN = new EastNorth(nx, ny);
-                                if (r.hasDate() && wpSeg.hasDate()) {
-                                    bestTime = r.getTime() + rnoverRS * (wpSeg.getTime() - r.getTime());
+                                if (!Double.isNaN(rTime) && !Double.isNaN(sTime)) {
+                                    bestTime = rTime + rnoverRS * (sTime - rTime);
                                 }
                                 pnminsq = pnsq;
                             }
                         }
-                        r = wpSeg;
+                        rTime = sTime;
                         rx = sx;
                         ry = sy;
                     }
                 }
-                if (r != null) {
-                    EastNorth c = r.getEastNorth(ProjectionRegistry.getProjection());
+                if (!first) {
                     /* if there is only one point in the seg, it will do this twice, but no matter */
-                    rx = c.east();
-                    ry = c.north();
                     x = px - rx;
                     y = py - ry;
                     double prsq = x * x + y * y;
                     if (prsq < pnminsq) {
                         pnminsq = prsq;
-                        bestEN = c;
-                        if (r.hasDate()) {
-                            bestTime = r.getTime();
+                        bestEN = new EastNorth(rx, ry);
+                        if (!Double.isNaN(rTime)) {
+                            bestTime = rTime;
                         }
                     }
                 }
@@ -886,7 +920,16 @@ public class GpxData extends WithAttributes implements Data {
      */
     public synchronized void resetEastNorthCache() {
         privateWaypoints.forEach(WayPoint::invalidateEastNorthCache);
-        getTrackPoints().forEach(WayPoint::invalidateEastNorthCache);
+        for (IGpxTrack track : getTracks()) {
+            for (IGpxTrackSegment seg : track.getSegments()) {
+                GpxTrackPoints points = getCompactTrackPoints(seg);
+                if (points != null) {
+                    points.invalidateEastNorthCache();
+                } else {
+                    seg.getWayPoints().forEach(WayPoint::invalidateEastNorthCache);
+                }
+            }
+        }
         for (GpxRoute route: getRoutes()) {
             if (route.routePoints == null) {
                 continue;
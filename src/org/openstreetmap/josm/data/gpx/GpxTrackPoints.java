@@ -0,0 +1,471 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.gpx;
+
+import java.awt.Color;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+import org.openstreetmap.josm.data.Bounds;
+import org.openstreetmap.josm.data.coor.EastNorth;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.projection.Projecting;
+
+/**
+ * Compact storage of the points of a track segment.
+ * <p>
+ * Coordinates, elevations and times are stored in parallel arrays of primitive values. Other attributes and extensions,
+ * which are rare in track logs, are only stored for the points which have them. Code iterating over many points, such as
+ * drawing, should use the index-based accessors, which do not create {@link WayPoint} objects.
+ * <p>
+ * The way points are only created once, when the list returned by {@link #asWayPoints()} is first accessed. From then on,
+ * they are the reference: the index-based accessors read them, so that their modifications are not lost.
+ * <p>
+ * Like {@link WayPoint}, the columns also hold the drawing state of the points and a cache of their projected coordinates.
+ * @since xxx
+ */
+public final class GpxTrackPoints {
+
+    private final double[] lat;
+    private final double[] lon;
+    /** elevation, {@code NaN} if not set or if stored in {@link #attributes} */
+    private final double[] ele;
+    /** elevations which were written as integers in the {@code ele} attribute */
+    private final BitSet integerEle;
+    /** time in milliseconds since the epoch, {@link Long#MIN_VALUE} if not set */
+    private final long[] time;
+    /** other attributes, only for points that have them */
+    private final Map<Integer, Map<String, Object>> attributes;
+    /** extensions, only for points that have them */
+    private final Map<Integer, List<GpxExtension>> extensions;
+
+    /** drawing state, see {@link WayPoint#customColoring}, {@link WayPoint#drawLine} and {@link WayPoint#dir} */
+    private Color[] customColoring;
+    private final BitSet drawLine = new BitSet();
+    private byte[] dir;
+
+    /** cache of projected coordinates, see {@link #getEastNorth(int, Projecting)} */
+    private double[] east;
+    private double[] north;
+    private Object eastNorthCacheKey;
+
+    /** way points, created on first access, see {@link #asWayPoints()} */
+    private volatile WayPoint[] wayPoints;
+
+    private GpxTrackPoints(Builder builder) {
+        int size = builder.size;
+        this.lat = Arrays.copyOf(builder.lat, size);
+        this.lon = Arrays.copyOf(builder.lon, size);
+        this.ele = Arrays.copyOf(builder.ele, size);
+        this.time = Arrays.copyOf(builder.time, size);
+        this.integerEle = (BitSet) builder.integerEle.clone();
+        this.attributes = builder.attributes.isEmpty() ? Collections.emptyMap() : new HashMap<>(builder.attributes);
+        this.extensions = builder.extensions.isEmpty() ? Collections.emptyMap() : new HashMap<>(builder.extensions);
+    }
+
+    /**
+     * Returns the number of points.
+     * @return the number of points
+     */
+    public int size() {
+        return lat.length;
+    }
+
+    /**
+     * Returns the latitude of a point.
+     * @param index index of the point
+     * @return the latitude of the point
+     */
+    public double lat(int index) {
+        WayPoint[] wpts = wayPoints;
+        return wpts != null ? wpts[index].lat() : lat[index];
+    }
+
+    /**
+     * Returns the longitude of a point.
+     * @param index index of the point
+     * @return the longitude of the point
+     */
+    public double lon(int index) {
+        WayPoint[] wpts = wayPoints;
+        return wpts != null ? wpts[index].lon() : lon[index];
+    }
+
+    /**
+     * Determines if a point has a time.
+     * @param index index of the point
+     * @return {@code true} if the point has a time
+     */
+    public boolean hasTime(int index) {
+        WayPoint[] wpts = wayPoints;
+        return wpts != null ? wpts[index].hasDate() : time[index] != Long.MIN_VALUE;
+    }
+
+    /**
+     * Returns the time of a point.
+     * @param index index of the point
+     * @return the time of the point in milliseconds since the epoch, {@code 0} if the point has no time
+     */
+    public long getTimeInMillis(int index) {
+        WayPoint[] wpts = wayPoints;
+        if (wpts != null) {
+            return wpts[index].getTimeInMillis();
+        }
+        return hasTime(index) ? time[index] : 0;
+    }
+
+    /**
+     * Determines if the line before a point is drawn, see {@link WayPoint#drawLine}.
+     * @param index index of the point
+     * @return {@code true} if the line before the point is drawn
+     */
+    public boolean isDrawLine(int index) {
+        WayPoint[] wpts = wayPoints;
+        return wpts != null ? wpts[index].drawLine : drawLine.get(index);
+    }
+
+    /**
+     * Stores the drawing state of a point, which is given by a way point created by {@link #getWayPoint(int)}.
+     * @param index index of the point
+     * @param wpt way point holding the drawing state of the point
+     * @see WayPoint#customColoring
+     * @see WayPoint#drawLine
+     * @see WayPoint#dir
+     */
+    public void setDrawState(int index, WayPoint wpt) {
+        WayPoint[] wpts = wayPoints;
+        if (wpts != null) {
+            if (wpts[index] != wpt) {
+                wpts[index].customColoring = wpt.customColoring;
+                wpts[index].drawLine = wpt.drawLine;
+                wpts[index].dir = wpt.dir;
+            }
+            return;
+        }
+        if (customColoring == null) {
+            customColoring = new Color[lat.length];
+            dir = new byte[lat.length];
+        }
+        customColoring[index] = wpt.customColoring;
+        drawLine.set(index, wpt.drawLine);
+        dir[index] = (byte) wpt.dir;
+    }
+
+    /**
+     * Returns the projected coordinates of a point. They are cached, like those of {@link WayPoint}.
+     * @param index index of the point
+     * @param projecting the projection to use
+     * @return the projected coordinates of the point
+     */
+    public EastNorth getEastNorth(int index, Projecting projecting) {
+        WayPoint[] wpts = wayPoints;
+        if (wpts != null) {
+            return wpts[index].getEastNorth(projecting);
+        }
+        Object newCacheKey = projecting.getCacheKey();
+        if (east == null || !Objects.equals(newCacheKey, eastNorthCacheKey)) {
+            if (east == null) {
+                east = new double[lat.length];
+                north = new double[lat.length];
+            }
+            Arrays.fill(east, Double.NaN);
+            Arrays.fill(north, Double.NaN);
+            eastNorthCacheKey = newCacheKey;
+        }
+        if (Double.isNaN(east[index]) || Double.isNaN(north[index])) {
+            EastNorth en = projecting.latlon2eastNorth(new LatLon(lat[index], lon[index]));
+            east[index] = en.east();
+            north[index] = en.north();
+        }
+        return new EastNorth(east[index], north[index]);
+    }
+
+    /**
+     * Invalidates the cache of projected coordinates.
+     */
+    public void invalidateEastNorthCache() {
+        WayPoint[] wpts = wayPoints;
+        if (wpts != null) {
+            for (WayPoint wpt : wpts) {
+                wpt.invalidateEastNorthCache();
+            }
+        }
+        east = null;
+        north = null;
+        eastNorthCacheKey = null;
+    }
+
+    /**
+     * Returns the bounds of the points.
+     * @return the bounds of the points, or {@code null} if there is no point
+     */
+    public Bounds getBounds() {
+        Bounds result = null;
+        for (int i = 0; i < lat.length; i++) {
+            if (result == null) {
+                result = new Bounds(lat[i], lon[i], true);
+            } else {
+                result.extend(lat[i], lon[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the length of the track formed by the points.
+     * @return the length of the track in meters
+     */
+    public double length() {
+        double result = 0.0;
+        LatLon last = null;
+        for (int i = 0; i < lat.length; i++) {
+            LatLon current = new LatLon(lat[i], lon[i]);
+            if (last != null) {
+                double d = last.greatCircleDistance(current);
+                if (!Double.isNaN(d) && !Double.isInfinite(d)) {
+                    result += d;
+                }
+            }
+            last = current;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the way point of a point. If the way points have not been created yet, see {@link #asWayPoints()},
+     * a new way point is returned, whose modifications are not stored except for its drawing state,
+     * see {@link #setDrawState(int, WayPoint)}.
+     * @param index index of the point
+     * @return the way point, with the attributes, extensions, drawing state and cached projected coordinates of the point
+     */
+    public WayPoint getWayPoint(int index) {
+        WayPoint[] wpts = wayPoints;
+        return wpts != null ? wpts[index] : createWayPoint(index);
+    }
+
+    private WayPoint createWayPoint(int index) {
+        WayPoint wpt = new WayPoint(new LatLon(lat[index], lon[index]));
+        Map<String, Object> attr = attributes.get(index);
+        if (attr != null) {
+            wpt.attr.putAll(attr);
+        }
+        if (!Double.isNaN(ele[index])) {
+            wpt.attr.put(GpxConstants.PT_ELE, integerEle.get(index)
+                    ? Long.toString((long) ele[index])
+                    : Double.toString(ele[index]));
+        }
+        if (hasTime(index)) {
+            wpt.setTimeInMillis(time[index]);
+        }
+        List<GpxExtension> exts = extensions.get(index);
+        if (exts != null) {
+            wpt.getExtensions().addAll(exts);
+        }
+        if (customColoring != null) {
+            wpt.customColoring = customColoring[index];
+            wpt.drawLine = drawLine.get(index);
+            wpt.dir = dir[index];
+        }
+        if (east != null && !Double.isNaN(east[index]) && !Double.isNaN(north[index])) {
+            wpt.setEastNorthCache(east[index], north[index], eastNorthCacheKey);
+        }
+        return wpt;
+    }
+
+    private WayPoint[] getWayPointArray() {
+        WayPoint[] result = wayPoints;
+        if (result == null) {
+            synchronized (this) {
+                result = wayPoints;
+                if (result == null) {
+                    result = new WayPoint[lat.length];
+                    for (int i = 0; i < result.length; i++) {
+                        result[i] = createWayPoint(i);
+                    }
+                    wayPoints = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns an unmodifiable list of the way points. They are created on first access to an element of the list,
+     * and kept from then on.
+     * @return an unmodifiable list of the way points
+     */
+    public List<WayPoint> asWayPoints() {
+        return new WayPointList();
+    }
+
+    /**
+     * Returns an iterator over the points which does not create the way points if they have not been created yet.
+     * @return an iterator over the points
+     * @see #getWayPoint(int)
+     */
+    public Iterator<WayPoint> iterator() {
+        return IntStream.range(0, lat.length).mapToObj(this::getWayPoint).iterator();
+    }
+
+    /**
+     * Unmodifiable list of the way points, see {@link #asWayPoints()}.
+     */
+    final class WayPointList extends AbstractList<WayPoint> implements RandomAccess {
+        @Override
+        public WayPoint get(int index) {
+            return getWayPointArray()[index];
+        }
+
+        @Override
+        public int size() {
+            return lat.length;
+        }
+
+        GpxTrackPoints getTrackPoints() {
+            return GpxTrackPoints.this;
+        }
+    }
+
+    /**
+     * Builder of {@link GpxTrackPoints}, to which points are added one after the other.
+     * The attributes of the last point added can be set until the next one is added.
+     */
+    public static final class Builder {
+        private int size;
+        private double[] lat = new double[16];
+        private double[] lon = new double[16];
+        private double[] ele = new double[16];
+        private long[] time = new long[16];
+        private final BitSet integerEle = new BitSet();
+        private final Map<Integer, Map<String, Object>> attributes = new HashMap<>();
+        private final Map<Integer, List<GpxExtension>> extensions = new HashMap<>();
+
+        /**
+         * Returns the number of points added so far.
+         * @return the number of points added so far
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Adds a point, without elevation, time nor other attributes.
+         * @param latitude latitude of the point
+         * @param longitude longitude of the point
+         * @return {@code this}
+         */
+        public Builder add(double latitude, double longitude) {
+            ensureCapacity();
+            int index = size++;
+            lat[index] = latitude;
+            lon[index] = longitude;
+            ele[index] = Double.NaN;
+            time[index] = Long.MIN_VALUE;
+            return this;
+        }
+
+        /**
+         * Adds a point. The way point itself is not kept.
+         * @param wpt way point
+         * @return {@code this}
+         */
+        public Builder add(WayPoint wpt) {
+            add(wpt.lat(), wpt.lon());
+            for (Map.Entry<String, Object> e : wpt.attr.entrySet()) {
+                put(e.getKey(), e.getValue());
+            }
+            if (wpt.hasExtensions()) {
+                extensions.put(size - 1, new ArrayList<>(wpt.getExtensions()));
+            }
+            return this;
+        }
+
+        /**
+         * Sets an attribute of the last point added. The time and the elevation are stored as numbers if possible.
+         * @param key attribute key
+         * @param value attribute value
+         */
+        public void put(String key, Object value) {
+            int index = size - 1;
+            if (GpxConstants.PT_TIME.equals(key) && value instanceof Date) {
+                time[index] = ((Date) value).getTime();
+            } else if (!(GpxConstants.PT_ELE.equals(key) && value instanceof String && setElevation(index, (String) value))) {
+                getAttributes().put(key, value);
+            }
+        }
+
+        /**
+         * Sets the time of the last point added.
+         * @param millis time in milliseconds since the epoch
+         */
+        public void setTimeInMillis(long millis) {
+            time[size - 1] = millis;
+        }
+
+        /**
+         * Determines if the last point added has attributes other than its elevation and time.
+         * @return {@code true} if the last point added has other attributes
+         */
+        public boolean hasAttributes() {
+            return attributes.containsKey(size - 1);
+        }
+
+        /**
+         * Returns the attributes of the last point added, other than its elevation and time.
+         * @return the modifiable attributes of the last point added, created if needed
+         */
+        public Map<String, Object> getAttributes() {
+            return attributes.computeIfAbsent(size - 1, i -> new HashMap<>(4));
+        }
+
+        /**
+         * Stores the elevation as a number, if it can be written back exactly as it has been read.
+         */
+        private boolean setElevation(int index, String value) {
+            try {
+                double d = Double.parseDouble(value);
+                if (Double.toString(d).equals(value)) {
+                    ele[index] = d;
+                    integerEle.clear(index);
+                    return true;
+                } else if (d == Math.rint(d) && Math.abs(d) < 1e15 && Long.toString((long) d).equals(value)) {
+                    ele[index] = d;
+                    integerEle.set(index);
+                    return true;
+                }
+            } catch (NumberFormatException e) {
+                // keep the value as attribute
+                return false;
+            }
+            return false;
+        }
+
+        private void ensureCapacity() {
+            if (size == lat.length) {
+                int capacity = lat.length * 2;
+                lat = Arrays.copyOf(lat, capacity);
+                lon = Arrays.copyOf(lon, capacity);
+                ele = Arrays.copyOf(ele, capacity);
+                time = Arrays.copyOf(time, capacity);
+            }
+        }
+
+        /**
+         * Builds the compact storage of the points added so far.
+         * @return the compact storage of the points
+         */
+        public GpxTrackPoints build() {
+            return new GpxTrackPoints(this);
+        }
+    }
+}
@@ -29,6 +29,36 @@ public class GpxTrackSegment extends WithAttributes implements IGpxTrackSegment
         this.length = calculateLength();
     }
 
+    /**
+     * Constructs a new {@code GpxTrackSegment} from the compact storage of its points.
+     * The {@link WayPoint} objects are only created when they are first requested, see {@link GpxTrackPoints#asWayPoints()}.
+     * @param points the segment points
+     * @since xxx
+     */
+    public GpxTrackSegment(GpxTrackPoints points) {
+        this.wayPoints = points.asWayPoints();
+        this.bounds = points.getBounds();
+        this.length = points.length();
+    }
+
+    /**
+     * Returns the compact storage of the points of this segment, for index-based access without creating way points.
+     * @return the compact storage of the points, or {@code null} if this segment has been created from way points
+     * @since xxx
+     */
+    public GpxTrackPoints getTrackPoints() {
+        return wayPoints instanceof GpxTrackPoints.WayPointList ? ((GpxTrackPoints.WayPointList) wayPoints).getTrackPoints() : null;
+    }
+
+    /**
+     * Returns the number of points of this segment, without creating the way points.
+     * @return the number of points of this segment
+     * @since xxx
+     */
+    public int getWayPointCount() {
+        return wayPoints.size();
+    }
+
     private Bounds calculateBounds() {
         Bounds result = null;
         for (WayPoint wpt: wayPoints) {
@@ -6,6 +6,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.IntStream;
 
 /**
  * Line represents a linear collection of GPX waypoints with the ordered/unordered distinction.
@@ -13,6 +14,7 @@ import java.util.Objects;
  */
 public class Line implements Collection<WayPoint> {
     private final Collection<WayPoint> waypoints;
+    private final GpxTrackPoints trackPoints;
     private final boolean unordered;
     private final Color color;
 
@@ -24,9 +26,16 @@ public class Line implements Collection<WayPoint> {
      * @since 15496
      */
     public Line(Collection<WayPoint> waypoints, Map<String, Object> attributes, Color color) {
+        this(waypoints, null, attributes, color);
+    }
+
+    private Line(Collection<WayPoint> waypoints, GpxTrackPoints trackPoints, Map<String, Object> attributes, Color color) {
         this.color = color;
         this.waypoints = Objects.requireNonNull(waypoints);
-        unordered = attributes.isEmpty() && waypoints.stream().allMatch(x -> x.get(GpxConstants.PT_TIME) == null);
+        this.trackPoints = trackPoints;
+        unordered = attributes.isEmpty() && (trackPoints != null
+                ? IntStream.range(0, trackPoints.size()).noneMatch(trackPoints::hasTime)
+                : waypoints.stream().allMatch(x -> x.get(GpxConstants.PT_TIME) == null));
     }
 
     /**
@@ -37,7 +46,8 @@ public class Line implements Collection<WayPoint> {
      * @since 15496
      */
     public Line(IGpxTrackSegment trackSegment, Map<String, Object> trackAttributes, Color color) {
-        this(trackSegment.getWayPoints(), trackAttributes, color);
+        this(trackSegment.getWayPoints(), trackSegment instanceof GpxTrackSegment ? ((GpxTrackSegment) trackSegment).getTrackPoints() : null,
+                trackAttributes, color);
     }
 
     /**
@@ -56,6 +66,16 @@ public class Line implements Collection<WayPoint> {
         return unordered;
     }
 
+    /**
+     * Returns the compact storage of the waypoints, for index-based access without creating way points.
+     * @return the compact storage of the waypoints, or {@code null} if this line is not backed by one
+     * @see GpxTrackSegment#getTrackPoints()
+     * @since xxx
+     */
+    public GpxTrackPoints getTrackPoints() {
+        return trackPoints;
+    }
+
     /**
      * Returns the track/route color
      * @return the color
@@ -80,9 +100,15 @@ public class Line implements Collection<WayPoint> {
         return waypoints.contains(o);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If this line is backed by {@link GpxTrackPoints}, the way points are not created by the iteration,
+     * see {@link GpxTrackPoints#iterator()}.
+     */
     @Override
     public Iterator<WayPoint> iterator() {
-        return waypoints.iterator();
+        return trackPoints != null ? trackPoints.iterator() : waypoints.iterator();
     }
 
     @Override
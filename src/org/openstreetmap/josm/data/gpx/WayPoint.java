@@ -96,6 +96,18 @@ public class WayPoint extends WithAttributes implements Comparable<WayPoint>, Te
         this.north = Double.NaN;
     }
 
+    /**
+     * Sets the internal cache of east/north coordinates.
+     * @param east cached east coordinate
+     * @param north cached north coordinate
+     * @param cacheKey cache key of the projection used
+     */
+    void setEastNorthCache(double east, double north, Object cacheKey) {
+        this.east = east;
+        this.north = north;
+        this.eastNorthCacheKey = cacheKey;
+    }
+
     /**
      * Returns the waypoint coordinates.
      * @return the waypoint coordinates
@@ -22,9 +22,9 @@ public class WithAttributes implements IWithAttributes, GpxConstants {
     public Map<String, Object> attr = new HashMap<>(0);
 
     /**
-     * The "exts" collection contains all extensions.
+     * The "exts" collection contains all extensions. Created on first access, as most GPX points have no extension.
      */
-    private final GpxExtensionCollection exts = new GpxExtensionCollection(this);
+    private GpxExtensionCollection exts;
 
     /**
      * Returns the Object value to which the specified key is mapped,
@@ -87,12 +87,25 @@ public class WithAttributes implements IWithAttributes, GpxConstants {
 
     @Override
     public GpxExtensionCollection getExtensions() {
-        return exts;
+        GpxExtensionCollection result = exts;
+        if (result == null) {
+            result = new GpxExtensionCollection(this);
+            exts = result;
+        }
+        return result;
+    }
+
+    /**
+     * Determines if this object has extensions, without creating the extension collection.
+     * @return {@code true} if this object has at least one extension
+     */
+    boolean hasExtensions() {
+        return exts != null && !exts.isEmpty();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(attr, exts);
+        return Objects.hash(attr, hasExtensions() ? exts : null);
     }
 
     @Override
@@ -109,11 +122,9 @@ public class WithAttributes implements IWithAttributes, GpxConstants {
                 return false;
         } else if (!attr.equals(other.attr))
             return false;
-        if (exts == null) {
-            if (other.exts != null)
-                return false;
-        } else if (!exts.equals(other.exts))
-            return false;
-        return true;
+        if (!hasExtensions()) {
+            return !other.hasExtensions();
+        }
+        return exts.equals(other.exts);
     }
 }
@@ -13,6 +13,7 @@ import org.openstreetmap.gui.jmapviewer.interfaces.TileLoaderListener;
 import org.openstreetmap.gui.jmapviewer.interfaces.TileSource;
 import org.openstreetmap.josm.data.cache.BufferedImageCacheEntry;
 import org.openstreetmap.josm.data.cache.HostLimitQueue;
+import org.openstreetmap.josm.data.cache.TileImageDecoder;
 import org.openstreetmap.josm.data.preferences.IntegerProperty;
 import org.openstreetmap.josm.tools.CheckParameterUtil;
 import org.openstreetmap.josm.tools.Utils;
@@ -46,6 +47,9 @@ public class TMSCachedTileLoader implements TileLoader, CachedTileLoader {
 
     private ThreadPoolExecutor downloadExecutor = DEFAULT_DOWNLOAD_JOB_DISPATCHER;
     protected final TileJobOptions options;
+    private TileDownloadPriority downloadPriority;
+    private volatile int displayZoom;
+    private volatile double displayScale = 1;
 
     /**
      * Constructor
@@ -100,12 +104,15 @@ public class TMSCachedTileLoader implements TileLoader, CachedTileLoader {
 
     @Override
     public TileJob createTileLoaderJob(Tile tile) {
-        return new TMSCachedTileLoaderJob(
+        TMSCachedTileLoaderJob job = new TMSCachedTileLoaderJob(
                 listener,
                 tile,
                 cache,
                 options,
                 getDownloadExecutor());
+        job.setDownloadPriority(getDownloadPriority());
+        job.setDecodeSubsampling(getDecodeSubsampling(tile));
+        return job;
     }
 
     @Override
@@ -134,11 +141,82 @@ public class TMSCachedTileLoader implements TileLoader, CachedTileLoader {
         }
     }
 
+    /**
+     * cancels the outstanding tasks in the queue which became stale according to the {@link TileDownloadPriority}
+     * of their jobs. This rollbacks the state of these tiles to loading = false / loaded = false
+     * @since xxx
+     */
+    public void cancelStaleTasks() {
+        if (downloadExecutor.getQueue() instanceof HostLimitQueue) {
+            ((HostLimitQueue) downloadExecutor.getQueue()).dropStaleJobs();
+        } else {
+            for (Runnable r: downloadExecutor.getQueue()) {
+                if (r instanceof TMSCachedTileLoaderJob && ((TMSCachedTileLoaderJob) r).isStale() && downloadExecutor.remove(r)) {
+                    ((TMSCachedTileLoaderJob) r).handleJobCancellation();
+                }
+            }
+        }
+    }
+
     @Override
     public boolean hasOutstandingTasks() {
         return downloadExecutor.getTaskCount() > downloadExecutor.getCompletedTaskCount();
     }
 
+    /**
+     * Returns download queue statistics as string, one line per host.
+     * @return download queue statistics as string, or an empty string if the download executor does not use a {@link HostLimitQueue}
+     * @since xxx
+     */
+    public String getQueueStats() {
+        if (downloadExecutor.getQueue() instanceof HostLimitQueue) {
+            return ((HostLimitQueue) downloadExecutor.getQueue()).getStatistics();
+        }
+        return "";
+    }
+
+    /**
+     * Sets the priority given to the jobs created by this loader.
+     * Jobs with higher priority are downloaded first, and stale jobs are dropped from the download queue.
+     * @param downloadPriority download priority, or {@code null} to download tiles in submission order
+     * @since xxx
+     */
+    public void setDownloadPriority(TileDownloadPriority downloadPriority) {
+        this.downloadPriority = downloadPriority;
+    }
+
+    /**
+     * Returns the priority given to the jobs created by this loader.
+     * @return the priority given to the jobs created by this loader, can be {@code null}
+     * @since xxx
+     */
+    public TileDownloadPriority getDownloadPriority() {
+        return downloadPriority;
+    }
+
+    /**
+     * Sets the scale at which tiles are displayed, so that tiles displayed smaller than their native size are decoded
+     * with subsampling.
+     * @param zoom zoom level of the displayed tiles
+     * @param scale number of screen pixels per tile pixel at this zoom level, in each direction.
+     *        Use {@code 1} to always decode tiles at full resolution.
+     * @since xxx
+     */
+    public void setDisplayScale(int zoom, double scale) {
+        this.displayScale = scale;
+        this.displayZoom = zoom;
+    }
+
+    /**
+     * Returns the subsampling used to decode the image of a tile, according to the {@linkplain #setDisplayScale display scale}.
+     * @param tile tile
+     * @return decode only one pixel out of the returned value in each direction
+     * @since xxx
+     */
+    public int getDecodeSubsampling(Tile tile) {
+        return TileImageDecoder.getSubsampling(displayScale * Math.pow(2, (double) displayZoom - tile.getZoom()));
+    }
+
     /**
      * Sets the download executor that will be used to download tiles instead of default one.
      * You can use {@link #getNewThreadPoolExecutor} to create a new download executor with separate
@@ -3,7 +3,6 @@ package org.openstreetmap.josm.data.imagery;
 
 import static org.openstreetmap.josm.tools.I18n.tr;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.net.URL;
@@ -32,6 +31,7 @@ import org.openstreetmap.josm.data.cache.CacheEntry;
 import org.openstreetmap.josm.data.cache.CacheEntryAttributes;
 import org.openstreetmap.josm.data.cache.ICachedLoaderListener;
 import org.openstreetmap.josm.data.cache.JCSCachedTileLoaderJob;
+import org.openstreetmap.josm.data.cache.TileImageDecoder;
 import org.openstreetmap.josm.data.preferences.LongProperty;
 import org.openstreetmap.josm.tools.HttpClient;
 import org.openstreetmap.josm.tools.Logging;
@@ -54,6 +54,8 @@ public class TMSCachedTileLoaderJob extends JCSCachedTileLoaderJob<String, Buffe
     protected final Tile tile;
     private volatile URL url;
     private final TileJobOptions options;
+    private volatile TileDownloadPriority downloadPriority;
+    private volatile int decodeSubsampling = 1;
 
     // we need another deduplication of Tile Loader listeners, as for each submit, new TMSCachedTileLoaderJob was created
     // that way, we reduce calls to tileLoadingFinished, and general CPU load due to surplus Map repaints
@@ -113,6 +115,36 @@ public class TMSCachedTileLoaderJob extends JCSCachedTileLoaderJob<String, Buffe
         return url;
     }
 
+    /**
+     * Sets the priority used to order this job in the download queue, and to drop it when it becomes stale.
+     * @param downloadPriority download priority, can be {@code null}
+     * @since xxx
+     */
+    public void setDownloadPriority(TileDownloadPriority downloadPriority) {
+        this.downloadPriority = downloadPriority;
+    }
+
+    /**
+     * Sets the subsampling used to decode the tile image, when the tile is displayed smaller than its native size.
+     * @param decodeSubsampling decode only one pixel out of {@code decodeSubsampling} in each direction
+     * @since xxx
+     */
+    public void setDecodeSubsampling(int decodeSubsampling) {
+        this.decodeSubsampling = Math.max(1, decodeSubsampling);
+    }
+
+    @Override
+    public double getPriority() {
+        TileDownloadPriority priority = downloadPriority;
+        return priority != null ? priority.getPriority(tile) : super.getPriority();
+    }
+
+    @Override
+    public boolean isStale() {
+        TileDownloadPriority priority = downloadPriority;
+        return priority != null && priority.isStale(tile);
+    }
+
     @Override
     public boolean isObjectLoadable() {
         if (cacheData != null) {
@@ -159,6 +191,15 @@ public class TMSCachedTileLoaderJob extends JCSCachedTileLoaderJob<String, Buffe
     public void loadingFinished(CacheEntry object, CacheEntryAttributes attributes, LoadResult result) {
         this.attributes = attributes; // as we might get notification from other object than our selfs, pass attributes along
         Set<TileLoaderListener> listeners = inProgress.remove(getCacheKey());
+        if (result == LoadResult.CANCELED) {
+            finishTile(object, attributes, result, listeners);
+        } else {
+            // decode the image in a separate pool, so the download thread is available for the next tile
+            TileImageDecoder.getExecutor().execute(() -> finishTile(object, attributes, result, listeners));
+        }
+    }
+
+    private void finishTile(CacheEntry object, CacheEntryAttributes attributes, LoadResult result, Set<TileLoaderListener> listeners) {
         boolean status = result == LoadResult.SUCCESS;
 
         try {
@@ -293,8 +334,8 @@ public class TMSCachedTileLoaderJob extends JCSCachedTileLoaderJob<String, Buffe
         if (object != null) {
             byte[] content = object.getContent();
             if (content.length > 0) {
-                try (ByteArrayInputStream in = new ByteArrayInputStream(content)) {
-                    tile.loadImage(in);
+                try {
+                    tile.setImage(TileImageDecoder.decode(content, decodeSubsampling));
                     if (tile.getImage() == null) {
                         String s = new String(content, StandardCharsets.UTF_8);
                         Matcher m = SERVICE_EXCEPTION_PATTERN.matcher(s);
@@ -0,0 +1,116 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.imagery;
+
+import org.openstreetmap.gui.jmapviewer.Tile;
+
+/**
+ * Ranks tile download jobs according to the area currently displayed by a layer.
+ * <p>
+ * Tiles closest to the centre of the viewport are downloaded first, and tiles at the zoom level of the viewport come
+ * before tiles of other zoom levels. Tiles which do not intersect the viewport (extended by a small margin) anymore,
+ * or which have a higher zoom level than the viewport, are considered stale and are dropped from the download queue.
+ * <p>
+ * As long as no viewport is set, all tiles have the same priority and none is stale.
+ *
+ * @since xxx
+ */
+public class TileDownloadPriority {
+
+    /** Number of tiles around the viewport which are still worth downloading */
+    private static final int MARGIN = 2;
+
+    private static final class Viewport {
+        private final int zoom;
+        private final int minX;
+        private final int maxX;
+        private final int minY;
+        private final int maxY;
+
+        Viewport(int zoom, int minX, int maxX, int minY, int maxY) {
+            this.zoom = zoom;
+            this.minX = minX;
+            this.maxX = maxX;
+            this.minY = minY;
+            this.maxY = maxY;
+        }
+
+        boolean sameAs(int zoom, int minX, int maxX, int minY, int maxY) {
+            return this.zoom == zoom && this.minX == minX && this.maxX == maxX && this.minY == minY && this.maxY == maxY;
+        }
+    }
+
+    private volatile Viewport viewport;
+
+    /**
+     * Sets the displayed area, as a range of tiles.
+     * @param zoom zoom level of the displayed tiles
+     * @param minX minimum tile column (inclusive)
+     * @param maxX maximum tile column (inclusive)
+     * @param minY minimum tile row (inclusive)
+     * @param maxY maximum tile row (inclusive)
+     * @return {@code true} if the viewport changed
+     */
+    public boolean setViewport(int zoom, int minX, int maxX, int minY, int maxY) {
+        Viewport current = viewport;
+        if (current != null && current.sameAs(zoom, minX, maxX, minY, maxY)) {
+            return false;
+        }
+        viewport = new Viewport(zoom, minX, maxX, minY, maxY);
+        return true;
+    }
+
+    /**
+     * Forgets the displayed area, so all tiles get the same priority and none is stale.
+     */
+    public void clearViewport() {
+        viewport = null;
+    }
+
+    /**
+     * Returns the priority of a tile. Lower values are downloaded first.
+     * @param tile tile
+     * @return the distance, in tiles of the viewport zoom level, between the tile and the viewport centre,
+     *         plus one for each zoom level of difference
+     */
+    public double getPriority(Tile tile) {
+        Viewport v = viewport;
+        if (v == null) {
+            return 0;
+        }
+        double scale = Math.pow(2, (double) v.zoom - tile.getZoom());
+        double centreX = (v.minX + v.maxX + 1) / 2.0;
+        double centreY = (v.minY + v.maxY + 1) / 2.0;
+        double dx = distance(centreX, tile.getXtile() * scale, (tile.getXtile() + 1) * scale);
+        double dy = distance(centreY, tile.getYtile() * scale, (tile.getYtile() + 1) * scale);
+        return Math.sqrt(dx * dx + dy * dy) + Math.abs(v.zoom - tile.getZoom());
+    }
+
+    private static double distance(double value, double min, double max) {
+        if (value < min) {
+            return min - value;
+        } else if (value > max) {
+            return value - max;
+        }
+        return 0;
+    }
+
+    /**
+     * Determines if a tile is not worth downloading anymore.
+     * @param tile tile
+     * @return {@code true} if the tile has a higher zoom level than the viewport, or is outside of it
+     */
+    public boolean isStale(Tile tile) {
+        Viewport v = viewport;
+        if (v == null) {
+            return false;
+        }
+        if (tile.getZoom() > v.zoom) {
+            return true;
+        }
+        double scale = Math.pow(2, (double) v.zoom - tile.getZoom());
+        return (tile.getXtile() + 1) * scale <= v.minX - MARGIN
+            || tile.getXtile() * scale > v.maxX + MARGIN
+            || (tile.getYtile() + 1) * scale <= v.minY - MARGIN
+            || tile.getYtile() * scale > v.maxY + MARGIN;
+    }
+}
@@ -0,0 +1,399 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.imagery;
+
+import static org.openstreetmap.josm.tools.I18n.tr;
+
+import java.awt.geom.Area;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openstreetmap.gui.jmapviewer.Tile;
+import org.openstreetmap.gui.jmapviewer.TileXY;
+import org.openstreetmap.gui.jmapviewer.interfaces.ICoordinate;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileLoader;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileLoaderListener;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileSource;
+import org.openstreetmap.josm.data.preferences.IntegerProperty;
+import org.openstreetmap.josm.gui.progress.NullProgressMonitor;
+import org.openstreetmap.josm.gui.progress.ProgressMonitor;
+import org.openstreetmap.josm.tools.CheckParameterUtil;
+import org.openstreetmap.josm.tools.Logging;
+import org.openstreetmap.josm.tools.Utils;
+
+/**
+ * Downloads all tiles of a tile source covering an area for a range of zoom levels into the tile cache.
+ * <p>
+ * Tiles are enumerated once, in a deterministic order (zoom level, then columns, then rows), and are fetched through
+ * a regular {@link TileLoader}, so the usual JCS cache, expiry checks and {@code HostLimitQueue} per host limits apply.
+ * Tiles that are already cached and valid are served from cache without network access.
+ * <p>
+ * The number of tiles in flight is bounded and submission can be throttled to a given number of tiles per second.
+ * Seeding can be interrupted with {@link #cancel()} and continued later by calling {@link #run()} again: only tiles
+ * that have not been processed yet are submitted on the next run.
+ * <p>
+ * A {@link TMSCachedTileLoader} gets its own download executor, so that canceling the seeding does not drop the tiles
+ * requested by the map view. The threads of this executor are stopped by {@link #close()}.
+ *
+ * @since xxx
+ */
+public class TileSeeder implements TileLoaderListener, AutoCloseable {
+
+    /**
+     * Maximum number of tiles submitted per second, {@code 0} or less disables throttling
+     */
+    public static final IntegerProperty MAX_TILES_PER_SECOND = new IntegerProperty("imagery.seed.max_tiles_per_second", 20);
+
+    /**
+     * Maximum number of tiles a single seeding job may cover
+     */
+    public static final IntegerProperty MAX_TILES = new IntegerProperty("imagery.seed.max_tiles", 100_000);
+
+    /**
+     * Maximum number of tiles that are submitted to the loader but not yet finished
+     */
+    public static final IntegerProperty MAX_TILES_IN_FLIGHT = new IntegerProperty("imagery.seed.max_tiles_in_flight", 50);
+
+    private final TileLoader tileLoader;
+    private final ThreadPoolExecutor downloadExecutor;
+    private final List<Tile> tiles;
+    private final Map<String, Integer> tileIndex;
+    private final int maxTilesPerSecond;
+    private final int maxInFlight;
+
+    /** tiles processed (successfully or not) during any run */
+    private final BitSet processed;
+    /** tiles submitted to the loader and not yet finished */
+    private final BitSet inFlight;
+    private int inFlightCount;
+    private int succeededCount;
+    private int failedCount;
+
+    private ProgressMonitor progressMonitor = NullProgressMonitor.INSTANCE;
+    private volatile boolean canceled;
+    private long runningTimeNanos;
+    private long runStartNanos;
+    private int processedAtRunStart;
+
+    /**
+     * Constructs a new {@code TileSeeder} with default rate limits.
+     * @param tileSource tile source to seed
+     * @param loaderFactory creates the tile loader that will notify the given listener
+     * @param area area to cover, in lat/lon coordinates (x = lon, y = lat), as returned by
+     *        {@link org.openstreetmap.josm.data.osm.DataSet#getDataSourceArea()}
+     * @param minZoom minimum zoom level (inclusive)
+     * @param maxZoom maximum zoom level (inclusive)
+     * @throws IllegalArgumentException if the area covers more than {@link #MAX_TILES} tiles
+     */
+    public TileSeeder(TileSource tileSource, Function<TileLoaderListener, TileLoader> loaderFactory, Area area, int minZoom, int maxZoom) {
+        this(tileSource, loaderFactory, area, minZoom, maxZoom, MAX_TILES_PER_SECOND.get(), MAX_TILES_IN_FLIGHT.get());
+    }
+
+    /**
+     * Constructs a new {@code TileSeeder}.
+     * @param tileSource tile source to seed
+     * @param loaderFactory creates the tile loader that will notify the given listener
+     * @param area area to cover, in lat/lon coordinates (x = lon, y = lat)
+     * @param minZoom minimum zoom level (inclusive)
+     * @param maxZoom maximum zoom level (inclusive)
+     * @param maxTilesPerSecond maximum number of tiles submitted per second, {@code 0} or less to disable throttling
+     * @param maxInFlight maximum number of tiles being loaded at the same time
+     * @throws IllegalArgumentException if the area covers more than {@link #MAX_TILES} tiles
+     */
+    public TileSeeder(TileSource tileSource, Function<TileLoaderListener, TileLoader> loaderFactory, Area area, int minZoom, int maxZoom,
+            int maxTilesPerSecond, int maxInFlight) {
+        CheckParameterUtil.ensureParameterNotNull(tileSource, "tileSource");
+        CheckParameterUtil.ensureParameterNotNull(area, "area");
+        this.tiles = Collections.unmodifiableList(enumerateTiles(tileSource, area, minZoom, maxZoom, MAX_TILES.get()));
+        this.tileIndex = new HashMap<>(Utils.hashMapInitialCapacity(tiles.size()));
+        for (int i = 0; i < tiles.size(); i++) {
+            tileIndex.put(tiles.get(i).getKey(), i);
+        }
+        this.processed = new BitSet(tiles.size());
+        this.inFlight = new BitSet(tiles.size());
+        this.maxTilesPerSecond = maxTilesPerSecond;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.tileLoader = loaderFactory.apply(this);
+        if (tileLoader instanceof TMSCachedTileLoader) {
+            this.downloadExecutor = TMSCachedTileLoader.getNewThreadPoolExecutor("Seed downloader-%d");
+            ((TMSCachedTileLoader) tileLoader).setDownloadExecutor(downloadExecutor);
+        } else {
+            this.downloadExecutor = null;
+        }
+    }
+
+    /**
+     * Lists all tiles of the given zoom levels intersecting the given area.
+     * @param tileSource tile source
+     * @param area area to cover, in lat/lon coordinates (x = lon, y = lat)
+     * @param minZoom minimum zoom level (inclusive)
+     * @param maxZoom maximum zoom level (inclusive)
+     * @param limit maximum number of tiles
+     * @return tiles intersecting the area, ordered by zoom level, column and row
+     * @throws IllegalArgumentException if more than {@code limit} tiles intersect the area
+     */
+    public static List<Tile> enumerateTiles(TileSource tileSource, Area area, int minZoom, int maxZoom, int limit) {
+        List<Tile> ret = new ArrayList<>();
+        Rectangle2D bounds = area.getBounds2D();
+        if (area.isEmpty()) {
+            return ret;
+        }
+        for (int zoom = Math.max(minZoom, tileSource.getMinZoom()); zoom <= Math.min(maxZoom, tileSource.getMaxZoom()); zoom++) {
+            TileXY t1 = tileSource.latLonToTileXY(bounds.getMinY(), bounds.getMinX(), zoom);
+            TileXY t2 = tileSource.latLonToTileXY(bounds.getMaxY(), bounds.getMaxX(), zoom);
+            int minX = Utils.clamp(Math.min(t1.getXIndex(), t2.getXIndex()), tileSource.getTileXMin(zoom), tileSource.getTileXMax(zoom));
+            int maxX = Utils.clamp(Math.max(t1.getXIndex(), t2.getXIndex()), tileSource.getTileXMin(zoom), tileSource.getTileXMax(zoom));
+            int minY = Utils.clamp(Math.min(t1.getYIndex(), t2.getYIndex()), tileSource.getTileYMin(zoom), tileSource.getTileYMax(zoom));
+            int maxY = Utils.clamp(Math.max(t1.getYIndex(), t2.getYIndex()), tileSource.getTileYMin(zoom), tileSource.getTileYMax(zoom));
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    if (area.intersects(getTileBounds(tileSource, x, y, zoom))) {
+                        if (ret.size() >= limit) {
+                            throw new IllegalArgumentException(tr("Area is too large to precache: more than {0} tiles", limit));
+                        }
+                        ret.add(new Tile(tileSource, x, y, zoom));
+                    }
+                }
+            }
+        }
+        return ret;
+    }
+
+    private static Rectangle2D getTileBounds(TileSource tileSource, int x, int y, int zoom) {
+        ICoordinate c1 = tileSource.tileXYToLatLon(x, y, zoom);
+        ICoordinate c2 = tileSource.tileXYToLatLon(x + 1, y + 1, zoom);
+        double minLon = Math.min(c1.getLon(), c2.getLon());
+        double minLat = Math.min(c1.getLat(), c2.getLat());
+        return new Rectangle2D.Double(minLon, minLat,
+                Math.max(c1.getLon(), c2.getLon()) - minLon, Math.max(c1.getLat(), c2.getLat()) - minLat);
+    }
+
+    /**
+     * Sets the progress monitor notified about processed tiles.
+     * @param progressMonitor progress monitor, can be {@code null}
+     */
+    public void setProgressMonitor(ProgressMonitor progressMonitor) {
+        this.progressMonitor = progressMonitor != null ? progressMonitor : NullProgressMonitor.INSTANCE;
+    }
+
+    /**
+     * Submits all tiles not processed yet and waits until they are loaded, or until the task is canceled.
+     * Can be called again after cancellation to resume seeding.
+     */
+    public void run() {
+        canceled = false;
+        synchronized (this) {
+            runStartNanos = System.nanoTime();
+            processedAtRunStart = processed.cardinality();
+            progressMonitor.setTicksCount(tiles.size());
+            progressMonitor.setTicks(processedAtRunStart);
+        }
+        long intervalNanos = maxTilesPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxTilesPerSecond : 0;
+        long nextSubmission = System.nanoTime();
+        try {
+            for (int i = nextUnprocessed(0); i >= 0 && !isCanceled(); i = nextUnprocessed(i + 1)) {
+                if (intervalNanos > 0) {
+                    long wait = nextSubmission - System.nanoTime();
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                    nextSubmission = Math.max(nextSubmission, System.nanoTime() - intervalNanos) + intervalNanos;
+                }
+                if (!acquireSlot(i)) {
+                    break;
+                }
+                submit(i);
+            }
+            synchronized (this) {
+                while (inFlightCount > 0 && !isCanceled()) {
+                    wait(200);
+                }
+            }
+        } catch (InterruptedException e) {
+            Logging.trace(e);
+            Thread.currentThread().interrupt();
+            cancel();
+        } finally {
+            synchronized (this) {
+                runningTimeNanos += System.nanoTime() - runStartNanos;
+                runStartNanos = 0;
+            }
+        }
+    }
+
+    private synchronized int nextUnprocessed(int fromIndex) {
+        int i = processed.nextClearBit(fromIndex);
+        while (i < tiles.size() && inFlight.get(i)) {
+            // still loading from a previous, canceled run
+            i = processed.nextClearBit(i + 1);
+        }
+        return i < tiles.size() ? i : -1;
+    }
+
+    private synchronized boolean acquireSlot(int index) throws InterruptedException {
+        while (inFlightCount >= maxInFlight) {
+            if (isCanceled()) {
+                return false;
+            }
+            wait(200);
+        }
+        inFlight.set(index);
+        inFlightCount++;
+        return true;
+    }
+
+    private void submit(int index) {
+        Tile tile = tiles.get(index);
+        tileLoader.createTileLoaderJob(tile).submit(false);
+        if (tile.hasError() && !tile.isLoading()) {
+            // the job could not be submitted, e.g. due to an invalid URL, so no listener will be notified
+            finished(index, false);
+        }
+    }
+
+    private synchronized void finished(int index, boolean success) {
+        if (!inFlight.get(index)) {
+            return;
+        }
+        inFlight.clear(index);
+        inFlightCount--;
+        if (!success && canceled) {
+            // job was dropped from the queue, keep the tile for the next run
+            notifyAll();
+            return;
+        }
+        processed.set(index);
+        if (success) {
+            succeededCount++;
+        } else {
+            failedCount++;
+        }
+        notifyAll();
+        if (!progressMonitor.isCanceled()) {
+            progressMonitor.worked(1);
+            progressMonitor.setCustomText(tr("Downloaded {0}/{1} tiles ({2} tiles/s)",
+                    processed.cardinality(), tiles.size(), Math.round(getTilesPerSecond())));
+        }
+    }
+
+    @Override
+    public void tileLoadingFinished(Tile tile, boolean success) {
+        Integer index = tileIndex.get(tile.getKey());
+        if (index != null) {
+            if (!success && !canceled) {
+                Logging.warn("Tile loading failure: " + tile + " - " + tile.getErrorMessage());
+            }
+            finished(index, success);
+        }
+    }
+
+    /**
+     * Stops submitting tiles and drops the tiles waiting in the download queue.
+     * Tiles which were not loaded are submitted again on the next call to {@link #run()}.
+     */
+    public void cancel() {
+        canceled = true;
+        if (tileLoader instanceof TMSCachedTileLoader) {
+            ((TMSCachedTileLoader) tileLoader).cancelOutstandingTasks();
+        }
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Cancels the seeding and stops the download threads. The seeding cannot be resumed afterwards.
+     */
+    @Override
+    public void close() {
+        cancel();
+        if (downloadExecutor != null) {
+            downloadExecutor.shutdownNow();
+        }
+    }
+
+    private boolean isCanceled() {
+        return canceled || progressMonitor.isCanceled();
+    }
+
+    /**
+     * Determines if all tiles have been processed.
+     * @return {@code true} if all tiles have been processed
+     */
+    public synchronized boolean isFinished() {
+        return processed.cardinality() == tiles.size();
+    }
+
+    /**
+     * Returns the tiles covered by this task.
+     * @return the tiles covered by this task, in submission order
+     */
+    public List<Tile> getTiles() {
+        return tiles;
+    }
+
+    /**
+     * Returns the total number of tiles to download.
+     * @return the total number of tiles to download
+     */
+    public int getTotalCount() {
+        return tiles.size();
+    }
+
+    /**
+     * Returns the number of tiles processed so far, successfully or not.
+     * @return the number of tiles processed so far
+     */
+    public synchronized int getProcessedCount() {
+        return processed.cardinality();
+    }
+
+    /**
+     * Returns the number of tiles loaded successfully, either from network or from a valid cache entry.
+     * @return the number of tiles loaded successfully
+     */
+    public synchronized int getSucceededCount() {
+        return succeededCount;
+    }
+
+    /**
+     * Returns the number of tiles which failed to load.
+     * @return the number of tiles which failed to load
+     */
+    public synchronized int getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Returns the number of tiles currently being loaded.
+     * @return the number of tiles currently being loaded
+     */
+    public synchronized int getInFlightCount() {
+        return inFlightCount;
+    }
+
+    /**
+     * Returns the average throughput of the current run, or of the last one if the task is not running.
+     * @return the number of tiles processed per second
+     */
+    public synchronized double getTilesPerSecond() {
+        long elapsed = runStartNanos != 0 ? System.nanoTime() - runStartNanos : runningTimeNanos;
+        int count = runStartNanos != 0 ? processed.cardinality() - processedAtRunStart : processed.cardinality();
+        return elapsed > 0 ? count * (double) TimeUnit.SECONDS.toNanos(1) / elapsed : 0;
+    }
+
+    /**
+     * Returns tile loader that is used to load the tiles.
+     * @return tile loader that is used to load the tiles
+     */
+    public TileLoader getTileLoader() {
+        return tileLoader;
+    }
+}
@@ -41,6 +41,8 @@ import org.openstreetmap.josm.data.osm.DataSelectionListener.SelectionReplaceEve
 import org.openstreetmap.josm.data.osm.DataSelectionListener.SelectionToggleEvent;
 import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent;
 import org.openstreetmap.josm.data.osm.event.ChangesetIdChangedEvent;
+import org.openstreetmap.josm.data.osm.event.CoalescedDataChangedEvent;
+import org.openstreetmap.josm.data.osm.event.CoalescingDataSetListener;
 import org.openstreetmap.josm.data.osm.event.DataChangedEvent;
 import org.openstreetmap.josm.data.osm.event.DataSetListener;
 import org.openstreetmap.josm.data.osm.event.DataSourceAddedEvent;
@@ -125,6 +127,11 @@ public final class DataSet implements OsmData<OsmPrimitive, Node, Way, Relation>
     private final Map<PrimitiveId, OsmPrimitive> primitivesMap = allPrimitives
             .foreignKey(new Storage.PrimitiveIdHash());
     private final CopyOnWriteArrayList<DataSetListener> listeners = new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<CoalescingDataSetListener> coalescingListeners = new CopyOnWriteArrayList<>();
+
+    /** Inverted index of tags, created on first use */
+    private volatile TagIndex tagIndex;
+    private final Object tagIndexLock = new Object();
 
     // provide means to highlight map elements that are not osm primitives
     private Collection<WaySegment> highlightedVirtualNodes = new LinkedList<>();
@@ -135,6 +142,8 @@ public final class DataSet implements OsmData<OsmPrimitive, Node, Way, Relation>
     private int updateCount;
     // Events that occurred while dataset was locked but should be fired after write lock is released
     private final List<AbstractDatasetChangedEvent> cachedEvents = new ArrayList<>();
+    // All events of the transaction, built only if there are coalescing listeners
+    private CoalescedDataChangedEvent coalescedEvent;
 
     private String name;
     private DownloadPolicy downloadPolicy = DownloadPolicy.NORMAL;
@@ -868,10 +877,17 @@ public final class DataSet implements OsmData<OsmPrimitive, Node, Way, Relation>
 
     /**
      * Adds a new data set listener.
+     * <p>
+     * A {@link CoalescingDataSetListener} receives all the changes made between {@link #beginUpdate()} and
+     * {@link #endUpdate()} as one {@link CoalescedDataChangedEvent}.
      * @param dsl The data set listener to add
      */
     public void addDataSetListener(DataSetListener dsl) {
-        listeners.addIfAbsent(dsl);
+        if (dsl instanceof CoalescingDataSetListener) {
+            coalescingListeners.addIfAbsent((CoalescingDataSetListener) dsl);
+        } else {
+            listeners.addIfAbsent(dsl);
+        }
     }
 
     /**
@@ -880,6 +896,35 @@ public final class DataSet implements OsmData<OsmPrimitive, Node, Way, Relation>
      */
     public void removeDataSetListener(DataSetListener dsl) {
         listeners.remove(dsl);
+        coalescingListeners.remove(dsl);
+    }
+
+    /**
+     * Returns the inverted index of the tags of this data set, used to quickly find primitives by tag.
+     * The index is built on first call, then kept up to date from data set events.
+     * @return the tag index of this data set
+     * @since xxx
+     */
+    public TagIndex getTagIndex() {
+        TagIndex result = tagIndex;
+        if (result == null) {
+            // same lock order as when events are fired: data set read lock, then index
+            lock.readLock().lock();
+            try {
+                synchronized (tagIndexLock) {
+                    result = tagIndex;
+                    if (result == null) {
+                        result = new TagIndex(this);
+                        result.rebuild();
+                        addDataSetListener(result);
+                        tagIndex = result;
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return result;
     }
 
     /**
@@ -920,9 +965,12 @@ public final class DataSet implements OsmData<OsmPrimitive, Node, Way, Relation>
         if (updateCount > 0) {
             updateCount--;
             List<AbstractDatasetChangedEvent> eventsToFire = Collections.emptyList();
+            CoalescedDataChangedEvent coalescedToFire = null;
             if (updateCount == 0) {
                 eventsToFire = new ArrayList<>(cachedEvents);
                 cachedEvents.clear();
+                coalescedToFire = coalescedEvent;
+                coalescedEvent = null;
             }
 
             if (!eventsToFire.isEmpty()) {
@@ -938,6 +986,12 @@ public final class DataSet implements OsmData<OsmPrimitive, Node, Way, Relation>
                     } else {
                         fireEventToListeners(new DataChangedEvent(this, eventsToFire));
                     }
+                    if (coalescedToFire != null) {
+                        for (CoalescingDataSetListener listener : coalescingListeners) {
+                            Logging.trace("Firing {0} to {1} (coalesced)", coalescedToFire, listener);
+                            coalescedToFire.fire(listener);
+                        }
+                    }
                 } finally {
                     lock.readLock().unlock();
                 }
@@ -1010,6 +1064,12 @@ public final class DataSet implements OsmData<OsmPrimitive, Node, Way, Relation>
         if (cachedEvents.size() < MAX_EVENTS) {
             cachedEvents.add(event);
         }
+        if (!coalescingListeners.isEmpty()) {
+            if (coalescedEvent == null) {
+                coalescedEvent = new CoalescedDataChangedEvent(this);
+            }
+            coalescedEvent.add(event);
+        }
     }
 
     void firePrimitivesAdded(Collection<? extends OsmPrimitive> added, boolean wasIncomplete) {
@@ -1106,6 +1166,11 @@ public final class DataSet implements OsmData<OsmPrimitive, Node, Way, Relation>
             }
             store.clear();
             allPrimitives.clear();
+            // no event is fired
+            TagIndex index = tagIndex;
+            if (index != null) {
+                index.rebuild();
+            }
         });
     }
 
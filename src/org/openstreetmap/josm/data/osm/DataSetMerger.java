@@ -6,20 +6,26 @@ import static org.openstreetmap.josm.tools.I18n.tr;
 import java.awt.geom.Area;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.openstreetmap.josm.data.DataSource;
 import org.openstreetmap.josm.data.conflict.Conflict;
 import org.openstreetmap.josm.data.conflict.ConflictCollection;
+import org.openstreetmap.josm.data.preferences.BooleanProperty;
+import org.openstreetmap.josm.data.preferences.IntegerProperty;
 import org.openstreetmap.josm.gui.progress.ProgressMonitor;
 import org.openstreetmap.josm.tools.CheckParameterUtil;
 import org.openstreetmap.josm.tools.JosmRuntimeException;
+import org.openstreetmap.josm.tools.ParallelUtils;
 
 /**
  * A dataset merger which takes a target and a source dataset and merges the source data set
@@ -28,6 +34,19 @@ import org.openstreetmap.josm.tools.JosmRuntimeException;
  */
 public class DataSetMerger {
 
+    /**
+     * Property to enable the parallel look-up of merge targets.
+     * @since xxx
+     */
+    public static final BooleanProperty PROP_PARALLEL = new BooleanProperty("merge.parallel", true);
+
+    /**
+     * Property for the number of primitives whose merge targets are looked up by each parallel task.
+     * Smaller datasets are merged sequentially.
+     * @since xxx
+     */
+    public static final IntegerProperty PROP_PARALLEL_CHUNK_SIZE = new IntegerProperty("merge.parallel.chunk-size", 5000);
+
     /** the collection of conflicts created during merging */
     private final ConflictCollection conflicts;
 
@@ -46,6 +65,9 @@ public class DataSetMerger {
      */
     private final Set<PrimitiveId> objectsWithChildrenToMerge;
     private final Set<OsmPrimitive> objectsToDelete;
+    /** the primitives of the target and source datasets which have a conflict, for quick lookup in {@link #conflicts} */
+    private final Set<OsmPrimitive> myConflicts;
+    private final Set<OsmPrimitive> theirConflicts;
 
     /**
      * constructor
@@ -64,6 +86,8 @@ public class DataSetMerger {
         mergedMap = new HashMap<>();
         objectsWithChildrenToMerge = new HashSet<>();
         objectsToDelete = new HashSet<>();
+        myConflicts = Collections.newSetFromMap(new IdentityHashMap<>());
+        theirConflicts = Collections.newSetFromMap(new IdentityHashMap<>());
     }
 
     /**
@@ -81,51 +105,109 @@ public class DataSetMerger {
      * @param candidates a set of possible candidates for a new primitive
      */
     protected void mergePrimitive(OsmPrimitive source, Collection<? extends OsmPrimitive> candidates) {
+        mergePrimitive(source, findMergeTarget(source, candidates));
+    }
+
+    /**
+     * Finds the primitive of the target dataset onto which a primitive is merged.
+     * <p>
+     * This method does not modify any dataset, so that it can be called concurrently for several primitives
+     * as long as the target dataset is not modified.
+     *
+     * @param source the primitive to merge
+     * @param candidates a set of possible candidates for a new primitive
+     * @return the primitive with the same id for a primitive which is not new, the first candidate
+     * which is equal in its semantic attributes for a new primitive, or {@code null}
+     */
+    private OsmPrimitive findMergeTarget(OsmPrimitive source, Collection<? extends OsmPrimitive> candidates) {
+        if (!source.isNew()) {
+            return targetDataSet.getPrimitiveById(source.getId(), source.getType());
+        } else if (!source.isDeleted()) {
+            // try to merge onto a primitive  which has no id assigned
+            // yet but which is equal in its semantic attributes
+            //
+            for (OsmPrimitive target : candidates) {
+                if (target.isNew() && !target.isDeleted() && target.hasEqualSemanticAttributes(source)) {
+                    return target;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Merges a primitive onto its target found by {@link #findMergeTarget}.
+     * @param source the primitive to merge
+     * @param target the merge target, or {@code null} to add a clone of the primitive to the target dataset
+     */
+    private void mergePrimitive(OsmPrimitive source, OsmPrimitive target) {
         if (!source.isNew()) {
             // try to merge onto a matching primitive with the same defined id
             //
-            if (mergeById(source))
+            if (target != null) {
+                mergeById(source, target);
                 return;
+            }
         } else {
             // ignore deleted primitives from source
             if (source.isDeleted()) return;
 
-            // try to merge onto a primitive  which has no id assigned
-            // yet but which is equal in its semantic attributes
-            //
-            for (OsmPrimitive target : candidates) {
-                if (!target.isNew() || target.isDeleted()) {
-                    continue;
-                }
-                if (target.hasEqualSemanticAttributes(source)) {
-                    mergedMap.put(source.getPrimitiveId(), target.getPrimitiveId());
-                    // copy the technical attributes from other version
-                    target.setVisible(source.isVisible());
-                    target.setUser(source.getUser());
-                    target.setRawTimestamp(source.getRawTimestamp());
-                    target.setModified(source.isModified());
-                    objectsWithChildrenToMerge.add(source.getPrimitiveId());
-                    return;
-                }
+            if (target != null) {
+                mergedMap.put(source.getPrimitiveId(), target.getPrimitiveId());
+                // copy the technical attributes from other version
+                target.setVisible(source.isVisible());
+                target.setUser(source.getUser());
+                target.setRawTimestamp(source.getRawTimestamp());
+                target.setModified(source.isModified());
+                objectsWithChildrenToMerge.add(source.getPrimitiveId());
+                return;
             }
         }
 
         // If we get here we didn't find a suitable primitive in
         // the target dataset. Create a clone and add it to the target dataset.
         //
-        OsmPrimitive target;
+        OsmPrimitive clone;
         switch(source.getType()) {
-        case NODE: target = source.isNew() ? new Node() : new Node(source.getId()); break;
-        case WAY: target = source.isNew() ? new Way() : new Way(source.getId()); break;
-        case RELATION: target = source.isNew() ? new Relation() : new Relation(source.getId()); break;
+        case NODE: clone = source.isNew() ? new Node() : new Node(source.getId()); break;
+        case WAY: clone = source.isNew() ? new Way() : new Way(source.getId()); break;
+        case RELATION: clone = source.isNew() ? new Relation() : new Relation(source.getId()); break;
         default: throw new AssertionError();
         }
-        target.mergeFrom(source);
-        targetDataSet.addPrimitive(target);
-        mergedMap.put(source.getPrimitiveId(), target.getPrimitiveId());
+        clone.mergeFrom(source);
+        targetDataSet.addPrimitive(clone);
+        mergedMap.put(source.getPrimitiveId(), clone.getPrimitiveId());
         objectsWithChildrenToMerge.add(source.getPrimitiveId());
     }
 
+    /**
+     * Merges all primitives of a type in two phases: the merge targets are first looked up for all primitives,
+     * in parallel for large datasets, then the primitives are merged one after the other.
+     * @param sources the primitives to merge
+     * @param targets the primitives of the same type in the target dataset
+     * @param progressMonitor the progress monitor, can be {@code null}
+     */
+    private void mergePrimitives(Collection<? extends OsmPrimitive> sources, Collection<? extends OsmPrimitive> targets,
+            ProgressMonitor progressMonitor) {
+        List<OsmPrimitive> list = new ArrayList<>(sources);
+        // only new primitives which are not deleted can be merged onto another primitive than the one with the same id
+        List<OsmPrimitive> candidates = list.stream().anyMatch(p -> p.isNew() && !p.isDeleted())
+                ? targets.stream().filter(p -> p.isNew() && !p.isDeleted()).collect(Collectors.toList())
+                : Collections.emptyList();
+        List<OsmPrimitive> mergeTargets;
+        if (ParallelUtils.isParallel(PROP_PARALLEL, PROP_PARALLEL_CHUNK_SIZE, list.size())) {
+            mergeTargets = ParallelUtils.map(list, source -> findMergeTarget(source, candidates), PROP_PARALLEL_CHUNK_SIZE.get());
+        } else {
+            mergeTargets = list.stream().map(source -> findMergeTarget(source, candidates)).collect(Collectors.toList());
+        }
+        for (int i = 0; i < list.size(); i++) {
+            mergePrimitive(list.get(i), mergeTargets.get(i));
+            if (progressMonitor != null) {
+                progressMonitor.worked(1);
+            }
+        }
+    }
+
     protected OsmPrimitive getMergeTarget(OsmPrimitive mergeSource) {
         PrimitiveId targetId = mergedMap.get(mergeSource.getPrimitiveId());
         if (targetId == null)
@@ -136,6 +218,8 @@ public class DataSetMerger {
     protected void addConflict(Conflict<?> c) {
         c.setMergedMap(mergedMap);
         conflicts.add(c);
+        myConflicts.add(c.getMy());
+        theirConflicts.add(c.getTheir());
     }
 
     protected void addConflict(OsmPrimitive my, OsmPrimitive their) {
@@ -154,13 +238,13 @@ public class DataSetMerger {
      */
     public void fixReferences() {
         for (Way w : sourceDataSet.getWays()) {
-            if (!conflicts.hasConflictForTheir(w) && objectsWithChildrenToMerge.contains(w.getPrimitiveId())) {
+            if (!theirConflicts.contains(w) && objectsWithChildrenToMerge.contains(w.getPrimitiveId())) {
                 mergeNodeList(w);
                 fixIncomplete(w);
             }
         }
         for (Relation r : sourceDataSet.getRelations()) {
-            if (!conflicts.hasConflictForTheir(r) && objectsWithChildrenToMerge.contains(r.getPrimitiveId())) {
+            if (!theirConflicts.contains(r) && objectsWithChildrenToMerge.contains(r.getPrimitiveId())) {
                 mergeRelationMembers(r);
             }
         }
@@ -246,7 +330,7 @@ public class DataSetMerger {
             Node targetNode = (Node) getMergeTarget(sourceNode);
             if (targetNode != null) {
                 newNodes.add(targetNode);
-                if (targetNode.isDeleted() && !conflicts.hasConflictForMy(targetNode)) {
+                if (targetNode.isDeleted() && !myConflicts.contains(targetNode)) {
                     addConflict(new Conflict<OsmPrimitive>(targetNode, sourceNode, true));
                     targetNode.setDeleted(false);
                 }
@@ -274,7 +358,7 @@ public class DataSetMerger {
                 throw new IllegalStateException(tr("Missing merge target of type {0} with id {1}",
                         sourceMember.getType(), sourceMember.getUniqueId()));
             newMembers.add(new RelationMember(sourceMember.getRole(), targetMember));
-            if (targetMember.isDeleted() && !conflicts.hasConflictForMy(targetMember)) {
+            if (targetMember.isDeleted() && !myConflicts.contains(targetMember)) {
                 addConflict(new Conflict<>(targetMember, sourceMember.getMember(), true));
                 targetMember.setDeleted(false);
             }
@@ -283,23 +367,18 @@ public class DataSetMerger {
     }
 
     /**
-     * Tries to merge a primitive <code>source</code> into an existing primitive with the same id.
+     * Merges a primitive <code>source</code> into an existing primitive with the same id.
      *
      * @param source  the source primitive which is to be merged into a target primitive
-     * @return true, if this method was able to merge <code>source</code> into a target object; false, otherwise
+     * @param target  the primitive of the target dataset with the same id
      */
-    private boolean mergeById(OsmPrimitive source) {
-        OsmPrimitive target = targetDataSet.getPrimitiveById(source.getId(), source.getType());
-        // merge other into an existing primitive with the same id, if possible
-        //
-        if (target == null)
-            return false;
+    private void mergeById(OsmPrimitive source, OsmPrimitive target) {
         // found a corresponding target, remember it
         mergedMap.put(source.getPrimitiveId(), target.getPrimitiveId());
 
         if (target.getVersion() > source.getVersion())
             // target.version > source.version => keep target version
-            return true;
+            return;
 
         boolean mergeFromSource = false;
         boolean haveSameVersion = target.getVersion() == source.getVersion();
@@ -381,7 +460,6 @@ public class DataSetMerger {
             target.mergeFrom(source);
             objectsWithChildrenToMerge.add(source.getPrimitiveId());
         }
-        return true;
     }
 
     /**
@@ -422,40 +500,9 @@ public class DataSetMerger {
             progressMonitor.beginTask(tr("Merging data..."), sourceDataSet.allPrimitives().size());
         }
         targetDataSet.update(() -> {
-            List<? extends OsmPrimitive> candidates = null;
-            for (Node node: sourceDataSet.getNodes()) {
-                // lazy initialisation to improve performance, see #19898
-                if (candidates == null) {
-                    candidates = new ArrayList<>(targetDataSet.getNodes());
-                }
-                mergePrimitive(node, candidates);
-                if (progressMonitor != null) {
-                    progressMonitor.worked(1);
-                }
-            }
-            candidates = null;
-            for (Way way: sourceDataSet.getWays()) {
-                // lazy initialisation to improve performance
-                if (candidates == null) {
-                    candidates = new ArrayList<>(targetDataSet.getWays());
-                }
-                mergePrimitive(way, candidates);
-                if (progressMonitor != null) {
-                    progressMonitor.worked(1);
-                }
-            }
-            candidates = null;
-            for (Relation relation: sourceDataSet.getRelations()) {
-                // lazy initialisation to improve performance
-                if (candidates == null) {
-                    candidates = new ArrayList<>(targetDataSet.getRelations());
-                }
-                mergePrimitive(relation, candidates);
-                if (progressMonitor != null) {
-                    progressMonitor.worked(1);
-                }
-            }
-            candidates = null;
+            mergePrimitives(sourceDataSet.getNodes(), targetDataSet.getNodes(), progressMonitor);
+            mergePrimitives(sourceDataSet.getWays(), targetDataSet.getWays(), progressMonitor);
+            mergePrimitives(sourceDataSet.getRelations(), targetDataSet.getRelations(), progressMonitor);
             fixReferences();
 
             Area a = targetDataSet.getDataSourceArea();
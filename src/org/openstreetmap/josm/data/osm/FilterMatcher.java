@@ -121,6 +121,26 @@ public class FilterMatcher {
         return !hiddenFilters.isEmpty() || !disabledFilters.isEmpty();
     }
 
+    /**
+     * Determines if the filters can be evaluated concurrently on several primitives, see {@link Match#isThreadSafe()}.
+     * @return {@code true} if all the filters are thread-safe
+     * @since xxx
+     */
+    public boolean isThreadSafe() {
+        return hiddenFilters.stream().allMatch(fi -> fi.match.isThreadSafe())
+            && disabledFilters.stream().allMatch(fi -> fi.match.isThreadSafe());
+    }
+
+    /**
+     * Determines if the filters only depend on the filtered primitives themselves, see {@link Match#isLocal()}.
+     * @return {@code true} if all the filters are local
+     * @since xxx
+     */
+    public boolean isLocal() {
+        return hiddenFilters.stream().allMatch(fi -> fi.match.isLocal())
+            && disabledFilters.stream().allMatch(fi -> fi.match.isLocal());
+    }
+
     /**
      * Adds a filter to the currently used filters
      * @param filter the filter to add
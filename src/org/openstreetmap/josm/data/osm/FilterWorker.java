@@ -1,10 +1,13 @@
 // License: GPL. For details, see LICENSE file.
 package org.openstreetmap.josm.data.osm;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import org.openstreetmap.josm.data.osm.FilterMatcher.FilterType;
+import org.openstreetmap.josm.data.osm.search.ParallelMatcher;
 import org.openstreetmap.josm.data.osm.search.SearchParseError;
 import org.openstreetmap.josm.tools.SubclassFilteredCollection;
 
@@ -54,24 +57,51 @@ public final class FilterWorker {
 
         boolean changed = false;
 
-        for (OsmPrimitive primitive: all) {
-            FilterType hiddenType = filterMatcher.isHidden(primitive);
-            if (hiddenType != FilterType.NOT_FILTERED) {
-                changed |= primitive.setDisabledState(true);
-                primitive.setHiddenType(hiddenType == FilterType.EXPLICIT);
-            } else {
-                FilterType disabledType = filterMatcher.isDisabled(primitive);
-                if (disabledType != FilterType.NOT_FILTERED) {
-                    changed |= primitive.setDisabledState(false);
-                    primitive.setDisabledType(disabledType == FilterType.EXPLICIT);
-                } else {
-                    changed |= primitive.unsetDisabledState();
-                }
+        if (ParallelMatcher.isParallel(filterMatcher.isThreadSafe(), all.size())) {
+            // the filter state of a primitive only depends on its parents, which have been processed in a previous pass
+            List<OsmPrimitive> primitives = new ArrayList<>(all);
+            List<FilterType[]> filterTypes = ParallelMatcher.map(primitives, primitive -> getFilterTypes(primitive, filterMatcher));
+            for (int i = 0; i < primitives.size(); i++) {
+                changed |= setFilterState(primitives.get(i), filterTypes.get(i));
+            }
+        } else {
+            for (OsmPrimitive primitive: all) {
+                changed |= setFilterState(primitive, getFilterTypes(primitive, filterMatcher));
             }
         }
         return changed;
     }
 
+    /**
+     * Evaluates the filters on a primitive, without changing its state.
+     * @param primitive the primitive
+     * @param filterMatcher the FilterMatcher
+     * @return the hidden type and, if the primitive is not hidden, the disabled type
+     */
+    private static FilterType[] getFilterTypes(OsmPrimitive primitive, FilterMatcher filterMatcher) {
+        FilterType hiddenType = filterMatcher.isHidden(primitive);
+        if (hiddenType != FilterType.NOT_FILTERED) {
+            return new FilterType[] {hiddenType, null};
+        }
+        return new FilterType[] {hiddenType, filterMatcher.isDisabled(primitive)};
+    }
+
+    private static boolean setFilterState(OsmPrimitive primitive, FilterType[] filterTypes) {
+        FilterType hiddenType = filterTypes[0];
+        if (hiddenType != FilterType.NOT_FILTERED) {
+            boolean changed = primitive.setDisabledState(true);
+            primitive.setHiddenType(hiddenType == FilterType.EXPLICIT);
+            return changed;
+        }
+        FilterType disabledType = filterTypes[1];
+        if (disabledType != FilterType.NOT_FILTERED) {
+            boolean changed = primitive.setDisabledState(false);
+            primitive.setDisabledType(disabledType == FilterType.EXPLICIT);
+            return changed;
+        }
+        return primitive.unsetDisabledState();
+    }
+
     /**
      * Apply the filters to a single primitive.
      *
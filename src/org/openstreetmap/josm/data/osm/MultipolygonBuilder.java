@@ -18,6 +18,7 @@ import org.openstreetmap.josm.tools.CheckParameterUtil;
 import org.openstreetmap.josm.tools.Geometry;
 import org.openstreetmap.josm.tools.MultiMap;
 import org.openstreetmap.josm.tools.Pair;
+import org.openstreetmap.josm.tools.PreparedPolygon;
 
 /**
  * Helper class to build multipolygons from multiple ways.
@@ -39,6 +40,8 @@ public class MultipolygonBuilder {
         public final List<Node> nodes;
         /** the area in east/north space */
         public final Area area;
+        /** the polygon prepared for point in polygon tests, calculated only when really needed */
+        private PreparedPolygon preparedPolygon;
 
         /**
          * Constructs a new {@code JoinedPolygon} from given list of ways.
@@ -83,6 +86,19 @@ public class MultipolygonBuilder {
 
             return ringNodes;
         }
+
+        /**
+         * Returns this polygon prepared for repeated point in polygon tests, see {@link PreparedPolygon}.
+         * Like {@link #area}, it is computed from the nodes of the ways when first needed and then kept unchanged.
+         * @return this polygon prepared for repeated point in polygon tests
+         * @since xxx
+         */
+        public synchronized PreparedPolygon getPreparedPolygon() {
+            if (preparedPolygon == null) {
+                preparedPolygon = new PreparedPolygon(nodes);
+            }
+            return preparedPolygon;
+        }
     }
 
     /** List of outer ways **/
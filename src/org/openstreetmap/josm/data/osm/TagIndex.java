@@ -0,0 +1,159 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.osm;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent.DatasetEventType;
+import org.openstreetmap.josm.data.osm.event.CoalescedDataChangedEvent;
+import org.openstreetmap.josm.data.osm.event.CoalescingDataSetListener;
+
+/**
+ * Inverted index of the tags of a data set: primitives by key and value.
+ * <p>
+ * The index is kept up to date from the data set events, see {@link DataSet#getTagIndex()}. As events are fired after
+ * the data set has been changed, the index can be briefly out of date: its results are candidates which must still be
+ * checked against the primitives themselves. All the changes of a transaction are applied at once, each primitive being
+ * indexed again only once.
+ * @since xxx
+ */
+public final class TagIndex implements CoalescingDataSetListener {
+
+    private final DataSet dataSet;
+    /**
+     * Primitives by key, then by value. To save memory, a value used by a single primitive is mapped to the primitive
+     * itself instead of a set.
+     */
+    private final Map<String, Map<String, Object>> index = new HashMap<>();
+
+    TagIndex(DataSet dataSet) {
+        this.dataSet = dataSet;
+    }
+
+    /**
+     * Rebuilds the index from the current content of the data set.
+     * The caller must hold the read lock of the data set, as when data set events are fired.
+     */
+    synchronized void rebuild() {
+        index.clear();
+        for (OsmPrimitive p : dataSet.allPrimitives()) {
+            add(p);
+        }
+    }
+
+    /**
+     * Returns the primitives having the given tag.
+     * @param key the key
+     * @param value the value
+     * @return a new set of the primitives having the given tag
+     */
+    public synchronized Set<OsmPrimitive> get(String key, String value) {
+        Map<String, Object> values = index.get(key);
+        Set<OsmPrimitive> result = new HashSet<>();
+        if (values != null) {
+            addAll(result, values.get(value));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the primitives having the given key, whatever its value.
+     * @param key the key
+     * @return a new set of the primitives having the given key
+     */
+    public synchronized Set<OsmPrimitive> get(String key) {
+        Map<String, Object> values = index.get(key);
+        Set<OsmPrimitive> result = new HashSet<>();
+        if (values != null) {
+            values.values().forEach(bucket -> addAll(result, bucket));
+        }
+        return result;
+    }
+
+    /**
+     * Returns all the keys used in the data set.
+     * @return a new set of all the keys
+     */
+    public synchronized Set<String> getKeys() {
+        return new HashSet<>(index.keySet());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addAll(Set<OsmPrimitive> result, Object bucket) {
+        if (bucket instanceof OsmPrimitive) {
+            result.add((OsmPrimitive) bucket);
+        } else if (bucket != null) {
+            result.addAll((Set<OsmPrimitive>) bucket);
+        }
+    }
+
+    private void add(OsmPrimitive p) {
+        p.visitKeys((primitive, key, value) -> add(p, key, value));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void add(OsmPrimitive p, String key, String value) {
+        Map<String, Object> values = index.computeIfAbsent(key, k -> new HashMap<>());
+        Object bucket = values.get(value);
+        if (bucket == null) {
+            values.put(value, p);
+        } else if (bucket instanceof OsmPrimitive) {
+            if (bucket != p) {
+                Set<OsmPrimitive> set = new HashSet<>(4);
+                set.add((OsmPrimitive) bucket);
+                set.add(p);
+                values.put(value, set);
+            }
+        } else {
+            ((Set<OsmPrimitive>) bucket).add(p);
+        }
+    }
+
+    private void remove(OsmPrimitive p, Map<String, String> tags) {
+        tags.forEach((key, value) -> remove(p, key, value));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void remove(OsmPrimitive p, String key, String value) {
+        Map<String, Object> values = index.get(key);
+        if (values == null) {
+            return;
+        }
+        Object bucket = values.get(value);
+        if (bucket == p) {
+            values.remove(value);
+        } else if (bucket instanceof Set) {
+            Set<OsmPrimitive> set = (Set<OsmPrimitive>) bucket;
+            set.remove(p);
+            if (set.size() == 1) {
+                values.put(value, set.iterator().next());
+            }
+        }
+        if (values.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    @Override
+    public synchronized void coalescedDataChanged(CoalescedDataChangedEvent event) {
+        if (event.getTypes().contains(DatasetEventType.DATA_CHANGED)) {
+            rebuild();
+            return;
+        }
+        Set<OsmPrimitive> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        changed.addAll(event.getPrimitives(DatasetEventType.TAGS_CHANGED));
+        changed.addAll(event.getPrimitives(DatasetEventType.PRIMITIVES_ADDED));
+        changed.addAll(event.getPrimitives(DatasetEventType.PRIMITIVES_REMOVED));
+        for (OsmPrimitive p : changed) {
+            Map<String, String> originalKeys = event.getOriginalKeys(p);
+            remove(p, originalKeys != null ? originalKeys : p.getKeys());
+            if (p.getDataSet() == dataSet) {
+                add(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.osm.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+
+/**
+ * All the changes of a data set transaction, indexed by primitive. Fired to {@link CoalescingDataSetListener}s.
+ * <p>
+ * The event is built by the data set while events are fired between {@link DataSet#beginUpdate()} and
+ * {@link DataSet#endUpdate()}. A primitive changed several times in the transaction appears only once, with all
+ * the types of its changes. The single events are kept as long as they are not too many, see {@link #getEvents()}.
+ * @since xxx
+ */
+public class CoalescedDataChangedEvent extends DataChangedEvent {
+
+    /**
+     * Maximum number of single events kept by the event.
+     */
+    public static final int MAX_EVENTS = 1000;
+
+    private final Map<DatasetEventType, Set<OsmPrimitive>> changes = new EnumMap<>(DatasetEventType.class);
+    private final Set<DatasetEventType> types = EnumSet.noneOf(DatasetEventType.class);
+    private final Map<OsmPrimitive, Map<String, String>> originalKeys = new IdentityHashMap<>();
+    private boolean overflow;
+
+    /**
+     * Constructs a new, empty {@code CoalescedDataChangedEvent}.
+     * @param dataSet the dataset from which the event comes from
+     */
+    public CoalescedDataChangedEvent(DataSet dataSet) {
+        super(dataSet, new ArrayList<>());
+    }
+
+    /**
+     * Adds a single event of the transaction.
+     * <p>
+     * A {@code CoalescedDataChangedEvent} can be added too, to merge the changes of several transactions.
+     * @param event the event to add
+     */
+    public void add(AbstractDatasetChangedEvent event) {
+        if (event instanceof CoalescedDataChangedEvent) {
+            addAll((CoalescedDataChangedEvent) event);
+            return;
+        }
+        if (event instanceof DataChangedEvent) {
+            List<AbstractDatasetChangedEvent> events = ((DataChangedEvent) event).getEvents();
+            if (events == null) {
+                // the whole data set changed, do not index all its primitives
+                overflow = true;
+                super.getEvents().clear();
+                types.add(DatasetEventType.DATA_CHANGED);
+            } else {
+                events.forEach(this::add);
+            }
+            return;
+        }
+        keep(event);
+        if (event instanceof TagsChangedEvent) {
+            TagsChangedEvent tagsEvent = (TagsChangedEvent) event;
+            originalKeys.putIfAbsent(tagsEvent.getPrimitive(), tagsEvent.getOriginalKeys());
+        }
+        add(event.getType(), event.getPrimitives());
+    }
+
+    private void addAll(CoalescedDataChangedEvent event) {
+        if (event.overflow) {
+            overflow = true;
+            super.getEvents().clear();
+        } else {
+            event.getEvents().forEach(this::keep);
+        }
+        types.addAll(event.types);
+        event.changes.forEach((type, primitives) -> add(type, primitives));
+        event.originalKeys.forEach(originalKeys::putIfAbsent);
+    }
+
+    private void keep(AbstractDatasetChangedEvent event) {
+        if (!overflow) {
+            if (super.getEvents().size() < MAX_EVENTS) {
+                super.getEvents().add(event);
+            } else {
+                overflow = true;
+                super.getEvents().clear();
+            }
+        }
+    }
+
+    private void add(DatasetEventType type, Iterable<? extends OsmPrimitive> primitives) {
+        types.add(type);
+        Set<OsmPrimitive> set = changes.computeIfAbsent(type, t -> Collections.newSetFromMap(new IdentityHashMap<>()));
+        for (OsmPrimitive p : primitives) {
+            set.add(p);
+        }
+    }
+
+    @Override
+    public void fire(DataSetListener listener) {
+        if (listener instanceof CoalescingDataSetListener) {
+            ((CoalescingDataSetListener) listener).coalescedDataChanged(this);
+        } else {
+            listener.dataChanged(this);
+        }
+    }
+
+    /**
+     * Returns all the primitives changed in the transaction.
+     * @return a new set of the primitives changed in the transaction
+     */
+    @Override
+    public Set<OsmPrimitive> getPrimitives() {
+        Set<OsmPrimitive> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        changes.values().forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * Returns the primitives which had a given type of change in the transaction.
+     * @param type the type of change
+     * @return an unmodifiable set of the primitives which had this type of change, compared by identity
+     */
+    public Set<OsmPrimitive> getPrimitives(DatasetEventType type) {
+        Set<OsmPrimitive> set = changes.get(type);
+        return set != null ? Collections.unmodifiableSet(set) : Collections.emptySet();
+    }
+
+    /**
+     * Returns the types of the changes of a primitive in the transaction.
+     * @param primitive the primitive
+     * @return the types of changes of the primitive, empty if it did not change
+     */
+    public Set<DatasetEventType> getTypes(OsmPrimitive primitive) {
+        Set<DatasetEventType> result = EnumSet.noneOf(DatasetEventType.class);
+        for (Entry<DatasetEventType, Set<OsmPrimitive>> e : changes.entrySet()) {
+            if (e.getValue().contains(primitive)) {
+                result.add(e.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the types of all the changes in the transaction.
+     * {@link DatasetEventType#DATA_CHANGED} means that the whole data set changed.
+     * @return an unmodifiable set of the types of changes
+     */
+    public Set<DatasetEventType> getTypes() {
+        return Collections.unmodifiableSet(types);
+    }
+
+    /**
+     * Returns the tags of a primitive before the first change of its tags in the transaction.
+     * @param primitive the primitive
+     * @return the original tags, or {@code null} if the tags of the primitive did not change
+     */
+    public Map<String, String> getOriginalKeys(OsmPrimitive primitive) {
+        return originalKeys.get(primitive);
+    }
+
+    /**
+     * Determines if the transaction did not change anything.
+     * @return {@code true} if no event has been added
+     */
+    public boolean isEmpty() {
+        return types.isEmpty();
+    }
+
+    /**
+     * Returns the single events of the transaction, in the order they were fired.
+     * @return the single events, or {@code null} if there were more than {@link #MAX_EVENTS}
+     */
+    @Override
+    public List<AbstractDatasetChangedEvent> getEvents() {
+        return overflow ? null : super.getEvents();
+    }
+}
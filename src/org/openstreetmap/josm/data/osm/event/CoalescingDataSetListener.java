@@ -0,0 +1,64 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.osm.event;
+
+import org.openstreetmap.josm.data.osm.DataSet;
+
+/**
+ * A {@link DataSetListener} which receives the changes made between {@link DataSet#beginUpdate()} and
+ * {@link DataSet#endUpdate()} as a single {@link CoalescedDataChangedEvent}, instead of single events or a
+ * {@link DataChangedEvent}.
+ * <p>
+ * Unlike a {@link DataChangedEvent}, the coalesced event never loses the changed primitives when a transaction
+ * contains many changes, so that listeners doing expensive work per change can process each primitive once.
+ * The other methods of {@link DataSetListener} are not called by the data set for listeners implementing this interface,
+ * they do nothing by default.
+ * @since xxx
+ */
+public interface CoalescingDataSetListener extends DataSetListener {
+
+    @Override
+    default void primitivesAdded(PrimitivesAddedEvent event) {
+        // Not called for coalescing listeners
+    }
+
+    @Override
+    default void primitivesRemoved(PrimitivesRemovedEvent event) {
+        // Not called for coalescing listeners
+    }
+
+    @Override
+    default void tagsChanged(TagsChangedEvent event) {
+        // Not called for coalescing listeners
+    }
+
+    @Override
+    default void nodeMoved(NodeMovedEvent event) {
+        // Not called for coalescing listeners
+    }
+
+    @Override
+    default void wayNodesChanged(WayNodesChangedEvent event) {
+        // Not called for coalescing listeners
+    }
+
+    @Override
+    default void relationMembersChanged(RelationMembersChangedEvent event) {
+        // Not called for coalescing listeners
+    }
+
+    @Override
+    default void otherDatasetChange(AbstractDatasetChangedEvent event) {
+        // Not called for coalescing listeners
+    }
+
+    @Override
+    default void dataChanged(DataChangedEvent event) {
+        // Not called for coalescing listeners
+    }
+
+    /**
+     * Called once for each transaction which changed the data set.
+     * @param event the changes of the transaction
+     */
+    void coalescedDataChanged(CoalescedDataChangedEvent event);
+}
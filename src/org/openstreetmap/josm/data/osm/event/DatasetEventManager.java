@@ -26,6 +26,7 @@ import org.openstreetmap.josm.tools.Logging;
  *
  * Events in EDT are supported, see {@link #addDatasetListener(DataSetListener, FireMode)}
  *
+ * {@link CoalescingDataSetListener}s receive one {@link CoalescedDataChangedEvent} per transaction instead of single events.
  */
 public class DatasetEventManager implements ActiveLayerChangeListener, Listener {
 
@@ -93,6 +94,41 @@ public class DatasetEventManager implements ActiveLayerChangeListener, Listener
         }
     }
 
+    private final class CoalescedEdtRunnable implements Runnable {
+        @Override
+        public void run() {
+            CoalescedDataChangedEvent mergedEvent = null;
+            CoalescedDataChangedEvent event;
+            while ((event = coalescedEventsInEDT.poll()) != null) {
+                // DataSet changed - fire merged event early
+                if (mergedEvent != null && mergedEvent.getDataset() != event.getDataset()) {
+                    fireCoalescedEvent(inEDTListeners, mergedEvent);
+                    mergedEvent = null;
+                }
+                if (mergedEvent == null) {
+                    // do not modify the event already fired to the other listeners
+                    mergedEvent = new CoalescedDataChangedEvent(event.getDataset());
+                }
+                mergedEvent.add(event);
+            }
+            if (mergedEvent != null) {
+                fireCoalescedEvent(inEDTListeners, mergedEvent);
+            }
+        }
+    }
+
+    private final class CoalescingAdapter extends DataSetListenerAdapter implements CoalescingDataSetListener {
+        CoalescingAdapter() {
+            // the data set does not fire single events to coalescing listeners
+            super(DatasetEventManager.this);
+        }
+
+        @Override
+        public void coalescedDataChanged(CoalescedDataChangedEvent event) {
+            processCoalescedEvent(event);
+        }
+    }
+
     /**
      * Event firing mode regarding Event Dispatch Thread.
      */
@@ -106,7 +142,8 @@ public class DatasetEventManager implements ActiveLayerChangeListener, Listener
          */
         IN_EDT,
         /**
-         * Fire in event dispatch thread. If more than one event arrived when event queue is checked, merged them to one event
+         * Fire in event dispatch thread. If more than one event arrived when event queue is checked, merged them to one event.
+         * The events of several transactions are always merged for {@link CoalescingDataSetListener}s fired in event dispatch thread.
          */
         IN_EDT_CONSOLIDATED
     }
@@ -145,8 +182,11 @@ public class DatasetEventManager implements ActiveLayerChangeListener, Listener
     private final Queue<AbstractDatasetChangedEvent> eventsInEDT = new LinkedBlockingQueue<>();
     private final CopyOnWriteArrayList<ListenerInfo> inEDTListeners = new CopyOnWriteArrayList<>();
     private final CopyOnWriteArrayList<ListenerInfo> normalListeners = new CopyOnWriteArrayList<>();
+    private final Queue<CoalescedDataChangedEvent> coalescedEventsInEDT = new LinkedBlockingQueue<>();
     private final DataSetListener myListener = new DataSetListenerAdapter(this);
+    private final CoalescingDataSetListener myCoalescingListener = new CoalescingAdapter();
     private final Runnable edtRunnable = new EdtRunnable();
+    private final Runnable coalescedEdtRunnable = new CoalescedEdtRunnable();
 
     /**
      * Constructs a new {@code DatasetEventManager}.
@@ -160,7 +200,7 @@ public class DatasetEventManager implements ActiveLayerChangeListener, Listener
      * @param listener the listener to be registered
      * @param fireMode If {@link FireMode#IN_EDT} or {@link FireMode#IN_EDT_CONSOLIDATED},
      * listener will be notified in event dispatch thread instead of thread that caused
-     * the dataset change
+     * the dataset change. A {@link CoalescingDataSetListener} receives {@link CoalescedDataChangedEvent}s only.
      */
     public void addDatasetListener(DataSetListener listener, FireMode fireMode) {
         if (fireMode == FireMode.IN_EDT || fireMode == FireMode.IN_EDT_CONSOLIDATED) {
@@ -185,18 +225,23 @@ public class DatasetEventManager implements ActiveLayerChangeListener, Listener
         DataSet oldData = e.getPreviousDataSet();
         if (oldData != null) {
             oldData.removeDataSetListener(myListener);
+            oldData.removeDataSetListener(myCoalescingListener);
         }
 
         DataSet newData = e.getSource().getActiveDataSet();
         if (newData != null) {
             newData.addDataSetListener(myListener);
+            newData.addDataSetListener(myCoalescingListener);
         }
         processDatasetEvent(new DataChangedEvent(newData));
+        CoalescedDataChangedEvent allChanged = new CoalescedDataChangedEvent(newData);
+        allChanged.add(new DataChangedEvent(newData));
+        processCoalescedEvent(allChanged);
     }
 
     private static void fireEvents(List<ListenerInfo> listeners, AbstractDatasetChangedEvent event) {
         for (ListenerInfo listener: listeners) {
-            if (!listener.consolidate) {
+            if (!listener.consolidate && !(listener.listener instanceof CoalescingDataSetListener)) {
                 Logging.trace("Firing {0} to {1} (normal)", event, listener.listener);
                 event.fire(listener.listener);
             }
@@ -205,13 +250,28 @@ public class DatasetEventManager implements ActiveLayerChangeListener, Listener
 
     private static void fireConsolidatedEvents(List<ListenerInfo> listeners, AbstractDatasetChangedEvent event) {
         for (ListenerInfo listener: listeners) {
-            if (listener.consolidate) {
+            if (listener.consolidate && !(listener.listener instanceof CoalescingDataSetListener)) {
                 Logging.trace("Firing {0} to {1} (consolidated)", event, listener.listener);
                 event.fire(listener.listener);
             }
         }
     }
 
+    private static void fireCoalescedEvent(List<ListenerInfo> listeners, CoalescedDataChangedEvent event) {
+        for (ListenerInfo listener: listeners) {
+            if (listener.listener instanceof CoalescingDataSetListener) {
+                Logging.trace("Firing {0} to {1} (coalesced)", event, listener.listener);
+                event.fire(listener.listener);
+            }
+        }
+    }
+
+    private void processCoalescedEvent(CoalescedDataChangedEvent event) {
+        fireCoalescedEvent(normalListeners, event);
+        coalescedEventsInEDT.add(event);
+        SwingUtilities.invokeLater(coalescedEdtRunnable);
+    }
+
     @Override
     public void processDatasetEvent(AbstractDatasetChangedEvent event) {
         fireEvents(normalListeners, event);
@@ -0,0 +1,88 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.osm.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.openstreetmap.josm.data.osm.search.SearchCompiler.Match;
+import org.openstreetmap.josm.data.preferences.BooleanProperty;
+import org.openstreetmap.josm.data.preferences.IntegerProperty;
+import org.openstreetmap.josm.tools.ParallelUtils;
+
+/**
+ * Evaluates thread-safe search criteria on large collections of primitives in parallel.
+ * <p>
+ * The primitives are split in chunks, each chunk being evaluated by a task of {@link ParallelUtils}.
+ * Only criteria which are {@linkplain Match#isThreadSafe() thread-safe} may be evaluated this way, and the primitives
+ * must not be modified during the evaluation. The results are returned in the order of the input, so that callers
+ * can apply them sequentially.
+ * @since xxx
+ */
+public final class ParallelMatcher {
+
+    /**
+     * Property to enable the parallel evaluation of searches and filters.
+     */
+    public static final BooleanProperty PROP_ENABLED = new BooleanProperty("search.parallel", true);
+
+    /**
+     * Property for the number of primitives evaluated by each task. Smaller collections are evaluated sequentially.
+     */
+    public static final IntegerProperty PROP_CHUNK_SIZE = new IntegerProperty("search.parallel.chunk-size", 5000);
+
+    private ParallelMatcher() {
+        // Hide default constructor for utils classes
+    }
+
+    /**
+     * Determines if a collection of primitives should be evaluated in parallel.
+     * @param threadSafe whether the evaluation is thread-safe, see {@link Match#isThreadSafe()}
+     * @param size the number of primitives to evaluate
+     * @return {@code true} if the primitives should be evaluated with {@link #map} or {@link #filter}
+     */
+    public static boolean isParallel(boolean threadSafe, int size) {
+        return threadSafe && ParallelUtils.isParallel(PROP_ENABLED, PROP_CHUNK_SIZE, size);
+    }
+
+    /**
+     * Determines if a collection of primitives should be searched in parallel.
+     * @param match the search criterion
+     * @param size the number of primitives to test
+     * @return {@code true} if the primitives should be tested with {@link #filter}
+     */
+    public static boolean isParallel(Match match, int size) {
+        return isParallel(match.isThreadSafe(), size);
+    }
+
+    /**
+     * Applies a thread-safe function to all elements of a list, in parallel if the list is large.
+     * @param <T> type of elements
+     * @param <R> type of results
+     * @param input the elements
+     * @param function the thread-safe function
+     * @return the results, in the order of the elements
+     */
+    public static <T, R> List<R> map(List<T> input, Function<? super T, ? extends R> function) {
+        return ParallelUtils.map(input, function, PROP_CHUNK_SIZE.get());
+    }
+
+    /**
+     * Returns the elements of a list matching a thread-safe predicate, in parallel if the list is large.
+     * @param <T> type of elements
+     * @param input the elements
+     * @param predicate the thread-safe predicate, such as a {@link Match}
+     * @return the elements matching the predicate, in the order of the list
+     */
+    public static <T> List<T> filter(List<T> input, Predicate<? super T> predicate) {
+        List<Boolean> matches = map(input, predicate::test);
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < input.size(); i++) {
+            if (matches.get(i)) {
+                result.add(input.get(i));
+            }
+        }
+        return result;
+    }
+}
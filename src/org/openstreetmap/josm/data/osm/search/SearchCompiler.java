@@ -29,6 +29,7 @@ import java.util.stream.Collectors;
 
 import org.openstreetmap.josm.data.Bounds;
 import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
 import org.openstreetmap.josm.data.osm.Node;
 import org.openstreetmap.josm.data.osm.OsmPrimitive;
 import org.openstreetmap.josm.data.osm.OsmPrimitiveType;
@@ -301,6 +302,28 @@ public class SearchCompiler {
             return tagged instanceof OsmPrimitive && match((OsmPrimitive) tagged);
         }
 
+        /**
+         * Determines if this criterion can be evaluated concurrently on several primitives, from several threads.
+         * This is the case if the criterion has no mutable state and only reads the primitives it tests.
+         * Thread-safe criteria can be evaluated in parallel on large data sets, see {@link ParallelMatcher}.
+         * @return {@code true} if this criterion is thread-safe. The default implementation returns {@code false}
+         * @since xxx
+         */
+        public boolean isThreadSafe() {
+            return false;
+        }
+
+        /**
+         * Determines if the result of this criterion only depends on the tested primitive itself: its tags, flags,
+         * and own nodes or members, but not on its parents, children or coordinates.
+         * Local criteria only need to be evaluated again on the primitives modified by a change of the data set.
+         * @return {@code true} if this criterion is local. The default implementation returns {@code false}
+         * @since xxx
+         */
+        public boolean isLocal() {
+            return false;
+        }
+
         @Override
         public final boolean test(OsmPrimitive object) {
             return match(object);
@@ -317,6 +340,16 @@ public class SearchCompiler {
             return match((Tagged) osm);
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         protected static Pattern compilePattern(String regex, int flags) throws SearchParseError {
             try {
                 return Pattern.compile(regex, flags);
@@ -351,6 +384,16 @@ public class SearchCompiler {
             return match;
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return match.isThreadSafe();
+        }
+
+        @Override
+        public boolean isLocal() {
+            return match.isLocal();
+        }
+
         @Override
         public int hashCode() {
             return 31 + ((match == null) ? 0 : match.hashCode());
@@ -418,6 +461,16 @@ public class SearchCompiler {
             return operator.apply(mapper.apply(lhs), mapper.apply(rhs));
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return lhs.isThreadSafe() && rhs.isThreadSafe();
+        }
+
+        @Override
+        public boolean isLocal() {
+            return lhs.isLocal() && rhs.isLocal();
+        }
+
         protected static String parenthesis(Match m) {
             return '(' + m.toString() + ')';
         }
@@ -653,6 +706,11 @@ public class SearchCompiler {
             return osm.isNew() ? 0 : osm.getUniqueId();
         }
 
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         protected String getString() {
             return "id";
@@ -676,6 +734,11 @@ public class SearchCompiler {
             return (long) osm.getChangesetId();
         }
 
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         protected String getString() {
             return "changeset";
@@ -699,6 +762,11 @@ public class SearchCompiler {
             return (long) osm.getVersion();
         }
 
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         protected String getString() {
             return "version";
@@ -773,6 +841,24 @@ public class SearchCompiler {
             return value;
         }
 
+        /**
+         * Determines if key and value are compared case sensitively.
+         * @return {@code true} if key and value are compared case sensitively
+         * @since xxx
+         */
+        public boolean isCaseSensitive() {
+            return caseSensitive;
+        }
+
+        /**
+         * Determines if key and value are regular expressions.
+         * @return {@code true} if key and value are regular expressions
+         * @since xxx
+         */
+        public boolean isRegexSearch() {
+            return keyPattern != null;
+        }
+
         @Override
         public String toString() {
             return key + '=' + value;
@@ -1142,6 +1228,16 @@ public class SearchCompiler {
             return type == osm.getType();
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "type=" + type;
@@ -1189,6 +1285,16 @@ public class SearchCompiler {
                 return osm.getUser().hasName(user);
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "user=" + (user == null ? "" : user);
@@ -1238,6 +1344,11 @@ public class SearchCompiler {
                     .anyMatch(testRole -> role.equals(testRole == null ? "" : testRole));
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "role=" + role;
@@ -1305,6 +1416,11 @@ public class SearchCompiler {
             return false;
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "Nth{nth=" + nth + ", modulo=" + modulo + '}';
@@ -1357,6 +1473,11 @@ public class SearchCompiler {
                 return (num >= min) && (num <= max);
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return getString() + '=' + min + '-' + max;
@@ -1402,6 +1523,11 @@ public class SearchCompiler {
             }
         }
 
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         protected String getString() {
             return "nodes";
@@ -1459,6 +1585,11 @@ public class SearchCompiler {
             }
         }
 
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         protected String getString() {
             return "members";
@@ -1482,6 +1613,11 @@ public class SearchCompiler {
             return (long) osm.getKeys().size();
         }
 
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         protected String getString() {
             return "tags";
@@ -1502,6 +1638,11 @@ public class SearchCompiler {
             return osm.getTimestamp().getTime();
         }
 
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         protected String getString() {
             return "timestamp";
@@ -1523,6 +1664,16 @@ public class SearchCompiler {
             return osm instanceof Relation && ((Relation) osm).getMemberRoles().contains(role);
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         public int hashCode() {
             return 31 + ((role == null) ? 0 : role.hashCode());
@@ -1553,6 +1704,16 @@ public class SearchCompiler {
             return osm.isNew();
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "new";
@@ -1568,6 +1729,16 @@ public class SearchCompiler {
             return osm.isModified() || osm.isNewOrUndeleted();
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "modified";
@@ -1583,6 +1754,16 @@ public class SearchCompiler {
             return osm.isDeleted();
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "deleted";
@@ -1615,6 +1796,11 @@ public class SearchCompiler {
             return osm.isIncomplete() || (osm instanceof Relation && ((Relation) osm).hasIncompleteMembers());
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "incomplete";
@@ -1632,6 +1818,16 @@ public class SearchCompiler {
             return !osm.isTagged() && !osm.isIncomplete();
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "untagged";
@@ -1647,6 +1843,16 @@ public class SearchCompiler {
             return osm instanceof Way && ((Way) osm).isClosed();
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "closed";
@@ -1672,6 +1878,11 @@ public class SearchCompiler {
             }
         }
 
+        @Override
+        public boolean isLocal() {
+            return false;
+        }
+
         @Override
         public String toString() {
             return "parent(" + match + ')';
@@ -1692,6 +1903,11 @@ public class SearchCompiler {
             return osm.getReferrers().stream().anyMatch(match::match);
         }
 
+        @Override
+        public boolean isLocal() {
+            return false;
+        }
+
         @Override
         public String toString() {
             return "child(" + match + ')';
@@ -1719,6 +1935,12 @@ public class SearchCompiler {
             return area == null ? null : area.longValue();
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            // computing the area fills the cache of projected coordinates of the nodes
+            return false;
+        }
+
         @Override
         protected String getString() {
             return "areasize";
@@ -1768,6 +1990,25 @@ public class SearchCompiler {
 
         protected abstract Collection<Bounds> getBounds(OsmPrimitive primitive);
 
+        /**
+         * Returns the areas in which primitives of the given data set can match, to look up candidates in its spatial index.
+         * @param ds the data set
+         * @return the areas in which primitives can match, or {@code null} if they are not known in advance
+         * @since xxx
+         */
+        protected Collection<Bounds> getSearchBounds(DataSet ds) {
+            return null;
+        }
+
+        /**
+         * Determines if all way nodes or relation members have to be within the area.
+         * @return {@code true} if all way nodes or relation members have to be within the area, {@code false} if one suffices
+         * @since xxx
+         */
+        public boolean isAll() {
+            return all;
+        }
+
         @Override
         public boolean match(OsmPrimitive osm) {
             if (!osm.isUsable())
@@ -1820,6 +2061,11 @@ public class SearchCompiler {
             return primitive.getDataSet() != null ? primitive.getDataSet().getDataSourceBounds() : null;
         }
 
+        @Override
+        protected Collection<Bounds> getSearchBounds(DataSet ds) {
+            return ds.getDataSourceBounds();
+        }
+
         @Override
         public String toString() {
             return all ? "allindownloadedarea" : "indownloadedarea";
@@ -1846,6 +2092,12 @@ public class SearchCompiler {
                     Collections.singleton(ProjectionRegistry.getProjection().getWorldBoundsLatLon()) : bounds;
         }
 
+        @Override
+        protected Collection<Bounds> getSearchBounds(DataSet ds) {
+            // without source area, everything matches
+            return ds.getDataSourceBounds().isEmpty() ? null : ds.getDataSourceBounds();
+        }
+
         @Override
         public String toString() {
             return "NotOutsideDataSourceArea";
@@ -0,0 +1,178 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.osm.search;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.openstreetmap.josm.data.Bounds;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.OsmPrimitiveType;
+import org.openstreetmap.josm.data.osm.TagIndex;
+import org.openstreetmap.josm.data.osm.search.SearchCompiler.And;
+import org.openstreetmap.josm.data.osm.search.SearchCompiler.ExactKeyValue;
+import org.openstreetmap.josm.data.osm.search.SearchCompiler.ExactType;
+import org.openstreetmap.josm.data.osm.search.SearchCompiler.InArea;
+import org.openstreetmap.josm.data.osm.search.SearchCompiler.KeyValue;
+import org.openstreetmap.josm.data.osm.search.SearchCompiler.Match;
+import org.openstreetmap.josm.data.osm.search.SearchCompiler.Or;
+
+/**
+ * Query planner for compiled searches.
+ * <p>
+ * Instead of evaluating the whole {@link Match} tree against every primitive of a data set, the planner looks up the
+ * primitives which can match in the indexes of the data set: tags in the {@link TagIndex}
+ * ({@link ExactKeyValue} and {@link KeyValue}), types ({@link ExactType}), and areas in the spatial index
+ * ({@link InArea}). Terms which cannot be looked up in an index, like {@code modified}, do not restrict the candidates.
+ * The returned candidates are a superset of the matching primitives: the match must still be evaluated on each of them.
+ * @since xxx
+ */
+public final class SearchPlanner {
+
+    /**
+     * Primitives that can match a term.
+     */
+    private static final class Candidates {
+        /** the candidate primitives, possibly with a few primitives which are not in {@link #contains} */
+        private final Collection<? extends OsmPrimitive> items;
+        /** an estimate of the number of items, only used to plan intersections */
+        private final int size;
+        /** quick test of membership */
+        private final Predicate<OsmPrimitive> contains;
+
+        Candidates(Set<OsmPrimitive> items) {
+            this(items, items.size(), items::contains);
+        }
+
+        Candidates(Collection<? extends OsmPrimitive> items, int size, Predicate<OsmPrimitive> contains) {
+            this.items = items;
+            this.size = size;
+            this.contains = contains;
+        }
+    }
+
+    private SearchPlanner() {
+        // Hide default constructor for utils classes
+    }
+
+    /**
+     * Returns the primitives of a data set which can match a search, using the indexes of the data set.
+     * @param ds the data set
+     * @param match the compiled search
+     * @return the primitives of the data set which can match, or {@code null} if all primitives have to be tested
+     */
+    public static Collection<OsmPrimitive> getCandidates(DataSet ds, Match match) {
+        Candidates candidates = plan(ds, match);
+        if (candidates == null) {
+            return null;
+        }
+        // the index may lag behind the data set, do not return primitives which have been removed in between
+        return candidates.items.stream().filter(p -> p.getDataSet() == ds).collect(Collectors.toList());
+    }
+
+    /**
+     * Plans a term.
+     * @return the candidates of the term, or {@code null} if the term cannot be looked up in an index
+     */
+    private static Candidates plan(DataSet ds, Match match) {
+        if (match instanceof And) {
+            return intersection(plan(ds, ((And) match).getLhs()), plan(ds, ((And) match).getRhs()));
+        } else if (match instanceof Or) {
+            return union(plan(ds, ((Or) match).getLhs()), plan(ds, ((Or) match).getRhs()));
+        } else if (match instanceof ExactKeyValue) {
+            return plan(ds.getTagIndex(), (ExactKeyValue) match);
+        } else if (match instanceof KeyValue) {
+            return plan(ds.getTagIndex(), (KeyValue) match);
+        } else if (match instanceof ExactType) {
+            return plan(ds, ((ExactType) match).getType());
+        } else if (match instanceof InArea && !((InArea) match).isAll()) {
+            return plan(ds, ((InArea) match).getSearchBounds(ds));
+        }
+        return null;
+    }
+
+    private static Candidates plan(TagIndex index, ExactKeyValue match) {
+        switch (match.getMode()) {
+        case EXACT:
+            return new Candidates(index.get(match.getKey(), match.getValue()));
+        case ANY_VALUE:
+            return new Candidates(index.get(match.getKey()));
+        default:
+            return null;
+        }
+    }
+
+    private static Candidates plan(TagIndex index, KeyValue match) {
+        if (match.isRegexSearch() || "timestamp".equals(match.getKey())) {
+            return null;
+        }
+        // the value is searched as a substring: look up all primitives having the key
+        if (match.isCaseSensitive()) {
+            return new Candidates(index.get(match.getKey()));
+        }
+        Set<OsmPrimitive> result = new HashSet<>();
+        for (String key : index.getKeys()) {
+            if (key.equalsIgnoreCase(match.getKey())) {
+                result.addAll(index.get(key));
+            }
+        }
+        return new Candidates(result);
+    }
+
+    private static Candidates plan(DataSet ds, OsmPrimitiveType type) {
+        Collection<? extends OsmPrimitive> items;
+        switch (type) {
+        case NODE:
+            items = ds.getNodes();
+            break;
+        case WAY:
+            items = ds.getWays();
+            break;
+        default:
+            items = ds.getRelations();
+        }
+        // the collections are filtered views of all primitives: do not use them to drive an intersection
+        return new Candidates(items, Integer.MAX_VALUE, p -> p.getType() == type);
+    }
+
+    private static Candidates plan(DataSet ds, Collection<Bounds> bounds) {
+        if (bounds == null) {
+            return null;
+        }
+        Set<OsmPrimitive> result = new HashSet<>();
+        for (Bounds b : bounds) {
+            result.addAll(ds.searchPrimitives(b.toBBox()));
+        }
+        return new Candidates(result);
+    }
+
+    private static Candidates intersection(Candidates a, Candidates b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        }
+        Candidates smaller = a.size <= b.size ? a : b;
+        Candidates larger = smaller == a ? b : a;
+        Set<OsmPrimitive> result = new HashSet<>();
+        for (OsmPrimitive p : smaller.items) {
+            if (larger.contains.test(p)) {
+                result.add(p);
+            }
+        }
+        return new Candidates(result);
+    }
+
+    private static Candidates union(Candidates a, Candidates b) {
+        if (a == null || b == null || a.size == Integer.MAX_VALUE || b.size == Integer.MAX_VALUE) {
+            return null;
+        }
+        Set<OsmPrimitive> result = new LinkedHashSet<>(a.items);
+        result.addAll(b.items);
+        return new Candidates(result);
+    }
+}
@@ -3,9 +3,13 @@ package org.openstreetmap.josm.data.osm.visitor.paint.relations;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.openstreetmap.josm.data.osm.DataSelectionListener;
@@ -15,8 +19,10 @@ import org.openstreetmap.josm.data.osm.OsmPrimitive;
 import org.openstreetmap.josm.data.osm.Relation;
 import org.openstreetmap.josm.data.osm.Way;
 import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent;
+import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent.DatasetEventType;
+import org.openstreetmap.josm.data.osm.event.CoalescedDataChangedEvent;
+import org.openstreetmap.josm.data.osm.event.CoalescingDataSetListener;
 import org.openstreetmap.josm.data.osm.event.DataChangedEvent;
-import org.openstreetmap.josm.data.osm.event.DataSetListener;
 import org.openstreetmap.josm.data.osm.event.NodeMovedEvent;
 import org.openstreetmap.josm.data.osm.event.PrimitivesAddedEvent;
 import org.openstreetmap.josm.data.osm.event.PrimitivesRemovedEvent;
@@ -39,10 +45,15 @@ import org.openstreetmap.josm.gui.layer.OsmDataLayer;
  * A memory cache for {@link Multipolygon} objects.
  * @since 4623
  */
-public final class MultipolygonCache implements DataSetListener, LayerChangeListener, ProjectionChangeListener, DataSelectionListener {
+public final class MultipolygonCache implements CoalescingDataSetListener, LayerChangeListener, ProjectionChangeListener, DataSelectionListener {
 
     private static final MultipolygonCache INSTANCE = new MultipolygonCache();
 
+    /** Types of changes which may change the geometry of multipolygons */
+    private static final Set<DatasetEventType> GEOMETRY_CHANGES = EnumSet.of(DatasetEventType.NODE_MOVED,
+            DatasetEventType.PRIMITIVES_ADDED, DatasetEventType.PRIMITIVES_REMOVED, DatasetEventType.RELATION_MEMBERS_CHANGED,
+            DatasetEventType.TAGS_CHANGED, DatasetEventType.WAY_NODES_CHANGED);
+
     private final Map<DataSet, Map<Relation, Multipolygon>> cache = new ConcurrentHashMap<>(); // see ticket 11833
 
     private final Collection<PolyData> selectedPolyData = new ArrayList<>();
@@ -267,6 +278,26 @@ public final class MultipolygonCache implements DataSetListener, LayerChangeList
         }
     }
 
+    @Override
+    public void coalescedDataChanged(CoalescedDataChangedEvent event) {
+        List<AbstractDatasetChangedEvent> events = event.getEvents();
+        if (events != null) {
+            // few changes: process them one by one, node moves and way node changes can update cached multipolygons
+            for (AbstractDatasetChangedEvent e : events) {
+                e.fire(this);
+            }
+        } else if (event.getTypes().contains(DatasetEventType.DATA_CHANGED)) {
+            dataChanged(new DataChangedEvent(event.getDataset()));
+        } else {
+            // many changes: remove the multipolygons referring to any primitive changed in a way relevant to the geometry
+            Set<OsmPrimitive> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (DatasetEventType type : GEOMETRY_CHANGES) {
+                changed.addAll(event.getPrimitives(type));
+            }
+            updateMultipolygonsReferringTo(event, changed, event.getDataset());
+        }
+    }
+
     @Override
     public void layerAdded(LayerAddEvent e) {
         // Do nothing
@@ -4,7 +4,6 @@ package org.openstreetmap.josm.data.validation.tests;
 import static org.openstreetmap.josm.tools.I18n.tr;
 
 import java.awt.geom.Area;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -62,7 +61,6 @@ import org.openstreetmap.josm.gui.progress.ProgressMonitor;
 import org.openstreetmap.josm.io.CachedFile;
 import org.openstreetmap.josm.io.FileWatcher;
 import org.openstreetmap.josm.io.IllegalDataException;
-import org.openstreetmap.josm.io.UTFInputStreamReader;
 import org.openstreetmap.josm.spi.preferences.Config;
 import org.openstreetmap.josm.tools.CheckParameterUtil;
 import org.openstreetmap.josm.tools.I18n;
@@ -355,7 +353,17 @@ public class MapCSSTagChecker extends Test.TagTest {
 
             final MapCSSStyleSource source = new MapCSSStyleSource("");
             final MapCSSParser preprocessor = new MapCSSParser(css, MapCSSParser.LexicalState.PREPROCESSOR);
-            try (StringReader mapcss = new StringReader(preprocessor.pp_root(source))) {
+            return readMapCSS(source, preprocessor.pp_root(source), assertionConsumer);
+        }
+
+        static ParseResult readMapCSS(String url, InputStream css, AssertionConsumer assertionConsumer) throws ParseException, IOException {
+            final MapCSSStyleSource source = new MapCSSStyleSource("");
+            return readMapCSS(source, MapCSSStyleSource.preprocess(url, css, source), assertionConsumer);
+        }
+
+        private static ParseResult readMapCSS(MapCSSStyleSource source, String preprocessed, AssertionConsumer assertionConsumer)
+                throws ParseException {
+            try (StringReader mapcss = new StringReader(preprocessed)) {
                 new MapCSSParser(mapcss, MapCSSParser.LexicalState.DEFAULT).sheet(source);
             }
             // Ignore "meta" rule(s) from external rules of JOSM wiki
@@ -783,11 +791,10 @@ public class MapCSSTagChecker extends Test.TagTest {
         ParseResult result;
         try (CachedFile cache = new CachedFile(url);
              InputStream zip = cache.findZipEntryInputStream("validator.mapcss", "");
-             InputStream s = zip != null ? zip : cache.getInputStream();
-             Reader reader = new BufferedReader(UTFInputStreamReader.create(s))) {
+             InputStream s = zip != null ? zip : cache.getInputStream()) {
             if (zip != null)
                 I18n.addTexts(cache.getFile());
-            result = TagCheck.readMapCSS(reader, assertionConsumer);
+            result = TagCheck.readMapCSS(url, s, assertionConsumer);
             checks.remove(url);
             checks.putAll(url, result.parseChecks);
             urlTitles.put(url, findURLTitle(url));
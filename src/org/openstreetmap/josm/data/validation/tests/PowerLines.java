@@ -22,7 +22,7 @@ import org.openstreetmap.josm.data.validation.Severity;
 import org.openstreetmap.josm.data.validation.Test;
 import org.openstreetmap.josm.data.validation.TestError;
 import org.openstreetmap.josm.gui.progress.ProgressMonitor;
-import org.openstreetmap.josm.tools.Geometry;
+import org.openstreetmap.josm.tools.PreparedPolygon;
 
 /**
  * Checks for nodes in power lines/minor_lines that do not have a power=tower/pole tag.<br>
@@ -50,6 +50,8 @@ public class PowerLines extends Test {
     private final Set<Node> missingTowerOrPole = new LinkedHashSet<>();
 
     private final List<OsmPrimitive> powerStations = new ArrayList<>();
+    /** The polygons of {@link #powerStations}, prepared at first use */
+    private List<PreparedPolygon> powerStationPolygons;
 
     /**
      * Constructs a new {@code PowerLines} test.
@@ -138,22 +140,24 @@ public class PowerLines extends Test {
     }
 
     protected final boolean isInPowerStation(Node n) {
-        for (OsmPrimitive station : powerStations) {
-            List<List<Node>> nodesLists = new ArrayList<>();
-            if (station instanceof Way) {
-                nodesLists.add(((Way) station).getNodes());
-            } else if (station instanceof Relation) {
-                Multipolygon polygon = MultipolygonCache.getInstance().get((Relation) station);
-                if (polygon != null) {
-                    for (JoinedWay outer : Multipolygon.joinWays(polygon.getOuterWays())) {
-                        nodesLists.add(outer.getNodes());
+        if (powerStationPolygons == null) {
+            powerStationPolygons = new ArrayList<>();
+            for (OsmPrimitive station : powerStations) {
+                if (station instanceof Way) {
+                    powerStationPolygons.add(new PreparedPolygon(((Way) station).getNodes()));
+                } else if (station instanceof Relation) {
+                    Multipolygon polygon = MultipolygonCache.getInstance().get((Relation) station);
+                    if (polygon != null) {
+                        for (JoinedWay outer : Multipolygon.joinWays(polygon.getOuterWays())) {
+                            powerStationPolygons.add(new PreparedPolygon(outer.getNodes()));
+                        }
                     }
                 }
             }
-            for (List<Node> nodes : nodesLists) {
-                if (Geometry.nodeInsidePolygon(n, nodes)) {
-                    return true;
-                }
+        }
+        for (PreparedPolygon polygon : powerStationPolygons) {
+            if (polygon.contains(n)) {
+                return true;
             }
         }
         return false;
@@ -217,6 +221,7 @@ public class PowerLines extends Test {
 
     private void clearCollections() {
         powerStations.clear();
+        powerStationPolygons = null;
         badConnections.clear();
         missingTowerOrPole.clear();
     }
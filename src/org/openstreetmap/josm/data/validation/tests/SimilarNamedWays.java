@@ -8,12 +8,15 @@ import static org.openstreetmap.josm.tools.I18n.tr;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.openstreetmap.josm.data.osm.OsmPrimitive;
 import org.openstreetmap.josm.data.osm.Way;
@@ -22,7 +25,7 @@ import org.openstreetmap.josm.data.validation.Test;
 import org.openstreetmap.josm.data.validation.TestError;
 import org.openstreetmap.josm.data.validation.util.ValUtil;
 import org.openstreetmap.josm.gui.progress.ProgressMonitor;
-import org.openstreetmap.josm.tools.MultiMap;
+import org.openstreetmap.josm.tools.ParallelUtils;
 import org.openstreetmap.josm.tools.Utils;
 
 /**
@@ -37,11 +40,47 @@ public class SimilarNamedWays extends Test {
 
     /** All ways, grouped by cells */
     private Map<Point2D, List<Way>> cellWays;
-    /** The already detected errors */
-    private MultiMap<Way, Way> errorWays;
+    /** The names of all ways, in visiting order */
+    private Map<Way, NamedWay> namedWays;
 
     private final List<NormalizeRule> rules = new ArrayList<>();
 
+    /**
+     * A way with its name, normalized by each rule.
+     */
+    private static final class NamedWay {
+        private final Way way;
+        private final int index;
+        private final String name;
+        private final String[] normalizedNames;
+
+        NamedWay(Way way, int index, String name, List<NormalizeRule> rules) {
+            this.way = way;
+            this.index = index;
+            this.name = name;
+            this.normalizedNames = new String[rules.size()];
+            for (int i = 0; i < normalizedNames.length; i++) {
+                normalizedNames[i] = rules.get(i).normalize(name);
+            }
+        }
+    }
+
+    /**
+     * A pair of similarly named ways: {@code way} has been visited after {@code other}.
+     */
+    private static final class SimilarPair {
+        private static final Comparator<SimilarPair> VISITING_ORDER =
+                Comparator.<SimilarPair>comparingInt(p -> p.way.index).thenComparingInt(p -> p.other.index);
+
+        private final NamedWay way;
+        private final NamedWay other;
+
+        SimilarPair(NamedWay way, NamedWay other) {
+            this.way = way;
+            this.other = other;
+        }
+    }
+
     /**
      * Constructor
      */
@@ -63,13 +102,24 @@ public class SimilarNamedWays extends Test {
     public void startTest(ProgressMonitor monitor) {
         super.startTest(monitor);
         cellWays = new HashMap<>(1000);
-        errorWays = new MultiMap<>();
+        namedWays = new HashMap<>();
     }
 
     @Override
     public void endTest() {
+        if (!isCanceled()) {
+            for (SimilarPair pair : findSimilarPairs()) {
+                List<OsmPrimitive> primitives = new ArrayList<>(2);
+                primitives.add(pair.way.way);
+                primitives.add(pair.other.way);
+                errors.add(TestError.builder(this, Severity.WARNING, SIMILAR_NAMED)
+                        .message(tr("Similarly named ways"))
+                        .primitives(primitives)
+                        .build());
+            }
+        }
         cellWays = null;
-        errorWays = null;
+        namedWays = null;
         super.endTest();
     }
 
@@ -79,34 +129,43 @@ public class SimilarNamedWays extends Test {
             return;
 
         String name = w.get("name");
-        if (name == null || name.length() < 6)
+        if (name == null || name.length() < 6 || namedWays.containsKey(w))
             return;
 
-        List<List<Way>> theCellWays = ValUtil.getWaysInCell(w, cellWays);
-        for (List<Way> ways : theCellWays) {
-            for (Way w2 : ways) {
-                if (errorWays.contains(w, w2) || errorWays.contains(w2, w)) {
-                    continue;
-                }
+        namedWays.put(w, new NamedWay(w, namedWays.size(), name, rules));
+        for (List<Way> ways : ValUtil.getWaysInCell(w, cellWays)) {
+            ways.add(w);
+        }
+    }
 
-                String name2 = w2.get("name");
-                if (name2 == null || name2.length() < 6) {
-                    continue;
-                }
+    /**
+     * Compares the names of the ways of each cell, in parallel.
+     * @return the pairs of similarly named ways, in visiting order
+     */
+    private TreeSet<SimilarPair> findSimilarPairs() {
+        List<List<NamedWay>> cells = cellWays.values().stream()
+                .filter(ways -> ways.size() > 1)
+                .map(ways -> ways.stream().map(namedWays::get).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+        TreeSet<SimilarPair> pairs = new TreeSet<>(SimilarPair.VISITING_ORDER);
+        for (List<SimilarPair> cellPairs : ParallelUtils.map(cells, this::findSimilarPairs, 1)) {
+            pairs.addAll(cellPairs);
+        }
+        return pairs;
+    }
 
-                if (similaryName(name, name2)) {
-                    List<OsmPrimitive> primitives = new ArrayList<>(2);
-                    primitives.add(w);
-                    primitives.add(w2);
-                    errors.add(TestError.builder(this, Severity.WARNING, SIMILAR_NAMED)
-                            .message(tr("Similarly named ways"))
-                            .primitives(primitives)
-                            .build());
-                    errorWays.put(w, w2);
+    private List<SimilarPair> findSimilarPairs(List<NamedWay> cell) {
+        List<SimilarPair> pairs = new ArrayList<>();
+        for (int i = 1; i < cell.size(); i++) {
+            NamedWay w = cell.get(i);
+            for (int j = 0; j < i; j++) {
+                NamedWay w2 = cell.get(j);
+                if (similaryName(w.name, w.normalizedNames, w2.name, w2.normalizedNames)) {
+                    pairs.add(new SimilarPair(w, w2));
                 }
             }
-            ways.add(w);
         }
+        return pairs;
     }
 
     /**
@@ -139,15 +198,24 @@ public class SimilarNamedWays extends Test {
      * @return true if the normalized names are different but only a "little bit"
      */
     public boolean similaryName(String name, String name2) {
+        String[] normalizedNames = new String[rules.size()];
+        String[] normalizedNames2 = new String[rules.size()];
+        for (int i = 0; i < normalizedNames.length; i++) {
+            normalizedNames[i] = rules.get(i).normalize(name);
+            normalizedNames2[i] = rules.get(i).normalize(name2);
+        }
+        return similaryName(name, normalizedNames, name2, normalizedNames2);
+    }
+
+    private static boolean similaryName(String name, String[] normalizedNames, String name2, String[] normalizedNames2) {
         boolean similar = Utils.isSimilar(name, name2);
 
         // try all rules
-        for (NormalizeRule rule : rules) {
-            int levenshteinDistance = Utils.getLevenshteinDistance(rule.normalize(name), rule.normalize(name2));
-            if (levenshteinDistance == 0)
+        for (int i = 0; i < normalizedNames.length; i++) {
+            if (normalizedNames[i].equals(normalizedNames2[i]))
                 // one rule results in identical names: identical
                 return false;
-            else if (levenshteinDistance <= 2) {
+            else if (!similar && Utils.getLevenshteinDistance(normalizedNames[i], normalizedNames2[i], 2) <= 2) {
                 // 0 < distance <= 2
                 similar = true;
             }
@@ -147,7 +147,7 @@ import org.openstreetmap.josm.spi.lifecycle.Lifecycle;
 import org.openstreetmap.josm.spi.preferences.Config;
 import org.openstreetmap.josm.tools.FontsManager;
 import org.openstreetmap.josm.tools.GBC;
-import org.openstreetmap.josm.tools.Http1Client;
+import org.openstreetmap.josm.tools.Http2Client;
 import org.openstreetmap.josm.tools.HttpClient;
 import org.openstreetmap.josm.tools.I18n;
 import org.openstreetmap.josm.tools.ImageProvider;
@@ -1045,7 +1045,7 @@ public class MainApplication {
     }
 
     static void setupCallbacks() {
-        HttpClient.setFactory(Http1Client::new);
+        HttpClient.setFactory(Http2Client::createPreferred);
         OsmConnection.setOAuthAccessTokenFetcher(OAuthAuthorizationWizard::obtainAccessToken);
         AbstractCredentialsAgent.setCredentialsProvider(CredentialDialog::promptCredentials);
         MessageNotifier.setNotifierCallback(MainApplication::notifyNewMessages);
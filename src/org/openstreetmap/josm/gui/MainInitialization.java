@@ -32,6 +32,7 @@ import org.openstreetmap.josm.io.OsmTransferCanceledException;
 import org.openstreetmap.josm.io.imagery.ApiKeyProvider;
 import org.openstreetmap.josm.spi.lifecycle.InitializationSequence;
 import org.openstreetmap.josm.spi.lifecycle.InitializationTask;
+import org.openstreetmap.josm.spi.lifecycle.Lifecycle;
 import org.openstreetmap.josm.spi.preferences.Config;
 import org.openstreetmap.josm.tools.I18n;
 import org.openstreetmap.josm.tools.ImageProvider;
@@ -39,6 +40,7 @@ import org.openstreetmap.josm.tools.Logging;
 import org.openstreetmap.josm.tools.OpenBrowser;
 import org.openstreetmap.josm.tools.PlatformManager;
 import org.openstreetmap.josm.tools.Shortcut;
+import org.openstreetmap.josm.tools.Stopwatch;
 import org.openstreetmap.josm.tools.Tag2Link;
 import org.openstreetmap.josm.tools.Territories;
 import org.openstreetmap.josm.tools.Utils;
@@ -119,7 +121,6 @@ public class MainInitialization implements InitializationSequence {
             new InitializationTask(tr("Initializing validator"), OsmValidator::initialize),
             new InitializationTask(tr("Initializing presets"), TaggingPresets::initialize),
             new InitializationTask(tr("Initializing map styles"), MapPaintPreference::initialize),
-            new InitializationTask(tr("Initializing Tag2Link rules"), Tag2Link::initialize),
             new InitializationTask(tr("Loading imagery preferences"), ImageryPreference::initialize)
         );
     }
@@ -131,12 +132,23 @@ public class MainInitialization implements InitializationSequence {
 
     @Override
     public List<Runnable> asynchronousRunnableTasks() {
+        // not needed before first use, when they are initialized on demand if not completed yet
         return Arrays.asList(
                 TMSLayer::getCache,
-                OsmValidator::initializeTests
+                timed(tr("Initializing validator tests"), OsmValidator::initializeTests),
+                timed(tr("Initializing Tag2Link rules"), Tag2Link::initializeIfNeeded)
             );
     }
 
+    private static Runnable timed(String name, Runnable task) {
+        return () -> {
+            final Stopwatch stopwatch = Stopwatch.createStarted();
+            task.run();
+            Lifecycle.addInitializationTime(name, stopwatch.elapsed());
+            Logging.debug(stopwatch.toString(name));
+        };
+    }
+
     @Override
     public List<InitializationTask> afterInitializationTasks() {
         return Arrays.asList(
@@ -29,7 +29,6 @@ import javax.swing.table.TableModel;
 import org.openstreetmap.josm.actions.mapmode.MapMode;
 import org.openstreetmap.josm.actions.search.SearchAction;
 import org.openstreetmap.josm.data.osm.Filter;
-import org.openstreetmap.josm.data.osm.FilterModel;
 import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent;
 import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent.DatasetEventType;
 import org.openstreetmap.josm.data.osm.event.DataChangedEvent;
@@ -379,44 +378,44 @@ public class FilterDialog extends ToggleDialog implements DataSetListener, MapMo
 
     @Override
     public void dataChanged(DataChangedEvent event) {
-        filterModel.executeFilters();
+        filterModel.executeFilters(event);
     }
 
     @Override
     public void nodeMoved(NodeMovedEvent event) {
-        filterModel.executeFilters();
+        filterModel.executeFilters(event);
     }
 
     @Override
     public void otherDatasetChange(AbstractDatasetChangedEvent event) {
         if (DatasetEventType.FILTERS_CHANGED != event.getType()) {
-            filterModel.executeFilters();
+            filterModel.executeFilters(event);
         }
     }
 
     @Override
     public void primitivesAdded(PrimitivesAddedEvent event) {
-        filterModel.executeFilters(event.getPrimitives());
+        filterModel.executeFilters(event);
     }
 
     @Override
     public void primitivesRemoved(PrimitivesRemovedEvent event) {
-        filterModel.executeFilters();
+        filterModel.executeFilters(event);
     }
 
     @Override
     public void relationMembersChanged(RelationMembersChangedEvent event) {
-        filterModel.executeFilters(FilterModel.getAffectedPrimitives(event.getPrimitives()));
+        filterModel.executeFilters(event);
     }
 
     @Override
     public void tagsChanged(TagsChangedEvent event) {
-        filterModel.executeFilters(FilterModel.getAffectedPrimitives(event.getPrimitives()));
+        filterModel.executeFilters(event);
     }
 
     @Override
     public void wayNodesChanged(WayNodesChangedEvent event) {
-        filterModel.executeFilters(FilterModel.getAffectedPrimitives(event.getPrimitives()));
+        filterModel.executeFilters(event);
     }
 
     @Override
@@ -19,6 +19,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -51,18 +52,12 @@ import org.openstreetmap.josm.data.osm.OsmPrimitive;
 import org.openstreetmap.josm.data.osm.OsmPrimitiveComparator;
 import org.openstreetmap.josm.data.osm.Relation;
 import org.openstreetmap.josm.data.osm.Way;
-import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent;
-import org.openstreetmap.josm.data.osm.event.DataChangedEvent;
-import org.openstreetmap.josm.data.osm.event.DataSetListener;
+import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent.DatasetEventType;
+import org.openstreetmap.josm.data.osm.event.CoalescedDataChangedEvent;
+import org.openstreetmap.josm.data.osm.event.CoalescingDataSetListener;
 import org.openstreetmap.josm.data.osm.event.DatasetEventManager;
 import org.openstreetmap.josm.data.osm.event.DatasetEventManager.FireMode;
-import org.openstreetmap.josm.data.osm.event.NodeMovedEvent;
-import org.openstreetmap.josm.data.osm.event.PrimitivesAddedEvent;
-import org.openstreetmap.josm.data.osm.event.PrimitivesRemovedEvent;
-import org.openstreetmap.josm.data.osm.event.RelationMembersChangedEvent;
 import org.openstreetmap.josm.data.osm.event.SelectionEventManager;
-import org.openstreetmap.josm.data.osm.event.TagsChangedEvent;
-import org.openstreetmap.josm.data.osm.event.WayNodesChangedEvent;
 import org.openstreetmap.josm.data.osm.search.SearchSetting;
 import org.openstreetmap.josm.data.osm.visitor.BoundingXYVisitor;
 import org.openstreetmap.josm.gui.MainApplication;
@@ -469,7 +464,7 @@ public class SelectionListDialog extends ToggleDialog {
      *
      */
     static class SelectionListModel extends AbstractListModel<OsmPrimitive>
-    implements ActiveLayerChangeListener, DataSelectionListener, DataSetListener {
+    implements ActiveLayerChangeListener, DataSelectionListener, CoalescingDataSetListener {
 
         private static final int SELECTION_HISTORY_SIZE = 10;
 
@@ -631,6 +626,18 @@ public class SelectionListDialog extends ToggleDialog {
             setSelected(sel);
         }
 
+        private synchronized void updateChanged(Set<OsmPrimitive> changed) {
+            if (changed.isEmpty()) return;
+            Collection<OsmPrimitive> sel = getSelected();
+            // look up each selected primitive in the changed set, instead of each changed primitive in the selection
+            for (int i = 0; i < selection.size(); i++) {
+                if (changed.contains(selection.get(i))) {
+                    super.fireContentsChanged(this, i, i);
+                }
+            }
+            setSelected(sel);
+        }
+
         /**
          * Sorts the current elements in the selection
          */
@@ -675,52 +682,17 @@ public class SelectionListDialog extends ToggleDialog {
         }
 
         /* ------------------------------------------------------------------------ */
-        /* interface DataSetListener                                                */
+        /* interface CoalescingDataSetListener                                      */
         /* ------------------------------------------------------------------------ */
         @Override
-        public void dataChanged(DataChangedEvent event) {
-            // refresh the whole list
-            fireContentsChanged(this, 0, getSize());
-        }
-
-        @Override
-        public void nodeMoved(NodeMovedEvent event) {
-            // may influence the display name of primitives, update the data
-            update(event.getPrimitives());
-        }
-
-        @Override
-        public void otherDatasetChange(AbstractDatasetChangedEvent event) {
-            // may influence the display name of primitives, update the data
-            update(event.getPrimitives());
-        }
-
-        @Override
-        public void relationMembersChanged(RelationMembersChangedEvent event) {
-            // may influence the display name of primitives, update the data
-            update(event.getPrimitives());
-        }
-
-        @Override
-        public void tagsChanged(TagsChangedEvent event) {
-            // may influence the display name of primitives, update the data
-            update(event.getPrimitives());
-        }
-
-        @Override
-        public void wayNodesChanged(WayNodesChangedEvent event) {
-            // may influence the display name of primitives, update the data
-            update(event.getPrimitives());
-        }
-
-        @Override
-        public void primitivesAdded(PrimitivesAddedEvent event) {
-            /* ignored - handled by SelectionChangeListener */
-        }
-
-        @Override
-        public void primitivesRemoved(PrimitivesRemovedEvent event) {
-            /* ignored - handled by SelectionChangeListener*/
+        public void coalescedDataChanged(CoalescedDataChangedEvent event) {
+            if (event.getTypes().contains(DatasetEventType.DATA_CHANGED)) {
+                // refresh the whole list
+                fireContentsChanged(this, 0, getSize());
+            } else {
+                // may influence the display name of primitives, update the data
+                updateChanged(event.getPrimitives());
+            }
         }
     }
 
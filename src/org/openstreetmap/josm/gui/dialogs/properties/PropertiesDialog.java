@@ -78,6 +78,9 @@ import org.openstreetmap.josm.data.osm.Tag;
 import org.openstreetmap.josm.data.osm.Tags;
 import org.openstreetmap.josm.data.osm.Way;
 import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent;
+import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent.DatasetEventType;
+import org.openstreetmap.josm.data.osm.event.CoalescedDataChangedEvent;
+import org.openstreetmap.josm.data.osm.event.CoalescingDataSetListener;
 import org.openstreetmap.josm.data.osm.event.DataSetListenerAdapter;
 import org.openstreetmap.josm.data.osm.event.DatasetEventManager;
 import org.openstreetmap.josm.data.osm.event.DatasetEventManager.FireMode;
@@ -190,7 +193,7 @@ implements DataSelectionListener, ActiveLayerChangeListener, DataSetListenerAdap
      */
     private final transient TagEditHelper editHelper = new TagEditHelper(tagTable, tagData, valueCount);
 
-    private final transient DataSetListenerAdapter dataChangedAdapter = new DataSetListenerAdapter(this);
+    private final transient DataSetListenerAdapter dataChangedAdapter = new DataChangedAdapter();
     private final HelpAction helpTagAction = new HelpTagAction(tagTable, editHelper::getDataKey, editHelper::getDataValues);
     private final HelpAction helpRelAction = new HelpMembershipAction(membershipTable, x -> (IRelation<?>) membershipData.getValueAt(x, 0));
     private final TaginfoAction taginfoAction = new TaginfoAction(
@@ -778,6 +781,36 @@ implements DataSelectionListener, ActiveLayerChangeListener, DataSetListenerAdap
         updateSelection();
     }
 
+    /**
+     * Determines if the changes of a transaction are displayed by this dialog.
+     * @param event the changes of the transaction
+     * @return {@code true} if a selected primitive or a relation changed
+     */
+    private static boolean isDisplayed(CoalescedDataChangedEvent event) {
+        if (event.getTypes().contains(DatasetEventType.DATA_CHANGED))
+            return true;
+        Set<OsmPrimitive> changed = event.getPrimitives();
+        // the membership table displays the parent relations of the selected primitives
+        return changed.stream().anyMatch(Relation.class::isInstance)
+                || OsmDataManager.getInstance().getInProgressISelection().stream().anyMatch(changed::contains);
+    }
+
+    /**
+     * Updates the dialog once for all the changes of a transaction, and only if they are displayed.
+     */
+    private class DataChangedAdapter extends DataSetListenerAdapter implements CoalescingDataSetListener {
+        DataChangedAdapter() {
+            super(PropertiesDialog.this);
+        }
+
+        @Override
+        public void coalescedDataChanged(CoalescedDataChangedEvent event) {
+            if (isDisplayed(event)) {
+                updateSelection();
+            }
+        }
+    }
+
     /**
      * Replies the tag popup menu handler.
      * @return The tag popup menu handler
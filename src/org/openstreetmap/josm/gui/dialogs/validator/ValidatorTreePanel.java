@@ -25,16 +25,10 @@ import javax.swing.tree.TreePath;
 import javax.swing.tree.TreeSelectionModel;
 
 import org.openstreetmap.josm.data.osm.OsmPrimitive;
-import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent;
-import org.openstreetmap.josm.data.osm.event.DataChangedEvent;
-import org.openstreetmap.josm.data.osm.event.DataSetListener;
+import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent.DatasetEventType;
+import org.openstreetmap.josm.data.osm.event.CoalescedDataChangedEvent;
+import org.openstreetmap.josm.data.osm.event.CoalescingDataSetListener;
 import org.openstreetmap.josm.data.osm.event.DatasetEventManager;
-import org.openstreetmap.josm.data.osm.event.NodeMovedEvent;
-import org.openstreetmap.josm.data.osm.event.PrimitivesAddedEvent;
-import org.openstreetmap.josm.data.osm.event.PrimitivesRemovedEvent;
-import org.openstreetmap.josm.data.osm.event.RelationMembersChangedEvent;
-import org.openstreetmap.josm.data.osm.event.TagsChangedEvent;
-import org.openstreetmap.josm.data.osm.event.WayNodesChangedEvent;
 import org.openstreetmap.josm.data.preferences.sources.ValidatorPrefHelper;
 import org.openstreetmap.josm.data.validation.OsmValidator;
 import org.openstreetmap.josm.data.validation.Severity;
@@ -50,7 +44,7 @@ import org.openstreetmap.josm.tools.ListenerList;
  *
  * @author frsantos
  */
-public class ValidatorTreePanel extends JTree implements Destroyable, DataSetListener {
+public class ValidatorTreePanel extends JTree implements Destroyable, CoalescingDataSetListener {
 
     private static final class GroupTreeNode extends DefaultMutableTreeNode {
 
@@ -527,39 +521,10 @@ public class ValidatorTreePanel extends JTree implements Destroyable, DataSetLis
         });
     }
 
-    @Override public void primitivesRemoved(PrimitivesRemovedEvent event) {
-        // Remove purged primitives (fix #8639)
-        if (filterRemovedPrimitives()) {
-            buildTree();
-        }
-    }
-
-    @Override public void primitivesAdded(PrimitivesAddedEvent event) {
-        // Do nothing
-    }
-
-    @Override public void tagsChanged(TagsChangedEvent event) {
-        // Do nothing
-    }
-
-    @Override public void nodeMoved(NodeMovedEvent event) {
-        // Do nothing
-    }
-
-    @Override public void wayNodesChanged(WayNodesChangedEvent event) {
-        // Do nothing
-    }
-
-    @Override public void relationMembersChanged(RelationMembersChangedEvent event) {
-        // Do nothing
-    }
-
-    @Override public void otherDatasetChange(AbstractDatasetChangedEvent event) {
-        // Do nothing
-    }
-
-    @Override public void dataChanged(DataChangedEvent event) {
-        if (filterRemovedPrimitives()) {
+    @Override public void coalescedDataChanged(CoalescedDataChangedEvent event) {
+        // Only removed primitives can make errors obsolete, do not check all errors after other changes
+        if ((event.getTypes().contains(DatasetEventType.DATA_CHANGED) || event.getTypes().contains(DatasetEventType.PRIMITIVES_REMOVED))
+                && filterRemovedPrimitives()) {
             buildTree();
         }
     }
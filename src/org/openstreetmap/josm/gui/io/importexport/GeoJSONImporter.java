@@ -69,8 +69,8 @@ public class GeoJSONImporter extends FileImporter {
      * @throws IllegalDataException if an error was found while parsing the data from the source
      */
     public DataSet parseDataSet(final String source) throws IOException, IllegalDataException {
-        try (CachedFile cf = new CachedFile(source)) {
-            InputStream fileInputStream = Compression.getUncompressedFileInputStream(cf.getFile()); // NOPMD
+        try (CachedFile cf = new CachedFile(source);
+             InputStream fileInputStream = Compression.getUncompressedFileInputStream(cf.getFile())) {
             return GeoJSONReader.parseDataSet(fileInputStream, NullProgressMonitor.INSTANCE);
         }
     }
@@ -54,8 +54,8 @@ public class OsmChangeImporter extends FileImporter {
 
     @Override
     public void importData(File file, ProgressMonitor progressMonitor) throws IOException, IllegalDataException {
-        try {
-            importData(Compression.getUncompressedFileInputStream(file), file, progressMonitor);
+        try (InputStream in = Compression.getUncompressedFileInputStream(file)) {
+            importData(in, file, progressMonitor);
         } catch (FileNotFoundException e) {
             Logging.error(e);
             throw new IOException(tr("File ''{0}'' does not exist.", file.getName()), e);
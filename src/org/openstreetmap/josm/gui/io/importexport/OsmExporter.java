@@ -3,6 +3,7 @@ package org.openstreetmap.josm.gui.io.importexport;
 
 import static org.openstreetmap.josm.tools.I18n.tr;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -33,6 +34,9 @@ import org.openstreetmap.josm.tools.Utils;
  */
 public class OsmExporter extends FileExporter {
 
+    /** Size of the character buffer of the written file */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     /**
      * Constructs a new {@code OsmExporter}.
      */
@@ -131,7 +135,8 @@ public class OsmExporter extends FileExporter {
         // create outputstream and wrap it with gzip, xz or bzip, if necessary
         try (
             OutputStream out = getOutputStream(file);
-            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            // buffer the characters written by OsmWriter before encoding them in large blocks
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
             OsmWriter w = OsmWriterFactory.createOsmWriter(new PrintWriter(writer), false, layer.data.getVersion())
         ) {
             layer.data.getReadLock().lock();
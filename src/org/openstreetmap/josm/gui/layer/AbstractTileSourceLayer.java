@@ -17,6 +17,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
@@ -80,13 +81,16 @@ import org.openstreetmap.josm.actions.RenameLayerAction;
 import org.openstreetmap.josm.actions.SaveActionBase;
 import org.openstreetmap.josm.data.Bounds;
 import org.openstreetmap.josm.data.ProjectionBounds;
+import org.openstreetmap.josm.data.cache.TileImageDecoder;
 import org.openstreetmap.josm.data.coor.EastNorth;
 import org.openstreetmap.josm.data.coor.LatLon;
 import org.openstreetmap.josm.data.imagery.CoordinateConversion;
 import org.openstreetmap.josm.data.imagery.ImageryInfo;
 import org.openstreetmap.josm.data.imagery.OffsetBookmark;
 import org.openstreetmap.josm.data.imagery.TMSCachedTileLoader;
+import org.openstreetmap.josm.data.imagery.TileDownloadPriority;
 import org.openstreetmap.josm.data.imagery.TileLoaderFactory;
+import org.openstreetmap.josm.data.imagery.TileSeeder;
 import org.openstreetmap.josm.data.osm.visitor.BoundingXYVisitor;
 import org.openstreetmap.josm.data.preferences.BooleanProperty;
 import org.openstreetmap.josm.data.preferences.IntegerProperty;
@@ -186,6 +190,8 @@ implements ImageObserver, TileLoaderListener, ZoomChangeListener, FilterChangeLi
     protected TileCache tileCache; // initialized together with tileSource
     protected T tileSource;
     protected TileLoader tileLoader;
+    /** orders tile downloads according to the displayed area, and drops downloads of tiles no longer displayed */
+    private final TileDownloadPriority downloadPriority = new TileDownloadPriority();
 
     /** A timer that is used to delay invalidation events if required. */
     private final Timer invalidateLaterTimer = new Timer(100, e -> this.invalidate());
@@ -297,6 +303,11 @@ implements ImageObserver, TileLoaderListener, ZoomChangeListener, FilterChangeLi
         if (tileLoader == null)
             tileLoader = new OsmTileLoader(this, headers);
 
+        downloadPriority.clearViewport();
+        if (tileLoader instanceof TMSCachedTileLoader) {
+            ((TMSCachedTileLoader) tileLoader).setDownloadPriority(downloadPriority);
+        }
+
         tileCache = new MemoryTileCache(estimateTileCacheSize());
     }
 
@@ -754,7 +765,8 @@ implements ImageObserver, TileLoaderListener, ZoomChangeListener, FilterChangeLi
 
     private void zoomChanged(boolean invalidate) {
         Logging.debug("zoomChanged(): {0}", currentZoomLevel);
-        if (tileLoader instanceof TMSCachedTileLoader) {
+        if (tileLoader instanceof TMSCachedTileLoader && !isVisible()) {
+            // visible layers drop the tiles scrolled away when painting the new view, see TileSet#updateDownloadPriority
             ((TMSCachedTileLoader) tileLoader).cancelOutstandingTasks();
         }
         if (invalidate) {
@@ -1030,6 +1042,14 @@ implements ImageObserver, TileLoaderListener, ZoomChangeListener, FilterChangeLi
                 return;
             }
 
+            if (!(tile instanceof ReprojectionTile) && tileLoader instanceof TMSCachedTileLoader
+                    && TileImageDecoder.getSubsampling(img) > ((TMSCachedTileLoader) tileLoader).getDecodeSubsampling(tile)) {
+                // The tile has been decoded with subsampling when the map was zoomed out.
+                // Paint it anyway, but decode it again from the cache to get the resolution needed at current scale.
+                tile.setLoaded(false);
+                loadTile(tile, false);
+            }
+
             img = applyImageProcessors(img);
 
             TileAnchor anchorScreen = coordinateConverter.getScreenAnchorForTile(tile);
@@ -1314,6 +1334,18 @@ implements ImageObserver, TileLoaderListener, ZoomChangeListener, FilterChangeLi
             ts.loadAllTiles(false);
         }
 
+        /**
+         * Makes tiles close to the centre of this tile set downloaded first, and drops queued downloads of tiles
+         * outside of it.
+         */
+        private void updateDownloadPriority() {
+            if (tooLarge()) {
+                downloadPriority.clearViewport();
+            } else if (downloadPriority.setViewport(zoom, minX, maxX, minY, maxY) && tileLoader instanceof TMSCachedTileLoader) {
+                ((TMSCachedTileLoader) tileLoader).cancelStaleTasks();
+            }
+        }
+
         private void loadAllErrorTiles(boolean force) {
             if (!getDisplaySettings().isAutoLoad() && !force)
                 return;
@@ -1497,6 +1529,18 @@ implements ImageObserver, TileLoaderListener, ZoomChangeListener, FilterChangeLi
         // old and unused.
     }
 
+    /**
+     * Tells the tile loader at which scale tiles are displayed, so that tiles shown smaller than their native size
+     * are decoded with subsampling. Reprojected tiles are always decoded at full resolution.
+     * @param zoom zoom level of the displayed tiles
+     */
+    private void updateDisplayScale(int zoom) {
+        if (tileLoader instanceof TMSCachedTileLoader) {
+            boolean fullResolution = coordinateConverter == null || coordinateConverter.requiresReprojection();
+            ((TMSCachedTileLoader) tileLoader).setDisplayScale(zoom, fullResolution ? 1 : Math.sqrt(getScaleFactor(zoom)));
+        }
+    }
+
     private void drawInViewArea(Graphics2D g, MapView mv, ProjectionBounds pb) {
         int zoom = currentZoomLevel;
         if (getDisplaySettings().isAutoZoom()) {
@@ -1547,6 +1591,8 @@ implements ImageObserver, TileLoaderListener, ZoomChangeListener, FilterChangeLi
             setZoomLevel(zoom, false);
         }
         TileSet ts = dts.getTileSet(zoom);
+        ts.updateDownloadPriority();
+        updateDisplayScale(zoom);
 
         // try to load tiles from desired zoom level, no matter what we will show (for example, tiles from previous zoom level
         // on zoom in)
@@ -1651,6 +1697,10 @@ implements ImageObserver, TileLoaderListener, ZoomChangeListener, FilterChangeLi
                     offset += 15;
                     myDrawString(g, tr("Cache stats: {0}", part), 50, offset);
                 }
+                for (String part: ((TMSCachedTileLoader) tileLoader).getQueueStats().split("\n", -1)) {
+                    offset += 15;
+                    myDrawString(g, tr("Queue stats: {0}", part), 50, offset);
+                }
             }
         }
     }
@@ -1919,6 +1969,30 @@ implements ImageObserver, TileLoaderListener, ZoomChangeListener, FilterChangeLi
         return new PrecacheTask(progressMonitor, points, bufferX, bufferY);
     }
 
+    /**
+     * Creates a task downloading to cache all tiles covering an area for the given range of zoom levels.
+     *
+     * To prevent accidental clear of the queue, the seeder creates a download executor with separate queue.
+     * Per host limits still apply, as the executor uses a {@link org.openstreetmap.josm.data.cache.HostLimitQueue}.
+     * Its threads are stopped by {@link TileSeeder#close()}.
+     *
+     * @param progressMonitor progress monitor for download task
+     * @param area area to cover, in lat/lon coordinates (x = lon, y = lat), for instance
+     *        {@link org.openstreetmap.josm.data.osm.DataSet#getDataSourceArea()}
+     * @param minZoom minimum zoom level (inclusive)
+     * @param maxZoom maximum zoom level (inclusive)
+     * @return seed task representing download task
+     * @throws IllegalArgumentException if the area covers more than {@link TileSeeder#MAX_TILES} tiles
+     * @since xxx
+     */
+    public TileSeeder getSeedTask(final ProgressMonitor progressMonitor, Area area, int minZoom, int maxZoom) {
+        TileSeeder seeder = new TileSeeder(tileSource,
+                listener -> getTileLoaderFactory().makeTileLoader(listener, getHeaders(tileSource), minimumTileExpire),
+                area, minZoom, maxZoom);
+        seeder.setProgressMonitor(progressMonitor);
+        return seeder;
+    }
+
     @Override
     public boolean isSavable() {
         return true; // With WMSLayerExporter
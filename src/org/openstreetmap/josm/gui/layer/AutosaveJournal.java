@@ -0,0 +1,433 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.gui.layer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Relation;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent;
+import org.openstreetmap.josm.data.osm.event.DataChangedEvent;
+import org.openstreetmap.josm.data.preferences.BooleanProperty;
+import org.openstreetmap.josm.data.preferences.IntegerProperty;
+import org.openstreetmap.josm.io.Compression;
+import org.openstreetmap.josm.io.OsmWriter;
+import org.openstreetmap.josm.io.OsmWriterFactory;
+import org.openstreetmap.josm.tools.Logging;
+import org.openstreetmap.josm.tools.XmlUtils;
+
+/**
+ * Append-only change journal of an autosaved data set.
+ * <p>
+ * Instead of rewriting the complete data set at each autosave, {@link AutosaveTask} writes a full snapshot once, then
+ * only appends to the journal the primitives which have changed since the previous autosave. The journal is compacted
+ * into a new snapshot when it has too many records, when it grows too large compared to the snapshot, or when a change
+ * cannot be expressed as primitive updates (e.g. primitives renumbered after an upload).
+ * <p>
+ * The journal is stored next to the snapshot, in a file named after it with the {@value #EXTENSION} extension. Each
+ * record is a small OSM document containing the changed primitives, preceded by its length so that a record truncated by
+ * a crash is ignored. Primitives which have been removed from the data set are listed in {@code <removed>} elements.
+ * See {@link #replay(File)} for crash recovery.
+ * @since xxx
+ */
+public class AutosaveJournal {
+
+    /**
+     * If autosave of data layers should use a change journal
+     */
+    public static final BooleanProperty PROP_ENABLED = new BooleanProperty("autosave.journal.enabled", false);
+    /**
+     * Maximum number of journal records before writing a new snapshot
+     */
+    public static final IntegerProperty PROP_MAX_RECORDS = new IntegerProperty("autosave.journal.max-records", 20);
+    /**
+     * Maximum size of the journal, in percent of the size of the snapshot, before writing a new snapshot
+     */
+    public static final IntegerProperty PROP_MAX_SIZE_PERCENT = new IntegerProperty("autosave.journal.max-size-percent", 50);
+
+    /**
+     * Extension of journal files, appended to the name of the snapshot file
+     */
+    public static final String EXTENSION = ".journal";
+
+    private static final String REMOVED = "removed";
+
+    private final DataSet data;
+    /** primitives changed since the last snapshot or record, guarded by {@code this} */
+    private Set<OsmPrimitive> changed = new HashSet<>();
+    /** if a change cannot be written in the journal, guarded by {@code this} */
+    private boolean snapshotNeeded = true;
+
+    private File snapshot;
+    private File journal;
+    private int records;
+    private int dataSources;
+
+    /**
+     * Constructs a new {@code AutosaveJournal}.
+     * @param data the data set to journal
+     */
+    public AutosaveJournal(DataSet data) {
+        this.data = data;
+    }
+
+    /**
+     * Returns the journal file of a snapshot.
+     * @param snapshot the snapshot file
+     * @return the journal file of the snapshot, which might not exist
+     */
+    public static File getJournalFile(File snapshot) {
+        return new File(snapshot.getParentFile(), snapshot.getName() + EXTENSION);
+    }
+
+    /**
+     * Records a data set change, to be written in the next journal record.
+     * @param event the data set event
+     */
+    public synchronized void processDatasetEvent(AbstractDatasetChangedEvent event) {
+        switch (event.getType()) {
+        case DATA_CHANGED:
+            List<AbstractDatasetChangedEvent> events = ((DataChangedEvent) event).getEvents();
+            if (events == null) {
+                snapshotNeeded = true;
+            } else {
+                events.forEach(this::processDatasetEvent);
+            }
+            break;
+        case PRIMITIVES_REMOVED:
+            for (OsmPrimitive p : event.getPrimitives()) {
+                if (p.getDataSet() == data) {
+                    // removed then added again, probably with a new id: the old id cannot be journaled anymore
+                    snapshotNeeded = true;
+                }
+            }
+            changed.addAll(event.getPrimitives());
+            break;
+        default:
+            if (!snapshotNeeded) {
+                changed.addAll(event.getPrimitives());
+            }
+        }
+    }
+
+    /**
+     * Determines if the next autosave should write a new snapshot rather than a journal record.
+     * @return {@code true} if a new snapshot is needed
+     */
+    public synchronized boolean isSnapshotNeeded() {
+        return snapshotNeeded || snapshot == null || !snapshot.exists()
+                || records >= PROP_MAX_RECORDS.get()
+                || journal.length() * 100 > snapshot.length() * PROP_MAX_SIZE_PERCENT.get()
+                || data.getDataSources().size() != dataSources;
+    }
+
+    /**
+     * Starts a new snapshot. Must be called before the data set is written to the snapshot file, so that changes made
+     * while the snapshot is being written are journaled again.
+     * @param file the new snapshot file
+     */
+    public synchronized void startSnapshot(File file) {
+        snapshot = file;
+        journal = getJournalFile(file);
+        records = 0;
+        dataSources = data.getDataSources().size();
+        changed = new HashSet<>();
+        snapshotNeeded = false;
+    }
+
+    /**
+     * Marks the current snapshot as unusable, after an error while writing it.
+     */
+    public synchronized void snapshotFailed() {
+        snapshotNeeded = true;
+    }
+
+    /**
+     * Appends the primitives changed since the last snapshot or record to the journal.
+     * @return {@code true} if a record has been written, {@code false} if there was no change to write
+     * @throws IOException if an I/O error occurs
+     */
+    public boolean writeRecord() throws IOException {
+        Set<OsmPrimitive> toWrite;
+        File file;
+        synchronized (this) {
+            if (changed.isEmpty()) {
+                return false;
+            }
+            toWrite = changed;
+            changed = new HashSet<>();
+            file = journal;
+        }
+        byte[] content;
+        data.getReadLock().lock();
+        try {
+            content = toRecord(toWrite);
+        } finally {
+            data.getReadLock().unlock();
+        }
+        byte[] header = (content.length + "\n").getBytes(StandardCharsets.US_ASCII);
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(new ByteBuffer[] {ByteBuffer.wrap(header), ByteBuffer.wrap(content)});
+            channel.force(false);
+        } catch (IOException e) {
+            synchronized (this) {
+                snapshotNeeded = true;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            records++;
+        }
+        return true;
+    }
+
+    private byte[] toRecord(Collection<OsmPrimitive> primitives) throws IOException {
+        List<Node> nodes = new ArrayList<>();
+        List<Way> ways = new ArrayList<>();
+        List<Relation> relations = new ArrayList<>();
+        List<OsmPrimitive> removed = new ArrayList<>();
+        for (OsmPrimitive p : primitives) {
+            if (p.getDataSet() != data || (p.isNew() && p.isDeleted())) {
+                removed.add(p);
+            } else if (p instanceof Node) {
+                nodes.add((Node) p);
+            } else if (p instanceof Way) {
+                ways.add((Way) p);
+            } else if (p instanceof Relation) {
+                relations.add((Relation) p);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+             OsmWriter w = OsmWriterFactory.createOsmWriter(pw, false, data.getVersion())) {
+            w.header();
+            w.writeNodes(nodes);
+            w.writeWays(ways);
+            w.writeRelations(relations);
+            for (OsmPrimitive p : removed) {
+                pw.print("  <" + REMOVED + " type='");
+                pw.print(p.getType().getAPIName());
+                pw.print("' id='");
+                pw.print(p.getUniqueId());
+                pw.println("'/>");
+            }
+            w.footer();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Applies the journal of a snapshot, if any, to the snapshot file, then deletes the journal.
+     * The snapshot file then contains the last autosaved state of the data set and can be opened as any OSM file.
+     * @param snapshot the snapshot file
+     * @return {@code true} if a journal has been applied
+     * @throws IOException if an I/O error occurs or if the snapshot cannot be parsed
+     */
+    public static boolean replay(File snapshot) throws IOException {
+        File journalFile = getJournalFile(snapshot);
+        if (!journalFile.isFile()) {
+            return false;
+        }
+        Map<String, List<XMLEvent>> updates = new LinkedHashMap<>();
+        Set<String> removed = new HashSet<>();
+        XMLInputFactory inputFactory = XmlUtils.newSafeXMLInputFactory();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile.toPath())))) {
+            byte[] record;
+            while ((record = readRecord(in)) != null) {
+                readRecord(inputFactory, record, updates, removed);
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+
+        File tmp = new File(snapshot.getParentFile(), snapshot.getName() + ".tmp");
+        try (InputStream in = Compression.getUncompressedFileInputStream(snapshot);
+             OutputStream out = Compression.byExtension(snapshot.getName()).getCompressedOutputStream(
+                     Files.newOutputStream(tmp.toPath()))) {
+            merge(inputFactory.createXMLEventReader(in, StandardCharsets.UTF_8.name()),
+                    XMLOutputFactory.newInstance().createXMLEventWriter(out, StandardCharsets.UTF_8.name()), updates, removed);
+        } catch (XMLStreamException e) {
+            Files.deleteIfExists(tmp.toPath());
+            throw new IOException(e);
+        }
+        Files.move(tmp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.delete(journalFile.toPath());
+        return true;
+    }
+
+    /**
+     * Reads the next complete record of a journal.
+     * @return the next record, or {@code null} at the end of the journal or if the last record is truncated
+     */
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        StringBuilder length = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c < '0' || c > '9' || length.length() > 9) {
+                if (c >= 0) {
+                    Logging.warn("Invalid autosave journal record, ignoring the end of the journal");
+                }
+                return null;
+            }
+            length.append((char) c);
+        }
+        byte[] record = new byte[Integer.parseInt(length.toString())];
+        try {
+            in.readFully(record);
+        } catch (EOFException e) {
+            Logging.warn("Truncated autosave journal record, ignoring it");
+            Logging.trace(e);
+            return null;
+        }
+        return record;
+    }
+
+    private static void readRecord(XMLInputFactory inputFactory, byte[] record, Map<String, List<XMLEvent>> updates,
+            Set<String> removed) throws XMLStreamException {
+        XMLEventReader reader = inputFactory.createXMLEventReader(new ByteArrayInputStream(record),
+                StandardCharsets.UTF_8.name());
+        try {
+            int depth = 0;
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    depth++;
+                    if (depth == 2) {
+                        StartElement element = event.asStartElement();
+                        String key = getKey(element);
+                        if (REMOVED.equals(element.getName().getLocalPart())) {
+                            updates.remove(key);
+                            removed.add(key);
+                        } else if (key != null) {
+                            updates.remove(key);
+                            removed.remove(key);
+                            updates.put(key, readElement(reader, event));
+                            depth--;
+                        }
+                    }
+                } else if (event.isEndElement()) {
+                    depth--;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads a complete element, from its start element, already read, to its end element.
+     */
+    private static List<XMLEvent> readElement(XMLEventReader reader, XMLEvent start) throws XMLStreamException {
+        List<XMLEvent> events = new ArrayList<>();
+        events.add(start);
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            XMLEvent event = reader.nextEvent();
+            if (event.isStartElement()) {
+                depth++;
+            } else if (event.isEndElement()) {
+                depth--;
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    private static String getKey(StartElement element) {
+        String name = element.getName().getLocalPart();
+        if (REMOVED.equals(name)) {
+            Attribute type = element.getAttributeByName(new QName("type"));
+            name = type != null ? type.getValue() : null;
+        }
+        Attribute id = element.getAttributeByName(new QName("id"));
+        if (id == null || !("node".equals(name) || "way".equals(name) || "relation".equals(name))) {
+            return null;
+        }
+        return name + '/' + id.getValue();
+    }
+
+    /**
+     * Copies the snapshot, replacing updated primitives and skipping removed ones.
+     */
+    private static void merge(XMLEventReader reader, XMLEventWriter writer, Map<String, List<XMLEvent>> updates,
+            Set<String> removed) throws XMLStreamException {
+        XMLEventFactory factory = XMLEventFactory.newInstance();
+        int depth = 0;
+        boolean skipped = false;
+        while (reader.hasNext()) {
+            XMLEvent event = reader.nextEvent();
+            if (skipped && event.isCharacters() && event.asCharacters().isWhiteSpace()) {
+                // indentation of the skipped element
+                continue;
+            }
+            skipped = false;
+            if (event.isStartElement()) {
+                depth++;
+                if (depth == 2) {
+                    String key = getKey(event.asStartElement());
+                    if (key != null && (updates.containsKey(key) || removed.contains(key))) {
+                        // replaced or removed: skip the whole element
+                        readElement(reader, event);
+                        depth--;
+                        skipped = true;
+                        continue;
+                    }
+                }
+            } else if (event.isEndElement()) {
+                if (depth == 1) {
+                    // end of the root element: add updated primitives
+                    for (List<XMLEvent> element : updates.values()) {
+                        writer.add(factory.createCharacters("  "));
+                        for (XMLEvent e : element) {
+                            writer.add(e);
+                        }
+                        writer.add(factory.createCharacters("\n"));
+                    }
+                }
+                depth--;
+            }
+            writer.add(event);
+        }
+        writer.flush();
+        writer.close();
+        reader.close();
+    }
+}
@@ -24,9 +24,11 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -34,6 +36,7 @@ import java.util.regex.Pattern;
 
 import org.openstreetmap.josm.actions.OpenFileAction.OpenFileTask;
 import org.openstreetmap.josm.data.Data;
+import org.openstreetmap.josm.data.osm.DataSet;
 import org.openstreetmap.josm.data.osm.NoteData;
 import org.openstreetmap.josm.data.osm.NoteData.NoteDataUpdateListener;
 import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent;
@@ -70,6 +73,9 @@ import org.openstreetmap.josm.tools.Utils;
  *
  *      The deleted layers dir keeps at most PROP_DELETED_LAYERS files.
  *
+ * When {@link AutosaveJournal#PROP_ENABLED} is set, data layers are not rewritten completely at each
+ * interval: only the primitives changed since the last save are appended to a journal, see {@link AutosaveJournal}.
+ *
  * @since  3378 (creation)
  * @since 10386 (new LayerChangeListener interface)
  */
@@ -109,6 +115,7 @@ public class AutosaveTask extends TimerTask implements LayerChangeListener, List
         private String layerName;
         private String layerFileName;
         private final Deque<File> backupFiles = new LinkedList<>();
+        private AutosaveJournal journal;
 
         AutosaveLayerInfo(T layer) {
             this.layer = layer;
@@ -117,6 +124,7 @@ public class AutosaveTask extends TimerTask implements LayerChangeListener, List
 
     private final DataSetListenerAdapter datasetAdapter = new DataSetListenerAdapter(this);
     private final Set<Data> changedData = new HashSet<>();
+    private final Map<DataSet, AutosaveJournal> journals = new ConcurrentHashMap<>();
     private final List<AutosaveLayerInfo<?>> layersInfo = new ArrayList<>();
     private final Object layersLock = new Object();
     private final Deque<File> deletedLayers = new LinkedList<>();
@@ -233,10 +241,14 @@ public class AutosaveTask extends TimerTask implements LayerChangeListener, List
         try {
             Data data = info.layer.getData();
             if (data != null && changedData.remove(data)) {
-                File file = getNewLayerFile(info, new Date(), 0);
-                if (file != null) {
-                    info.backupFiles.add(file);
-                    info.layer.autosave(file);
+                if (info.journal != null && !info.journal.isSnapshotNeeded()) {
+                    info.journal.writeRecord();
+                } else {
+                    File file = getNewLayerFile(info, new Date(), 0);
+                    if (file != null) {
+                        info.backupFiles.add(file);
+                        saveSnapshot(info, file);
+                    }
                 }
             }
         } catch (IOException e) {
@@ -246,10 +258,40 @@ public class AutosaveTask extends TimerTask implements LayerChangeListener, List
             File oldFile = info.backupFiles.remove();
             if (Utils.deleteFile(oldFile, marktr("Unable to delete old backup file {0}"))) {
                 Utils.deleteFile(getPidFile(oldFile), marktr("Unable to delete old backup file {0}"));
+                deleteJournal(oldFile);
             }
         }
     }
 
+    private static void saveSnapshot(AutosaveLayerInfo<?> info, File file) throws IOException {
+        if (info.journal != null) {
+            info.journal.startSnapshot(file);
+        }
+        try {
+            info.layer.autosave(file);
+        } catch (IOException e) {
+            if (info.journal != null) {
+                info.journal.snapshotFailed();
+            }
+            throw e;
+        }
+    }
+
+    private static void deleteJournal(File file) {
+        File journal = AutosaveJournal.getJournalFile(file);
+        if (journal.exists()) {
+            Utils.deleteFile(journal, marktr("Unable to delete old backup file {0}"));
+        }
+    }
+
+    private static void applyJournal(File file) {
+        try {
+            AutosaveJournal.replay(file);
+        } catch (IOException e) {
+            Logging.log(Logging.LEVEL_ERROR, tr("Unable to apply autosave journal to {0}", file.getName()), e);
+        }
+    }
+
     @Override
     public void run() {
         synchronized (layersLock) {
@@ -283,7 +325,12 @@ public class AutosaveTask extends TimerTask implements LayerChangeListener, List
     private void registerNewlayer(OsmDataLayer layer) {
         synchronized (layersLock) {
             layer.getDataSet().addDataSetListener(datasetAdapter);
-            layersInfo.add(new AutosaveLayerInfo<>(layer));
+            AutosaveLayerInfo<OsmDataLayer> info = new AutosaveLayerInfo<>(layer);
+            if (AutosaveJournal.PROP_ENABLED.get()) {
+                info.journal = new AutosaveJournal(layer.getDataSet());
+                journals.put(layer.getDataSet(), info.journal);
+            }
+            layersInfo.add(info);
         }
     }
 
@@ -314,6 +361,7 @@ public class AutosaveTask extends TimerTask implements LayerChangeListener, List
                 OsmDataLayer osmLayer = (OsmDataLayer) e.getRemovedLayer();
                 osmLayer.getDataSet().removeDataSetListener(datasetAdapter);
                 cleanupLayer(osmLayer);
+                journals.remove(osmLayer.getDataSet());
             }
         } else if (e.getRemovedLayer() instanceof NoteLayer) {
             synchronized (layersLock) {
@@ -342,6 +390,7 @@ public class AutosaveTask extends TimerTask implements LayerChangeListener, List
                 for (File file: info.backupFiles) {
                     if (Utils.deleteFile(file)) {
                         Utils.deleteFile(getPidFile(file));
+                        deleteJournal(file);
                     }
                 }
 
@@ -352,6 +401,10 @@ public class AutosaveTask extends TimerTask implements LayerChangeListener, List
 
     @Override
     public void processDatasetEvent(AbstractDatasetChangedEvent event) {
+        AutosaveJournal journal = journals.get(event.getDataset());
+        if (journal != null) {
+            journal.processDatasetEvent(event);
+        }
         dataUpdated(event.getDataset());
     }
 
@@ -433,6 +486,7 @@ public class AutosaveTask extends TimerTask implements LayerChangeListener, List
      */
     public Future<?> recoverUnsavedLayers() {
         List<File> files = getUnsavedLayersFiles();
+        MainApplication.worker.submit(() -> files.forEach(AutosaveTask::applyJournal));
         final OpenFileTask openFileTsk = new OpenFileTask(files, null, tr("Restoring files"));
         final Future<?> openFilesFuture = MainApplication.worker.submit(openFileTsk);
         return MainApplication.worker.submit(() -> {
@@ -457,6 +511,7 @@ public class AutosaveTask extends TimerTask implements LayerChangeListener, List
      * @param f the file, usually from the autosave dir
      */
     private void moveToDeletedLayersFolder(File f) {
+        applyJournal(f);
         File backupFile = new File(deletedLayersDir, f.getName());
         File pidFile = getPidFile(f);
 
@@ -734,7 +734,8 @@ public class OsmDataLayer extends AbstractOsmDataLayer implements Listener, Data
         if (ExpertToggleAction.isExpert()) {
             actions.addAll(Arrays.asList(
                     new LayerGpxExportAction(this),
-                    new ConvertToGpxLayerAction()));
+                    new ConvertToGpxLayerAction(),
+                    new PrecacheImageryInAreaAction(data)));
         }
         actions.addAll(Arrays.asList(
                 SeparatorLayerAction.INSTANCE,
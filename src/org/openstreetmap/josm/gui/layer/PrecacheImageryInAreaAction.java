@@ -0,0 +1,127 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.gui.layer;
+
+import static org.openstreetmap.josm.tools.I18n.tr;
+
+import java.awt.event.ActionEvent;
+import java.awt.geom.Area;
+import java.util.List;
+
+import javax.swing.AbstractAction;
+import javax.swing.JOptionPane;
+
+import org.openstreetmap.josm.actions.AbstractMergeAction;
+import org.openstreetmap.josm.data.Data;
+import org.openstreetmap.josm.data.imagery.TileSeeder;
+import org.openstreetmap.josm.data.preferences.IntegerProperty;
+import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.gui.PleaseWaitRunnable;
+import org.openstreetmap.josm.gui.progress.ProgressTaskId;
+import org.openstreetmap.josm.gui.progress.ProgressTaskIds;
+import org.openstreetmap.josm.tools.ImageProvider;
+import org.openstreetmap.josm.tools.Logging;
+
+/**
+ * Downloads to cache the imagery tiles covering the downloaded area of a layer,
+ * from the current zoom level of the imagery layer up to a few zoom levels more.
+ * @since xxx
+ */
+public class PrecacheImageryInAreaAction extends AbstractAction {
+
+    /**
+     * Number of zoom levels to precache above the current zoom level of the imagery layer
+     */
+    public static final IntegerProperty ADDITIONAL_ZOOM_LEVELS = new IntegerProperty("imagery.seed.additional_zoom_levels", 2);
+
+    private final transient Data data;
+
+    /**
+     * Constructs a new {@code PrecacheImageryInAreaAction}.
+     * @param data data whose downloaded area will be covered
+     */
+    public PrecacheImageryInAreaAction(Data data) {
+        super(tr("Precache imagery tiles in downloaded area"));
+        new ImageProvider("downloadalongtrack").getResource().attachImageIcon(this, true);
+        this.data = data;
+        setEnabled(!data.getDataSources().isEmpty());
+    }
+
+    static class SeedTask extends PleaseWaitRunnable {
+
+        private final TileSeeder seeder;
+
+        SeedTask(TileSeeder seeder) {
+            super(tr("Precaching imagery"));
+            this.seeder = seeder;
+            seeder.setProgressMonitor(progressMonitor);
+        }
+
+        @Override
+        protected void realRun() {
+            try {
+                seeder.run();
+            } finally {
+                seeder.close();
+            }
+            Logging.info("Precached {0}/{1} tiles ({2} failed) at {3} tiles/s",
+                    seeder.getSucceededCount(), seeder.getTotalCount(), seeder.getFailedCount(), Math.round(seeder.getTilesPerSecond()));
+        }
+
+        @Override
+        protected void finish() {
+            // Do nothing
+        }
+
+        @Override
+        protected void cancel() {
+            seeder.cancel();
+        }
+
+        @Override
+        public ProgressTaskId canRunInBackground() {
+            return ProgressTaskIds.PRECACHE_WMS;
+        }
+    }
+
+    SeedTask createTask() {
+        Area area = data.getDataSourceArea();
+        if (area == null || area.isEmpty()) {
+            return null;
+        }
+        AbstractTileSourceLayer<?> layer = askedLayer();
+        if (layer == null) {
+            return null;
+        }
+        int minZoom = layer.getZoomLevel();
+        try {
+            return new SeedTask(layer.getSeedTask(null, area, minZoom, minZoom + ADDITIONAL_ZOOM_LEVELS.get()));
+        } catch (IllegalArgumentException e) {
+            Logging.debug(e);
+            JOptionPane.showMessageDialog(MainApplication.getMainFrame(),
+                    e.getMessage(), tr("Precaching imagery"), JOptionPane.WARNING_MESSAGE);
+            return null;
+        }
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        SeedTask task = createTask();
+        if (task != null) {
+            MainApplication.worker.execute(task);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    protected AbstractTileSourceLayer<?> askedLayer() {
+        List<AbstractTileSourceLayer> targetLayers = MainApplication.getLayerManager().getLayersOfType(AbstractTileSourceLayer.class);
+        if (targetLayers.isEmpty()) {
+            JOptionPane.showMessageDialog(MainApplication.getMainFrame(),
+                    tr("There are no imagery layers."), tr("No imagery layers"), JOptionPane.WARNING_MESSAGE);
+            return null;
+        }
+        return AbstractMergeAction.askTargetLayer(targetLayers.toArray(new AbstractTileSourceLayer[0]),
+                tr("Please select the imagery layer."),
+                tr("Select imagery layer"),
+                tr("Download"), "dialogs/down");
+    }
+}
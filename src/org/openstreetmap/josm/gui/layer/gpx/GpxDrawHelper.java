@@ -40,9 +40,11 @@ import org.openstreetmap.josm.data.gpx.GpxConstants;
 import org.openstreetmap.josm.data.gpx.GpxData;
 import org.openstreetmap.josm.data.gpx.GpxData.GpxDataChangeEvent;
 import org.openstreetmap.josm.data.gpx.GpxData.GpxDataChangeListener;
+import org.openstreetmap.josm.data.gpx.GpxTrackPoints;
 import org.openstreetmap.josm.data.gpx.Line;
 import org.openstreetmap.josm.data.gpx.WayPoint;
 import org.openstreetmap.josm.data.preferences.NamedColorProperty;
+import org.openstreetmap.josm.data.projection.ProjectionRegistry;
 import org.openstreetmap.josm.gui.MapView;
 import org.openstreetmap.josm.gui.MapViewState;
 import org.openstreetmap.josm.gui.layer.GpxLayer;
@@ -370,6 +372,11 @@ public class GpxDrawHelper implements SoMChangeListener, MapViewPaintable.LayerP
 
         ensureTrackVisibilityLength();
         for (Line segment : getLinesIterable(layer.trackVisibility)) {
+            GpxTrackPoints points = segment.getTrackPoints();
+            if (points != null) {
+                last = listVisiblePoints(points, box, last, visibleSegments);
+                continue;
+            }
 
             for (WayPoint pt : segment) {
                 Bounds b = new Bounds(pt.getCoor());
@@ -377,17 +384,7 @@ public class GpxDrawHelper implements SoMChangeListener, MapViewPaintable.LayerP
                     b.extend(last.getCoor());
                 }
                 if (b.intersects(box)) {
-                    if (last != null && (visibleSegments.isEmpty()
-                            || visibleSegments.getLast() != last)) {
-                        if (last.drawLine) {
-                            WayPoint l = new WayPoint(last);
-                            l.drawLine = false;
-                            visibleSegments.add(l);
-                        } else {
-                            visibleSegments.add(last);
-                        }
-                    }
-                    visibleSegments.add(pt);
+                    addVisiblePoint(visibleSegments, last, pt);
                 }
                 last = pt;
             }
@@ -395,6 +392,65 @@ public class GpxDrawHelper implements SoMChangeListener, MapViewPaintable.LayerP
         return visibleSegments;
     }
 
+    /**
+     * Lists the visible points of a compact track segment. Only the way points of the visible points are created.
+     * @param points the segment points
+     * @param box the visible area
+     * @param previous the last point of the previous segment, or {@code null}
+     * @param visibleSegments the list of visible points to fill
+     * @return the last point of the segment
+     */
+    private static WayPoint listVisiblePoints(GpxTrackPoints points, Bounds box, WayPoint previous, LinkedList<WayPoint> visibleSegments) {
+        WayPoint last = previous;
+        // index of the last point, when its way point has not been created
+        int lastIndex = -1;
+        for (int i = 0; i < points.size(); i++) {
+            Bounds b = new Bounds(points.lat(i), points.lon(i), true);
+            if (points.isDrawLine(i)) {
+                if (lastIndex >= 0) {
+                    b.extend(points.lat(lastIndex), points.lon(lastIndex));
+                } else if (last != null) {
+                    b.extend(last.getCoor());
+                }
+            }
+            if (b.intersects(box)) {
+                if (lastIndex >= 0) {
+                    last = getVisiblePoint(points, lastIndex);
+                }
+                WayPoint pt = getVisiblePoint(points, i);
+                addVisiblePoint(visibleSegments, last, pt);
+                last = pt;
+                lastIndex = -1;
+            } else {
+                last = null;
+                lastIndex = i;
+            }
+        }
+        return lastIndex >= 0 ? points.getWayPoint(lastIndex) : last;
+    }
+
+    /**
+     * Creates the way point of a visible point, with its projected coordinates, which are cached in the columns.
+     */
+    private static WayPoint getVisiblePoint(GpxTrackPoints points, int index) {
+        points.getEastNorth(index, ProjectionRegistry.getProjection());
+        return points.getWayPoint(index);
+    }
+
+    private static void addVisiblePoint(LinkedList<WayPoint> visibleSegments, WayPoint last, WayPoint pt) {
+        if (last != null && (visibleSegments.isEmpty()
+                || visibleSegments.getLast() != last)) {
+            if (last.drawLine) {
+                WayPoint l = new WayPoint(last);
+                l.drawLine = false;
+                visibleSegments.add(l);
+            } else {
+                visibleSegments.add(last);
+            }
+        }
+        visibleSegments.add(pt);
+    }
+
     protected Iterable<Line> getLinesIterable(final boolean[] trackVisibility) {
         return data.getLinesIterable(trackVisibility);
     }
@@ -580,10 +636,17 @@ public class GpxDrawHelper implements SoMChangeListener, MapViewPaintable.LayerP
             if (!forceLines) { // don't draw lines between segments, unless forced to
                 oldWp = null;
             }
+            // the drawing state of compact segments is stored back in their columns
+            GpxTrackPoints points = segment.getTrackPoints();
+            int index = -1;
             for (WayPoint trkPnt : segment) {
+                index++;
                 LatLon c = trkPnt.getCoor();
                 trkPnt.customColoring = segment.getColor();
                 if (Double.isNaN(c.lat()) || Double.isNaN(c.lon())) {
+                    if (points != null) {
+                        points.setDrawState(index, trkPnt);
+                    }
                     continue;
                 }
                 // now we are sure some color will be assigned
@@ -635,6 +698,9 @@ public class GpxDrawHelper implements SoMChangeListener, MapViewPaintable.LayerP
                 if (color != null) {
                     trkPnt.customColoring = color;
                 }
+                if (points != null) {
+                    points.setDrawState(index, trkPnt);
+                }
                 oldWp = trkPnt;
             }
         }
@@ -45,6 +45,7 @@ import org.openstreetmap.josm.gui.mappaint.mapcss.parsergen.ParseException;
 import org.openstreetmap.josm.gui.mappaint.mapcss.parsergen.TokenMgrError;
 import org.openstreetmap.josm.gui.mappaint.styleelement.LineElement;
 import org.openstreetmap.josm.io.CachedFile;
+import org.openstreetmap.josm.io.ParsedSourceCache;
 import org.openstreetmap.josm.io.UTFInputStreamReader;
 import org.openstreetmap.josm.tools.CheckParameterUtil;
 import org.openstreetmap.josm.tools.I18n;
@@ -65,6 +66,11 @@ public class MapCSSStyleSource extends StyleSource {
     public static final String MAPCSS_STYLE_MIME_TYPES =
             "text/x-mapcss, text/mapcss, text/css; q=0.9, text/plain; q=0.8, application/zip, application/octet-stream; q=0.5";
 
+    /**
+     * Cache of preprocessed MapCSS sources, see {@link #preprocess}.
+     */
+    private static final ParsedSourceCache PREPROCESSED_CACHE = new ParsedSourceCache("mapcss", 1);
+
     /**
      * all rules in this style file
      */
@@ -162,12 +168,12 @@ public class MapCSSStyleSource extends StyleSource {
             // remove "areaStyle" pseudo classes intended only for validator (causes StackOverflowError otherwise), see #16183
             removeAreaStylePseudoClass = url == null || !url.contains("validator"); // resource://data/validator/ or xxx.validator.mapcss
             try (InputStream in = getSourceInputStream()) {
-                try (Reader reader = new BufferedReader(UTFInputStreamReader.create(in))) {
+                try {
                     // evaluate @media { ... } blocks
-                    MapCSSParser preprocessor = new MapCSSParser(reader, MapCSSParser.LexicalState.PREPROCESSOR);
+                    String mapcss = preprocess(css == null ? url : null, in, this);
 
                     // do the actual mapcss parsing
-                    try (Reader in2 = new StringReader(preprocessor.pp_root(this))) {
+                    try (Reader in2 = new StringReader(mapcss)) {
                         new MapCSSParser(in2, MapCSSParser.LexicalState.DEFAULT).sheet(this);
                     }
 
@@ -205,6 +211,39 @@ public class MapCSSStyleSource extends StyleSource {
         }
     }
 
+    /**
+     * Evaluates the {@code @supports} blocks of a MapCSS source.
+     * The result only depends on the source content and the JOSM version, so it is cached for sources given by URL.
+     * @param url the source URL, used as cache key, or {@code null} to skip the cache
+     * @param in the MapCSS source stream, closed by this method
+     * @param sheet the style source logging errors
+     * @return the MapCSS source to parse
+     * @throws IOException if any I/O error occurs
+     * @throws ParseException if the source does not match MapCSS syntax
+     * @since xxx
+     */
+    public static String preprocess(String url, InputStream in, MapCSSStyleSource sheet) throws IOException, ParseException {
+        if (url == null || !ParsedSourceCache.isEnabled()) {
+            try (Reader reader = new BufferedReader(UTFInputStreamReader.create(in))) {
+                return new MapCSSParser(reader, MapCSSParser.LexicalState.PREPROCESSOR).pp_root(sheet);
+            }
+        }
+        byte[] content = Utils.readBytesFromStream(in);
+        String cached = PREPROCESSED_CACHE.get(url, content, ParsedSourceCache::readString);
+        if (cached != null) {
+            return cached;
+        }
+        int errors = sheet.getErrors().size();
+        String mapcss;
+        try (Reader reader = new BufferedReader(UTFInputStreamReader.create(new ByteArrayInputStream(content)))) {
+            mapcss = new MapCSSParser(reader, MapCSSParser.LexicalState.PREPROCESSOR).pp_root(sheet);
+        }
+        if (sheet.getErrors().size() == errors) {
+            PREPROCESSED_CACHE.put(url, content, mapcss, (s, out) -> ParsedSourceCache.writeString(out, s));
+        }
+        return mapcss;
+    }
+
     @Override
     public InputStream getSourceInputStream() throws IOException {
         if (css != null) {
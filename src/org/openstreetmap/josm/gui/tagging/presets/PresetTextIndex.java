@@ -0,0 +1,73 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.gui.tagging.presets;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * N-gram index of the words describing presets, used to find quickly the presets which may match a search text.
+ * <p>
+ * Each preset is associated to the n-grams (substrings of up to {@value #MAX_GRAM} characters) of its words. A word
+ * of the search text can only be a substring of a word of the preset if all of its n-grams are associated to it.
+ * The candidates returned by the index thus have to be checked, but the other presets can be skipped.
+ * @since xxx
+ */
+final class PresetTextIndex {
+
+    private static final int MAX_GRAM = 3;
+
+    private final int size;
+    private final Map<String, BitSet> presetsByGram = new HashMap<>();
+
+    /**
+     * Constructs a new {@code PresetTextIndex}.
+     * @param words the words of each preset, see {@link TaggingPresetSelector.PresetClassification}
+     */
+    PresetTextIndex(List<? extends Collection<String>> words) {
+        this.size = words.size();
+        for (int i = 0; i < size; i++) {
+            for (String word : words.get(i)) {
+                for (int n = 1; n <= MAX_GRAM; n++) {
+                    for (int start = 0; start + n <= word.length(); start++) {
+                        presetsByGram.computeIfAbsent(word.substring(start, start + n), k -> new BitSet()).set(i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the presets which may contain all the given search words.
+     * @param searchWords the search words, simplified like the indexed words
+     * @return the indices of the presets which may match
+     */
+    BitSet getCandidates(String... searchWords) {
+        BitSet candidates = new BitSet(size);
+        candidates.set(0, size);
+        for (String word : searchWords) {
+            if (word.length() <= MAX_GRAM) {
+                retain(candidates, word);
+            } else {
+                for (int start = 0; start + MAX_GRAM <= word.length() && !candidates.isEmpty(); start++) {
+                    retain(candidates, word.substring(start, start + MAX_GRAM));
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private void retain(BitSet candidates, String gram) {
+        if (gram.isEmpty()) {
+            return;
+        }
+        BitSet presets = presetsByGram.get(gram);
+        if (presets == null) {
+            candidates.clear();
+        } else {
+            candidates.and(presets);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.gui.tagging.presets;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.openstreetmap.josm.gui.tagging.presets.items.CheckGroup;
+import org.openstreetmap.josm.gui.tagging.presets.items.KeyedItem;
+import org.openstreetmap.josm.gui.tagging.presets.items.KeyedItem.MatchType;
+
+/**
+ * Inverted index of tagging presets by the tags that can {@link TaggingPresetItem#matches(Map) match} them positively.
+ * <p>
+ * A preset matches only if at least one of its items matches positively, i.e., if the tags contain the key of a
+ * {@code key}/{@code key!} item, or the key and one of the values of a {@code keyvalue}/{@code keyvalue!} item.
+ * The index therefore returns, for a set of tags, the few presets which may match, which still have to be checked
+ * with {@link TaggingPreset#matches}. Presets or items of unknown classes (e.g., provided by plugins) may implement
+ * another matching and are always checked.
+ * @since xxx
+ */
+final class TaggingPresetIndex {
+
+    private final TaggingPreset[] presets;
+    /** presets with a {@code key}/{@code key!} item, by key */
+    private final Map<String, BitSet> byKey = new HashMap<>();
+    /** presets with a {@code keyvalue}/{@code keyvalue!} item, by key and value */
+    private final Map<String, Map<String, BitSet>> byTag = new HashMap<>();
+    /** presets which cannot be indexed */
+    private final BitSet unindexed = new BitSet();
+
+    /**
+     * Constructs a new {@code TaggingPresetIndex}.
+     * @param presets the presets to index
+     */
+    TaggingPresetIndex(Collection<TaggingPreset> presets) {
+        this.presets = presets.toArray(new TaggingPreset[0]);
+        for (int i = 0; i < this.presets.length; i++) {
+            TaggingPreset preset = this.presets[i];
+            if (preset.getClass().getPackage() != TaggingPreset.class.getPackage() || !index(i, preset.data)) {
+                unindexed.set(i);
+            }
+        }
+    }
+
+    private boolean index(int i, Iterable<? extends TaggingPresetItem> items) {
+        for (TaggingPresetItem item : items) {
+            if (item.getClass().getPackage() != KeyedItem.class.getPackage()) {
+                return false;
+            } else if (item instanceof CheckGroup) {
+                if (!index(i, ((CheckGroup) item).checks)) {
+                    return false;
+                }
+            } else if (item instanceof KeyedItem && !index(i, (KeyedItem) item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean index(int i, KeyedItem item) {
+        final MatchType type;
+        try {
+            type = MatchType.ofString(item.match);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        switch (type) {
+        case NONE:
+            return true;
+        case KEY:
+        case KEY_REQUIRED:
+            byKey.computeIfAbsent(item.key, k -> new BitSet()).set(i);
+            return true;
+        case KEY_VALUE:
+        case KEY_VALUE_REQUIRED:
+            Collection<String> values = item.getValues();
+            if (values == null) {
+                return false;
+            }
+            Map<String, BitSet> byValue = byTag.computeIfAbsent(item.key, k -> new HashMap<>());
+            for (String value : values) {
+                byValue.computeIfAbsent(value, v -> new BitSet()).set(i);
+            }
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Returns the presets satisfying the given predicate among those which may match the given tags.
+     * @param tags the tags to perform matching on
+     * @param predicate the final check of the candidate presets, see {@link TaggingPreset#matches}
+     * @return the presets satisfying {@code predicate}, in their original order
+     */
+    List<TaggingPreset> getMatchingPresets(Map<String, String> tags, Predicate<TaggingPreset> predicate) {
+        BitSet candidates = (BitSet) unindexed.clone();
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            BitSet withKey = byKey.get(tag.getKey());
+            if (withKey != null) {
+                candidates.or(withKey);
+            }
+            Map<String, BitSet> byValue = byTag.get(tag.getKey());
+            BitSet withTag = byValue != null ? byValue.get(tag.getValue()) : null;
+            if (withTag != null) {
+                candidates.or(withTag);
+            }
+        }
+        List<TaggingPreset> result = new ArrayList<>();
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (predicate.test(presets[i])) {
+                result.add(presets[i]);
+            }
+        }
+        return result;
+    }
+}
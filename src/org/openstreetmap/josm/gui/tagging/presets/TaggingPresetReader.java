@@ -4,6 +4,9 @@ package org.openstreetmap.josm.gui.tagging.presets;
 import static org.openstreetmap.josm.tools.I18n.tr;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -43,6 +46,7 @@ import org.openstreetmap.josm.gui.tagging.presets.items.Space;
 import org.openstreetmap.josm.gui.tagging.presets.items.Text;
 import org.openstreetmap.josm.io.CachedFile;
 import org.openstreetmap.josm.io.NetworkManager;
+import org.openstreetmap.josm.io.ParsedSourceCache;
 import org.openstreetmap.josm.io.UTFInputStreamReader;
 import org.openstreetmap.josm.spi.preferences.Config;
 import org.openstreetmap.josm.tools.I18n;
@@ -77,6 +81,11 @@ public final class TaggingPresetReader {
      */
     public static final String SCHEMA_SOURCE = "resource://data/tagging-preset.xsd";
 
+    /**
+     * Cache of the XML events of preset sources, saving XML parsing, see {@link #readAll(String, boolean)}.
+     */
+    private static final ParsedSourceCache CACHE = new ParsedSourceCache("presets", 1);
+
     private static volatile File zipIcons;
     private static volatile boolean loadIcons = true;
 
@@ -179,7 +188,46 @@ public final class TaggingPresetReader {
      */
     static Collection<TaggingPreset> readAll(Reader in, boolean validate, HashSetWithLast<TaggingPreset> all) throws SAXException {
         XmlObjectParser parser = buildParser();
+        if (validate) {
+            parser.startWithValidation(in, NAMESPACE, SCHEMA_SOURCE);
+        } else {
+            parser.start(in);
+        }
+        return readAll(parser, all);
+    }
 
+    /**
+     * Parses the given preset source, or handles its XML events cached since the last time its content was parsed.
+     * @param source the preset source
+     * @param content the preset source content
+     * @return the started parser
+     * @throws SAXException if any XML error occurs
+     */
+    private static XmlObjectParser startCached(String source, byte[] content) throws SAXException {
+        XmlObjectParser cached = CACHE.get(source, content, in -> {
+            XmlObjectParser parser = buildParser();
+            try {
+                parser.startReplay(in);
+            } catch (SAXException e) {
+                throw new IOException(e);
+            }
+            return parser;
+        });
+        if (cached != null) {
+            return cached;
+        }
+        XmlObjectParser parser = buildParser();
+        ByteArrayOutputStream events = new ByteArrayOutputStream(content.length / 4);
+        try (Reader in = new BufferedReader(UTFInputStreamReader.create(new ByteArrayInputStream(content)))) {
+            parser.startRecording(in, new DataOutputStream(events));
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+        CACHE.put(source, content, events.toByteArray(), (bytes, out) -> out.write(bytes));
+        return parser;
+    }
+
+    private static Collection<TaggingPreset> readAll(XmlObjectParser parser, HashSetWithLast<TaggingPreset> all) throws SAXException {
         /** to detect end of {@code <checkgroup>} */
         CheckGroup lastcheckgroup = null;
         /** to detect end of {@code <group>} */
@@ -194,11 +242,6 @@ public final class TaggingPresetReader {
         /** lastIdIterators contains non empty iterators of items to be handled before obtaining the next item from the XML parser */
         final Deque<Iterator<Object>> lastIdIterators = new ArrayDeque<>();
 
-        if (validate) {
-            parser.startWithValidation(in, NAMESPACE, SCHEMA_SOURCE);
-        } else {
-            parser.start(in);
-        }
         while (parser.hasNext() || !lastIdIterators.isEmpty()) {
             final Object o;
             if (!lastIdIterators.isEmpty()) {
@@ -374,8 +417,13 @@ public final class TaggingPresetReader {
                 zipIcons = cf.getFile();
                 I18n.addTexts(zipIcons);
             }
-            try (InputStreamReader r = UTFInputStreamReader.create(zip == null ? cf.getInputStream() : zip)) {
-                tp = readAll(new BufferedReader(r), validate, all);
+            InputStream in = zip == null ? cf.getInputStream() : zip;
+            if (validate || !ParsedSourceCache.isEnabled()) {
+                try (InputStreamReader r = UTFInputStreamReader.create(in)) {
+                    tp = readAll(new BufferedReader(r), validate, all);
+                }
+            } else {
+                tp = readAll(startCached(source, Utils.readBytesFromStream(in)), all);
             }
         }
         Logging.debug(stopwatch.toString("Reading presets"));
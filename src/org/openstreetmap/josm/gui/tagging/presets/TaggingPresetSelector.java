@@ -8,6 +8,8 @@ import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -122,9 +124,13 @@ public class TaggingPresetSelector extends SearchTextResultListPanel<TaggingPres
                     }
                 }
             }
-            this.groups = Utils.toUnmodifiableList(groupSet);
-            this.names = Utils.toUnmodifiableList(nameSet);
-            this.tags = Utils.toUnmodifiableList(tagSet);
+            this.groups = simplifyStrings(groupSet);
+            this.names = simplifyStrings(nameSet);
+            this.tags = simplifyStrings(tagSet);
+        }
+
+        private static List<String> simplifyStrings(Collection<String> values) {
+            return Utils.toUnmodifiableList(values.stream().map(PresetClassification::simplifyString).distinct().collect(Collectors.toList()));
         }
 
         private static void addLocaleNames(Collection<String> collection, TaggingPreset preset) {
@@ -138,15 +144,22 @@ public class TaggingPresetSelector extends SearchTextResultListPanel<TaggingPres
             return Utils.deAccent(s).toLowerCase(Locale.ENGLISH).replaceAll("\\p{Punct}", "");
         }
 
+        private static String[] simplifyStrings(String... values) {
+            return Arrays.stream(values).map(PresetClassification::simplifyString).toArray(String[]::new);
+        }
+
+        /**
+         * Determines how the search words match the given values.
+         * @param values the simplified values, see {@link #simplifyString}
+         * @param searchString the simplified search words
+         * @return the sum of the match of each word, or 0 if any word does not match
+         */
         private static int isMatching(Collection<String> values, String... searchString) {
             int sum = 0;
-            List<String> deaccentedValues = values.stream()
-                    .map(PresetClassification::simplifyString).collect(Collectors.toList());
-            for (String word: searchString) {
+            for (String deaccentedWord: searchString) {
                 boolean found = false;
                 boolean foundFirst = false;
-                String deaccentedWord = simplifyString(word);
-                for (String value: deaccentedValues) {
+                for (String value: values) {
                     int index = value.indexOf(deaccentedWord);
                     if (index == 0) {
                         foundFirst = true;
@@ -166,15 +179,15 @@ public class TaggingPresetSelector extends SearchTextResultListPanel<TaggingPres
         }
 
         int isMatchingGroup(String... words) {
-            return isMatching(groups, words);
+            return isMatching(groups, simplifyStrings(words));
         }
 
         int isMatchingName(String... words) {
-            return isMatching(names, words);
+            return isMatching(names, simplifyStrings(words));
         }
 
         int isMatchingTags(String... words) {
-            return isMatching(tags, words);
+            return isMatching(tags, simplifyStrings(words));
         }
 
         @Override
@@ -275,6 +288,9 @@ public class TaggingPresetSelector extends SearchTextResultListPanel<TaggingPres
     public static class PresetClassifications implements Iterable<PresetClassification> {
 
         private final List<PresetClassification> classifications = new ArrayList<>();
+        private PresetTextIndex groupIndex;
+        private PresetTextIndex nameIndex;
+        private PresetTextIndex tagIndex;
 
         public List<PresetClassification> getMatchingPresets(String searchText, boolean onlyApplicable, boolean inTags,
                 Set<TaggingPresetType> presetTypes, final Collection<? extends OsmPrimitive> selectedPrimitives) {
@@ -292,13 +308,35 @@ public class TaggingPresetSelector extends SearchTextResultListPanel<TaggingPres
             return getMatchingPresets(groupWords, nameWords, onlyApplicable, inTags, presetTypes, selectedPrimitives);
         }
 
-        public List<PresetClassification> getMatchingPresets(String[] groupWords, String[] nameWords, boolean onlyApplicable,
-                boolean inTags, Set<TaggingPresetType> presetTypes, final Collection<? extends OsmPrimitive> selectedPrimitives) {
+        public synchronized List<PresetClassification> getMatchingPresets(String[] groupWords, String[] nameWords,
+                boolean onlyApplicable, boolean inTags, Set<TaggingPresetType> presetTypes,
+                final Collection<? extends OsmPrimitive> selectedPrimitives) {
+
+            if (nameIndex == null) {
+                groupIndex = new PresetTextIndex(Utils.transform(classifications, x -> x.groups));
+                nameIndex = new PresetTextIndex(Utils.transform(classifications, x -> x.names));
+                tagIndex = new PresetTextIndex(Utils.transform(classifications, x -> x.tags));
+            }
+            final String[] simplifiedGroupWords = groupWords != null ? PresetClassification.simplifyStrings(groupWords) : null;
+            final String[] simplifiedNameWords = PresetClassification.simplifyStrings(nameWords);
+            final BitSet candidates = nameIndex.getCandidates(simplifiedNameWords);
+            if (simplifiedGroupWords == null) {
+                candidates.or(groupIndex.getCandidates(simplifiedNameWords));
+            } else {
+                candidates.and(groupIndex.getCandidates(simplifiedGroupWords));
+            }
+            if (inTags) {
+                candidates.or(tagIndex.getCandidates(simplifiedNameWords));
+            }
 
             final List<PresetClassification> result = new ArrayList<>();
-            for (PresetClassification presetClassification : classifications) {
+            for (int i = 0; i < classifications.size(); i++) {
+                PresetClassification presetClassification = classifications.get(i);
                 TaggingPreset preset = presetClassification.preset;
                 presetClassification.classification = 0;
+                if (!candidates.get(i)) {
+                    continue;
+                }
 
                 if (onlyApplicable) {
                     boolean suitable = preset.typeMatches(presetTypes);
@@ -314,21 +352,21 @@ public class TaggingPresetSelector extends SearchTextResultListPanel<TaggingPres
                     }
                 }
 
-                if (groupWords != null && presetClassification.isMatchingGroup(groupWords) == 0) {
+                if (simplifiedGroupWords != null && PresetClassification.isMatching(presetClassification.groups, simplifiedGroupWords) == 0) {
                     continue;
                 }
 
-                int matchName = presetClassification.isMatchingName(nameWords);
+                int matchName = PresetClassification.isMatching(presetClassification.names, simplifiedNameWords);
 
                 if (matchName == 0) {
-                    if (groupWords == null) {
-                        int groupMatch = presetClassification.isMatchingGroup(nameWords);
+                    if (simplifiedGroupWords == null) {
+                        int groupMatch = PresetClassification.isMatching(presetClassification.groups, simplifiedNameWords);
                         if (groupMatch > 0) {
                             presetClassification.classification = CLASSIFICATION_GROUP_MATCH + groupMatch;
                         }
                     }
                     if (presetClassification.classification == 0 && inTags) {
-                        int tagsMatch = presetClassification.isMatchingTags(nameWords);
+                        int tagsMatch = PresetClassification.isMatching(presetClassification.tags, simplifiedNameWords);
                         if (tagsMatch > 0) {
                             presetClassification.classification = CLASSIFICATION_TAGS_MATCH + tagsMatch;
                         }
@@ -350,15 +388,17 @@ public class TaggingPresetSelector extends SearchTextResultListPanel<TaggingPres
         /**
          * Clears the selector.
          */
-        public void clear() {
+        public synchronized void clear() {
             classifications.clear();
+            nameIndex = null;
         }
 
         /**
          * Loads a given collection of presets.
          * @param presets presets collection
          */
-        public void loadPresets(Collection<TaggingPreset> presets) {
+        public synchronized void loadPresets(Collection<TaggingPreset> presets) {
+            nameIndex = null;
             for (TaggingPreset preset : presets) {
                 if (preset instanceof TaggingPresetSeparator || preset instanceof TaggingPresetMenu) {
                     continue;
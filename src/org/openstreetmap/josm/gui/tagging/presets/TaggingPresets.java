@@ -29,7 +29,6 @@ import org.openstreetmap.josm.gui.tagging.presets.items.Roles.Role;
 import org.openstreetmap.josm.spi.preferences.Config;
 import org.openstreetmap.josm.tools.Logging;
 import org.openstreetmap.josm.tools.MultiMap;
-import org.openstreetmap.josm.tools.SubclassFilteredCollection;
 
 /**
  * Class holding Tagging Presets and allowing to manage them.
@@ -44,6 +43,8 @@ public final class TaggingPresets {
     private static final MultiMap<String, String> PRESET_TAG_CACHE = new MultiMap<>();
     /** cache for roles found in the preset */
     private static final Set<String> PRESET_ROLE_CACHE = new HashSet<>();
+    /** index of presets by tags, built when first needed */
+    private static volatile TaggingPresetIndex presetIndex;
 
     /** The collection of listeners */
     private static final Collection<TaggingPresetListener> listeners = new ArrayList<>();
@@ -58,6 +59,7 @@ public final class TaggingPresets {
     public static void readFromPreferences() {
         taggingPresets.clear();
         taggingPresets.addAll(TaggingPresetReader.readFromPreferences(false, false));
+        presetIndex = null;
         cachePresets(taggingPresets);
     }
 
@@ -128,6 +130,7 @@ public final class TaggingPresets {
         ToolbarPreferences toolBar = MainApplication.getToolbar();
         taggingPresets.forEach(toolBar::unregister);
         taggingPresets.clear();
+        presetIndex = null;
         PRESET_TAG_CACHE.clear();
         PRESET_ROLE_CACHE.clear();
         MainApplication.getMenu().presetsMenu.removeAll();
@@ -214,7 +217,7 @@ public final class TaggingPresets {
      */
     public static Collection<TaggingPreset> getMatchingPresets(final Collection<TaggingPresetType> t,
                                                                final Map<String, String> tags, final boolean onlyShowable) {
-        return SubclassFilteredCollection.filter(getTaggingPresets(), preset -> preset.matches(t, tags, onlyShowable));
+        return getPresetIndex().getMatchingPresets(tags, preset -> preset.matches(t, tags, onlyShowable));
     }
 
     /**
@@ -226,7 +229,21 @@ public final class TaggingPresets {
      * @since 13623 (signature)
      */
     public static Collection<TaggingPreset> getMatchingPresets(final IPrimitive primitive) {
-        return SubclassFilteredCollection.filter(getTaggingPresets(), preset -> preset.test(primitive));
+        return getPresetIndex().getMatchingPresets(primitive.getKeys(), preset -> preset.test(primitive));
+    }
+
+    private static TaggingPresetIndex getPresetIndex() {
+        TaggingPresetIndex index = presetIndex;
+        if (index == null) {
+            synchronized (TaggingPresets.class) {
+                index = presetIndex;
+                if (index == null) {
+                    index = new TaggingPresetIndex(taggingPresets);
+                    presetIndex = index;
+                }
+            }
+        }
+        return index;
     }
 
     /**
@@ -235,6 +252,7 @@ public final class TaggingPresets {
      */
     public static void addTaggingPresets(Collection<TaggingPreset> presets) {
         if (presets != null && taggingPresets.addAll(presets)) {
+            presetIndex = null;
             listeners.forEach(TaggingPresetListener::taggingPresetsModified);
         }
     }
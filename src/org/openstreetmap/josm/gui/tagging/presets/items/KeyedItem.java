@@ -51,8 +51,9 @@ public abstract class KeyedItem extends TextItem {
 
     /**
      * Enum denoting how a match (see {@link TaggingPresetItem#matches}) is performed.
+     * @since xxx (public)
      */
-    protected enum MatchType {
+    public enum MatchType {
 
         /** Neutral, i.e., do not consider this item for matching. */
         NONE("none"),
@@ -40,6 +40,7 @@ public abstract class AbstractTag2LinkPopupListener implements PopupMenuListener
     }
 
     protected void addLinks(JPopupMenu popup, String key, String value) {
+        Tag2Link.initializeIfNeeded();
         Tag2Link.getLinksForTag(key, value, (name, url, icon) -> {
             if (itemList.isEmpty()) {
                 itemList.add(popup.add(new JPopupMenu.Separator()));
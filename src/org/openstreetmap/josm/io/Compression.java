@@ -9,6 +9,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
@@ -19,7 +20,9 @@ import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
 import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.openstreetmap.josm.spi.preferences.Config;
 import org.openstreetmap.josm.tools.Logging;
+import org.openstreetmap.josm.tools.ParallelUtils;
 import org.openstreetmap.josm.tools.Utils;
 
 /**
@@ -47,6 +50,22 @@ public enum Compression {
      */
     XZ;
 
+    /** Size of the blocks decompressed ahead of the consumer */
+    private static final int READ_AHEAD_BLOCK_SIZE = 64 * 1024;
+    /** Maximum number of blocks decompressed ahead of the consumer */
+    private static final int READ_AHEAD_BLOCKS = 16;
+    /** Size of the blocks compressed in parallel */
+    private static final int PARALLEL_BLOCK_SIZE = 1024 * 1024;
+
+    /**
+     * Determines if files are compressed and decompressed using several threads.
+     * @return {@code true} if files are compressed and decompressed using several threads
+     */
+    private static boolean isParallel() {
+        return Config.getPref() != null && Config.getPref().getBoolean("compression.parallel", true)
+                && Runtime.getRuntime().availableProcessors() > 1;
+    }
+
     /**
      * Determines the compression type depending on the suffix of {@code name}.
      * @param name File name including extension
@@ -185,6 +204,8 @@ public enum Compression {
 
     /**
      * Returns an un-compressing {@link InputStream} for the {@link Path} {@code path}.
+     * <p>
+     * Compressed files are decompressed in a separate thread, ahead of the consumer of the stream.
      * @param path path
      * @return un-compressing input stream
      * @throws IOException if any I/O error occurs
@@ -193,7 +214,12 @@ public enum Compression {
     public static InputStream getUncompressedFileInputStream(Path path) throws IOException {
         InputStream in = Files.newInputStream(path); // NOPMD
         try {
-            return byExtension(path.getFileName().toString()).getUncompressedInputStream(in);
+            Compression compression = byExtension(path.getFileName().toString());
+            InputStream uncompressed = compression.getUncompressedInputStream(in);
+            if (compression != NONE && compression != ZIP && isParallel()) {
+                return new ReadAheadInputStream(uncompressed, READ_AHEAD_BLOCK_SIZE, READ_AHEAD_BLOCKS);
+            }
+            return uncompressed;
         } catch (IOException e) {
             Utils.close(in);
             throw e;
@@ -237,6 +263,8 @@ public enum Compression {
 
     /**
      * Returns a compressing {@link OutputStream} for the {@link Path} {@code path}.
+     * <p>
+     * Gzip and bzip2 files are compressed by blocks in parallel, as concatenated streams.
      * @param path path
      * @return compressing output stream
      *
@@ -247,7 +275,14 @@ public enum Compression {
     public static OutputStream getCompressedFileOutputStream(Path path) throws IOException {
         OutputStream out = Files.newOutputStream(path); // NOPMD
         try {
-            return byExtension(path.getFileName().toString()).getCompressedOutputStream(out);
+            Compression compression = byExtension(path.getFileName().toString());
+            if ((compression == GZIP || compression == BZIP2) && isParallel()) {
+                ForkJoinPool pool = ParallelUtils.getThreadPool();
+                if (pool != null) {
+                    return new ParallelCompressorOutputStream(out, compression, pool, PARALLEL_BLOCK_SIZE);
+                }
+            }
+            return compression.getCompressedOutputStream(out);
         } catch (IOException e) {
             Utils.close(out);
             throw e;
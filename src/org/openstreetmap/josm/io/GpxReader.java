@@ -26,6 +26,7 @@ import org.openstreetmap.josm.data.gpx.GpxExtensionCollection;
 import org.openstreetmap.josm.data.gpx.GpxLink;
 import org.openstreetmap.josm.data.gpx.GpxRoute;
 import org.openstreetmap.josm.data.gpx.GpxTrack;
+import org.openstreetmap.josm.data.gpx.GpxTrackPoints;
 import org.openstreetmap.josm.data.gpx.GpxTrackSegment;
 import org.openstreetmap.josm.data.gpx.IGpxTrackSegment;
 import org.openstreetmap.josm.data.gpx.WayPoint;
@@ -73,7 +74,7 @@ public class GpxReader implements GpxConstants, IGpxReader {
         private GpxData data;
         private Collection<IGpxTrackSegment> currentTrack;
         private Map<String, Object> currentTrackAttr;
-        private Collection<WayPoint> currentTrackSeg;
+        private GpxTrackPoints.Builder currentTrackSeg;
         private GpxRoute currentRoute;
         private WayPoint currentWayPoint;
 
@@ -239,7 +240,7 @@ public class GpxReader implements GpxConstants, IGpxReader {
                 case "trkseg":
                     states.push(currentState);
                     currentState = State.TRKSEG;
-                    currentTrackSeg = new ArrayList<>();
+                    currentTrackSeg = new GpxTrackPoints.Builder();
                     break;
                 case "link":
                     states.push(currentState);
@@ -258,7 +259,10 @@ public class GpxReader implements GpxConstants, IGpxReader {
                 case "trkpt":
                     states.push(currentState);
                     currentState = State.WPT;
-                    currentWayPoint = new WayPoint(parseLatLon(atts));
+                    // track points are written directly in the columns of the segment, without way point
+                    currentWayPoint = null;
+                    LatLon ll = parseLatLon(atts);
+                    currentTrackSeg.add(ll.lat(), ll.lon());
                     break;
                 case "extensions":
                     states.push(currentState);
@@ -331,11 +335,22 @@ public class GpxReader implements GpxConstants, IGpxReader {
             accumulator.append(ch, start, length);
         }
 
+        /**
+         * Sets an attribute of the current point. Attributes of track points are stored in the columns of the segment.
+         */
+        private void putPointAttribute(String key, Object value) {
+            if (currentWayPoint != null) {
+                currentWayPoint.put(key, value);
+            } else {
+                currentTrackSeg.put(key, value);
+            }
+        }
+
         private Map<String, Object> getAttr() {
             switch (currentState) {
             case RTE: return currentRoute.attr;
             case METADATA: return data.attr;
-            case WPT: return currentWayPoint.attr;
+            case WPT: return currentWayPoint != null ? currentWayPoint.attr : currentTrackSeg.getAttributes();
             case TRK: return currentTrackAttr;
             default: return null;
             }
@@ -463,20 +478,25 @@ public class GpxReader implements GpxConstants, IGpxReader {
                 case "urlname":
                 case "cmt":
                 case "desc":
-                    currentWayPoint.put(localName, accumulator.toString());
+                    putPointAttribute(localName, accumulator.toString());
                     break;
                 case "hdop":
                 case "vdop":
                 case "pdop":
                     try {
-                        currentWayPoint.put(localName, Float.valueOf(accumulator.toString()));
+                        putPointAttribute(localName, Float.valueOf(accumulator.toString()));
                     } catch (NumberFormatException e) {
-                        currentWayPoint.put(localName, 0f);
+                        putPointAttribute(localName, 0f);
                     }
                     break;
                 case PT_TIME:
                     try {
-                        currentWayPoint.setTimeInMillis(DateUtils.tsFromString(accumulator.toString()));
+                        long time = DateUtils.tsFromString(accumulator.toString());
+                        if (currentWayPoint != null) {
+                            currentWayPoint.setTimeInMillis(time);
+                        } else {
+                            currentTrackSeg.setTimeInMillis(time);
+                        }
                     } catch (UncheckedParseException | DateTimeException e) {
                         Logging.error(e);
                     }
@@ -488,8 +508,9 @@ public class GpxReader implements GpxConstants, IGpxReader {
                     break;
                 case "trkpt":
                     currentState = states.pop();
-                    convertUrlToLink(currentWayPoint.attr);
-                    currentTrackSeg.add(currentWayPoint);
+                    if (currentTrackSeg.hasAttributes()) {
+                        convertUrlToLink(currentTrackSeg.getAttributes());
+                    }
                     break;
                 case "wpt":
                     currentState = states.pop();
@@ -504,8 +525,8 @@ public class GpxReader implements GpxConstants, IGpxReader {
             case TRKSEG:
                 if ("trkseg".equals(localName)) {
                     currentState = states.pop();
-                    if (!currentTrackSeg.isEmpty()) {
-                        GpxTrackSegment seg = new GpxTrackSegment(currentTrackSeg);
+                    if (currentTrackSeg.size() > 0) {
+                        GpxTrackSegment seg = new GpxTrackSegment(currentTrackSeg.build());
                         seg.getExtensions().addAll(currentExtensionCollection);
                         currentTrack.add(seg);
                     }
@@ -40,6 +40,7 @@ import org.openstreetmap.josm.tools.CheckParameterUtil;
 import org.openstreetmap.josm.tools.HttpClient;
 import org.openstreetmap.josm.tools.ListenerList;
 import org.openstreetmap.josm.tools.Logging;
+import org.openstreetmap.josm.tools.Stopwatch;
 import org.openstreetmap.josm.tools.Utils;
 import org.openstreetmap.josm.tools.XmlParsingException;
 import org.xml.sax.InputSource;
@@ -550,6 +551,22 @@ public class OsmApi extends OsmConnection {
      */
     public Collection<OsmPrimitive> uploadDiff(Collection<? extends OsmPrimitive> list, ProgressMonitor monitor)
             throws OsmTransferException {
+        return uploadDiff(list, null, null, monitor);
+    }
+
+    /**
+     * Uploads a list of changes in "diff" form to the server, with an upload request which may have been prepared in advance.
+     *
+     * @param list the list of changed OSM Primitives
+     * @param diffUploadRequest the upload request returned by {@link #createDiffUploadRequest}, or {@code null} to create it
+     * @param timings the durations of the upload phases to update, can be {@code null}
+     * @param monitor the progress monitor
+     * @return list of processed primitives
+     * @throws OsmTransferException if something is wrong
+     * @since xxx
+     */
+    public Collection<OsmPrimitive> uploadDiff(Collection<? extends OsmPrimitive> list, String diffUploadRequest,
+            UploadTimings timings, ProgressMonitor monitor) throws OsmTransferException {
         try {
             monitor.beginTask("", list.size() * 2);
             if (changeset == null)
@@ -559,27 +576,38 @@ public class OsmApi extends OsmConnection {
 
             // prepare upload request
             //
-            OsmChangeBuilder changeBuilder = new OsmChangeBuilder(changeset);
-            monitor.subTask(tr("Preparing upload request..."));
-            changeBuilder.start();
-            changeBuilder.append(list);
-            changeBuilder.finish();
-            String diffUploadRequest = changeBuilder.getDocument();
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            if (diffUploadRequest == null) {
+                monitor.subTask(tr("Preparing upload request..."));
+                diffUploadRequest = createDiffUploadRequest(list);
+                if (timings != null) {
+                    timings.addPrepareTime(stopwatch.elapsed());
+                }
+            }
 
             // Upload to the server
             //
             monitor.indeterminateSubTask(
                     trn("Uploading {0} object...", "Uploading {0} objects...", list.size(), list.size()));
-            String diffUploadResponse = sendRequest("POST", "changeset/" + changeset.getId() + "/upload", diffUploadRequest, monitor);
+            stopwatch = Stopwatch.createStarted();
+            String diffUploadResponse = sendDiffUploadRequest(diffUploadRequest, monitor);
+            if (timings != null) {
+                timings.addUploadTime(stopwatch.elapsed());
+            }
 
             // Process the response from the server
             //
+            stopwatch = Stopwatch.createStarted();
             DiffResultProcessor reader = new DiffResultProcessor(list);
             reader.parse(diffUploadResponse, monitor.createSubTaskMonitor(ProgressMonitor.ALL_TICKS, false));
-            return reader.postProcess(
+            Collection<OsmPrimitive> processed = reader.postProcess(
                     getChangeset(),
                     monitor.createSubTaskMonitor(ProgressMonitor.ALL_TICKS, false)
             );
+            if (timings != null) {
+                timings.addProcessTime(stopwatch.elapsed());
+            }
+            return processed;
         } catch (OsmTransferException e) {
             throw e;
         } catch (XmlParsingException e) {
@@ -589,6 +617,37 @@ public class OsmApi extends OsmConnection {
         }
     }
 
+    /**
+     * Creates the request uploading a list of changes in "diff" form to the current changeset.
+     * <p>
+     * The primitives are only read: the request can be created in another thread than the one uploading it, as long as
+     * the primitives are not modified meanwhile.
+     *
+     * @param list the list of changed OSM Primitives
+     * @return the osmChange document to upload
+     * @since xxx
+     */
+    public String createDiffUploadRequest(Collection<? extends OsmPrimitive> list) {
+        OsmChangeBuilder changeBuilder = new OsmChangeBuilder(changeset);
+        changeBuilder.start();
+        changeBuilder.append(list);
+        changeBuilder.finish();
+        return changeBuilder.getDocument();
+    }
+
+    /**
+     * Sends a diff upload request to the current changeset.
+     *
+     * @param diffUploadRequest the osmChange document to upload
+     * @param monitor the progress monitor
+     * @return the diff result returned by the server
+     * @throws OsmTransferException if something is wrong
+     * @since xxx
+     */
+    protected String sendDiffUploadRequest(String diffUploadRequest, ProgressMonitor monitor) throws OsmTransferException {
+        return sendRequest("POST", "changeset/" + changeset.getId() + "/upload", diffUploadRequest, monitor);
+    }
+
     private void sleepAndListen(int retry, ProgressMonitor monitor) throws OsmTransferCanceledException {
         Logging.info(tr("Waiting 10 seconds ... "));
         for (int i = 0; i < 10; i++) {
@@ -5,7 +5,9 @@ import static org.openstreetmap.josm.tools.I18n.tr;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.openstreetmap.josm.data.osm.Changeset;
 import org.openstreetmap.josm.data.osm.IPrimitive;
@@ -60,6 +62,26 @@ public class OsmChangeBuilder {
         }
     }
 
+    private static String getMode(IPrimitive p) {
+        if (p.isDeleted()) {
+            return "delete";
+        }
+        return p.isNew() ? "create" : "modify";
+    }
+
+    /**
+     * Writes consecutive primitives having the same mode at once, so that large changes can be serialized in parallel.
+     * @param mode the mode of the primitives
+     * @param primitives the primitives
+     */
+    private void write(String mode, List<IPrimitive> primitives) {
+        if (!primitives.isEmpty()) {
+            switchMode(mode);
+            osmwriter.setWithBody(!"delete".equals(mode));
+            osmwriter.visitAll(primitives);
+        }
+    }
+
     private void switchMode(String newMode) {
         if ((newMode != null && !newMode.equals(currentMode)) || (newMode == null && currentMode != null)) {
             if (currentMode != null) {
@@ -102,9 +124,18 @@ public class OsmChangeBuilder {
         if (primitives == null)
             return;
         checkProlog();
+        List<IPrimitive> sameMode = new ArrayList<>();
+        String mode = null;
         for (IPrimitive p : primitives) {
-            write(p);
+            String pMode = getMode(p);
+            if (!pMode.equals(mode)) {
+                write(mode, sameMode);
+                sameMode.clear();
+                mode = pMode;
+            }
+            sameMode.add(p);
         }
+        write(mode, sameMode);
     }
 
     private void checkProlog() {
@@ -7,18 +7,30 @@ import static org.openstreetmap.josm.tools.I18n.trn;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.openstreetmap.josm.data.UserIdentityManager;
 import org.openstreetmap.josm.data.osm.Changeset;
 import org.openstreetmap.josm.data.osm.OsmPrimitive;
 import org.openstreetmap.josm.data.osm.OsmPrimitiveType;
+import org.openstreetmap.josm.data.osm.Relation;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.data.preferences.BooleanProperty;
 import org.openstreetmap.josm.gui.progress.NullProgressMonitor;
 import org.openstreetmap.josm.gui.progress.ProgressMonitor;
 import org.openstreetmap.josm.tools.CheckParameterUtil;
+import org.openstreetmap.josm.tools.Logging;
+import org.openstreetmap.josm.tools.Stopwatch;
+import org.openstreetmap.josm.tools.Utils;
 
 /**
  * Class that uploads all changes to the osm server.
@@ -60,7 +72,14 @@ public class OsmServerWriter {
         }
     }
 
+    /**
+     * Property to prepare the request of the next chunk while the current one is uploaded.
+     * @since xxx
+     */
+    public static final BooleanProperty PROP_PIPELINED = new BooleanProperty("osm-server.upload-pipelined", true);
+
     private final OsmApi api = OsmApi.getOsmApi();
+    private final UploadTimings timings = new UploadTimings();
     private boolean canceled;
 
     private long uploadStartTime;
@@ -132,7 +151,8 @@ public class OsmServerWriter {
             throws OsmTransferException {
         try {
             progressMonitor.beginTask(tr("Starting to upload in one request ..."));
-            processed.addAll(api.uploadDiff(primitives, progressMonitor.createSubTaskMonitor(ProgressMonitor.ALL_TICKS, false)));
+            processed.addAll(api.uploadDiff(primitives, null, timings,
+                    progressMonitor.createSubTaskMonitor(ProgressMonitor.ALL_TICKS, false)));
         } finally {
             progressMonitor.finishTask();
         }
@@ -151,33 +171,97 @@ public class OsmServerWriter {
             throws OsmTransferException {
         if (chunkSize <= 0)
             throw new IllegalArgumentException(tr("Value >0 expected for parameter ''{0}'', got {1}", "chunkSize", chunkSize));
+        List<List<OsmPrimitive>> chunks = new ArrayList<>();
+        List<OsmPrimitive> chunk = new ArrayList<>(chunkSize);
+        for (OsmPrimitive osm : primitives) {
+            chunk.add(osm);
+            if (chunk.size() == chunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        ExecutorService executor = chunks.size() > 1 && PROP_PIPELINED.get()
+                ? Executors.newSingleThreadExecutor(Utils.newThreadFactory("upload-prepare-%d", Thread.NORM_PRIORITY)) : null;
+        Future<String> nextRequest = null;
         try {
             progressMonitor.beginTask(tr("Starting to upload in chunks..."));
-            List<OsmPrimitive> chunk = new ArrayList<>(chunkSize);
-            Iterator<? extends OsmPrimitive> it = primitives.iterator();
-            int numChunks = (int) Math.ceil((double) primitives.size() / (double) chunkSize);
-            int i = 0;
-            while (it.hasNext()) {
-                i++;
+            for (int i = 0; i < chunks.size(); i++) {
                 if (canceled) return;
-                int j = 0;
-                chunk.clear();
-                while (it.hasNext() && j < chunkSize) {
-                    if (canceled) return;
-                    j++;
-                    chunk.add(it.next());
+                List<OsmPrimitive> current = chunks.get(i);
+                String request = nextRequest != null ? getRequest(nextRequest) : null;
+                nextRequest = null;
+                // prepare the next request while this one is uploaded, unless it refers to primitives created by this one
+                if (executor != null && i + 1 < chunks.size() && !refersToNew(chunks.get(i + 1), current)) {
+                    List<OsmPrimitive> next = chunks.get(i + 1);
+                    nextRequest = executor.submit(() -> {
+                        Stopwatch stopwatch = Stopwatch.createStarted();
+                        String result = api.createDiffUploadRequest(next);
+                        timings.addPrepareTime(stopwatch.elapsed());
+                        return result;
+                    });
                 }
                 progressMonitor.setCustomText(
                         trn("({0}/{1}) Uploading {2} object...",
                                 "({0}/{1}) Uploading {2} objects...",
-                                chunk.size(), i, numChunks, chunk.size()));
-                processed.addAll(api.uploadDiff(chunk, progressMonitor.createSubTaskMonitor(ProgressMonitor.ALL_TICKS, false)));
+                                current.size(), i + 1, chunks.size(), current.size()));
+                processed.addAll(api.uploadDiff(current, request, timings,
+                        progressMonitor.createSubTaskMonitor(ProgressMonitor.ALL_TICKS, false)));
             }
         } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
             progressMonitor.finishTask();
         }
     }
 
+    private static String getRequest(Future<String> request) throws OsmTransferException {
+        try {
+            return request.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OsmTransferCanceledException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new OsmTransferException(e.getCause());
+        }
+    }
+
+    /**
+     * Determines if primitives refer to new primitives of another chunk. Their ids are only known once this chunk has been
+     * uploaded.
+     * @param primitives the primitives
+     * @param chunk the other chunk
+     * @return {@code true} if a way node or a relation member of {@code primitives} is a new primitive of {@code chunk}
+     */
+    private static boolean refersToNew(List<OsmPrimitive> primitives, List<OsmPrimitive> chunk) {
+        Set<OsmPrimitive> created = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (OsmPrimitive osm : chunk) {
+            if (osm.isNew()) {
+                created.add(osm);
+            }
+        }
+        if (created.isEmpty()) {
+            return false;
+        }
+        for (OsmPrimitive osm : primitives) {
+            if (osm.isDeleted()) {
+                continue;
+            }
+            if (osm instanceof Way && ((Way) osm).getNodes().stream().anyMatch(created::contains)) {
+                return true;
+            } else if (osm instanceof Relation && ((Relation) osm).getMemberPrimitivesList().stream().anyMatch(created::contains)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Send the dataset to the server.
      *
@@ -219,6 +303,7 @@ public class OsmServerWriter {
                 break;
             }
         } finally {
+            Logging.debug("Upload timings: {0}", timings);
             executePostprocessors(monitor);
             monitor.finishTask();
             api.setChangeset(null);
@@ -254,6 +339,16 @@ public class OsmServerWriter {
         return processed;
     }
 
+    /**
+     * Replies the durations of the phases of the diff uploads made by this writer.
+     *
+     * @return the durations of the phases of the diff uploads
+     * @since xxx
+     */
+    public UploadTimings getTimings() {
+        return timings;
+    }
+
     /**
      * Calls all registered upload postprocessors.
      * @param pm progress monitor
@@ -4,6 +4,8 @@ package org.openstreetmap.josm.io;
 import static org.openstreetmap.josm.tools.I18n.tr;
 
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -29,10 +31,16 @@ import org.openstreetmap.josm.data.osm.Tagged;
 import org.openstreetmap.josm.data.osm.UploadPolicy;
 import org.openstreetmap.josm.data.osm.Way;
 import org.openstreetmap.josm.data.osm.visitor.PrimitiveVisitor;
+import org.openstreetmap.josm.data.preferences.BooleanProperty;
+import org.openstreetmap.josm.data.preferences.IntegerProperty;
+import org.openstreetmap.josm.tools.ParallelUtils;
 import org.openstreetmap.josm.tools.date.DateUtils;
 
 /**
  * Save the dataset into a stream as osm intern xml format. This is not using any xml library for storing.
+ * <p>
+ * Attributes are written directly to the output writer, without intermediate strings. Large collections of primitives
+ * are serialized in parallel chunks which are then written in order, see {@link ParallelUtils}.
  * @author imi
  * @since 59
  */
@@ -41,12 +49,26 @@ public class OsmWriter extends XmlWriter implements PrimitiveVisitor {
     /** Default OSM API version */
     public static final String DEFAULT_API_VERSION = "0.6";
 
+    /**
+     * Property to enable the parallel serialization of large collections of primitives.
+     * @since xxx
+     */
+    public static final BooleanProperty PROP_PARALLEL = new BooleanProperty("osm-writer.parallel", true);
+
+    /**
+     * Property for the number of primitives serialized by each parallel task. Smaller collections are written sequentially.
+     * @since xxx
+     */
+    public static final IntegerProperty PROP_PARALLEL_CHUNK_SIZE = new IntegerProperty("osm-writer.parallel.chunk-size", 5000);
+
     private final boolean osmConform;
     private boolean withBody = true;
     private boolean withVisible = true;
     private boolean isOsmChange;
     private String version;
     private Changeset changeset;
+    /** not thread-safe, so not shared with other writers */
+    private final DecimalFormat latLonFormat = (DecimalFormat) LatLon.cDdHighPrecisionFormatter.clone();
 
     /**
      * Constructs a new {@code OsmWriter}.
@@ -181,11 +203,7 @@ public class OsmWriter extends XmlWriter implements PrimitiveVisitor {
      * @since 5737
      */
     public void writeNodes(Collection<Node> nodes) {
-        for (Node n : sortById(nodes)) {
-            if (shouldWrite(n)) {
-                visit(n);
-            }
-        }
+        writePrimitives(nodes);
     }
 
     /**
@@ -194,11 +212,7 @@ public class OsmWriter extends XmlWriter implements PrimitiveVisitor {
      * @since 5737
      */
     public void writeWays(Collection<Way> ways) {
-        for (Way w : sortById(ways)) {
-            if (shouldWrite(w)) {
-                visit(w);
-            }
-        }
+        writePrimitives(ways);
     }
 
     /**
@@ -207,39 +221,109 @@ public class OsmWriter extends XmlWriter implements PrimitiveVisitor {
      * @since 5737
      */
     public void writeRelations(Collection<Relation> relations) {
-        for (Relation r : sortById(relations)) {
-            if (shouldWrite(r)) {
-                visit(r);
+        writePrimitives(relations);
+    }
+
+    private <T extends OsmPrimitive> void writePrimitives(Collection<T> primitives) {
+        List<T> toWrite = new ArrayList<>(primitives.size());
+        for (T osm : sortById(primitives)) {
+            if (shouldWrite(osm)) {
+                toWrite.add(osm);
             }
         }
+        visitAll(toWrite);
     }
 
     protected boolean shouldWrite(OsmPrimitive osm) {
         return !osm.isNewOrUndeleted() || !osm.isDeleted();
     }
 
+    /**
+     * Visits the given primitives in order. Large lists are serialized in parallel chunks, unless this class has been
+     * extended. The primitives must not be modified meanwhile.
+     * @param primitives the primitives to write
+     */
+    void visitAll(List<? extends IPrimitive> primitives) {
+        if (getClass() != OsmWriter.class || !ParallelUtils.isParallel(PROP_PARALLEL, PROP_PARALLEL_CHUNK_SIZE, primitives.size())) {
+            for (IPrimitive osm : primitives) {
+                osm.accept(this);
+            }
+            return;
+        }
+        // serialize a few chunks per thread at once, to bound the memory used by the serialized chunks
+        int chunkSize = Math.max(1, PROP_PARALLEL_CHUNK_SIZE.get());
+        int window = chunkSize * Runtime.getRuntime().availableProcessors() * 2;
+        for (int from = 0; from < primitives.size(); from += window) {
+            List<? extends IPrimitive> part = primitives.subList(from, Math.min(primitives.size(), from + window));
+            for (String chunk : ParallelUtils.mapChunks(part, this::serialize, chunkSize)) {
+                out.write(chunk);
+            }
+        }
+    }
+
+    private String serialize(List<? extends IPrimitive> primitives) {
+        StringWriter buffer = new StringWriter(primitives.size() * 128);
+        OsmWriter writer = new OsmWriter(new PrintWriter(buffer), osmConform, version);
+        writer.withBody = withBody;
+        writer.withVisible = withVisible;
+        writer.isOsmChange = isOsmChange;
+        writer.changeset = changeset;
+        for (IPrimitive osm : primitives) {
+            osm.accept(writer);
+        }
+        writer.flush();
+        return buffer.toString();
+    }
+
     /**
      * Writes data sources with their respective bounds.
      * @param ds data set
      */
     public void writeDataSources(DataSet ds) {
         for (DataSource s : ds.getDataSources()) {
-            out.println("  <bounds minlat='"
-                    + DecimalDegreesCoordinateFormat.INSTANCE.latToString(s.bounds.getMin())
-                    +"' minlon='"
-                    + DecimalDegreesCoordinateFormat.INSTANCE.lonToString(s.bounds.getMin())
-                    +"' maxlat='"
-                    + DecimalDegreesCoordinateFormat.INSTANCE.latToString(s.bounds.getMax())
-                    +"' maxlon='"
-                    + DecimalDegreesCoordinateFormat.INSTANCE.lonToString(s.bounds.getMax())
-                    +"' origin='"+XmlWriter.encode(s.origin)+"' />");
+            out.print("  <bounds");
+            writeAttribute("minlat", DecimalDegreesCoordinateFormat.INSTANCE.latToString(s.bounds.getMin()));
+            writeAttribute("minlon", DecimalDegreesCoordinateFormat.INSTANCE.lonToString(s.bounds.getMin()));
+            writeAttribute("maxlat", DecimalDegreesCoordinateFormat.INSTANCE.latToString(s.bounds.getMax()));
+            writeAttribute("maxlon", DecimalDegreesCoordinateFormat.INSTANCE.lonToString(s.bounds.getMax()));
+            writeAttribute("origin", s.origin);
+            out.println(" />");
         }
     }
 
+    /**
+     * Writes an attribute, preceded by a space.
+     * @param name the attribute name
+     * @param value the unencoded attribute value
+     */
+    private void writeAttribute(String name, String value) {
+        out.write(' ');
+        out.write(name);
+        out.write("='");
+        writeEncoded(value);
+        out.write('\'');
+    }
+
+    /**
+     * Writes a numeric attribute, preceded by a space.
+     * @param name the attribute name
+     * @param value the attribute value
+     */
+    private void writeAttribute(String name, long value) {
+        out.write(' ');
+        out.write(name);
+        out.write("='");
+        out.print(value);
+        out.write('\'');
+    }
+
     void writeLatLon(LatLon ll) {
         if (ll != null) {
-            out.print(" lat='"+LatLon.cDdHighPrecisionFormatter.format(ll.lat())+
-                     "' lon='"+LatLon.cDdHighPrecisionFormatter.format(ll.lon())+'\'');
+            out.write(" lat='");
+            out.write(latLonFormat.format(ll.lat()));
+            out.write("' lon='");
+            out.write(latLonFormat.format(ll.lon()));
+            out.write('\'');
         }
     }
 
@@ -264,7 +348,9 @@ public class OsmWriter extends XmlWriter implements PrimitiveVisitor {
         } else {
             out.println(">");
             for (int i = 0; i < w.getNodesCount(); ++i) {
-                out.println("    <nd ref='"+w.getNodeId(i) +"' />");
+                out.write("    <nd ref='");
+                out.print(w.getNodeId(i));
+                out.println("' />");
             }
             addTags(w, "way", false);
         }
@@ -279,10 +365,11 @@ public class OsmWriter extends XmlWriter implements PrimitiveVisitor {
         } else {
             out.println(">");
             for (int i = 0; i < e.getMembersCount(); ++i) {
-                out.print("    <member type='");
-                out.print(e.getMemberType(i).getAPIName());
-                out.println("' ref='"+e.getMemberId(i)+"' role='" +
-                        XmlWriter.encode(e.getRole(i)) + "' />");
+                out.write("    <member");
+                writeAttribute("type", e.getMemberType(i).getAPIName());
+                writeAttribute("ref", e.getMemberId(i));
+                writeAttribute("role", e.getRole(i));
+                out.println(" />");
             }
             addTags(e, "relation", false);
         }
@@ -329,17 +416,25 @@ public class OsmWriter extends XmlWriter implements PrimitiveVisitor {
             List<Entry<String, String>> entries = new ArrayList<>(osm.getKeys().entrySet());
             entries.sort(byKeyComparator);
             for (Entry<String, String> e : entries) {
-                out.println("    <tag k='"+ XmlWriter.encode(e.getKey()) +
-                        "' v='"+XmlWriter.encode(e.getValue())+ "' />");
+                out.write("    <tag");
+                writeAttribute("k", e.getKey());
+                writeAttribute("v", e.getValue());
+                out.println(" />");
             }
-            out.println("  </" + tagname + '>');
+            writeEndTag(tagname);
         } else if (tagOpen) {
             out.println(" />");
         } else {
-            out.println("  </" + tagname + '>');
+            writeEndTag(tagname);
         }
     }
 
+    private void writeEndTag(String tagname) {
+        out.write("  </");
+        out.write(tagname);
+        out.println('>');
+    }
+
     /**
      * Add the common part as the form of the tag as well as the XML attributes
      * id, action, user, and visible.
@@ -347,9 +442,10 @@ public class OsmWriter extends XmlWriter implements PrimitiveVisitor {
      * @param tagname XML tag matching osm primitive (node, way, relation)
      */
     protected void addCommon(IPrimitive osm, String tagname) {
-        out.print("  <"+tagname);
+        out.write("  <");
+        out.write(tagname);
         if (osm.getUniqueId() != 0) {
-            out.print(" id='"+ osm.getUniqueId()+'\'');
+            writeAttribute("id", osm.getUniqueId());
         } else
             throw new IllegalStateException(tr("Unexpected id 0 for osm primitive found"));
         if (!isOsmChange) {
@@ -361,33 +457,33 @@ public class OsmWriter extends XmlWriter implements PrimitiveVisitor {
                     action = "modify";
                 }
                 if (action != null) {
-                    out.print(" action='"+action+'\'');
+                    writeAttribute("action", action);
                 }
             }
             if (!osm.isTimestampEmpty()) {
-                out.print(" timestamp='"+DateUtils.fromTimestamp(osm.getRawTimestamp())+'\'');
+                writeAttribute("timestamp", DateUtils.fromTimestamp(osm.getRawTimestamp()));
             }
             // user and visible added with 0.4 API
             if (osm.getUser() != null) {
                 if (osm.getUser().isLocalUser()) {
-                    out.print(" user='"+XmlWriter.encode(osm.getUser().getName())+'\'');
+                    writeAttribute("user", osm.getUser().getName());
                 } else if (osm.getUser().isOsmUser()) {
                     // uid added with 0.6
-                    out.print(" uid='"+ osm.getUser().getId()+'\'');
-                    out.print(" user='"+XmlWriter.encode(osm.getUser().getName())+'\'');
+                    writeAttribute("uid", osm.getUser().getId());
+                    writeAttribute("user", osm.getUser().getName());
                 }
             }
             if (withVisible) {
-                out.print(" visible='"+osm.isVisible()+'\'');
+                writeAttribute("visible", Boolean.toString(osm.isVisible()));
             }
         }
         if (osm.getVersion() != 0) {
-            out.print(" version='"+osm.getVersion()+'\'');
+            writeAttribute("version", osm.getVersion());
         }
         if (this.changeset != null && this.changeset.getId() != 0) {
-            out.print(" changeset='"+this.changeset.getId()+'\'');
+            writeAttribute("changeset", this.changeset.getId());
         } else if (osm.getChangesetId() > 0 && !osm.isNew()) {
-            out.print(" changeset='"+osm.getChangesetId()+'\'');
+            writeAttribute("changeset", osm.getChangesetId());
         }
     }
 }
@@ -0,0 +1,143 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * An output stream compressing blocks of data in parallel.
+ * <p>
+ * Each block is compressed as an independent stream (a gzip member, a bzip2 stream) and the compressed blocks are written
+ * in order. Concatenated streams are valid files for these formats, read by {@link Compression} as a single stream.
+ * @since xxx
+ */
+final class ParallelCompressorOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private final Compression compression;
+    private final ForkJoinPool pool;
+    private final int blockSize;
+    private final int maxPending;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+    private byte[] buffer;
+    private int count;
+    private boolean written;
+    private boolean closed;
+
+    /**
+     * Constructs a new {@code ParallelCompressorOutputStream}.
+     * @param out the raw output stream, closed when this stream is closed
+     * @param compression the compression of each block
+     * @param pool the thread pool compressing the blocks, see {@link org.openstreetmap.josm.tools.ParallelUtils#getThreadPool()}
+     * @param blockSize the size of the uncompressed blocks
+     */
+    ParallelCompressorOutputStream(OutputStream out, Compression compression, ForkJoinPool pool, int blockSize) {
+        this.out = out;
+        this.compression = compression;
+        this.pool = pool;
+        this.blockSize = blockSize;
+        this.maxPending = 2 * pool.getParallelism();
+        this.buffer = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        buffer[count++] = (byte) b;
+        if (count == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int n = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if (count == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        byte[] block = buffer;
+        int length = count;
+        buffer = new byte[blockSize];
+        count = 0;
+        pending.add(pool.submit(() -> compress(block, length)));
+        while (pending.size() > maxPending) {
+            writeNextBlock();
+        }
+    }
+
+    private byte[] compress(byte[] block, int length) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(length / 4);
+        try (OutputStream compressor = compression.getCompressedOutputStream(result)) {
+            compressor.write(block, 0, length);
+        }
+        return result.toByteArray();
+    }
+
+    private void writeNextBlock() throws IOException {
+        try {
+            out.write(pending.removeFirst().get());
+            written = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void writePendingBlocks() throws IOException {
+        submitBlock();
+        while (!pending.isEmpty()) {
+            writeNextBlock();
+        }
+    }
+
+    /**
+     * Flushes the underlying stream. The buffered data is not compressed and written before the block is full or the
+     * stream is closed, as each block ends a compressed stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writePendingBlocks();
+            if (!written) {
+                // a valid compressed file, even if empty
+                out.write(compress(buffer, 0));
+            }
+        } finally {
+            pending.forEach(f -> f.cancel(false));
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.openstreetmap.josm.data.Version;
+import org.openstreetmap.josm.spi.preferences.Config;
+import org.openstreetmap.josm.tools.JosmRuntimeException;
+import org.openstreetmap.josm.tools.Logging;
+import org.openstreetmap.josm.tools.Utils;
+
+/**
+ * A persistent cache of parsed sources (tagging presets, MapCSS styles, validator rules), saving their parsing at startup.
+ * <p>
+ * Entries are stored in a binary form in the cache directory, keyed by source URL. Each entry records the hash of the
+ * source content it was computed from, the version of its format and the JOSM version: it is discarded if any of them
+ * does not match, and the source must then be parsed again.
+ * @since xxx
+ */
+public final class ParsedSourceCache {
+
+    /**
+     * Reads the parsed form of a source from a cache entry.
+     * @param <T> type of the parsed form
+     */
+    @FunctionalInterface
+    public interface EntryReader<T> {
+        /**
+         * Reads the parsed form of a source.
+         * @param in the cache entry
+         * @return the parsed form
+         * @throws IOException if any I/O error occurs or if the entry is invalid
+         */
+        T read(DataInput in) throws IOException;
+    }
+
+    /**
+     * Writes the parsed form of a source to a cache entry.
+     * @param <T> type of the parsed form
+     */
+    @FunctionalInterface
+    public interface EntryWriter<T> {
+        /**
+         * Writes the parsed form of a source.
+         * @param value the parsed form
+         * @param out the cache entry
+         * @throws IOException if any I/O error occurs
+         */
+        void write(T value, DataOutput out) throws IOException;
+    }
+
+    private static final int MAGIC = 0x4a4f5043;
+
+    private final String kind;
+    private final int formatVersion;
+
+    /**
+     * Constructs a new {@code ParsedSourceCache}.
+     * @param kind kind of the cached sources, used as directory name
+     * @param formatVersion version of the format of the entries, to be incremented each time it changes
+     */
+    public ParsedSourceCache(String kind, int formatVersion) {
+        this.kind = Objects.requireNonNull(kind);
+        this.formatVersion = formatVersion;
+    }
+
+    /**
+     * Determines if the cache is enabled, see the {@code parsed-source-cache.enabled} preference.
+     * @return {@code true} if the cache is enabled
+     */
+    public static boolean isEnabled() {
+        return Config.getPref() != null && Config.getDirs() != null && Config.getPref().getBoolean("parsed-source-cache.enabled", true);
+    }
+
+    /**
+     * Returns the hash identifying the content of a source.
+     * @param content the source content
+     * @return the SHA-256 hash of {@code content}
+     */
+    public static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new JosmRuntimeException(e);
+        }
+    }
+
+    private File getFile(String source) {
+        File dir = new File(new File(Config.getDirs().getCacheDirectory(true), "parsed"), kind);
+        return new File(dir, Utils.md5Hex(source) + ".bin");
+    }
+
+    /**
+     * Returns the parsed form of a source, if it has been cached for the given content.
+     * @param <T> type of the parsed form
+     * @param source the source URL
+     * @param content the current source content
+     * @param reader reads the parsed form
+     * @return the parsed form, or {@code null} if it is not cached, outdated or cannot be read
+     */
+    public <T> T get(String source, byte[] content, EntryReader<T> reader) {
+        if (!isEnabled()) {
+            return null;
+        }
+        File file = getFile(source);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != formatVersion || in.readInt() != Version.getInstance().getVersion()
+                    || !source.equals(in.readUTF())) {
+                return null;
+            }
+            byte[] expected = new byte[in.readUnsignedByte()];
+            in.readFully(expected);
+            if (!Arrays.equals(expected, hash(content))) {
+                Logging.debug("Parsed source cache: {0} changed", source);
+                return null;
+            }
+            return reader.read(in);
+        } catch (IOException | RuntimeException e) {
+            Logging.warn("Unable to read parsed source cache of " + source + ": " + e);
+            Logging.trace(e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the parsed form of a source, computed from the given content.
+     * @param <T> type of the parsed form
+     * @param source the source URL
+     * @param content the source content
+     * @param value the parsed form
+     * @param writer writes the parsed form
+     */
+    public <T> void put(String source, byte[] content, T value, EntryWriter<T> writer) {
+        if (!isEnabled()) {
+            return;
+        }
+        File file = getFile(source);
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(formatVersion);
+                out.writeInt(Version.getInstance().getVersion());
+                out.writeUTF(source);
+                byte[] hash = hash(content);
+                out.writeByte(hash.length);
+                out.write(hash);
+                writer.write(value, out);
+            }
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Logging.trace(e);
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | InvalidPathException | SecurityException e) {
+            Logging.warn("Unable to write parsed source cache of " + source + ": " + e);
+            Logging.trace(e);
+            Utils.deleteFileIfExists(tmp);
+        }
+    }
+
+    /**
+     * Writes a string of any length to a cache entry, unlike {@link DataOutput#writeUTF}.
+     * @param out the cache entry
+     * @param s the string
+     * @throws IOException if any I/O error occurs
+     * @see #readString
+     */
+    public static void writeString(DataOutput out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString}.
+     * @param in the cache entry
+     * @return the string
+     * @throws IOException if any I/O error occurs
+     */
+    public static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,193 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.openstreetmap.josm.tools.Utils;
+
+/**
+ * An input stream reading its source in a separate thread, ahead of the consumer.
+ * <p>
+ * Used to decompress files while they are parsed: the source, typically a decompressing stream, is read in blocks which
+ * are handed over to the consumer through a bounded queue. Exceptions thrown by the source are rethrown to the consumer.
+ * <p>
+ * The reader thread stops when the stream is closed. It also stops, closing the source, if the stream is left unclosed
+ * and garbage collected while the queue is full.
+ * @since xxx
+ */
+final class ReadAheadInputStream extends InputStream {
+
+    private static final ThreadFactory THREAD_FACTORY = Utils.newThreadFactory("read-ahead-%d", Thread.NORM_PRIORITY);
+    private static final byte[] EOF = new byte[0];
+    /** delay after which the reader thread checks if the stream is still used when the queue is full */
+    private static final long CHECK_CONSUMER_SECONDS = 1;
+
+    private final InputStream in;
+    private final BlockingQueue<byte[]> queue;
+    private final Reader readerTask;
+    private final Thread reader;
+
+    private byte[] current;
+    private int position;
+    private boolean closed;
+
+    /**
+     * Constructs a new {@code ReadAheadInputStream} and starts reading the source.
+     * @param in the source stream, closed when this stream is closed
+     * @param blockSize the size of the blocks read from the source
+     * @param blocks the maximum number of blocks read ahead
+     */
+    ReadAheadInputStream(InputStream in, int blockSize, int blocks) {
+        this.in = in;
+        this.queue = new ArrayBlockingQueue<>(blocks);
+        // the reader only holds a weak reference to this stream, so that it can notice if the stream is no longer used
+        this.readerTask = new Reader(in, queue, blockSize, new WeakReference<>(this));
+        this.reader = THREAD_FACTORY.newThread(readerTask);
+        this.reader.setDaemon(true);
+        this.reader.start();
+    }
+
+    /**
+     * Reads the source in blocks and puts them in the queue, followed by {@link #EOF}.
+     */
+    private static final class Reader implements Runnable {
+        private final InputStream in;
+        private final BlockingQueue<byte[]> queue;
+        private final int blockSize;
+        private final WeakReference<ReadAheadInputStream> consumer;
+        private volatile Exception failure;
+
+        Reader(InputStream in, BlockingQueue<byte[]> queue, int blockSize, WeakReference<ReadAheadInputStream> consumer) {
+            this.in = in;
+            this.queue = queue;
+            this.blockSize = blockSize;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    byte[] block = new byte[blockSize];
+                    int length = 0;
+                    int n;
+                    while (length < blockSize && (n = in.read(block, length, blockSize - length)) >= 0) {
+                        length += n;
+                    }
+                    if (length > 0 && !put(length == blockSize ? block : Arrays.copyOf(block, length))) {
+                        return;
+                    }
+                    if (length < blockSize) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // closed by the consumer
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            }
+            try {
+                put(EOF);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Puts a block in the queue, waiting while the queue is full and the stream is still used.
+         * @param block the block
+         * @return {@code true} if the block has been put, {@code false} if the stream has been garbage collected
+         * without being closed, the source is then closed
+         * @throws InterruptedException if the stream has been closed
+         */
+        private boolean put(byte[] block) throws InterruptedException {
+            while (!queue.offer(block, CHECK_CONSUMER_SECONDS, TimeUnit.SECONDS)) {
+                if (consumer.get() == null) {
+                    Utils.close(in);
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private boolean nextBlock() throws IOException {
+        if (current == EOF) {
+            return false;
+        }
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        try {
+            current = queue.take();
+            position = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+        if (current == EOF) {
+            Exception e = readerTask.failure;
+            if (e instanceof IOException) {
+                throw (IOException) e;
+            } else if (e != null) {
+                throw new IOException(e);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if ((current == null || position == current.length) && !nextBlock()) {
+            return -1;
+        }
+        return current[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if ((current == null || position == current.length) && !nextBlock()) {
+            return -1;
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current == null || current == EOF ? 0 : current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        reader.interrupt();
+        try {
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queue.clear();
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.io;
+
+import org.openstreetmap.josm.tools.Utils;
+
+/**
+ * Durations of the phases of an upload to the OSM server, in milliseconds.
+ * <p>
+ * The phases of a chunked upload may overlap: the request of a chunk can be prepared while the previous one is uploaded.
+ * @since xxx
+ */
+public final class UploadTimings {
+
+    private long prepareTime;
+    private long uploadTime;
+    private long processTime;
+
+    /**
+     * Adds the time spent creating upload requests.
+     * @param millis duration in milliseconds
+     */
+    public synchronized void addPrepareTime(long millis) {
+        prepareTime += Math.max(0, millis);
+    }
+
+    /**
+     * Adds the time spent sending upload requests and waiting for the server response.
+     * @param millis duration in milliseconds
+     */
+    public synchronized void addUploadTime(long millis) {
+        uploadTime += Math.max(0, millis);
+    }
+
+    /**
+     * Adds the time spent parsing server responses and applying them to the uploaded primitives.
+     * @param millis duration in milliseconds
+     */
+    public synchronized void addProcessTime(long millis) {
+        processTime += Math.max(0, millis);
+    }
+
+    /**
+     * Returns the time spent creating upload requests.
+     * @return duration in milliseconds
+     */
+    public synchronized long getPrepareTime() {
+        return prepareTime;
+    }
+
+    /**
+     * Returns the time spent sending upload requests and waiting for the server response.
+     * @return duration in milliseconds
+     */
+    public synchronized long getUploadTime() {
+        return uploadTime;
+    }
+
+    /**
+     * Returns the time spent parsing server responses and applying them to the uploaded primitives.
+     * @return duration in milliseconds
+     */
+    public synchronized long getProcessTime() {
+        return processTime;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "prepare " + Utils.getDurationString(prepareTime) + ", upload " + Utils.getDurationString(uploadTime)
+                + ", process " + Utils.getDurationString(processTime);
+    }
+}
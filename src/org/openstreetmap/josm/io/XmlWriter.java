@@ -4,8 +4,6 @@ package org.openstreetmap.josm.io;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Helper class to use for xml outputting classes.
@@ -61,7 +59,7 @@ public class XmlWriter implements Closeable {
             for (int i = 0; i < unencoded.length(); ++i) {
                 String encS = null;
                 if (!keepApos || unencoded.charAt(i) != '\'') {
-                    encS = ENCODING.get(unencoded.charAt(i));
+                    encS = encode(unencoded.charAt(i));
                 }
                 if (encS != null) {
                     if (buffer == null) {
@@ -77,18 +75,46 @@ public class XmlWriter implements Closeable {
     }
 
     /**
-     * The output writer to save the values to.
+     * Writes the given string encoded in XML1.0 format to the output writer, without creating intermediate strings.
+     * Unchanged parts of the string are written as a whole.
+     *
+     * @param unencoded the unencoded input string
+     * @since xxx
+     */
+    protected void writeEncoded(String unencoded) {
+        if (unencoded == null) {
+            out.print(unencoded);
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < unencoded.length(); ++i) {
+            String encS = encode(unencoded.charAt(i));
+            if (encS != null) {
+                out.write(unencoded, start, i - start);
+                out.write(encS);
+                start = i + 1;
+            }
+        }
+        out.write(unencoded, start, unencoded.length() - start);
+    }
+
+    /**
+     * Returns the XML1.0 encoding of a character.
+     * @param c the character
+     * @return the encoded character, or {@code null} if it does not need to be encoded
      */
-    private static final Map<Character, String> ENCODING = new HashMap<>();
-    static {
-        ENCODING.put('<', "&lt;");
-        ENCODING.put('>', "&gt;");
-        ENCODING.put('"', "&quot;");
-        ENCODING.put('\'', "&apos;");
-        ENCODING.put('&', "&amp;");
-        ENCODING.put('\n', "&#xA;");
-        ENCODING.put('\r', "&#xD;");
-        ENCODING.put('\t', "&#x9;");
+    private static String encode(char c) {
+        switch (c) {
+        case '<': return "&lt;";
+        case '>': return "&gt;";
+        case '"': return "&quot;";
+        case '\'': return "&apos;";
+        case '&': return "&amp;";
+        case '\n': return "&#xA;";
+        case '\r': return "&#xD;";
+        case '\t': return "&#x9;";
+        default: return null;
+        }
     }
 
     @Override
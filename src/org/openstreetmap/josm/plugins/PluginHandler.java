@@ -35,8 +35,12 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
@@ -77,6 +81,7 @@ import org.openstreetmap.josm.tools.I18n;
 import org.openstreetmap.josm.tools.ImageProvider;
 import org.openstreetmap.josm.tools.Logging;
 import org.openstreetmap.josm.tools.ResourceProvider;
+import org.openstreetmap.josm.tools.Stopwatch;
 import org.openstreetmap.josm.tools.SubclassFilteredCollection;
 import org.openstreetmap.josm.tools.Utils;
 
@@ -292,6 +297,16 @@ public final class PluginHandler {
      */
     static final Map<String, Throwable> pluginLoadingExceptions = new HashMap<>();
 
+    /**
+     * Time spent preloading the classes of each plugin in parallel, in milliseconds.
+     */
+    static final Map<String, Long> pluginPreloadTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Time spent instantiating each plugin, in milliseconds. Includes the loading of classes not yet preloaded.
+     */
+    static final Map<String, Long> pluginInstantiationTimes = new ConcurrentHashMap<>();
+
     /**
      * Class loader to locate resources from plugins.
      * @see #getJoinedPluginResourceCL()
@@ -796,12 +811,14 @@ public final class PluginHandler {
      */
     private static void loadPlugin(Component parent, PluginInformation plugin, PluginClassLoader pluginClassLoader) {
         String msg = tr("Could not load plugin {0}. Delete from preferences?", "'"+plugin.name+"'");
+        Stopwatch stopwatch = Stopwatch.createStarted();
         try {
             Class<?> klass = plugin.loadClass(pluginClassLoader);
             if (klass != null) {
                 Logging.info(tr("loading plugin ''{0}'' (version {1})", plugin.name, plugin.localversion));
                 PluginProxy pluginProxy = plugin.load(klass, pluginClassLoader);
                 pluginList.add(pluginProxy);
+                pluginInstantiationTimes.put(plugin.name, stopwatch.elapsed());
                 MainApplication.addAndFireMapFrameListener(pluginProxy);
             }
             msg = null;
@@ -883,6 +900,7 @@ public final class PluginHandler {
 
             extendJoinedPluginResourceCL(toLoad);
             ResourceProvider.addAdditionalClassLoaders(getResourceClassLoaders());
+            preloadPluginClasses(toLoad);
             monitor.setTicksCount(toLoad.size());
             for (PluginInformation info : toLoad) {
                 monitor.setExtraText(tr("Loading plugin ''{0}''...", info.name));
@@ -894,6 +912,58 @@ public final class PluginHandler {
         }
     }
 
+    /**
+     * Starts loading the main classes of the given plugins in parallel, while they are instantiated one after another.
+     * The classes of a plugin are only loaded once those of its required plugins are loaded. The classes are not
+     * initialized: this is done when the plugins are instantiated, in order.
+     * @param toLoad the plugins to load, with their class loaders already set up
+     */
+    private static void preloadPluginClasses(List<PluginInformation> toLoad) {
+        int threads = Math.min(toLoad.size(), Runtime.getRuntime().availableProcessors());
+        if (threads < 2 || !Config.getPref().getBoolean("plugins.parallel-loading", true)) {
+            return;
+        }
+        try {
+            ExecutorService service = Executors.newFixedThreadPool(threads, Utils.newThreadFactory("plugin-loader-%d", Thread.NORM_PRIORITY));
+            Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+            for (PluginInformation info : toLoad) {
+                preloadPluginClass(info, toLoad, service, futures);
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).whenComplete((r, e) -> service.shutdown());
+        } catch (SecurityException e) {
+            Logging.log(Logging.LEVEL_ERROR, "Unable to preload plugin classes", e);
+        }
+    }
+
+    private static CompletableFuture<Void> preloadPluginClass(PluginInformation info, List<PluginInformation> toLoad,
+            ExecutorService service, Map<String, CompletableFuture<Void>> futures) {
+        CompletableFuture<Void> future = futures.get(info.name);
+        if (future == null) {
+            // placeholder breaking dependency cycles
+            futures.put(info.name, CompletableFuture.completedFuture(null));
+            Collection<String> required = info.getLocalRequiredPlugins();
+            CompletableFuture<?>[] dependencies = toLoad.stream()
+                    .filter(dep -> dep != info && required.stream().anyMatch(depName -> isDependency(dep, depName)))
+                    .map(dep -> preloadPluginClass(dep, toLoad, service, futures))
+                    .toArray(CompletableFuture[]::new);
+            PluginClassLoader classLoader = classLoaders.get(info.name);
+            future = CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+                Stopwatch stopwatch = Stopwatch.createStarted();
+                try {
+                    if (info.className != null) {
+                        Class.forName(info.className, false, classLoader);
+                    }
+                } catch (ClassNotFoundException | LinkageError | RuntimeException e) {
+                    // reported when the plugin is instantiated
+                    Logging.trace(e);
+                }
+                pluginPreloadTimes.put(info.name, stopwatch.elapsed());
+            }, service);
+            futures.put(info.name, future);
+        }
+        return future;
+    }
+
     private static boolean isDependency(PluginInformation pi, String depName) {
         return depName.equals(pi.getName()) || depName.equals(pi.provides);
     }
@@ -1591,6 +1661,26 @@ public final class PluginHandler {
         return pl;
     }
 
+    /**
+     * Returns the time spent loading each loaded plugin, in loading order, to be displayed in status report.
+     * The time spent preloading the plugin classes in parallel is given separately from the instantiation time.
+     * @return The loading times of the loaded plugins
+     * @since xxx
+     */
+    public static List<String> getLoadingTimesInformation() {
+        final List<String> times = new ArrayList<>();
+        for (final PluginProxy pp : pluginList) {
+            String name = pp.getPluginInformation().name;
+            Long preloadTime = pluginPreloadTimes.get(name);
+            Long instantiationTime = pluginInstantiationTimes.get(name);
+            if (preloadTime != null || instantiationTime != null) {
+                times.add(name + ": " + (preloadTime != null ? "classes " + Utils.getDurationString(preloadTime) + ", " : "")
+                        + "instantiation " + (instantiationTime != null ? Utils.getDurationString(instantiationTime) : "unknown"));
+            }
+        }
+        return times;
+    }
+
     /**
      * Returns the list of loaded plugins as a {@code JPanel} to be displayed in About dialog.
      * @return The list of loaded plugins (one "line" of Swing components per plugin)
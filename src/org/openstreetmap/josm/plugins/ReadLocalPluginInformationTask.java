@@ -10,9 +10,12 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openstreetmap.josm.data.Preferences;
 import org.openstreetmap.josm.gui.PleaseWaitRunnable;
@@ -38,6 +41,7 @@ import org.xml.sax.SAXException;
  */
 public class ReadLocalPluginInformationTask extends PleaseWaitRunnable {
     private final Map<String, PluginInformation> availablePlugins;
+    private Map<File, PluginInformation> manifests = Collections.emptyMap();
     private boolean canceled;
 
     /**
@@ -67,11 +71,22 @@ public class ReadLocalPluginInformationTask extends PleaseWaitRunnable {
         // Do nothing
     }
 
+    /**
+     * Processes a plugin jar file. The manifests of the plugin files are read in parallel before this method is called
+     * for each file, in order: the information read beforehand is used if available.
+     * @param f the plugin jar file
+     * @param pluginName the plugin name
+     * @throws PluginException if the plugin information cannot be read from the jar file
+     */
     protected void processJarFile(File f, String pluginName) throws PluginException {
-        PluginInformation info = new PluginInformation(
+        PluginInformation info = manifests.get(f);
+        processJarFile(info != null ? info : new PluginInformation(
                 f,
                 pluginName
-        );
+        ));
+    }
+
+    private void processJarFile(PluginInformation info) {
         if (!availablePlugins.containsKey(info.getName())) {
             info.updateLocalInfo(info);
             availablePlugins.put(info.getName(), info);
@@ -112,25 +127,37 @@ public class ReadLocalPluginInformationTask extends PleaseWaitRunnable {
             return;
         monitor.subTask(tr("Processing plugin files..."));
         monitor.setTicksCount(pluginFiles.length);
-        for (File f: pluginFiles) {
-            String fname = f.getName();
-            monitor.setCustomText(tr("Processing file ''{0}''", fname));
+        // read the manifests in parallel, then process them in order. Invalid files are read again below to report errors
+        Map<File, PluginInformation> read = new ConcurrentHashMap<>();
+        Arrays.stream(pluginFiles).parallel().forEach(f -> {
             try {
-                if (fname.endsWith(".jar")) {
-                    String pluginName = fname.substring(0, fname.length() - 4);
-                    processJarFile(f, pluginName);
-                } else if (fname.endsWith(".jar.new")) {
-                    String pluginName = fname.substring(0, fname.length() - 8);
-                    processJarFile(f, pluginName);
-                }
+                read.put(f, new PluginInformation(f, getPluginName(f.getName())));
             } catch (PluginException e) {
-                Logging.log(Logging.LEVEL_WARN, "PluginException: ", e);
-                Logging.warn(tr("Failed to scan file ''{0}'' for plugin information. Skipping.", fname));
+                Logging.trace(e);
             }
-            monitor.worked(1);
+        });
+        manifests = read;
+        try {
+            for (File f: pluginFiles) {
+                String fname = f.getName();
+                monitor.setCustomText(tr("Processing file ''{0}''", fname));
+                try {
+                    processJarFile(f, getPluginName(fname));
+                } catch (PluginException e) {
+                    Logging.log(Logging.LEVEL_WARN, "PluginException: ", e);
+                    Logging.warn(tr("Failed to scan file ''{0}'' for plugin information. Skipping.", fname));
+                }
+                monitor.worked(1);
+            }
+        } finally {
+            manifests = Collections.emptyMap();
         }
     }
 
+    private static String getPluginName(String fname) {
+        return fname.substring(0, fname.length() - (fname.endsWith(".jar.new") ? 8 : 4));
+    }
+
     protected void scanLocalPluginRepository(ProgressMonitor progressMonitor, File pluginsDirectory) {
         if (pluginsDirectory == null)
             return;
@@ -4,8 +4,12 @@ package org.openstreetmap.josm.spi.lifecycle;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 
+import org.openstreetmap.josm.tools.Logging;
+import org.openstreetmap.josm.tools.Stopwatch;
+
 /**
  * Initialization task notifying the current lifecycle {@link InitStatusListener}.
+ * Its duration is recorded, see {@link Lifecycle#getInitializationTimes()}.
  * @since 14125
  */
 public final class InitializationTask implements Callable<Void> {
@@ -30,9 +34,16 @@ public final class InitializationTask implements Callable<Void> {
         if (initListener != null) {
             status = initListener.updateStatus(name);
         }
-        task.run();
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        try {
+            task.run();
+        } finally {
+            Lifecycle.addInitializationTime(name, stopwatch.elapsed());
+        }
         if (initListener != null) {
             initListener.finish(status);
+        } else {
+            Logging.debug(stopwatch.toString(name));
         }
         return null;
     }
@@ -1,7 +1,9 @@
 // License: GPL. For details, see LICENSE file.
 package org.openstreetmap.josm.spi.lifecycle;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -10,6 +12,7 @@ import java.util.concurrent.Future;
 
 import org.openstreetmap.josm.tools.JosmRuntimeException;
 import org.openstreetmap.josm.tools.Logging;
+import org.openstreetmap.josm.tools.Stopwatch;
 import org.openstreetmap.josm.tools.Utils;
 import org.openstreetmap.josm.tools.bugreport.BugReport;
 
@@ -23,6 +26,8 @@ public final class Lifecycle {
 
     private static volatile Runnable shutdownSequence;
 
+    private static final Map<String, Long> initializationTimes = new LinkedHashMap<>();
+
     private Lifecycle() {
         // Hide constructor
     }
@@ -61,12 +66,37 @@ public final class Lifecycle {
         shutdownSequence = Objects.requireNonNull(sequence);
     }
 
+    /**
+     * Records the duration of an initialization task. Durations of tasks sharing the same name are summed up.
+     * @param name name of the task
+     * @param millis duration in milliseconds
+     * @since xxx
+     */
+    public static void addInitializationTime(String name, long millis) {
+        synchronized (initializationTimes) {
+            initializationTimes.merge(name, Math.max(0, millis), Long::sum);
+        }
+    }
+
+    /**
+     * Returns the durations of the initialization tasks completed so far, in order of completion.
+     * Tasks run in parallel overlap, so these durations do not add up to the total initialization time.
+     * @return map of task names to durations in milliseconds
+     * @since xxx
+     */
+    public static Map<String, Long> getInitializationTimes() {
+        synchronized (initializationTimes) {
+            return new LinkedHashMap<>(initializationTimes);
+        }
+    }
+
     /**
      * Initializes the main object. A lot of global variables are initialized here.
      * @param initSequence Initialization sequence
      * @since 14139
      */
     public static void initialize(InitializationSequence initSequence) {
+        final Stopwatch stopwatch = Stopwatch.createStarted();
         // Initializes tasks that must be run before parallel tasks
         runInitializationTasks(initSequence.beforeInitializationTasks());
 
@@ -91,6 +121,7 @@ public final class Lifecycle {
 
         // Initializes tasks that must be run after parallel tasks
         runInitializationTasks(initSequence.afterInitializationTasks());
+        Logging.debug(stopwatch.toString("Initialization"));
     }
 
     private static void runInitializationTasks(List<InitializationTask> tasks) {
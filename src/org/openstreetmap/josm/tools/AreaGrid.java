@@ -0,0 +1,265 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.tools;
+
+import java.awt.geom.Area;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A regular grid over the bounds of an {@link Area}, recording for each cell if it is crossed by the outline of the area,
+ * or else if it is entirely inside or outside of the area.
+ * <p>
+ * Most look-ups can then be answered from the grid in constant time, without testing the outline of the area.
+ * Only the cells crossed by the outline require to test the area itself.
+ * @since xxx
+ */
+final class AreaGrid {
+
+    private static final int MIN_CELLS_PER_SIDE = 16;
+    private static final int MAX_CELLS_PER_SIDE = 1024;
+    /** number of cells per side, in proportion of the square root of the number of segments of the outline */
+    private static final int CELLS_PER_SQRT_SEGMENT = 4;
+    /** relative margin around the cells, so that an outline along the side of a cell is recorded in both cells */
+    private static final double MARGIN = 1e-9;
+
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final int columns;
+    private final int rows;
+    /** cells crossed by the outline of the area, {@code null} if the outline cannot be rasterized */
+    private final BitSet boundary;
+    /** cells entirely inside the area */
+    private final BitSet inside;
+
+    /**
+     * Constructs a new {@code AreaGrid}.
+     * @param area the area, made only of straight lines
+     */
+    AreaGrid(Area area) {
+        Rectangle2D bounds = area.getBounds2D();
+        minX = bounds.getMinX();
+        minY = bounds.getMinY();
+        maxX = bounds.getMaxX();
+        maxY = bounds.getMaxY();
+        double[] segments = getSegments(area);
+        int segmentCount = segments != null ? segments.length / 4 : 0;
+        int side = (int) Math.min(MAX_CELLS_PER_SIDE,
+                Math.max(MIN_CELLS_PER_SIDE, CELLS_PER_SQRT_SEGMENT * Math.ceil(Math.sqrt(segmentCount))));
+        columns = side;
+        rows = side;
+        cellWidth = (maxX - minX) / columns;
+        cellHeight = (maxY - minY) / rows;
+        if (segments == null || !(cellWidth > 0) || !(cellHeight > 0)) {
+            boundary = null;
+            inside = null;
+            return;
+        }
+        boundary = new BitSet(columns * rows);
+        inside = new BitSet(columns * rows);
+        int[][] rowSegments = rasterize(segments);
+        classify(segments, rowSegments);
+    }
+
+    /**
+     * Returns the segments of the outline of an area.
+     * @param area the area
+     * @return the segments, as x1, y1, x2, y2, or {@code null} if the outline contains curves
+     */
+    private static double[] getSegments(Area area) {
+        double[] segments = new double[64];
+        int size = 0;
+        double[] coords = new double[6];
+        double startX = 0;
+        double startY = 0;
+        double lastX = 0;
+        double lastY = 0;
+        for (PathIterator it = area.getPathIterator(null); !it.isDone(); it.next()) {
+            int type = it.currentSegment(coords);
+            if (type == PathIterator.SEG_MOVETO) {
+                startX = lastX = coords[0];
+                startY = lastY = coords[1];
+                continue;
+            } else if (type == PathIterator.SEG_CLOSE) {
+                coords[0] = startX;
+                coords[1] = startY;
+            } else if (type != PathIterator.SEG_LINETO) {
+                return null;
+            }
+            if (size + 4 > segments.length) {
+                segments = Arrays.copyOf(segments, 2 * segments.length);
+            }
+            segments[size++] = lastX;
+            segments[size++] = lastY;
+            segments[size++] = coords[0];
+            segments[size++] = coords[1];
+            lastX = coords[0];
+            lastY = coords[1];
+        }
+        return Arrays.copyOf(segments, size);
+    }
+
+    private int getColumn(double x) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor((x - minX) / cellWidth)));
+    }
+
+    private int getRow(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((y - minY) / cellHeight)));
+    }
+
+    /**
+     * Records the cells crossed by the segments of the outline, each segment being recorded in all the cells
+     * it crosses within each column.
+     * @param segments the segments of the outline
+     * @return the segments crossing each row
+     */
+    private int[][] rasterize(double[] segments) {
+        final double marginX = MARGIN * (maxX - minX);
+        final double marginY = MARGIN * (maxY - minY);
+        int[] rowCounts = new int[rows];
+        int[][] rowSegments = new int[rows][];
+        for (int pass = 0; pass < 2; pass++) {
+            for (int s = 0; s < segments.length; s += 4) {
+                final double x1 = segments[s];
+                final double y1 = segments[s + 1];
+                final double x2 = segments[s + 2];
+                final double y2 = segments[s + 3];
+                final int firstRow = getRow(Math.min(y1, y2) - marginY);
+                final int lastRow = getRow(Math.max(y1, y2) + marginY);
+                if (pass == 1) {
+                    for (int row = firstRow; row <= lastRow; row++) {
+                        rowSegments[row][rowCounts[row]++] = s;
+                    }
+                    continue;
+                }
+                for (int row = firstRow; row <= lastRow; row++) {
+                    rowCounts[row]++;
+                }
+                final int firstColumn = getColumn(Math.min(x1, x2) - marginX);
+                final int lastColumn = getColumn(Math.max(x1, x2) + marginX);
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    double yLow = Math.min(y1, y2);
+                    double yHigh = Math.max(y1, y2);
+                    if (firstColumn < lastColumn && x1 != x2) {
+                        // the part of the segment within the column, enlarged by the margin
+                        double cx1 = Math.max(Math.min(x1, x2), minX + column * cellWidth - marginX);
+                        double cx2 = Math.min(Math.max(x1, x2), minX + (column + 1) * cellWidth + marginX);
+                        double cy1 = y1 + (cx1 - x1) * (y2 - y1) / (x2 - x1);
+                        double cy2 = y1 + (cx2 - x1) * (y2 - y1) / (x2 - x1);
+                        yLow = Math.max(yLow, Math.min(cy1, cy2));
+                        yHigh = Math.min(yHigh, Math.max(cy1, cy2));
+                    }
+                    int lastCellRow = getRow(yHigh + marginY);
+                    for (int row = getRow(yLow - marginY); row <= lastCellRow; row++) {
+                        boundary.set(row * columns + column);
+                    }
+                }
+            }
+            if (pass == 0) {
+                for (int row = 0; row < rows; row++) {
+                    rowSegments[row] = new int[rowCounts[row]];
+                    rowCounts[row] = 0;
+                }
+            }
+        }
+        return rowSegments;
+    }
+
+    /**
+     * Records the cells inside the area among the cells not crossed by the outline. The cells of a run of consecutive
+     * such cells in a row are all inside or all outside, the parity of the crossings of the outline on the left
+     * of the first cell tells which one.
+     * @param segments the segments of the outline
+     * @param rowSegments the segments crossing each row
+     */
+    private void classify(double[] segments, int[][] rowSegments) {
+        double[] crossings = new double[16];
+        for (int row = 0; row < rows; row++) {
+            final double y = minY + (row + 0.5) * cellHeight;
+            int count = 0;
+            for (int s : rowSegments[row]) {
+                final double y1 = segments[s + 1];
+                final double y2 = segments[s + 3];
+                if ((y1 > y) != (y2 > y)) {
+                    if (count == crossings.length) {
+                        crossings = Arrays.copyOf(crossings, 2 * count);
+                    }
+                    final double x1 = segments[s];
+                    crossings[count++] = x1 + (y - y1) * (segments[s + 2] - x1) / (y2 - y1);
+                }
+            }
+            Arrays.sort(crossings, 0, count);
+            final int rowStart = row * columns;
+            int column = boundary.nextClearBit(rowStart) - rowStart;
+            while (column < columns) {
+                final int next = boundary.nextSetBit(rowStart + column);
+                final int end = next < 0 ? columns : Math.min(columns, next - rowStart);
+                final double x = minX + (column + 0.5) * cellWidth;
+                int left = 0;
+                while (left < count && crossings[left] < x) {
+                    left++;
+                }
+                if (left % 2 == 1) {
+                    inside.set(rowStart + column, rowStart + end);
+                }
+                column = end >= columns ? columns : boundary.nextClearBit(rowStart + end) - rowStart;
+            }
+        }
+    }
+
+    /**
+     * Determines if a point is inside the area, from the grid.
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return {@code true} or {@code false} if the point is inside or outside of the area,
+     * {@code null} if it is in a cell crossed by the outline of the area, and has to be tested against the area
+     */
+    Boolean contains(double x, double y) {
+        if (x < minX || x > maxX || y < minY || y > maxY) {
+            return Boolean.FALSE;
+        } else if (boundary == null) {
+            return null;
+        }
+        int cell = getRow(y) * columns + getColumn(x);
+        return boundary.get(cell) ? null : inside.get(cell);
+    }
+
+    /**
+     * Determines if a rectangle is entirely inside or outside of the area, from the grid.
+     * @param x1 the minimum x coordinate of the rectangle
+     * @param y1 the minimum y coordinate of the rectangle
+     * @param x2 the maximum x coordinate of the rectangle
+     * @param y2 the maximum y coordinate of the rectangle
+     * @return {@code true} or {@code false} if the rectangle is entirely inside or outside of the area,
+     * {@code null} if it is crossed by the outline of the area or if it cannot be told from the grid
+     */
+    Boolean contains(double x1, double y1, double x2, double y2) {
+        if (x2 < minX || x1 > maxX || y2 < minY || y1 > maxY) {
+            return Boolean.FALSE;
+        } else if (boundary == null) {
+            return null;
+        }
+        final int firstColumn = getColumn(x1);
+        final int lastColumn = getColumn(x2);
+        final int firstRow = getRow(y1);
+        final int lastRow = getRow(y2);
+        // a rectangle partially outside of the bounds is either outside or crossing the outline
+        final boolean partiallyOutside = x1 < minX || x2 > maxX || y1 < minY || y2 > maxY;
+        final boolean value = inside.get(firstRow * columns + firstColumn);
+        for (int row = firstRow; row <= lastRow; row++) {
+            final int from = row * columns + firstColumn;
+            final int to = row * columns + lastColumn + 1;
+            final int other = value ? inside.nextClearBit(from) : inside.nextSetBit(from);
+            final int crossed = boundary.nextSetBit(from);
+            if ((crossed >= 0 && crossed < to) || (other >= 0 && other < to)) {
+                return null;
+            }
+        }
+        return value && partiallyOutside ? null : value;
+    }
+}
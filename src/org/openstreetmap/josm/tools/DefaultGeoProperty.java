@@ -13,11 +13,18 @@ import org.openstreetmap.josm.data.osm.Way;
 
 /**
  * Implementation of simple boolean {@link GeoProperty}.
+ * <p>
+ * Look-ups first use a grid over the area, built when first needed, so that only the look-ups near the outline of
+ * the area need to test the area itself.
  */
 public class DefaultGeoProperty implements GeoProperty<Boolean> {
 
+    /** threshold for the size of the intersection of a box and the area, using degrees and not meters */
+    private static final double INTERSECTION_EPS = 1e-10;
+
     private final Area area;
     private LatLon random;
+    private volatile AreaGrid grid;
 
     /**
      * Create DefaultGeoProperty based on a collection of closed ways.
@@ -42,15 +49,38 @@ public class DefaultGeoProperty implements GeoProperty<Boolean> {
         this.area = Geometry.getAreaLatLon(multipolygon);
     }
 
+    private AreaGrid getGrid() {
+        AreaGrid result = grid;
+        if (result == null) {
+            synchronized (this) {
+                result = grid;
+                if (result == null) {
+                    result = new AreaGrid(area);
+                    grid = result;
+                }
+            }
+        }
+        return result;
+    }
+
     @Override
     public Boolean get(LatLon ll) {
-        return area.contains(ll.lon(), ll.lat());
+        Boolean result = getGrid().contains(ll.lon(), ll.lat());
+        return result != null ? result : area.contains(ll.lon(), ll.lat());
     }
 
     @Override
     public Boolean get(BBox box) {
+        // flat boxes are considered outside by the area intersection below
+        if (box.width() > INTERSECTION_EPS && box.height() > INTERSECTION_EPS) {
+            Boolean result = getGrid().contains(box.getTopLeftLon(), box.getBottomRightLat(),
+                    box.getBottomRightLon(), box.getTopLeftLat());
+            if (result != null) {
+                return result;
+            }
+        }
         Area abox = new Area(box.toRectangle());
-        Geometry.PolygonIntersection is = Geometry.polygonIntersection(abox, area, 1e-10 /* using deg and not meters */);
+        Geometry.PolygonIntersection is = Geometry.polygonIntersection(abox, area, INTERSECTION_EPS);
         switch (is) {
             case FIRST_INSIDE_SECOND:
                 return Boolean.TRUE;
@@ -21,7 +21,8 @@ public class GeoPropertyIndex<T> {
 
     private final int maxLevel;
     private final GeoProperty<T> geoProp;
-    private final GPLevel<T> root;
+    /** the whole world, created at the first look-up as it is costly to compute and many indexes are never used */
+    private volatile GPLevel<T> root;
     private GPLevel<T> lastLevelUsed;
 
     private static final boolean DEBUG = false;
@@ -34,8 +35,6 @@ public class GeoPropertyIndex<T> {
     public GeoPropertyIndex(GeoProperty<T> geoProp, int maxLevel) {
         this.geoProp = geoProp;
         this.maxLevel = maxLevel;
-        this.root = new GPLevel<>(0, new BBox(-180, -90, 180, 90), null, this);
-        this.lastLevelUsed = root;
     }
 
     /**
@@ -46,7 +45,23 @@ public class GeoPropertyIndex<T> {
      * @return property value at that point
      */
     public T get(LatLon ll) {
-        return lastLevelUsed.get(ll);
+        // look-ups can be concurrent, read the last level used only once
+        GPLevel<T> level = lastLevelUsed;
+        return (level != null ? level : getRoot()).get(ll);
+    }
+
+    private GPLevel<T> getRoot() {
+        GPLevel<T> result = root;
+        if (result == null) {
+            synchronized (this) {
+                result = root;
+                if (result == null) {
+                    result = new GPLevel<>(0, new BBox(-180, -90, 180, 90), null, this);
+                    root = result;
+                }
+            }
+        }
+        return result;
     }
 
     /**
@@ -1,6 +1,8 @@
 // License: GPL. For details, see LICENSE file.
 package org.openstreetmap.josm.tools;
 
+import static org.openstreetmap.josm.tools.I18n.tr;
+
 import java.awt.geom.Area;
 import java.awt.geom.Line2D;
 import java.awt.geom.Path2D;
@@ -9,6 +11,7 @@ import java.awt.geom.Rectangle2D;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -44,6 +47,8 @@ import org.openstreetmap.josm.data.osm.visitor.paint.relations.MultipolygonCache
 import org.openstreetmap.josm.data.projection.Projection;
 import org.openstreetmap.josm.data.projection.ProjectionRegistry;
 import org.openstreetmap.josm.data.projection.Projections;
+import org.openstreetmap.josm.gui.progress.NullProgressMonitor;
+import org.openstreetmap.josm.gui.progress.ProgressMonitor;
 
 /**
  * Some tools for geometry related tasks.
@@ -96,12 +101,40 @@ public final class Geometry {
      * @return list of new nodes, if test is true the list might not contain all intersections
      */
     public static Set<Node> addIntersections(List<Way> ways, boolean test, List<Command> cmds) {
+        return addIntersections(ways, test, cmds, NullProgressMonitor.INSTANCE);
+    }
+
+    /**
+     * Will find all intersection and add nodes there for list of given ways.
+     * Handles self-intersections too.
+     * And makes commands to add the intersection points to ways.
+     *
+     * Prerequisite: no two nodes have the same coordinates.
+     * <p>
+     * Only the segments whose bounding boxes intersect are compared, the segments of each way being indexed
+     * by horizontal band. The segments are compared in the same order as if all of them were compared, so that
+     * the result does not depend on the index.
+     *
+     * @param ways  a list of ways to test
+     * @param test  if true, do not build list of Commands, just return nodes
+     * @param cmds  list of commands, typically empty when handed to this method.
+     *              Will be filled with commands that add intersection nodes to
+     *              the ways.
+     * @param monitor the progress monitor, one tick per way. If it is canceled, the computation stops and the
+     *              result is incomplete
+     * @return list of new nodes, if test is true the list might not contain all intersections
+     * @since xxx
+     */
+    public static Set<Node> addIntersections(List<Way> ways, boolean test, List<Command> cmds, ProgressMonitor monitor) {
 
         int n = ways.size();
         @SuppressWarnings("unchecked")
         List<Node>[] newNodes = new ArrayList[n];
         BBox[] wayBounds = new BBox[n];
         boolean[] changedWays = new boolean[n];
+        // number of nodes added to each way, to know when its segment index is outdated
+        int[] addedNodes = new int[n];
+        WaySegmentIndex[] segmentIndexes = new WaySegmentIndex[n];
 
         Set<Node> intersectionNodes = new LinkedHashSet<>();
 
@@ -114,118 +147,138 @@ public final class Geometry {
 
         DataSet dataset = ways.get(0).getDataSet();
 
-        //iterate over all way pairs and introduce the intersections
-        Comparator<Node> coordsComparator = new NodePositionComparator();
-        for (int seg1Way = 0; seg1Way < n; seg1Way++) {
-            for (int seg2Way = seg1Way; seg2Way < n; seg2Way++) {
-
-                //do not waste time on bounds that do not intersect
-                if (!wayBounds[seg1Way].intersects(wayBounds[seg2Way])) {
-                    continue;
-                }
-
-                List<Node> way1Nodes = newNodes[seg1Way];
-                List<Node> way2Nodes = newNodes[seg2Way];
+        monitor.beginTask(tr("Searching intersections..."), n);
+        try {
+            //iterate over all way pairs and introduce the intersections
+            Comparator<Node> coordsComparator = new NodePositionComparator();
+            BitSet candidates = new BitSet();
+            for (int seg1Way = 0; seg1Way < n && !monitor.isCanceled(); seg1Way++) {
+                for (int seg2Way = seg1Way; seg2Way < n; seg2Way++) {
+
+                    //do not waste time on bounds that do not intersect
+                    if (!wayBounds[seg1Way].intersects(wayBounds[seg2Way])) {
+                        continue;
+                    }
 
-                //iterate over primary segmemt
-                for (int seg1Pos = 0; seg1Pos + 1 < way1Nodes.size(); seg1Pos++) {
+                    List<Node> way1Nodes = newNodes[seg1Way];
+                    List<Node> way2Nodes = newNodes[seg2Way];
 
-                    //iterate over secondary segment
-                    int seg2Start = seg1Way != seg2Way ? 0 : seg1Pos + 2; //skip the adjacent segment
+                    //iterate over primary segmemt
+                    for (int seg1Pos = 0; seg1Pos + 1 < way1Nodes.size(); seg1Pos++) {
 
-                    for (int seg2Pos = seg2Start; seg2Pos + 1 < way2Nodes.size(); seg2Pos++) {
+                        //iterate over secondary segment
+                        int seg2Start = seg1Way != seg2Way ? 0 : seg1Pos + 2; //skip the adjacent segment
 
-                        //need to get them again every time, because other segments may be changed
-                        Node seg1Node1 = way1Nodes.get(seg1Pos);
-                        Node seg1Node2 = way1Nodes.get(seg1Pos + 1);
-                        Node seg2Node1 = way2Nodes.get(seg2Pos);
-                        Node seg2Node2 = way2Nodes.get(seg2Pos + 1);
+                        //only the segments near the primary segment can have common nodes or intersect it
+                        if (segmentIndexes[seg2Way] == null || segmentIndexes[seg2Way].addedNodes != addedNodes[seg2Way]) {
+                            segmentIndexes[seg2Way] = new WaySegmentIndex(way2Nodes, addedNodes[seg2Way]);
+                        }
+                        segmentIndexes[seg2Way].findCandidates(way1Nodes.get(seg1Pos), way1Nodes.get(seg1Pos + 1), seg2Start, candidates);
+
+                        //number of nodes added to the secondary way before the candidate segments since the search
+                        int shift = 0;
+                        for (int candidate = candidates.nextSetBit(seg2Start); candidate >= 0;
+                                candidate = candidates.nextSetBit(candidate + 1)) {
+                            int seg2Pos = candidate + shift;
+
+                            //need to get them again every time, because other segments may be changed
+                            Node seg1Node1 = way1Nodes.get(seg1Pos);
+                            Node seg1Node2 = way1Nodes.get(seg1Pos + 1);
+                            Node seg2Node1 = way2Nodes.get(seg2Pos);
+                            Node seg2Node2 = way2Nodes.get(seg2Pos + 1);
+
+                            int commonCount = 0;
+                            //test if we have common nodes to add.
+                            if (seg1Node1 == seg2Node1 || seg1Node1 == seg2Node2) {
+                                commonCount++;
+
+                                if (seg1Way == seg2Way &&
+                                        seg1Pos == 0 &&
+                                        seg2Pos == way2Nodes.size() -2) {
+                                    //do not add - this is first and last segment of the same way.
+                                } else {
+                                    intersectionNodes.add(seg1Node1);
+                                }
+                            }
 
-                        int commonCount = 0;
-                        //test if we have common nodes to add.
-                        if (seg1Node1 == seg2Node1 || seg1Node1 == seg2Node2) {
-                            commonCount++;
+                            if (seg1Node2 == seg2Node1 || seg1Node2 == seg2Node2) {
+                                commonCount++;
 
-                            if (seg1Way == seg2Way &&
-                                    seg1Pos == 0 &&
-                                    seg2Pos == way2Nodes.size() -2) {
-                                //do not add - this is first and last segment of the same way.
-                            } else {
-                                intersectionNodes.add(seg1Node1);
+                                intersectionNodes.add(seg1Node2);
                             }
-                        }
 
-                        if (seg1Node2 == seg2Node1 || seg1Node2 == seg2Node2) {
-                            commonCount++;
+                            //no common nodes - find intersection
+                            if (commonCount == 0) {
+                                EastNorth intersection = getSegmentSegmentIntersection(
+                                        seg1Node1.getEastNorth(), seg1Node2.getEastNorth(),
+                                        seg2Node1.getEastNorth(), seg2Node2.getEastNorth());
+
+                                if (intersection != null) {
+                                    Node newNode = new Node(ProjectionRegistry.getProjection().eastNorth2latlon(intersection));
+                                    Node intNode = newNode;
+                                    boolean insertInSeg1 = false;
+                                    boolean insertInSeg2 = false;
+                                    //find if the intersection point is at end point of one of the segments, if so use that point
+
+                                    //segment 1
+                                    if (coordsComparator.compare(newNode, seg1Node1) == 0) {
+                                        intNode = seg1Node1;
+                                    } else if (coordsComparator.compare(newNode, seg1Node2) == 0) {
+                                        intNode = seg1Node2;
+                                    } else {
+                                        insertInSeg1 = true;
+                                    }
 
-                            intersectionNodes.add(seg1Node2);
-                        }
+                                    //segment 2
+                                    if (coordsComparator.compare(newNode, seg2Node1) == 0) {
+                                        intNode = seg2Node1;
+                                    } else if (coordsComparator.compare(newNode, seg2Node2) == 0) {
+                                        intNode = seg2Node2;
+                                    } else {
+                                        insertInSeg2 = true;
+                                    }
 
-                        //no common nodes - find intersection
-                        if (commonCount == 0) {
-                            EastNorth intersection = getSegmentSegmentIntersection(
-                                    seg1Node1.getEastNorth(), seg1Node2.getEastNorth(),
-                                    seg2Node1.getEastNorth(), seg2Node2.getEastNorth());
-
-                            if (intersection != null) {
-                                Node newNode = new Node(ProjectionRegistry.getProjection().eastNorth2latlon(intersection));
-                                Node intNode = newNode;
-                                boolean insertInSeg1 = false;
-                                boolean insertInSeg2 = false;
-                                //find if the intersection point is at end point of one of the segments, if so use that point
-
-                                //segment 1
-                                if (coordsComparator.compare(newNode, seg1Node1) == 0) {
-                                    intNode = seg1Node1;
-                                } else if (coordsComparator.compare(newNode, seg1Node2) == 0) {
-                                    intNode = seg1Node2;
-                                } else {
-                                    insertInSeg1 = true;
-                                }
+                                    if (test) {
+                                        intersectionNodes.add(intNode);
+                                        return intersectionNodes;
+                                    }
 
-                                //segment 2
-                                if (coordsComparator.compare(newNode, seg2Node1) == 0) {
-                                    intNode = seg2Node1;
-                                } else if (coordsComparator.compare(newNode, seg2Node2) == 0) {
-                                    intNode = seg2Node2;
-                                } else {
-                                    insertInSeg2 = true;
-                                }
+                                    if (insertInSeg1) {
+                                        way1Nodes.add(seg1Pos +1, intNode);
+                                        changedWays[seg1Way] = true;
+                                        addedNodes[seg1Way]++;
 
-                                if (test) {
-                                    intersectionNodes.add(intNode);
-                                    return intersectionNodes;
-                                }
+                                        //fix seg2 position, as indexes have changed, seg2Pos is always bigger than seg1Pos on the same segment.
+                                        if (seg2Way == seg1Way) {
+                                            seg2Pos++;
+                                        }
+                                    }
 
-                                if (insertInSeg1) {
-                                    way1Nodes.add(seg1Pos +1, intNode);
-                                    changedWays[seg1Way] = true;
+                                    if (insertInSeg2) {
+                                        way2Nodes.add(seg2Pos +1, intNode);
+                                        changedWays[seg2Way] = true;
+                                        addedNodes[seg2Way]++;
 
-                                    //fix seg2 position, as indexes have changed, seg2Pos is always bigger than seg1Pos on the same segment.
-                                    if (seg2Way == seg1Way) {
+                                        //Do not need to compare again to already split segment
                                         seg2Pos++;
                                     }
-                                }
-
-                                if (insertInSeg2) {
-                                    way2Nodes.add(seg2Pos +1, intNode);
-                                    changedWays[seg2Way] = true;
-
-                                    //Do not need to compare again to already split segment
-                                    seg2Pos++;
-                                }
 
-                                intersectionNodes.add(intNode);
+                                    intersectionNodes.add(intNode);
 
-                                if (intNode == newNode) {
-                                    cmds.add(new AddCommand(dataset, intNode));
+                                    if (intNode == newNode) {
+                                        cmds.add(new AddCommand(dataset, intNode));
+                                    }
                                 }
-                            }
-                        } else if (test && !intersectionNodes.isEmpty())
-                            return intersectionNodes;
+                            } else if (test && !intersectionNodes.isEmpty())
+                                return intersectionNodes;
+                            shift = seg2Pos - candidate;
+                        }
                     }
                 }
+                monitor.worked(1);
             }
+        } finally {
+            monitor.finishTask();
         }
 
 
@@ -238,6 +291,140 @@ public final class Geometry {
         return intersectionNodes;
     }
 
+    /**
+     * The segments of a way, grouped by horizontal band, to find the segments that may have a common node with a
+     * given segment or intersect it, see {@link #addIntersections}. A segment is found if the bounding boxes of both
+     * segments intersect, each one enlarged by a margin larger than the tolerance of
+     * {@link #getSegmentSegmentIntersection(double, double, double, double, double, double, double, double, double[])}.
+     * Segment {@code i} goes from node {@code i} to node {@code i + 1}.
+     */
+    private static final class WaySegmentIndex {
+        /** relative margin of the segment bounds, in proportion of their size */
+        private static final double RELATIVE_MARGIN = 1e-6;
+        /** absolute margin of the segment bounds, in east/north units */
+        private static final double ABSOLUTE_MARGIN = 1e-6;
+        /** mean number of segments per band */
+        private static final int SEGMENTS_PER_BAND = 8;
+        private static final int MAX_BANDS = 4096;
+        /** maximal mean number of bands per segment, long segments crossing many bands make the bands useless */
+        private static final int MAX_BANDS_PER_SEGMENT = 8;
+
+        /** number of nodes added to the way when the index has been built */
+        final int addedNodes;
+        private final int size;
+        /** enlarged bounds of each segment, as minX, minY, maxX, maxY */
+        private final double[] bounds;
+        private double minY = Double.POSITIVE_INFINITY;
+        private double bandHeight;
+        private int[][] bands;
+
+        WaySegmentIndex(List<Node> nodes, int addedNodes) {
+            this.addedNodes = addedNodes;
+            size = Math.max(0, nodes.size() - 1);
+            bounds = new double[4 * size];
+            double maxY = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < size; i++) {
+                setBounds(nodes.get(i), nodes.get(i + 1), bounds, 4 * i);
+                if (bounds[4 * i + 3] < Double.POSITIVE_INFINITY) {
+                    minY = Math.min(minY, bounds[4 * i + 1]);
+                    maxY = Math.max(maxY, bounds[4 * i + 3]);
+                }
+            }
+            int bandCount = Math.min(MAX_BANDS, size / SEGMENTS_PER_BAND);
+            if (bandCount > 1 && minY < maxY) {
+                bandHeight = (maxY - minY) / bandCount;
+                bands = createBands(bandCount);
+            }
+            if (bands == null) {
+                // a single band with all the segments
+                bandHeight = Double.POSITIVE_INFINITY;
+                int[] all = new int[size];
+                for (int i = 0; i < size; i++) {
+                    all[i] = i;
+                }
+                bands = new int[][] {all};
+            }
+        }
+
+        private int[][] createBands(int bandCount) {
+            int[][] result = new int[bandCount][];
+            // first count the segments of each band, then fill the bands
+            int[] counts = new int[bandCount];
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                int first = getBand(bounds[4 * i + 1], bandCount);
+                int last = getBand(bounds[4 * i + 3], bandCount);
+                for (int b = first; b <= last; b++) {
+                    counts[b]++;
+                }
+                total += last - first + 1;
+            }
+            if (total > (long) MAX_BANDS_PER_SEGMENT * size) {
+                return null;
+            }
+            for (int b = 0; b < bandCount; b++) {
+                result[b] = new int[counts[b]];
+                counts[b] = 0;
+            }
+            for (int i = 0; i < size; i++) {
+                int last = getBand(bounds[4 * i + 3], bandCount);
+                for (int b = getBand(bounds[4 * i + 1], bandCount); b <= last; b++) {
+                    result[b][counts[b]++] = i;
+                }
+            }
+            return result;
+        }
+
+        private int getBand(double y, int bandCount) {
+            int band = (int) ((y - minY) / bandHeight);
+            return Math.max(0, Math.min(bandCount - 1, band));
+        }
+
+        /**
+         * Sets the enlarged bounds of a segment, infinite if a node has no known position.
+         */
+        private static void setBounds(Node n1, Node n2, double[] bounds, int offset) {
+            EastNorth en1 = n1.getEastNorth();
+            EastNorth en2 = n2.getEastNorth();
+            if (en1 == null || en2 == null || !en1.isValid() || !en2.isValid()) {
+                bounds[offset] = Double.NEGATIVE_INFINITY;
+                bounds[offset + 1] = Double.NEGATIVE_INFINITY;
+                bounds[offset + 2] = Double.POSITIVE_INFINITY;
+                bounds[offset + 3] = Double.POSITIVE_INFINITY;
+                return;
+            }
+            double margin = RELATIVE_MARGIN * (Math.abs(en1.getX() - en2.getX()) + Math.abs(en1.getY() - en2.getY()))
+                    + ABSOLUTE_MARGIN;
+            bounds[offset] = Math.min(en1.getX(), en2.getX()) - margin;
+            bounds[offset + 1] = Math.min(en1.getY(), en2.getY()) - margin;
+            bounds[offset + 2] = Math.max(en1.getX(), en2.getX()) + margin;
+            bounds[offset + 3] = Math.max(en1.getY(), en2.getY()) + margin;
+        }
+
+        /**
+         * Finds the segments that may have a common node with the given segment or intersect it.
+         * @param n1 first node of the segment
+         * @param n2 second node of the segment
+         * @param from index of the first segment to consider
+         * @param result cleared, then filled with the indexes of the found segments
+         */
+        void findCandidates(Node n1, Node n2, int from, BitSet result) {
+            result.clear();
+            double[] segment = new double[4];
+            setBounds(n1, n2, segment, 0);
+            int last = getBand(segment[3], bands.length);
+            for (int b = getBand(segment[1], bands.length); b <= last; b++) {
+                for (int i : bands[b]) {
+                    int offset = 4 * i;
+                    if (i >= from && bounds[offset] <= segment[2] && bounds[offset + 2] >= segment[0]
+                            && bounds[offset + 1] <= segment[3] && bounds[offset + 3] >= segment[1]) {
+                        result.set(i);
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Tests if given point is to the right side of path consisting of 3 points.
      *
@@ -292,18 +479,32 @@ public final class Geometry {
         CheckParameterUtil.ensureThat(p3.isValid(), () -> p3 + " invalid");
         CheckParameterUtil.ensureThat(p4.isValid(), () -> p4 + " invalid");
 
-        double x1 = p1.getX();
-        double y1 = p1.getY();
-        double x2 = p2.getX();
-        double y2 = p2.getY();
-        double x3 = p3.getX();
-        double y3 = p3.getY();
-        double x4 = p4.getX();
-        double y4 = p4.getY();
+        double[] result = new double[2];
+        if (getSegmentSegmentIntersection(p1.getX(), p1.getY(), p2.getX(), p2.getY(), p3.getX(), p3.getY(), p4.getX(), p4.getY(), result)) {
+            return new EastNorth(result[0], result[1]);
+        }
+        return null;
+    }
 
+    /**
+     * Finds the intersection of two line segments, without allocating objects.
+     * @param x1 the east coordinate of the start point of the first line segment
+     * @param y1 the north coordinate of the start point of the first line segment
+     * @param x2 the east coordinate of the end point of the first line segment
+     * @param y2 the north coordinate of the end point of the first line segment
+     * @param x3 the east coordinate of the start point of the second line segment
+     * @param y3 the north coordinate of the start point of the second line segment
+     * @param x4 the east coordinate of the end point of the second line segment
+     * @param y4 the north coordinate of the end point of the second line segment
+     * @param result array receiving the east and north coordinates of the intersection, if found. Can be {@code null}
+     * @return {@code true} if an intersection was found
+     * @since xxx
+     */
+    public static boolean getSegmentSegmentIntersection(double x1, double y1, double x2, double y2,
+            double x3, double y3, double x4, double y4, double[] result) {
         //TODO: do this locally.
         //TODO: remove this check after careful testing
-        if (!Line2D.linesIntersect(x1, y1, x2, y2, x3, y3, x4, y4)) return null;
+        if (!Line2D.linesIntersect(x1, y1, x2, y2, x3, y3, x4, y4)) return false;
 
         // solve line-line intersection in parametric form:
         // (x1,y1) + (x2-x1,y2-y1)* u  = (x3,y3) + (x4-x3,y4-y3)* v
@@ -330,13 +531,17 @@ public final class Geometry {
             if (u > -1e-8 && u < 1+1e-8 && v > -1e-8 && v < 1+1e-8) {
                 if (u < 0) u = 0;
                 if (u > 1) u = 1.0;
-                return new EastNorth(x1+a1*u, y1+a2*u);
+                if (result != null) {
+                    result[0] = x1+a1*u;
+                    result[1] = y1+a2*u;
+                }
+                return true;
             } else {
-                return null;
+                return false;
             }
         } else {
             // parallel lines
-            return null;
+            return false;
         }
     }
 
@@ -594,11 +799,62 @@ public final class Geometry {
      * @return intersection kind
      */
     public static PolygonIntersection polygonIntersection(List<? extends INode> first, List<? extends INode> second) {
+        Rectangle2D b1 = getBoundsEastNorth(first);
+        Rectangle2D b2 = getBoundsEastNorth(second);
+        if (b1 != null && b2 != null && boundsIntersectionIsEmpty(b1, b2, INTERSECTION_EPS_EAST_NORTH)) {
+            // no need to compute the intersection area
+            return PolygonIntersection.OUTSIDE;
+        }
         Area a1 = getArea(first);
         Area a2 = getArea(second);
         return polygonIntersection(a1, a2, INTERSECTION_EPS_EAST_NORTH);
     }
 
+    private static Rectangle2D getBoundsEastNorth(List<? extends INode> polygon) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (INode n : polygon) {
+            EastNorth en = n.getEastNorth();
+            if (en != null) {
+                minX = Math.min(minX, en.getX());
+                minY = Math.min(minY, en.getY());
+                maxX = Math.max(maxX, en.getX());
+                maxY = Math.max(maxY, en.getY());
+            }
+        }
+        return minX <= maxX ? new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY) : null;
+    }
+
+    /**
+     * Determines if the polygon formed by {@code nodes} may be inside a polygon, from their bounding boxes.
+     * If not, {@link #polygonIntersection(Area, Area)} returns {@link PolygonIntersection#OUTSIDE} for both polygons,
+     * as the bounds of their areas are enclosed in the bounds of their nodes.
+     * @param nodes nodes forming the polygon
+     * @param bounds bounds of the other polygon, can be {@code null}
+     * @return {@code false} if the polygon formed by {@code nodes} cannot be inside the other polygon
+     */
+    private static boolean mayBeInside(List<? extends INode> nodes, Rectangle2D bounds) {
+        Rectangle2D nodesBounds = bounds != null ? getBoundsEastNorth(nodes) : null;
+        return nodesBounds == null || !boundsIntersectionIsEmpty(nodesBounds, bounds, INTERSECTION_EPS_EAST_NORTH);
+    }
+
+    /**
+     * Determines if the intersection of two polygons is empty, or below the threshold, from their bounding boxes.
+     * The intersection is enclosed in the intersection of the bounding boxes, so that {@link #checkIntersection}
+     * would fail if the latter is below the threshold.
+     * @param b1 bounds of the first polygon
+     * @param b2 bounds of the second polygon
+     * @param eps an area threshold, everything below is considered an empty intersection
+     * @return {@code true} if the intersection is certainly empty. {@code false} if it has to be computed
+     */
+    private static boolean boundsIntersectionIsEmpty(Rectangle2D b1, Rectangle2D b2, double eps) {
+        double width = Math.min(b1.getMaxX(), b2.getMaxX()) - Math.max(b1.getMinX(), b2.getMinX());
+        double height = Math.min(b1.getMaxY(), b2.getMaxY()) - Math.max(b1.getMinY(), b2.getMinY());
+        return width < 0 || height < 0 || (width <= eps && height <= eps);
+    }
+
     /**
      * Tests if two polygons intersect. It is assumed that the area is given in East North points.
      * @param a1 Area of first polygon
@@ -618,6 +874,9 @@ public final class Geometry {
      * @return intersection kind
      */
     public static PolygonIntersection polygonIntersection(Area a1, Area a2, double eps) {
+        if (boundsIntersectionIsEmpty(a1.getBounds2D(), a2.getBounds2D(), eps)) {
+            return PolygonIntersection.OUTSIDE;
+        }
         return polygonIntersectionResult(a1, a2, eps).a;
     }
 
@@ -630,6 +889,9 @@ public final class Geometry {
      * @since 15938
      */
     public static Pair<PolygonIntersection, Area> polygonIntersectionResult(Area a1, Area a2, double eps) {
+        if (!a1.getBounds2D().intersects(a2.getBounds2D())) {
+            return new Pair<>(PolygonIntersection.OUTSIDE, new Area());
+        }
         Area inter = new Area(a1);
         inter.intersect(a2);
 
@@ -683,57 +945,7 @@ public final class Geometry {
      * @return true if the point is inside polygon.
      */
     public static boolean nodeInsidePolygon(INode point, List<? extends INode> polygonNodes) {
-        if (polygonNodes.size() < 2)
-            return false;
-
-        //iterate each side of the polygon, start with the last segment
-        INode oldPoint = polygonNodes.get(polygonNodes.size() - 1);
-
-        if (!oldPoint.isLatLonKnown()) {
-            return false;
-        }
-
-        boolean inside = false;
-        INode p1, p2;
-
-        for (INode newPoint : polygonNodes) {
-            //skip duplicate points
-            if (newPoint.equals(oldPoint)) {
-                continue;
-            }
-
-            if (!newPoint.isLatLonKnown()) {
-                return false;
-            }
-
-            //order points so p1.lat <= p2.lat
-            if (newPoint.getEastNorth().getY() > oldPoint.getEastNorth().getY()) {
-                p1 = oldPoint;
-                p2 = newPoint;
-            } else {
-                p1 = newPoint;
-                p2 = oldPoint;
-            }
-
-            EastNorth pEN = point.getEastNorth();
-            EastNorth opEN = oldPoint.getEastNorth();
-            EastNorth npEN = newPoint.getEastNorth();
-            EastNorth p1EN = p1.getEastNorth();
-            EastNorth p2EN = p2.getEastNorth();
-
-            if (pEN != null && opEN != null && npEN != null && p1EN != null && p2EN != null) {
-                //test if the line is crossed and if so invert the inside flag.
-                if ((npEN.getY() < pEN.getY()) == (pEN.getY() <= opEN.getY())
-                        && (pEN.getX() - p1EN.getX()) * (p2EN.getY() - p1EN.getY())
-                        < (p2EN.getX() - p1EN.getX()) * (pEN.getY() - p1EN.getY())) {
-                    inside = !inside;
-                }
-            }
-
-            oldPoint = newPoint;
-        }
-
-        return inside;
+        return new PreparedPolygon(polygonNodes).contains(point);
     }
 
     /**
@@ -1042,11 +1254,11 @@ public final class Geometry {
         // Test if object is inside an outer member
         for (JoinedPolygon out : outerInner.a) {
             if (a1 == null
-                    ? nodeInsidePolygon(nodes.get(0), out.nodes)
+                    ? out.getPreparedPolygon().contains(nodes.get(0))
                     : PolygonIntersection.FIRST_INSIDE_SECOND == polygonIntersection(a1, out.area)) {
                 // If inside an outer, check it is not inside an inner
                 boolean insideInner = outerInner.b.stream().anyMatch(in -> a1 == null
-                        ? nodeInsidePolygon(nodes.get(0), in.nodes)
+                        ? in.getPreparedPolygon().contains(nodes.get(0))
                         : in.area.getBounds2D().contains(a1.getBounds2D())
                         && polygonIntersection(a1, in.area) == PolygonIntersection.FIRST_INSIDE_SECOND
                         && polygonIntersection(in.area, out.area) == PolygonIntersection.FIRST_INSIDE_SECOND);
@@ -1096,13 +1308,19 @@ public final class Geometry {
             return res;
         /** polygon area in east north space, calculated only when really needed */
         Area polygonArea = null;
+        /** polygon prepared for point in polygon tests, calculated only when really needed */
+        PreparedPolygon preparedPolygon = null;
+        final Rectangle2D polygonBounds = getBoundsEastNorth(polygon.getNodes());
         for (IPrimitive p : primitives) {
             if (p instanceof INode) {
-                if (nodeInsidePolygon((INode) p, polygon.getNodes())) {
+                if (preparedPolygon == null) {
+                    preparedPolygon = new PreparedPolygon(polygon.getNodes());
+                }
+                if (preparedPolygon.contains((INode) p)) {
                     res.add(p);
                 }
             } else if (p instanceof IWay) {
-                if (((IWay<?>) p).isClosed()) {
+                if (((IWay<?>) p).isClosed() && mayBeInside(((IWay<?>) p).getNodes(), polygonBounds)) {
                     if (polygonArea == null) {
                         polygonArea = getArea(polygon.getNodes());
                     }
@@ -1119,7 +1337,7 @@ public final class Geometry {
                 boolean inside = true;
                 // a (valid) multipolygon is inside the polygon if all outer rings are inside
                 for (PolyData outer : mp.getOuterPolygons()) {
-                    if (!outer.isClosed()
+                    if (!outer.isClosed() || !mayBeInside(outer.getNodes(), polygonBounds)
                             || PolygonIntersection.FIRST_INSIDE_SECOND != polygonIntersection(getArea(outer.getNodes()),
                                     polygonArea)) {
                         inside = false;
@@ -1156,6 +1374,14 @@ public final class Geometry {
             return res;
         }
 
+        Rectangle2D outerBounds = null;
+        for (JoinedPolygon out : outerInner.a) {
+            if (outerBounds == null) {
+                outerBounds = out.area.getBounds2D();
+            } else {
+                outerBounds.add(out.area.getBounds2D());
+            }
+        }
         Set<OsmPrimitive> members = multiPolygon.getMemberPrimitives();
         for (IPrimitive p : primitives) {
             if (members.contains(p))
@@ -1165,7 +1391,8 @@ public final class Geometry {
                     res.add(p);
                 }
             } else if (p instanceof Way) {
-                if (((IWay<?>) p).isClosed() && isPolygonInsideMultiPolygon(((Way) p).getNodes(), outerInner, null)) {
+                if (((IWay<?>) p).isClosed() && mayBeInside(((Way) p).getNodes(), outerBounds)
+                        && isPolygonInsideMultiPolygon(((Way) p).getNodes(), outerInner, null)) {
                     res.add(p);
                 }
             } else if (p.isMultipolygon()) {
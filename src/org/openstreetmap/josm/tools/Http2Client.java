@@ -0,0 +1,512 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.tools;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.openstreetmap.josm.data.Version;
+import org.openstreetmap.josm.gui.progress.ProgressMonitor;
+import org.openstreetmap.josm.io.auth.DefaultAuthenticator;
+import org.openstreetmap.josm.spi.preferences.Config;
+
+/**
+ * Provides a uniform access for a HTTP/HTTPS 1.1/2 server, using the {@code java.net.http} client of Java 11 and later.
+ * <p>
+ * The underlying client negotiates HTTP/2 when the server supports it, so that concurrent requests to the same host
+ * (e.g. imagery tiles) are multiplexed over a single connection. Clients are shared between requests with the same connect timeout.
+ * <p>
+ * As JOSM still runs on Java 8, the {@code java.net.http} API is accessed through reflection.
+ * Use {@link #isAvailable()} to check if it can be used on the running JVM.
+ * @since xxx
+ */
+public final class Http2Client extends HttpClient {
+
+    /**
+     * Request headers which cannot be set by the {@code java.net.http} client, they are managed by the client itself.
+     */
+    private static final Set<String> RESTRICTED_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "content-length", "date", "expect", "from", "host", "upgrade", "via", "warning"));
+
+    /**
+     * HTTP date format, see RFC 7231, section 7.1.1.1.
+     */
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.ENGLISH);
+
+    private Object request;
+    private CompletableFuture<?> pendingResponse;
+    private Object httpResponse;
+
+    /**
+     * Constructs a new {@code Http2Client}.
+     * @param url URL to access
+     * @param requestMethod HTTP request method (GET, POST, PUT, DELETE...)
+     * @throws UnsupportedOperationException if the {@code java.net.http} client is not available, see {@link #isAvailable()}
+     */
+    public Http2Client(URL url, String requestMethod) {
+        super(url, requestMethod);
+        if (!isAvailable()) {
+            throw new UnsupportedOperationException("java.net.http is not available");
+        }
+    }
+
+    /**
+     * Determines if the {@code java.net.http} client is available on the running JVM.
+     * @return {@code true} if this class can be used
+     */
+    public static boolean isAvailable() {
+        return JavaNetHttp.INSTANCE != null;
+    }
+
+    /**
+     * Determines if the HTTP/2 client should be used, according to the {@code http.http2} preference.
+     * @return {@code true} if the HTTP/2 client is enabled and available
+     */
+    public static boolean isEnabled() {
+        return Config.getPref().getBoolean("http.http2", false) && isAvailable();
+    }
+
+    /**
+     * HTTP client factory which creates an {@code Http2Client} for HTTP/HTTPS URLs when {@link #isEnabled() enabled},
+     * and an {@link Http1Client} otherwise.
+     * @param url URL to access
+     * @param requestMethod HTTP request method (GET, POST, PUT, DELETE...)
+     * @return a new HTTP client
+     */
+    public static HttpClient createPreferred(URL url, String requestMethod) {
+        String protocol = url.getProtocol();
+        if (("http".equalsIgnoreCase(protocol) || "https".equalsIgnoreCase(protocol)) && isEnabled()) {
+            return new Http2Client(url, requestMethod);
+        }
+        return new Http1Client(url, requestMethod);
+    }
+
+    @Override
+    protected void setupConnection(ProgressMonitor progressMonitor) throws IOException {
+        JavaNetHttp api = JavaNetHttp.INSTANCE;
+        Object builder = api.invoke(api.newRequestBuilder, null, toURI(getURL()));
+        Object body;
+        if (requiresBody()) {
+            logRequestBody();
+            body = api.invoke(api.ofByteArray, null, (Object) getRequestBody());
+        } else {
+            body = api.invoke(api.noBody, null);
+        }
+        api.invoke(api.requestMethod, builder, getRequestMethod(), body);
+        if (getReadTimeout() > 0) {
+            api.invoke(api.requestTimeout, builder, Duration.ofMillis(getReadTimeout()));
+        }
+        api.invoke(api.requestHeader, builder, "User-Agent", Version.getInstance().getFullAgentString());
+        if (getIfModifiedSince() > 0) {
+            api.invoke(api.requestHeader, builder, "If-Modified-Since", HTTP_DATE.format(
+                    ZonedDateTime.ofInstant(Instant.ofEpochMilli(getIfModifiedSince()), ZoneOffset.UTC)));
+        }
+        if (!isUseCache()) {
+            api.invoke(api.requestHeader, builder, "Cache-Control", "no-cache");
+        }
+        for (Map.Entry<String, String> header : getHeaders().entrySet()) {
+            if (header.getValue() != null && !RESTRICTED_HEADERS.contains(header.getKey().toLowerCase(Locale.ENGLISH))) {
+                api.invoke(api.requestHeader, builder, header.getKey(), header.getValue());
+            }
+        }
+        request = api.invoke(api.requestBuild, builder);
+
+        notifyConnect(progressMonitor);
+    }
+
+    private static URI toURI(URL url) throws IOException {
+        try {
+            return url.toURI();
+        } catch (URISyntaxException e) {
+            Logging.trace(e);
+            try {
+                // quotes illegal characters, as HttpURLConnection is lenient about them
+                return new URI(url.getProtocol(), url.getUserInfo(), url.getHost(), url.getPort(), url.getPath(), url.getQuery(), url.getRef());
+            } catch (URISyntaxException ex) {
+                throw new IOException(ex);
+            }
+        }
+    }
+
+    @Override
+    protected ConnectionResponse performConnection() throws IOException {
+        JavaNetHttp api = JavaNetHttp.INSTANCE;
+        CompletableFuture<?> future = (CompletableFuture<?>) api.invoke(api.sendAsync,
+                api.getClient(getConnectTimeout()), request, api.invoke(api.ofInputStream, null));
+        synchronized (this) {
+            pendingResponse = future;
+        }
+        try {
+            httpResponse = future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (CancellationException e) {
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            synchronized (this) {
+                pendingResponse = null;
+            }
+        }
+        final int code = (Integer) api.invoke(api.statusCode, httpResponse);
+        final Map<String, List<String>> headers = getHeaderFields(httpResponse);
+        final String version = "HTTP_2".equals(String.valueOf(api.invoke(api.version, httpResponse))) ? "HTTP/2" : "HTTP/1.1";
+        return new ConnectionResponse() {
+            @Override
+            public String getResponseVersion() {
+                return version;
+            }
+
+            @Override
+            public int getResponseCode() {
+                return code;
+            }
+
+            @Override
+            public String getHeaderField(String name) {
+                return Http2Client.getHeaderField(headers, name);
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return getContentLength(headers);
+            }
+
+            @Override
+            public Map<String, List<String>> getHeaderFields() {
+                return headers;
+            }
+        };
+    }
+
+    @Override
+    protected void performDisconnection() throws IOException {
+        closeBody(httpResponse);
+    }
+
+    @Override
+    protected Response buildResponse(ProgressMonitor progressMonitor) throws IOException {
+        return new Http2Response(httpResponse, getRequestMethod(), progressMonitor);
+    }
+
+    private static Map<String, List<String>> getHeaderFields(Object httpResponse) throws IOException {
+        JavaNetHttp api = JavaNetHttp.INSTANCE;
+        @SuppressWarnings("unchecked")
+        Map<String, List<String>> map = (Map<String, List<String>>) api.invoke(api.headersMap,
+                api.invoke(api.headers, httpResponse));
+        // as per RFC 2616, section 4.2 header names are case insensitive
+        Map<String, List<String>> ret = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Entry<String, List<String>> e : map.entrySet()) {
+            ret.put(e.getKey(), Collections.unmodifiableList(e.getValue()));
+        }
+        return Collections.unmodifiableMap(ret);
+    }
+
+    private static String getHeaderField(Map<String, List<String>> headers, String name) {
+        List<String> values = headers.get(name);
+        // like HttpURLConnection, return the last value of the header
+        return values == null || values.isEmpty() ? null : values.get(values.size() - 1);
+    }
+
+    private static long getContentLength(Map<String, List<String>> headers) {
+        String value = getHeaderField(headers, "Content-Length");
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                Logging.trace(e);
+            }
+        }
+        return -1;
+    }
+
+    private static long getDate(Map<String, List<String>> headers, String name) {
+        String value = getHeaderField(headers, name);
+        if (value != null) {
+            try {
+                return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                Logging.trace(e);
+            }
+        }
+        return 0;
+    }
+
+    private static void closeBody(Object httpResponse) throws IOException {
+        if (httpResponse != null) {
+            JavaNetHttp api = JavaNetHttp.INSTANCE;
+            Object body = api.invoke(api.body, httpResponse);
+            if (body instanceof InputStream) {
+                ((InputStream) body).close();
+            }
+        }
+    }
+
+    /**
+     * A wrapper for the {@code java.net.http} response.
+     */
+    public static final class Http2Response extends Response {
+        private final Object httpResponse;
+        private final String requestMethod;
+        private final Map<String, List<String>> headers;
+
+        private Http2Response(Object httpResponse, String requestMethod, ProgressMonitor progressMonitor) throws IOException {
+            super(progressMonitor, (Integer) JavaNetHttp.INSTANCE.invoke(JavaNetHttp.INSTANCE.statusCode, httpResponse), "");
+            this.httpResponse = httpResponse;
+            this.requestMethod = requestMethod;
+            this.headers = Http2Client.getHeaderFields(httpResponse);
+            debugRedirect();
+        }
+
+        @Override
+        public URL getURL() {
+            try {
+                return ((URI) JavaNetHttp.INSTANCE.invoke(JavaNetHttp.INSTANCE.uri, httpResponse)).toURL();
+            } catch (IOException e) {
+                throw new JosmRuntimeException(e);
+            }
+        }
+
+        @Override
+        public String getRequestMethod() {
+            return requestMethod;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            Object body = JavaNetHttp.INSTANCE.invoke(JavaNetHttp.INSTANCE.body, httpResponse);
+            return body instanceof InputStream ? (InputStream) body : new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return getHeaderField("Content-Encoding");
+        }
+
+        @Override
+        public String getContentType() {
+            return getHeaderField("Content-Type");
+        }
+
+        @Override
+        public long getExpiration() {
+            return getDate(headers, "Expires");
+        }
+
+        @Override
+        public long getLastModified() {
+            return getDate(headers, "Last-Modified");
+        }
+
+        @Override
+        public long getContentLength() {
+            return Http2Client.getContentLength(headers);
+        }
+
+        @Override
+        public String getHeaderField(String name) {
+            return Http2Client.getHeaderField(headers, name);
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaderFields() {
+            return headers;
+        }
+
+        @Override
+        public void disconnect() {
+            try {
+                closeBody(httpResponse);
+            } catch (IOException e) {
+                Logging.debug(e);
+            }
+        }
+    }
+
+    /**
+     * Aborts a pending request, or closes the response stream.
+     */
+    @Override
+    public void disconnect() {
+        synchronized (this) {
+            if (pendingResponse != null) {
+                pendingResponse.cancel(true);
+            }
+        }
+        try {
+            closeBody(httpResponse);
+        } catch (IOException e) {
+            Logging.debug(e);
+        }
+    }
+
+    /**
+     * Reflective access to the {@code java.net.http} API.
+     */
+    private static final class JavaNetHttp {
+        static final JavaNetHttp INSTANCE = create();
+
+        private final Map<Integer, Object> clients = new ConcurrentHashMap<>();
+
+        private Method newClientBuilder;
+        private Method clientVersion;
+        private Method clientFollowRedirects;
+        private Method clientConnectTimeout;
+        private Method clientCookieHandler;
+        private Method clientProxy;
+        private Method clientAuthenticator;
+        private Method clientBuild;
+        private Object versionHttp2;
+        private Object redirectNever;
+        private Method sendAsync;
+
+        private Method newRequestBuilder;
+        private Method requestMethod;
+        private Method requestTimeout;
+        private Method requestHeader;
+        private Method requestBuild;
+        private Method ofByteArray;
+        private Method noBody;
+        private Method ofInputStream;
+
+        private Method statusCode;
+        private Method headers;
+        private Method headersMap;
+        private Method body;
+        private Method version;
+        private Method uri;
+
+        private static JavaNetHttp create() {
+            try {
+                return new JavaNetHttp().init();
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                Logging.trace(e);
+                return null;
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private JavaNetHttp init() throws ReflectiveOperationException {
+            Class<?> client = Class.forName("java.net.http.HttpClient");
+            Class<?> clientBuilder = Class.forName("java.net.http.HttpClient$Builder");
+            Class<?> versionClass = Class.forName("java.net.http.HttpClient$Version");
+            Class<?> redirectClass = Class.forName("java.net.http.HttpClient$Redirect");
+            Class<?> request = Class.forName("java.net.http.HttpRequest");
+            Class<?> requestBuilder = Class.forName("java.net.http.HttpRequest$Builder");
+            Class<?> bodyPublisher = Class.forName("java.net.http.HttpRequest$BodyPublisher");
+            Class<?> bodyPublishers = Class.forName("java.net.http.HttpRequest$BodyPublishers");
+            Class<?> bodyHandler = Class.forName("java.net.http.HttpResponse$BodyHandler");
+            Class<?> bodyHandlers = Class.forName("java.net.http.HttpResponse$BodyHandlers");
+            Class<?> response = Class.forName("java.net.http.HttpResponse");
+            Class<?> httpHeaders = Class.forName("java.net.http.HttpHeaders");
+
+            newClientBuilder = client.getMethod("newBuilder");
+            clientVersion = clientBuilder.getMethod("version", versionClass);
+            clientFollowRedirects = clientBuilder.getMethod("followRedirects", redirectClass);
+            clientConnectTimeout = clientBuilder.getMethod("connectTimeout", Duration.class);
+            clientCookieHandler = clientBuilder.getMethod("cookieHandler", CookieHandler.class);
+            clientProxy = clientBuilder.getMethod("proxy", ProxySelector.class);
+            clientAuthenticator = clientBuilder.getMethod("authenticator", Authenticator.class);
+            clientBuild = clientBuilder.getMethod("build");
+            versionHttp2 = Enum.valueOf((Class<Enum>) versionClass, "HTTP_2");
+            redirectNever = Enum.valueOf((Class<Enum>) redirectClass, "NEVER");
+            sendAsync = client.getMethod("sendAsync", request, bodyHandler);
+
+            newRequestBuilder = request.getMethod("newBuilder", URI.class);
+            requestMethod = requestBuilder.getMethod("method", String.class, bodyPublisher);
+            requestTimeout = requestBuilder.getMethod("timeout", Duration.class);
+            requestHeader = requestBuilder.getMethod("header", String.class, String.class);
+            requestBuild = requestBuilder.getMethod("build");
+            ofByteArray = bodyPublishers.getMethod("ofByteArray", byte[].class);
+            noBody = bodyPublishers.getMethod("noBody");
+            ofInputStream = bodyHandlers.getMethod("ofInputStream");
+
+            statusCode = response.getMethod("statusCode");
+            headers = response.getMethod("headers");
+            headersMap = httpHeaders.getMethod("map");
+            body = response.getMethod("body");
+            version = response.getMethod("version");
+            uri = response.getMethod("uri");
+            return this;
+        }
+
+        Object getClient(int connectTimeout) throws IOException {
+            Object client = clients.get(connectTimeout);
+            if (client == null) {
+                Object builder = invoke(newClientBuilder, null);
+                invoke(clientVersion, builder, versionHttp2);
+                invoke(clientFollowRedirects, builder, redirectNever); // we do that ourselves
+                if (connectTimeout > 0) {
+                    invoke(clientConnectTimeout, builder, Duration.ofMillis(connectTimeout));
+                }
+                if (CookieHandler.getDefault() != null) {
+                    invoke(clientCookieHandler, builder, CookieHandler.getDefault());
+                }
+                if (ProxySelector.getDefault() != null) {
+                    invoke(clientProxy, builder, ProxySelector.getDefault());
+                }
+                invoke(clientAuthenticator, builder, DefaultAuthenticator.getInstance());
+                client = invoke(clientBuild, builder);
+                Object previous = clients.putIfAbsent(connectTimeout, client);
+                if (previous != null) {
+                    client = previous;
+                }
+            }
+            return client;
+        }
+
+        Object invoke(Method method, Object target, Object... args) throws IOException {
+            try {
+                return method.invoke(target, args);
+            } catch (IllegalAccessException e) {
+                throw new JosmRuntimeException(e);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+import org.openstreetmap.josm.data.preferences.BooleanProperty;
+import org.openstreetmap.josm.data.preferences.IntegerProperty;
+
+/**
+ * Utilities to process large lists in parallel, with a fork-join pool shared by all the callers.
+ * <p>
+ * Lists are split in chunks, each chunk being processed by a fork-join task. The functions must be thread-safe and
+ * the elements must not be modified during the processing. The results are returned in the order of the input, so
+ * that callers can apply them sequentially. Each caller decides with its own preferences if and how it uses them.
+ * @since xxx
+ */
+public final class ParallelUtils {
+
+    private static ForkJoinPool threadPool;
+
+    private ParallelUtils() {
+        // Hide default constructor for utils classes
+    }
+
+    /**
+     * Returns the fork-join pool shared by the parallel computations, see the {@code parallel.numberOfThreads} preference.
+     * @return the shared fork-join pool, or {@code null} if it cannot be created
+     */
+    public static synchronized ForkJoinPool getThreadPool() {
+        if (threadPool == null) {
+            try {
+                threadPool = Utils.newForkJoinPool("parallel.numberOfThreads", "parallel-%d", Thread.NORM_PRIORITY);
+            } catch (SecurityException e) {
+                Logging.log(Logging.LEVEL_ERROR, "Unable to create new ForkJoinPool", e);
+            }
+        }
+        return threadPool;
+    }
+
+    /**
+     * Determines if a list should be processed in parallel.
+     * @param enabled the property enabling the parallel processing
+     * @param chunkSize the property for the number of elements processed by each task
+     * @param size the number of elements to process
+     * @return {@code true} if the list has more than one chunk and the parallel processing is enabled and possible
+     */
+    public static boolean isParallel(BooleanProperty enabled, IntegerProperty chunkSize, int size) {
+        return enabled.get() && size > Math.max(1, chunkSize.get())
+                && Runtime.getRuntime().availableProcessors() > 1 && getThreadPool() != null;
+    }
+
+    /**
+     * Applies a thread-safe function to all elements of a list, in parallel if the list has several chunks.
+     * @param <T> type of elements
+     * @param <R> type of results
+     * @param input the elements
+     * @param function the thread-safe function
+     * @param chunkSize the number of elements processed by each task
+     * @return the results, in the order of the elements
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, R> List<R> map(List<T> input, Function<? super T, ? extends R> function, int chunkSize) {
+        Object[] elements = input.toArray();
+        Object[] results = new Object[elements.length];
+        ForkJoinPool pool = getThreadPool();
+        MapTask<T, R> task = new MapTask<>(elements, results, function, 0, elements.length, Math.max(1, chunkSize));
+        if (pool != null) {
+            pool.invoke(task);
+        } else {
+            task.computeDirectly();
+        }
+        return (List<R>) Arrays.asList(results);
+    }
+
+    /**
+     * Applies a thread-safe function to consecutive chunks of a list, in parallel if the list has several chunks.
+     * @param <T> type of elements
+     * @param <R> type of results
+     * @param input the elements
+     * @param function the thread-safe function, applied to each chunk
+     * @param chunkSize the maximal number of elements of each chunk
+     * @return the results, one for each chunk, in the order of the elements
+     */
+    public static <T, R> List<R> mapChunks(List<T> input, Function<? super List<T>, ? extends R> function, int chunkSize) {
+        int size = Math.max(1, chunkSize);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < input.size(); from += size) {
+            chunks.add(input.subList(from, Math.min(input.size(), from + size)));
+        }
+        ForkJoinPool pool = getThreadPool();
+        if (pool == null || chunks.size() < 2) {
+            List<R> results = new ArrayList<>(chunks.size());
+            for (List<T> chunk : chunks) {
+                results.add(function.apply(chunk));
+            }
+            return results;
+        }
+        List<ForkJoinTask<? extends R>> tasks = new ArrayList<>(chunks.size());
+        for (List<T> chunk : chunks) {
+            tasks.add(pool.submit(() -> function.apply(chunk)));
+        }
+        List<R> results = new ArrayList<>(chunks.size());
+        for (ForkJoinTask<? extends R> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    private static final class MapTask<T, R> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Object[] input;
+        private final transient Object[] output;
+        private final transient Function<? super T, ? extends R> function;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        MapTask(Object[] input, Object[] output, Function<? super T, ? extends R> function, int from, int to, int chunkSize) {
+            this.input = input;
+            this.output = output;
+            this.function = function;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                computeDirectly();
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new MapTask<>(input, output, function, from, middle, chunkSize),
+                          new MapTask<>(input, output, function, middle, to, chunkSize));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void computeDirectly() {
+            for (int i = from; i < to; i++) {
+                output[i] = function.apply((T) input[i]);
+            }
+        }
+    }
+}
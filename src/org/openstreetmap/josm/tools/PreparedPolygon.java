@@ -0,0 +1,303 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.tools;
+
+import java.util.List;
+
+import org.openstreetmap.josm.data.coor.EastNorth;
+import org.openstreetmap.josm.data.osm.INode;
+
+/**
+ * A polygon prepared for repeated geometric tests, in east/north coordinates.
+ * <p>
+ * The coordinates of the polygon nodes are copied once into arrays of primitive doubles, so that the tests do not
+ * have to fetch the coordinates of each node nor allocate objects. This is much faster than
+ * {@link Geometry#nodeInsidePolygon} or {@link java.awt.geom.Area} when the same polygon is tested many times.
+ * <p>
+ * Large polygons (administrative boundaries with thousands of nodes) are additionally split into horizontal bands
+ * listing the sides that overlap them, once they are tested more than once: a point test then only considers the
+ * sides of the band of the point instead of all the sides of the polygon.
+ * <p>
+ * A {@code PreparedPolygon} is a snapshot: it does not reflect later changes of the nodes.
+ * @since xxx
+ */
+public final class PreparedPolygon {
+
+    /** minimal number of nodes for which the sides are indexed */
+    private static final int INDEX_MIN_NODES = 64;
+    /** mean number of sides per band */
+    private static final int INDEX_SIDES_PER_BAND = 4;
+    private static final int INDEX_MAX_BANDS = 8192;
+    /** maximal mean number of bands per side, long sides crossing many bands make the index useless */
+    private static final int INDEX_MAX_BANDS_PER_SIDE = 16;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final int size;
+    private final boolean usable;
+    /** whether all the nodes have a projected position, so that the bounding box encloses the polygon */
+    private boolean bounded = true;
+    private double minX = Double.POSITIVE_INFINITY;
+    private double minY = Double.POSITIVE_INFINITY;
+    private double maxX = Double.NEGATIVE_INFINITY;
+    private double maxY = Double.NEGATIVE_INFINITY;
+    /** whether a point has already been tested, the sides are only indexed for the following tests */
+    private boolean tested;
+    private volatile SideIndex index;
+
+    /**
+     * Constructs a new {@code PreparedPolygon}.
+     * @param nodes the nodes of the polygon. The polygon is implicitly closed, the first node can be repeated at the end
+     */
+    public PreparedPolygon(List<? extends INode> nodes) {
+        size = nodes.size();
+        xs = new double[size];
+        ys = new double[size];
+        boolean allKnown = size >= 2;
+        for (int i = 0; i < size && allKnown; i++) {
+            INode node = nodes.get(i);
+            allKnown = node.isLatLonKnown();
+            EastNorth en = allKnown ? node.getEastNorth() : null;
+            // an unknown projected position makes the adjacent edges ignored
+            xs[i] = en != null ? en.getX() : Double.NaN;
+            ys[i] = en != null ? en.getY() : Double.NaN;
+            if (en == null) {
+                bounded = false;
+            } else {
+                minX = Math.min(minX, xs[i]);
+                minY = Math.min(minY, ys[i]);
+                maxX = Math.max(maxX, xs[i]);
+                maxY = Math.max(maxY, ys[i]);
+            }
+        }
+        usable = allKnown;
+    }
+
+    /**
+     * Returns the number of nodes of the polygon.
+     * @return the number of nodes of the polygon
+     */
+    public int getNodesCount() {
+        return size;
+    }
+
+    /**
+     * Determines if the bounding box of the polygon intersects the given rectangle.
+     * @param x1 minimum east coordinate of the rectangle
+     * @param y1 minimum north coordinate of the rectangle
+     * @param x2 maximum east coordinate of the rectangle
+     * @param y2 maximum north coordinate of the rectangle
+     * @return {@code true} if the bounding box of the polygon intersects the rectangle
+     */
+    public boolean boundsIntersect(double x1, double y1, double x2, double y2) {
+        return usable && (!bounded || (x1 <= maxX && x2 >= minX && y1 <= maxY && y2 >= minY));
+    }
+
+    /**
+     * Tests if a node is inside the polygon, see {@link Geometry#nodeInsidePolygon}.
+     * @param node the node to test
+     * @return {@code true} if the node is inside the polygon
+     */
+    public boolean contains(INode node) {
+        EastNorth en = node.getEastNorth();
+        return en != null && contains(en.getX(), en.getY());
+    }
+
+    /**
+     * Tests if a point is inside the polygon, see {@link Geometry#nodeInsidePolygon}.
+     * @param en the point to test
+     * @return {@code true} if the point is inside the polygon
+     */
+    public boolean contains(EastNorth en) {
+        return contains(en.getX(), en.getY());
+    }
+
+    /**
+     * Tests if a point is inside the polygon, see {@link Geometry#nodeInsidePolygon}.
+     * The polygon can be self-intersecting. In such case the test works in xor-like manner.
+     * @param x the east coordinate of the point
+     * @param y the north coordinate of the point
+     * @return {@code true} if the point is inside the polygon
+     */
+    public boolean contains(double x, double y) {
+        if (!usable || (bounded && (x < minX || x > maxX || y < minY || y > maxY))) {
+            return false;
+        }
+        SideIndex sideIndex = getIndex();
+        return sideIndex != null ? sideIndex.contains(x, y) : containsAll(x, y);
+    }
+
+    /**
+     * Tests if a point is inside the polygon, considering all the sides of the polygon.
+     * @param x the east coordinate of the point
+     * @param y the north coordinate of the point
+     * @return {@code true} if the point is inside the polygon
+     */
+    private boolean containsAll(double x, double y) {
+        boolean inside = false;
+        // iterate each side of the polygon, start with the last segment
+        double oldX = xs[size - 1];
+        double oldY = ys[size - 1];
+        for (int i = 0; i < size; i++) {
+            final double newX = xs[i];
+            final double newY = ys[i];
+            if (crosses(x, y, oldX, oldY, newX, newY)) {
+                inside = !inside;
+            }
+            oldX = newX;
+            oldY = newY;
+        }
+        return inside;
+    }
+
+    private SideIndex getIndex() {
+        SideIndex result = index;
+        if (result == null && size >= INDEX_MIN_NODES && minY < maxY) {
+            if (tested) {
+                result = SideIndex.create(this);
+                index = result;
+            } else {
+                tested = true;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Determines if the sides of the polygon are indexed.
+     * @return {@code true} if the sides of the polygon are indexed
+     */
+    boolean isIndexed() {
+        SideIndex sideIndex = index;
+        return sideIndex != null && sideIndex.bands != null;
+    }
+
+    /**
+     * The sides of a polygon, grouped by horizontal band of equal height.
+     * Side {@code i} goes from node {@code i - 1} (the last node for {@code i = 0}) to node {@code i}.
+     */
+    private static final class SideIndex {
+        private final PreparedPolygon polygon;
+        private final double bandHeight;
+        /** the sides overlapping each band, {@code null} if the polygon cannot be indexed efficiently */
+        private final int[][] bands;
+
+        private SideIndex(PreparedPolygon polygon, double bandHeight, int[][] bands) {
+            this.polygon = polygon;
+            this.bandHeight = bandHeight;
+            this.bands = bands;
+        }
+
+        static SideIndex create(PreparedPolygon polygon) {
+            final int size = polygon.size;
+            final double height = polygon.maxY - polygon.minY;
+            final int bandCount = Math.min(INDEX_MAX_BANDS, size / INDEX_SIDES_PER_BAND);
+            final SideIndex result = new SideIndex(polygon, height / bandCount, new int[bandCount][]);
+            // first count the sides of each band, then fill the bands
+            final int[] counts = new int[bandCount];
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                final double oldY = polygon.ys[i == 0 ? size - 1 : i - 1];
+                final double newY = polygon.ys[i];
+                if (Double.isNaN(oldY) || Double.isNaN(newY)) {
+                    // such a side never crosses a ray
+                    continue;
+                }
+                final int first = result.getBand(Math.min(oldY, newY));
+                final int last = result.getBand(Math.max(oldY, newY));
+                for (int b = first; b <= last; b++) {
+                    counts[b]++;
+                }
+                total += last - first + 1;
+            }
+            if (total > (long) INDEX_MAX_BANDS_PER_SIDE * size) {
+                return new SideIndex(polygon, 0, null);
+            }
+            for (int b = 0; b < bandCount; b++) {
+                result.bands[b] = new int[counts[b]];
+                counts[b] = 0;
+            }
+            for (int i = 0; i < size; i++) {
+                final double oldY = polygon.ys[i == 0 ? size - 1 : i - 1];
+                final double newY = polygon.ys[i];
+                if (Double.isNaN(oldY) || Double.isNaN(newY)) {
+                    continue;
+                }
+                final int last = result.getBand(Math.max(oldY, newY));
+                for (int b = result.getBand(Math.min(oldY, newY)); b <= last; b++) {
+                    result.bands[b][counts[b]++] = i;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the band of a north coordinate. As this function is monotonic, a side is listed in the band of
+         * every north coordinate between the ones of its nodes.
+         */
+        private int getBand(double y) {
+            final int band = (int) ((y - polygon.minY) / bandHeight);
+            return Math.max(0, Math.min(bands.length - 1, band));
+        }
+
+        boolean contains(double x, double y) {
+            if (bands == null) {
+                return polygon.containsAll(x, y);
+            }
+            // a side can only be crossed if the north coordinate of the point lies between the ones of its nodes
+            final double[] xs = polygon.xs;
+            final double[] ys = polygon.ys;
+            final int last = polygon.size - 1;
+            boolean inside = false;
+            for (int i : bands[getBand(y)]) {
+                final int previous = i == 0 ? last : i - 1;
+                if (crosses(x, y, xs[previous], ys[previous], xs[i], ys[i])) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+    }
+
+    /**
+     * Tests if the horizontal ray from a point crosses a polygon side.
+     * @param x the east coordinate of the point
+     * @param y the north coordinate of the point
+     * @param oldX the east coordinate of the start of the side
+     * @param oldY the north coordinate of the start of the side
+     * @param newX the east coordinate of the end of the side
+     * @param newY the north coordinate of the end of the side
+     * @return {@code true} if the ray crosses the side
+     */
+    static boolean crosses(double x, double y, double oldX, double oldY, double newX, double newY) {
+        if ((newY < y) != (y <= oldY)) {
+            return false;
+        }
+        // order points so p1.north <= p2.north
+        final boolean newIsUpper = newY > oldY;
+        final double x1 = newIsUpper ? oldX : newX;
+        final double y1 = newIsUpper ? oldY : newY;
+        final double x2 = newIsUpper ? newX : oldX;
+        final double y2 = newIsUpper ? newY : oldY;
+        return (x - x1) * (y2 - y1) < (x2 - x1) * (y - y1);
+    }
+
+    /**
+     * Computes the signed area of the polygon, with the shoelace formula.
+     * @return the area of the polygon in square east/north units, positive if it is counterclockwise,
+     * negative if it is clockwise
+     */
+    public double getSignedArea() {
+        if (!usable) {
+            return 0;
+        }
+        double area = 0;
+        double oldX = xs[size - 1];
+        double oldY = ys[size - 1];
+        for (int i = 0; i < size; i++) {
+            area += oldX * ys[i] - xs[i] * oldY;
+            oldX = xs[i];
+            oldY = ys[i];
+        }
+        return area / 2;
+    }
+}
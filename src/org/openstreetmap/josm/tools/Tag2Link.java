@@ -67,6 +67,8 @@ public final class Tag2Link {
     static final CachingProperty<List<String>> PREF_SEARCH_ENGINES = new ListProperty("tag2link.search",
             Arrays.asList("https://duckduckgo.com/?q=$1", "https://www.google.com/search?q=$1")).cached();
 
+    private static volatile boolean initialized;
+
     private Tag2Link() {
         // private constructor for utility class
     }
@@ -88,7 +90,7 @@ public final class Tag2Link {
     /**
      * Initializes the tag2link rules
      */
-    public static void initialize() {
+    public static synchronized void initialize() {
         try {
             wikidataRules.clear();
             for (String source : PREF_SOURCE.get()) {
@@ -97,6 +99,22 @@ public final class Tag2Link {
         } catch (Exception e) {
             Logging.error("Failed to initialize tag2link rules");
             Logging.error(e);
+        } finally {
+            initialized = true;
+        }
+    }
+
+    /**
+     * Initializes the tag2link rules if this operation hasn't been performed already.
+     * @since xxx
+     */
+    public static void initializeIfNeeded() {
+        if (!initialized) {
+            synchronized (Tag2Link.class) {
+                if (!initialized) {
+                    initialize();
+                }
+            }
         }
     }
 
@@ -1253,6 +1253,57 @@ public final class Utils {
         return d[n][m];
     }
 
+    /**
+     * Compute <a href="https://en.wikipedia.org/wiki/Levenshtein_distance">Levenshtein distance</a>, up to a maximum.
+     * <p>
+     * Only the diagonal band of width {@code 2 * max + 1} of the distance matrix is computed, and the computation stops
+     * as soon as the distance is known to exceed {@code max}. This is much faster than {@link #getLevenshteinDistance(String, String)}
+     * to determine if two strings are similar.
+     *
+     * @param s First word
+     * @param t Second word
+     * @param max The maximum distance of interest
+     * @return The distance between words, or {@code max + 1} if it is greater than {@code max}
+     * @since xxx
+     */
+    public static int getLevenshteinDistance(String s, String t, int max) {
+        final int n = s.length();
+        final int m = t.length();
+        final int tooFar = max + 1;
+        if (max < 0 || Math.abs(n - m) > max)
+            return tooFar;
+        if (n == 0 || m == 0)
+            return Math.max(n, m);
+
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= max ? j : tooFar;
+        }
+        for (int i = 1; i <= n; i++) {
+            final char si = s.charAt(i - 1);
+            final int from = Math.max(1, i - max);
+            final int to = Math.min(m, i + max);
+            current[from - 1] = from == 1 && i <= max ? i : tooFar;
+            int rowMin = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                final int cost = si == t.charAt(j - 1) ? 0 : 1;
+                final int d = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                current[j] = Math.min(d, tooFar);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m) {
+                current[to + 1] = tooFar;
+            }
+            if (rowMin > max)
+                return tooFar;
+            final int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m];
+    }
+
     /**
      * Check if two strings are similar, but not identical, i.e., have a Levenshtein distance of 1 or 2.
      * @param string1 first string to compare
@@ -1263,7 +1314,7 @@ public final class Utils {
      */
     public static boolean isSimilar(String string1, String string2) {
         // check plain strings
-        int distance = getLevenshteinDistance(string1, string2);
+        int distance = getLevenshteinDistance(string1, string2, 2);
 
         // check if only the case differs, so we don't consider large distance as different strings
         if (distance > 2 && string1.length() == string2.length()) {
@@ -3,12 +3,15 @@ package org.openstreetmap.josm.tools;
 
 import static org.openstreetmap.josm.tools.I18n.tr;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -26,6 +29,7 @@ import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.ValidatorHandler;
 
 import org.openstreetmap.josm.io.CachedFile;
+import org.openstreetmap.josm.io.ParsedSourceCache;
 import org.xml.sax.Attributes;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.InputSource;
@@ -33,6 +37,7 @@ import org.xml.sax.Locator;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
 import org.xml.sax.helpers.DefaultHandler;
 import org.xml.sax.helpers.XMLFilterImpl;
 
@@ -183,6 +188,89 @@ public class XmlObjectParser implements Iterable<Object> {
         }
     }
 
+    /**
+     * Records the XML events handled by the parser, see {@link #startRecording} and {@link #startReplay}.
+     * Strings are written once, then referred to by their index.
+     */
+    private class Recorder extends DefaultHandler {
+        private final DataOutput out;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final StringBuilder characters = new StringBuilder(64);
+
+        Recorder(DataOutput out) {
+            this.out = out;
+        }
+
+        private void write(String s) throws IOException {
+            Integer index = strings.get(s);
+            if (index != null) {
+                out.writeInt(index);
+            } else {
+                out.writeInt(-1);
+                ParsedSourceCache.writeString(out, s);
+                strings.put(s, strings.size());
+            }
+        }
+
+        private void writeCharacters() throws IOException {
+            if (characters.length() > 0) {
+                out.writeByte(CHARACTERS);
+                write(characters.toString());
+                characters.setLength(0);
+            }
+        }
+
+        @Override
+        public void setDocumentLocator(Locator locator) {
+            parser.setDocumentLocator(locator);
+        }
+
+        @Override
+        public void startElement(String ns, String lname, String qname, Attributes a) throws SAXException {
+            try {
+                writeCharacters();
+                out.writeByte(START_ELEMENT);
+                write(qname);
+                out.writeInt(a.getLength());
+                for (int i = 0; i < a.getLength(); ++i) {
+                    write(a.getQName(i));
+                    write(a.getValue(i));
+                }
+            } catch (IOException e) {
+                throw new SAXException(e);
+            }
+            parser.startElement(ns, lname, qname, a);
+        }
+
+        @Override
+        public void endElement(String ns, String lname, String qname) throws SAXException {
+            try {
+                writeCharacters();
+                out.writeByte(END_ELEMENT);
+                write(qname);
+            } catch (IOException e) {
+                throw new SAXException(e);
+            }
+            parser.endElement(ns, lname, qname);
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            characters.append(ch, start, length);
+            parser.characters(ch, start, length);
+        }
+
+        @Override
+        public void endDocument() throws SAXException {
+            try {
+                writeCharacters();
+                out.writeByte(END_OF_EVENTS);
+            } catch (IOException e) {
+                throw new SAXException(e);
+            }
+        }
+    }
+
     private static class Entry {
         private final Class<?> klass;
         private final boolean onStart;
@@ -211,6 +299,11 @@ public class XmlObjectParser implements Iterable<Object> {
         }
     }
 
+    private static final int END_OF_EVENTS = 0;
+    private static final int START_ELEMENT = 1;
+    private static final int END_ELEMENT = 2;
+    private static final int CHARACTERS = 3;
+
     private final Map<String, Entry> mapping = new HashMap<>();
     private final DefaultHandler parser;
 
@@ -260,6 +353,74 @@ public class XmlObjectParser implements Iterable<Object> {
         }
     }
 
+    /**
+     * Starts parsing from the given input reader, without validation, and records the XML events.
+     * The recorded events can be handled again later, faster than parsing, see {@link #startReplay}.
+     * @param in The input reader
+     * @param record The output receiving the recorded XML events
+     * @return iterable collection of objects
+     * @throws SAXException if any XML or I/O error occurs
+     * @since xxx
+     */
+    public Iterable<Object> startRecording(final Reader in, DataOutput record) throws SAXException {
+        try {
+            return start(in, new Recorder(record));
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    /**
+     * Starts handling the XML events previously recorded by {@link #startRecording}.
+     * @param record The input providing the recorded XML events
+     * @return iterable collection of objects
+     * @throws SAXException if any error occurs while handling the events
+     * @throws IOException if any I/O error occurs or if the recorded events are invalid
+     * @since xxx
+     */
+    public Iterable<Object> startReplay(DataInput record) throws SAXException, IOException {
+        final List<String> strings = new ArrayList<>();
+        final AttributesImpl attributes = new AttributesImpl();
+        int event;
+        while ((event = record.readByte()) != END_OF_EVENTS) {
+            switch (event) {
+            case START_ELEMENT:
+                String qname = readString(record, strings);
+                attributes.clear();
+                for (int i = record.readInt(); i > 0; i--) {
+                    String name = readString(record, strings);
+                    attributes.addAttribute("", name, name, "CDATA", readString(record, strings));
+                }
+                parser.startElement("", qname, qname, attributes);
+                break;
+            case END_ELEMENT:
+                String name = readString(record, strings);
+                parser.endElement("", name, name);
+                break;
+            case CHARACTERS:
+                char[] ch = readString(record, strings).toCharArray();
+                parser.characters(ch, 0, ch.length);
+                break;
+            default:
+                throw new IOException("Invalid recorded XML event: " + event);
+            }
+        }
+        queueIterator = queue.iterator();
+        return this;
+    }
+
+    private static String readString(DataInput record, List<String> strings) throws IOException {
+        int index = record.readInt();
+        if (index < 0) {
+            String s = ParsedSourceCache.readString(record);
+            strings.add(s);
+            return s;
+        } else if (index < strings.size()) {
+            return strings.get(index);
+        }
+        throw new IOException("Invalid recorded string index: " + index);
+    }
+
     /**
      * Starts parsing from the given input reader, with XSD validation.
      * @param in The input reader
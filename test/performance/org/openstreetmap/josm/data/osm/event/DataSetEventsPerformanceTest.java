@@ -0,0 +1,109 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.osm.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.openstreetmap.josm.JOSMFixture;
+import org.openstreetmap.josm.PerformanceTestUtils;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+
+/**
+ * This test measures the events fired to the data set listeners for a bulk edit, and their cost.
+ */
+@Timeout(value = 15*60, unit = TimeUnit.SECONDS)
+class DataSetEventsPerformanceTest {
+    private static final int NODES = 100_000;
+
+    /**
+     * Prepare the test.
+     */
+    @BeforeAll
+    public static void createJOSMFixture() {
+        JOSMFixture.createPerformanceTestFixture().init(true);
+    }
+
+    private static DataSet createDataSet(List<Node> nodes) {
+        DataSet ds = new DataSet();
+        for (int i = 0; i < NODES; i++) {
+            Node n = new Node(new LatLon(i / (double) NODES, i % 1000 / 1000.0));
+            n.put("name", "n" + i);
+            ds.addPrimitive(n);
+            nodes.add(n);
+        }
+        return ds;
+    }
+
+    private static void bulkEdit(DataSet ds, List<Node> nodes, String value) {
+        ds.update(() -> nodes.forEach(n -> n.put("note", value)));
+    }
+
+    /**
+     * Measures a bulk edit with a usual listener, which only receives a {@link DataChangedEvent} without the changed primitives,
+     * and with a coalescing listener, which receives all the changed primitives in one event.
+     */
+    @Test
+    void testBulkEdit() {
+        List<Node> nodes = new ArrayList<>();
+        DataSet ds = createDataSet(nodes);
+        AtomicInteger events = new AtomicInteger();
+        DataSetListenerAdapter listener = new DataSetListenerAdapter(e -> events.incrementAndGet());
+        ds.addDataSetListener(listener);
+        AtomicInteger run = new AtomicInteger();
+        PerformanceTestUtils.runPerformanceTest("DataSet bulk edit, usual listener",
+                () -> bulkEdit(ds, nodes, Integer.toString(run.incrementAndGet())));
+        PerformanceTestUtils.measurementPlotsPluginOutput("DataSet bulk edit, usual listener events per edit",
+                events.get() / (double) run.get());
+        ds.removeDataSetListener(listener);
+
+        CoalescedListener coalescing = new CoalescedListener();
+        ds.addDataSetListener(coalescing);
+        run.set(0);
+        PerformanceTestUtils.runPerformanceTest("DataSet bulk edit, coalescing listener",
+                () -> bulkEdit(ds, nodes, Integer.toString(run.incrementAndGet())));
+        assertEquals(run.get(), coalescing.events);
+        assertEquals(NODES, coalescing.lastChanged);
+        PerformanceTestUtils.measurementPlotsPluginOutput("DataSet bulk edit, coalescing listener events per edit",
+                coalescing.events / (double) run.get());
+    }
+
+    /**
+     * Measures a bulk edit when the tag index of the data set is kept up to date from the coalesced events.
+     */
+    @Test
+    void testBulkEditTagIndex() {
+        List<Node> nodes = new ArrayList<>();
+        DataSet ds = createDataSet(nodes);
+        ds.getTagIndex();
+        AtomicInteger run = new AtomicInteger();
+        PerformanceTestUtils.runPerformanceTest("DataSet bulk edit, tag index",
+                () -> bulkEdit(ds, nodes, Integer.toString(run.incrementAndGet())));
+        assertEquals(NODES, ds.getTagIndex().get("note", Integer.toString(run.get())).size());
+    }
+
+    private static class CoalescedListener extends DataSetListenerAdapter implements CoalescingDataSetListener {
+        int events;
+        int lastChanged;
+
+        CoalescedListener() {
+            super(e -> {
+                throw new AssertionError("Single event fired to a coalescing listener: " + e);
+            });
+        }
+
+        @Override
+        public void coalescedDataChanged(CoalescedDataChangedEvent event) {
+            events++;
+            lastChanged = event.getPrimitives(AbstractDatasetChangedEvent.DatasetEventType.TAGS_CHANGED).size();
+        }
+    }
+}
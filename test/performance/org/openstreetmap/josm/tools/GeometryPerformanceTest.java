@@ -0,0 +1,250 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.JOSMFixture;
+import org.openstreetmap.josm.PerformanceTestUtils;
+import org.openstreetmap.josm.PerformanceTestUtils.PerformanceTestTimer;
+import org.openstreetmap.josm.command.Command;
+import org.openstreetmap.josm.data.coor.EastNorth;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.INode;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.tools.Geometry.PolygonIntersection;
+
+/**
+ * Compares the performance of the primitive geometry methods ({@link PreparedPolygon}, bounds checks) with the
+ * methods based on {@link EastNorth} objects and {@link java.awt.geom.Area}.
+ */
+class GeometryPerformanceTest {
+
+    private static final int POLYGONS = 2000;
+    private static final int POINTS = 200;
+
+    /**
+     * Prepare the test.
+     */
+    @BeforeAll
+    public static void createJOSMFixture() {
+        JOSMFixture.createPerformanceTestFixture().init(true);
+    }
+
+    private static List<List<Node>> createPolygons(Random random, int count) {
+        List<List<Node>> polygons = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double x = random.nextDouble() * 10_000;
+            double y = random.nextDouble() * 10_000;
+            List<Node> nodes = new ArrayList<>();
+            int size = 4 + random.nextInt(60);
+            for (int j = 0; j < size; j++) {
+                double angle = 2 * Math.PI * j / size;
+                double radius = 50 + random.nextDouble() * 50;
+                nodes.add(new Node(new EastNorth(x + radius * Math.cos(angle), y + radius * Math.sin(angle))));
+            }
+            nodes.add(nodes.get(0));
+            polygons.add(nodes);
+        }
+        return polygons;
+    }
+
+    /**
+     * Point in polygon test as done before {@link PreparedPolygon}, fetching the coordinates of the nodes for each side.
+     */
+    private static boolean legacyNodeInsidePolygon(INode point, List<? extends INode> polygonNodes) {
+        INode oldPoint = polygonNodes.get(polygonNodes.size() - 1);
+        boolean inside = false;
+        INode p1, p2;
+        for (INode newPoint : polygonNodes) {
+            if (newPoint.equals(oldPoint)) {
+                continue;
+            }
+            if (newPoint.getEastNorth().getY() > oldPoint.getEastNorth().getY()) {
+                p1 = oldPoint;
+                p2 = newPoint;
+            } else {
+                p1 = newPoint;
+                p2 = oldPoint;
+            }
+            EastNorth pEN = point.getEastNorth();
+            EastNorth opEN = oldPoint.getEastNorth();
+            EastNorth npEN = newPoint.getEastNorth();
+            EastNorth p1EN = p1.getEastNorth();
+            EastNorth p2EN = p2.getEastNorth();
+            if ((npEN.getY() < pEN.getY()) == (pEN.getY() <= opEN.getY())
+                    && (pEN.getX() - p1EN.getX()) * (p2EN.getY() - p1EN.getY())
+                    < (p2EN.getX() - p1EN.getX()) * (pEN.getY() - p1EN.getY())) {
+                inside = !inside;
+            }
+            oldPoint = newPoint;
+        }
+        return inside;
+    }
+
+    /**
+     * Compares point in polygon tests.
+     */
+    @Test
+    void testPointInPolygon() {
+        Random random = new Random(42);
+        List<List<Node>> polygons = createPolygons(random, POLYGONS);
+        List<Node> points = new ArrayList<>();
+        for (int i = 0; i < POINTS; i++) {
+            points.add(new Node(new EastNorth(random.nextDouble() * 10_000, random.nextDouble() * 10_000)));
+        }
+
+        PerformanceTestTimer timer = PerformanceTestUtils.startTimer("point in polygon, nodes");
+        int legacyCount = 0;
+        for (List<Node> polygon : polygons) {
+            for (Node point : points) {
+                legacyCount += legacyNodeInsidePolygon(point, polygon) ? 1 : 0;
+            }
+        }
+        timer.done();
+
+        timer = PerformanceTestUtils.startTimer("point in polygon, prepared polygon");
+        int count = 0;
+        for (List<Node> polygon : polygons) {
+            PreparedPolygon prepared = new PreparedPolygon(polygon);
+            for (Node point : points) {
+                count += prepared.contains(point) ? 1 : 0;
+            }
+        }
+        timer.done();
+        assertEquals(legacyCount, count);
+    }
+
+    /**
+     * Compares point in polygon tests with a large polygon, whose sides are indexed.
+     */
+    @Test
+    void testPointInLargePolygon() {
+        Random random = new Random(42);
+        List<Node> polygon = new ArrayList<>();
+        int size = 50_000;
+        for (int i = 0; i < size; i++) {
+            double angle = 2 * Math.PI * i / size;
+            double radius = 4_000 + random.nextDouble() * 1_000;
+            polygon.add(new Node(new EastNorth(5_000 + radius * Math.cos(angle), 5_000 + radius * Math.sin(angle))));
+        }
+        List<Node> points = new ArrayList<>();
+        for (int i = 0; i < POINTS * 10; i++) {
+            points.add(new Node(new EastNorth(random.nextDouble() * 10_000, random.nextDouble() * 10_000)));
+        }
+
+        PerformanceTestTimer timer = PerformanceTestUtils.startTimer("point in large polygon, node by node");
+        int legacyCount = 0;
+        for (Node point : points) {
+            legacyCount += Geometry.nodeInsidePolygon(point, polygon) ? 1 : 0;
+        }
+        timer.done();
+
+        timer = PerformanceTestUtils.startTimer("point in large polygon, indexed prepared polygon");
+        PreparedPolygon prepared = new PreparedPolygon(polygon);
+        int count = 0;
+        for (Node point : points) {
+            count += prepared.contains(point) ? 1 : 0;
+        }
+        timer.done();
+        assertEquals(legacyCount, count);
+    }
+
+    /**
+     * Compares polygon intersection tests.
+     */
+    @Test
+    void testPolygonIntersection() {
+        List<List<Node>> polygons = createPolygons(new Random(42), POLYGONS / 4);
+
+        PerformanceTestTimer timer = PerformanceTestUtils.startTimer("polygon intersection, areas");
+        List<PolygonIntersection> legacy = new ArrayList<>();
+        for (List<Node> first : polygons) {
+            for (List<Node> second : polygons.subList(0, 100)) {
+                legacy.add(Geometry.polygonIntersectionResult(Geometry.getArea(first), Geometry.getArea(second),
+                        Geometry.INTERSECTION_EPS_EAST_NORTH).a);
+            }
+        }
+        timer.done();
+
+        timer = PerformanceTestUtils.startTimer("polygon intersection, bounds first");
+        List<PolygonIntersection> result = new ArrayList<>();
+        for (List<Node> first : polygons) {
+            for (List<Node> second : polygons.subList(0, 100)) {
+                result.add(Geometry.polygonIntersection(first, second));
+            }
+        }
+        timer.done();
+        assertEquals(legacy, result);
+    }
+
+    /**
+     * Measures the search of intersections between two large overlapping rings, as done to join areas.
+     */
+    @Test
+    void testAddIntersections() {
+        Random random = new Random(42);
+        DataSet ds = new DataSet();
+        List<Way> ways = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            List<Node> nodes = new ArrayList<>();
+            int size = 20_000;
+            for (int j = 0; j < size; j++) {
+                double angle = 2 * Math.PI * j / size;
+                double radius = 4_000 + random.nextDouble() * 20;
+                Node node = new Node(new EastNorth(5_000 + 1_000 * i + radius * Math.cos(angle), 5_000 + radius * Math.sin(angle)));
+                ds.addPrimitive(node);
+                nodes.add(node);
+            }
+            nodes.add(nodes.get(0));
+            Way way = new Way();
+            way.setNodes(nodes);
+            ds.addPrimitive(way);
+            ways.add(way);
+        }
+
+        PerformanceTestTimer timer = PerformanceTestUtils.startTimer("add intersections, 2 ways of 20000 nodes");
+        List<Command> cmds = new ArrayList<>();
+        Set<Node> intersections = Geometry.addIntersections(ways, false, cmds);
+        timer.done();
+        assertFalse(intersections.isEmpty());
+    }
+
+    /**
+     * Compares segment intersection computations.
+     */
+    @Test
+    void testSegmentSegmentIntersection() {
+        Random random = new Random(42);
+        double[] c = new double[8 * 1_000_000];
+        for (int i = 0; i < c.length; i++) {
+            c[i] = random.nextDouble() * 100;
+        }
+
+        PerformanceTestTimer timer = PerformanceTestUtils.startTimer("segment intersection, east/north");
+        int legacyCount = 0;
+        for (int i = 0; i < c.length; i += 8) {
+            legacyCount += Geometry.getSegmentSegmentIntersection(new EastNorth(c[i], c[i + 1]), new EastNorth(c[i + 2], c[i + 3]),
+                    new EastNorth(c[i + 4], c[i + 5]), new EastNorth(c[i + 6], c[i + 7])) != null ? 1 : 0;
+        }
+        timer.done();
+
+        timer = PerformanceTestUtils.startTimer("segment intersection, primitive");
+        int count = 0;
+        double[] result = new double[2];
+        for (int i = 0; i < c.length; i += 8) {
+            count += Geometry.getSegmentSegmentIntersection(c[i], c[i + 1], c[i + 2], c[i + 3],
+                    c[i + 4], c[i + 5], c[i + 6], c[i + 7], result) ? 1 : 0;
+        }
+        timer.done();
+        assertEquals(legacyCount, count);
+    }
+}
@@ -2,6 +2,7 @@
 package org.openstreetmap.josm.actions;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
@@ -10,6 +11,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -20,6 +22,8 @@ import org.openstreetmap.josm.TestUtils;
 import org.openstreetmap.josm.actions.search.SearchAction;
 import org.openstreetmap.josm.data.Bounds;
 import org.openstreetmap.josm.data.DataSource;
+import org.openstreetmap.josm.data.UndoRedoHandler;
+import org.openstreetmap.josm.data.coor.LatLon;
 import org.openstreetmap.josm.data.osm.DataSet;
 import org.openstreetmap.josm.data.osm.IPrimitive;
 import org.openstreetmap.josm.data.osm.Node;
@@ -32,6 +36,9 @@ import org.openstreetmap.josm.gui.MainApplication;
 import org.openstreetmap.josm.gui.layer.Layer;
 import org.openstreetmap.josm.gui.layer.OsmDataLayer;
 import org.openstreetmap.josm.gui.progress.NullProgressMonitor;
+import org.openstreetmap.josm.gui.progress.ProgressMonitor;
+import org.openstreetmap.josm.gui.progress.ProgressRenderer;
+import org.openstreetmap.josm.gui.progress.swing.SwingRenderingProgressMonitor;
 import org.openstreetmap.josm.io.IllegalDataException;
 import org.openstreetmap.josm.io.OsmReader;
 import org.openstreetmap.josm.testutils.JOSMTestRules;
@@ -171,6 +178,75 @@ class JoinAreasActionTest {
         }
     }
 
+    private static Way createSquare(DataSet ds, double lat, double lon) {
+        List<Node> nodes = Arrays.asList(new Node(new LatLon(lat, lon)), new Node(new LatLon(lat, lon + 1)),
+                new Node(new LatLon(lat + 1, lon + 1)), new Node(new LatLon(lat + 1, lon)));
+        nodes.forEach(ds::addPrimitive);
+        Way way = new Way();
+        way.setNodes(nodes);
+        way.addNode(nodes.get(0));
+        way.put("building", "yes");
+        ds.addPrimitive(way);
+        return way;
+    }
+
+    /**
+     * Test that nothing is changed when the progress monitor is canceled.
+     */
+    @Test
+    void testCanceled() {
+        DataSet ds = new DataSet();
+        ds.addDataSource(new DataSource(new Bounds(-90, -180, 90, 180), "Everywhere"));
+        Way way1 = createSquare(ds, 0, 0);
+        Way way2 = createSquare(ds, 0.5, 0.5);
+        List<Node> nodes1 = way1.getNodes();
+        List<Node> nodes2 = way2.getNodes();
+        Layer layer = new OsmDataLayer(ds, null, null);
+        MainApplication.getLayerManager().addLayer(layer);
+        try {
+            ProgressMonitor monitor = new SwingRenderingProgressMonitor(new ProgressRenderer() {
+                @Override
+                public void setTaskTitle(String taskTitle) {
+                    // do nothing
+                }
+
+                @Override
+                public void setCustomText(String message) {
+                    // do nothing
+                }
+
+                @Override
+                public void setIndeterminate(boolean indeterminate) {
+                    // do nothing
+                }
+
+                @Override
+                public void setMaximum(int maximum) {
+                    // do nothing
+                }
+
+                @Override
+                public void setValue(int value) {
+                    // do nothing
+                }
+            });
+            monitor.cancel();
+            new JoinAreasAction(false).join(ds.getWays(), monitor);
+            assertEquals(8, ds.getNodes().size());
+            assertEquals(2, ds.getWays().size());
+            assertEquals(nodes1, way1.getNodes());
+            assertEquals(nodes2, way2.getNodes());
+            assertFalse(ds.isModified());
+            assertFalse(UndoRedoHandler.getInstance().hasUndoCommands());
+
+            // the same ways are joined with a monitor which is not canceled
+            new JoinAreasAction(false).join(ds.getWays(), NullProgressMonitor.INSTANCE);
+            assertEquals(1, ds.getWays().stream().filter(w -> !w.isDeleted()).count());
+        } finally {
+            // Ensure we clean the place before leaving, even if test fails.
+            MainApplication.getLayerManager().removeLayer(layer);
+        }
+    }
 
     /**
      * Non-regression test which checks example files in nodist/data
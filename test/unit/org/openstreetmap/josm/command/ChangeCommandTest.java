@@ -3,6 +3,7 @@ package org.openstreetmap.josm.command;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -21,9 +22,11 @@ import org.openstreetmap.josm.data.osm.DataIntegrityProblemException;
 import org.openstreetmap.josm.data.osm.DataSet;
 import org.openstreetmap.josm.data.osm.Node;
 import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.OsmPrimitiveType;
 import org.openstreetmap.josm.data.osm.Relation;
 import org.openstreetmap.josm.data.osm.User;
 import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.data.osm.WayData;
 import org.openstreetmap.josm.gui.layer.OsmDataLayer;
 import org.openstreetmap.josm.testutils.JOSMTestRules;
 
@@ -117,6 +120,117 @@ class ChangeCommandTest {
         assertEquals(LatLon.ZERO, testData.existingNode.getCoor());
     }
 
+    /**
+     * Test {@link ChangeCommand#undoCommand()} restores tags and nodes of a way from the remembered differences.
+     */
+    @Test
+    void testUndoWay() {
+        Way way = testData.existingWay;
+        List<Node> nodes = new ArrayList<>(way.getNodes());
+        for (int i = 0; i < 20; i++) {
+            nodes.add(1, testData.createNode(100 + i));
+        }
+        way.setNodes(nodes);
+        way.put("name", "foo");
+        assertTrue(way.isModified());
+
+        Way newWay = new Way(way);
+        List<Node> newNodes = new ArrayList<>(nodes);
+        newNodes.set(10, testData.createNode(200));
+        newNodes.remove(11);
+        newWay.setNodes(newNodes);
+        newWay.put("name", "bar");
+        newWay.remove("existing");
+        newWay.put("new", "new");
+        way.setModified(false);
+
+        ChangeCommand command = new ChangeCommand(way, newWay);
+        for (int i = 0; i < 2; i++) {
+            command.executeCommand();
+            assertEquals(newNodes, way.getNodes());
+            assertEquals(newWay.getKeys(), way.getKeys());
+            assertTrue(way.isModified());
+            assertEquals(Collections.singleton(way), command.getParticipatingPrimitives());
+            assertArrayEquals(nodes.toArray(), ((WayData) command.getOrig(way)).getNodeIds().stream()
+                    .map(id -> way.getDataSet().getPrimitiveById(id, OsmPrimitiveType.NODE)).toArray());
+
+            command.undoCommand();
+            assertEquals(nodes, way.getNodes());
+            assertEquals("foo", way.get("name"));
+            assertEquals("existing", way.get("existing"));
+            assertNull(way.get("new"));
+            assertFalse(way.isModified());
+        }
+    }
+
+    /**
+     * Test that {@link ChangeCommand#getOrig} returns the state before the command, even after another command changed
+     * the primitive.
+     */
+    @Test
+    void testGetOrigAfterOtherCommand() {
+        Way way = testData.existingWay;
+        List<Node> nodes = new ArrayList<>(way.getNodes());
+        for (int i = 0; i < 10; i++) {
+            nodes.add(1, testData.createNode(100 + i));
+        }
+        way.setNodes(nodes);
+        way.put("name", "foo");
+
+        Way firstWay = new Way(way);
+        List<Node> firstNodes = new ArrayList<>(nodes);
+        firstNodes.set(5, testData.createNode(200));
+        firstWay.setNodes(firstNodes);
+        firstWay.put("name", "bar");
+        ChangeCommand first = new ChangeCommand(way, firstWay);
+        first.executeCommand();
+
+        Way secondWay = new Way(way);
+        List<Node> secondNodes = new ArrayList<>(firstNodes);
+        secondNodes.remove(1);
+        secondNodes.set(8, testData.createNode(300));
+        secondWay.setNodes(secondNodes);
+        secondWay.put("name", "baz");
+        secondWay.put("other", "other");
+        ChangeCommand second = new ChangeCommand(way, secondWay);
+        second.executeCommand();
+
+        WayData orig = (WayData) first.getOrig(way);
+        assertArrayEquals(nodes.stream().map(Node::getUniqueId).toArray(), orig.getNodeIds().toArray());
+        assertEquals("foo", orig.get("name"));
+        assertNull(orig.get("other"));
+        orig = (WayData) second.getOrig(way);
+        assertArrayEquals(firstNodes.stream().map(Node::getUniqueId).toArray(), orig.getNodeIds().toArray());
+        assertEquals("bar", orig.get("name"));
+
+        second.undoCommand();
+        first.undoCommand();
+        assertEquals(nodes, way.getNodes());
+        assertEquals("foo", way.get("name"));
+    }
+
+    /**
+     * Test {@link ChangeCommand#getMemoryFootprint()} counts only the differences with the original state.
+     */
+    @Test
+    void testMemoryFootprint() {
+        Way way = testData.existingWay;
+        List<Node> nodes = new ArrayList<>(way.getNodes());
+        for (int i = 0; i < 1000; i++) {
+            nodes.add(1, testData.createNode(100 + i));
+        }
+        way.setNodes(nodes);
+        Way newWay = new Way(way);
+        newWay.put("name", "bar");
+        ChangeCommand command = new ChangeCommand(way, newWay);
+        long before = command.getMemoryFootprint();
+        command.executeCommand();
+        long after = command.getMemoryFootprint();
+        // the way is not copied by the command, only the new tag is remembered
+        assertTrue(after > before);
+        assertTrue(after - before < 1000, Long.toString(after - before));
+    }
+
     /**
      * Tests {@link ChangeCommand#fillModifiedData(java.util.Collection, java.util.Collection, java.util.Collection)}
      */
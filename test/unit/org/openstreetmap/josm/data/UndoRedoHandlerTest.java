@@ -0,0 +1,96 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.command.Command;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.spi.preferences.Config;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests of {@link UndoRedoHandler} class.
+ */
+class UndoRedoHandlerTest {
+
+    /**
+     * Setup tests
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences();
+
+    private static final long MB = 1024 * 1024;
+
+    /**
+     * Cleanup the undo stack.
+     */
+    @AfterEach
+    public void tearDown() {
+        UndoRedoHandler.getInstance().clean();
+    }
+
+    private static Command newCommand(DataSet ds, long footprint) {
+        return new Command(ds) {
+            @Override
+            public String getDescriptionText() {
+                return "";
+            }
+
+            @Override
+            public void fillModifiedData(Collection<OsmPrimitive> modified, Collection<OsmPrimitive> deleted,
+                    Collection<OsmPrimitive> added) {
+                // Do nothing
+            }
+
+            @Override
+            public long getMemoryFootprint() {
+                return footprint;
+            }
+        };
+    }
+
+    /**
+     * Test that the undo list is limited by the memory used by the commands.
+     */
+    @Test
+    void testMemoryLimit() {
+        Config.getPref().putInt("undo.max-memory", 1);
+        UndoRedoHandler handler = UndoRedoHandler.getInstance();
+        DataSet ds = new DataSet();
+        List<Command> added = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Command c = newCommand(ds, 300 * 1024);
+            added.add(c);
+            handler.add(c);
+        }
+        assertEquals(added.subList(7, 10), handler.getUndoCommands());
+        assertEquals(900 * 1024, handler.getUndoCommandsMemory());
+
+        handler.undo(2);
+        assertEquals(300 * 1024, handler.getUndoCommandsMemory());
+        handler.redo(2);
+        assertEquals(900 * 1024, handler.getUndoCommandsMemory());
+
+        // the last command is always kept
+        Command large = newCommand(ds, 2 * MB);
+        handler.add(large);
+        assertEquals(1, handler.getUndoCommands().size());
+        assertSame(large, handler.getLastCommand());
+        assertEquals(2 * MB, handler.getUndoCommandsMemory());
+
+        handler.clean(ds);
+        assertEquals(0, handler.getUndoCommandsMemory());
+    }
+}
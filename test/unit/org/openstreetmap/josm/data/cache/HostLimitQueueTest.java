@@ -2,10 +2,13 @@
 package org.openstreetmap.josm.data.cache;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -73,6 +76,38 @@ class HostLimitQueueTest {
         }
     }
 
+    /**
+     * Mock class with priority, recording execution order
+     */
+    static class PriorityTask extends Task {
+        private final double priority;
+        private final boolean stale;
+        private final List<PriorityTask> executed;
+
+        PriorityTask(ICacheAccess<String, CacheEntry> cache, URL url, double priority, boolean stale, List<PriorityTask> executed) {
+            super(cache, url, new AtomicInteger());
+            this.priority = priority;
+            this.stale = stale;
+            this.executed = executed;
+        }
+
+        @Override
+        public void run() {
+            executed.add(this);
+            executionFinished();
+        }
+
+        @Override
+        public double getPriority() {
+            return priority;
+        }
+
+        @Override
+        public boolean isStale() {
+            return stale;
+        }
+    }
+
     /**
      * Check if single threaded execution works properly
      * @throws Exception in case of error
@@ -149,4 +184,38 @@ class HostLimitQueueTest {
         assertTrue(duration < 6*1000 & duration > 4*1000,
                 "Expected duration between 4 and 6 seconds not met. Actual duration: " + (duration /1000));
     }
+
+    /**
+     * Check that queued jobs are executed by priority, that stale jobs are dropped and that statistics are collected
+     * @throws Exception in case of error
+     */
+    @Test
+    void testPriorityAndStaleJobs() throws Exception {
+        ThreadPoolExecutor tpe = TMSCachedTileLoader.getNewThreadPoolExecutor("test-%d", 1, 1);
+        ICacheAccess<String, CacheEntry> cache = JCSCacheManager.getCache("test", 3, 0, "");
+        AtomicInteger counter = new AtomicInteger(0);
+        List<PriorityTask> executed = new CopyOnWriteArrayList<>();
+        // keep the only thread busy while the other jobs are queued
+        tpe.execute(new Task(cache, new URL("http://localhost/blocking"), counter));
+        PriorityTask low = new PriorityTask(cache, new URL("http://localhost/low"), 5, false, executed);
+        PriorityTask stale = new PriorityTask(cache, new URL("http://localhost/stale"), 0, true, executed);
+        PriorityTask high = new PriorityTask(cache, new URL("http://localhost/high"), 1, false, executed);
+        tpe.execute(low);
+        tpe.execute(stale);
+        tpe.execute(high);
+        HostLimitQueue queue = (HostLimitQueue) tpe.getQueue();
+        assertEquals(3, queue.getQueueDepthPerHost().get("localhost").intValue());
+        tpe.shutdown();
+        tpe.awaitTermination(15, TimeUnit.SECONDS);
+        assertEquals(1, counter.get());
+        assertEquals(2, executed.size());
+        assertEquals(high, executed.get(0));
+        assertEquals(low, executed.get(1));
+        assertFalse(executed.contains(stale));
+        HostLimitQueue.HostStatistics stats = queue.getHostStatistics().get("localhost");
+        assertEquals(1, stats.getDroppedCount());
+        assertEquals(stats.getStartedCount(), stats.getFinishedCount());
+        assertTrue(queue.getQueueDepthPerHost().isEmpty());
+        assertTrue(queue.getStatistics().startsWith("localhost: queued 0"));
+    }
 }
@@ -0,0 +1,104 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests for class {@link TileImageDecoder}.
+ */
+class TileImageDecoderTest {
+
+    /**
+     * Setup tests
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules();
+
+    private static byte[] encode(String format) throws IOException {
+        BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 128, 256);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Test of {@link TileImageDecoder#getSubsampling(double)}
+     */
+    @Test
+    void testGetSubsamplingForScale() {
+        assertEquals(1, TileImageDecoder.getSubsampling(2.0));
+        assertEquals(1, TileImageDecoder.getSubsampling(1.0));
+        assertEquals(1, TileImageDecoder.getSubsampling(0.6));
+        assertEquals(2, TileImageDecoder.getSubsampling(0.5));
+        assertEquals(2, TileImageDecoder.getSubsampling(0.3));
+        assertEquals(4, TileImageDecoder.getSubsampling(0.2));
+        assertEquals(1, TileImageDecoder.getSubsampling(0));
+        assertEquals(1, TileImageDecoder.getSubsampling(Double.NaN));
+    }
+
+    /**
+     * Test of {@link TileImageDecoder#decode} at full resolution, for PNG and JPEG images.
+     * @throws IOException if an error occurs
+     */
+    @Test
+    void testDecode() throws IOException {
+        // decode twice to use the cached readers
+        for (int i = 0; i < 2; i++) {
+            BufferedImage png = TileImageDecoder.decode(encode("png"), 1);
+            assertEquals(256, png.getWidth());
+            assertEquals(256, png.getHeight());
+            assertEquals(BufferedImage.TYPE_INT_RGB, png.getType());
+            assertEquals(1, TileImageDecoder.getSubsampling(png));
+            assertEquals(Color.RED.getRGB(), png.getRGB(10, 10));
+
+            BufferedImage jpg = TileImageDecoder.decode(encode("jpg"), 1);
+            assertEquals(256, jpg.getWidth());
+            assertEquals(256, jpg.getHeight());
+        }
+    }
+
+    /**
+     * Test of {@link TileImageDecoder#decode} with subsampling.
+     * @throws IOException if an error occurs
+     */
+    @Test
+    void testDecodeSubsampled() throws IOException {
+        BufferedImage image = TileImageDecoder.decode(encode("png"), 4);
+        assertEquals(64, image.getWidth());
+        assertEquals(64, image.getHeight());
+        assertEquals(4, TileImageDecoder.getSubsampling(image));
+        assertEquals(Color.RED.getRGB(), image.getRGB(10, 10));
+        assertEquals(Color.BLACK.getRGB(), image.getRGB(50, 10));
+    }
+
+    /**
+     * Test of {@link TileImageDecoder#decode} with content which is not an image.
+     * @throws IOException if an error occurs
+     */
+    @Test
+    void testDecodeInvalid() throws IOException {
+        assertNull(TileImageDecoder.decode("<html>error</html>".getBytes(StandardCharsets.UTF_8), 1));
+        assertEquals(1, TileImageDecoder.getSubsampling((BufferedImage) null));
+    }
+}
@@ -0,0 +1,192 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.gpx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.data.coor.EastNorth;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.projection.Projection;
+import org.openstreetmap.josm.data.projection.ProjectionRegistry;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests for class {@link GpxTrackPoints}.
+ */
+class GpxTrackPointsTest {
+
+    /**
+     * Setup test.
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().projection();
+
+    private static WayPoint wpt(double lat, double lon, String ele, long time) {
+        WayPoint wpt = new WayPoint(new LatLon(lat, lon));
+        if (ele != null) {
+            wpt.put(GpxConstants.PT_ELE, ele);
+        }
+        if (time != 0) {
+            wpt.setTimeInMillis(time);
+        }
+        return wpt;
+    }
+
+    private static List<WayPoint> sample() {
+        WayPoint named = wpt(47.1, 8.3, "abc", 0);
+        named.put(GpxConstants.GPX_NAME, "foo");
+        named.getExtensions().add("josm", "from-server", "true");
+        return new ArrayList<>(Arrays.asList(
+                wpt(47.0, 8.0, "12.3", 1_500_000_000_000L),
+                wpt(47.01, 8.01, "100", 1_500_000_001_000L),
+                wpt(47.02, 8.02, "12.30", 1_500_000_002_000L),
+                named,
+                wpt(47.2, 8.4, null, 0)));
+    }
+
+    private static GpxTrackPoints build(List<WayPoint> wpts) {
+        GpxTrackPoints.Builder builder = new GpxTrackPoints.Builder();
+        wpts.forEach(builder::add);
+        assertEquals(wpts.size(), builder.size());
+        return builder.build();
+    }
+
+    /**
+     * Checks that points are restored exactly as they have been added.
+     */
+    @Test
+    void testWayPoints() {
+        List<WayPoint> wpts = sample();
+        GpxTrackPoints points = build(wpts);
+        assertEquals(wpts.size(), points.size());
+        assertEquals(wpts, new ArrayList<>(points.asWayPoints()));
+        assertEquals("12.3", points.getWayPoint(0).getString(GpxConstants.PT_ELE));
+        assertEquals("100", points.getWayPoint(1).getString(GpxConstants.PT_ELE));
+        assertEquals("12.30", points.getWayPoint(2).getString(GpxConstants.PT_ELE));
+        assertEquals("foo", points.getWayPoint(3).getString(GpxConstants.GPX_NAME));
+        assertEquals(1, points.getWayPoint(3).getExtensions().size());
+        assertTrue(points.hasTime(1));
+        assertEquals(1_500_000_001_000L, points.getTimeInMillis(1));
+        assertFalse(points.hasTime(4));
+        assertEquals(47.02, points.lat(2));
+        assertEquals(8.02, points.lon(2));
+    }
+
+    /**
+     * Checks that a segment built from compact points is equivalent to a segment built from way points.
+     */
+    @Test
+    void testSegment() {
+        List<WayPoint> wpts = sample();
+        GpxTrackSegment expected = new GpxTrackSegment(wpts);
+        GpxTrackSegment actual = new GpxTrackSegment(build(wpts));
+        assertEquals(wpts.size(), actual.getWayPointCount());
+        assertEquals(expected.getBounds(), actual.getBounds());
+        assertEquals(expected.length(), actual.length(), 1e-9);
+        GpxTrackPoints points = actual.getTrackPoints();
+        assertEquals(expected, actual);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(wpts, new ArrayList<>(actual.getWayPoints()));
+        // the way points are created once, their modifications are kept and seen by the index-based accessors
+        assertSame(points, actual.getTrackPoints());
+        assertEquals(wpts.size(), actual.getWayPointCount());
+        WayPoint first = actual.getWayPoints().iterator().next();
+        assertSame(first, actual.getWayPoints().iterator().next());
+        assertSame(first, points.getWayPoint(0));
+        first.put(GpxConstants.GPX_NAME, "bar");
+        first.setTimeInMillis(1_600_000_000_000L);
+        assertEquals("bar", actual.getWayPoints().iterator().next().get(GpxConstants.GPX_NAME));
+        assertEquals(1_600_000_000_000L, points.getTimeInMillis(0));
+        assertThrows(UnsupportedOperationException.class, () -> actual.getWayPoints().clear());
+        assertNull(expected.getTrackPoints());
+    }
+
+    /**
+     * Checks that the drawing state and the projected coordinates of the points are kept, before and after the way points
+     * are created.
+     */
+    @Test
+    void testDrawStateAndEastNorth() {
+        GpxTrackPoints points = build(sample());
+        assertFalse(points.isDrawLine(1));
+        WayPoint wpt = points.getWayPoint(1);
+        wpt.customColoring = Color.RED;
+        wpt.drawLine = true;
+        wpt.dir = 5;
+        points.setDrawState(1, wpt);
+        assertTrue(points.isDrawLine(1));
+        wpt = points.getWayPoint(1);
+        assertEquals(Color.RED, wpt.customColoring);
+        assertTrue(wpt.drawLine);
+        assertEquals(5, wpt.dir);
+        assertNull(points.getWayPoint(0).customColoring);
+
+        Projection projection = ProjectionRegistry.getProjection();
+        EastNorth en = points.getEastNorth(2, projection);
+        assertEquals(projection.latlon2eastNorth(new LatLon(47.02, 8.02)), en);
+        assertEquals(en, points.getWayPoint(2).getEastNorth(projection));
+        points.invalidateEastNorthCache();
+        assertEquals(en, points.getEastNorth(2, projection));
+
+        // the drawing state is kept when the way points are created
+        WayPoint created = points.asWayPoints().get(1);
+        assertEquals(Color.RED, created.customColoring);
+        assertTrue(points.isDrawLine(1));
+        created.drawLine = false;
+        assertFalse(points.isDrawLine(1));
+        assertEquals(en, points.getEastNorth(2, projection));
+    }
+
+    /**
+     * Checks that the attributes can be written directly in the columns, as done by the GPX reader.
+     */
+    @Test
+    void testBuilderAttributes() {
+        GpxTrackPoints.Builder builder = new GpxTrackPoints.Builder();
+        builder.add(47.0, 8.0);
+        assertFalse(builder.hasAttributes());
+        builder.put(GpxConstants.PT_ELE, "12.5");
+        builder.setTimeInMillis(1_500_000_000_000L);
+        assertFalse(builder.hasAttributes());
+        builder.put(GpxConstants.PT_HDOP, 1.5f);
+        assertTrue(builder.hasAttributes());
+        builder.add(47.1, 8.1).put(GpxConstants.PT_ELE, "high");
+        assertTrue(builder.hasAttributes());
+        GpxTrackPoints points = builder.build();
+        WayPoint first = points.getWayPoint(0);
+        assertEquals("12.5", first.getString(GpxConstants.PT_ELE));
+        assertEquals(1_500_000_000_000L, first.getTimeInMillis());
+        assertEquals(1.5f, first.get(GpxConstants.PT_HDOP));
+        assertEquals("high", points.getWayPoint(1).getString(GpxConstants.PT_ELE));
+        assertFalse(points.hasTime(1));
+    }
+
+    /**
+     * Checks that the builder grows beyond its initial capacity.
+     */
+    @Test
+    void testManyPoints() {
+        GpxTrackPoints.Builder builder = new GpxTrackPoints.Builder();
+        for (int i = 0; i < 1000; i++) {
+            builder.add(wpt(i / 100.0, i / 50.0, Integer.toString(i), 1_000L * (i + 1)));
+        }
+        GpxTrackPoints points = builder.build();
+        assertEquals(1000, points.size());
+        assertEquals("999", points.getWayPoint(999).getString(GpxConstants.PT_ELE));
+        assertEquals(1_000_000L, points.getTimeInMillis(999));
+    }
+}
@@ -0,0 +1,78 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.imagery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.gui.jmapviewer.Tile;
+import org.openstreetmap.gui.jmapviewer.tilesources.TMSTileSource;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests for class {@link TileDownloadPriority}.
+ */
+class TileDownloadPriorityTest {
+
+    /**
+     * Setup tests
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules();
+
+    private static final TMSTileSource SOURCE = new TMSTileSource(new ImageryInfo("test", "http://localhost"));
+
+    private static Tile tile(int x, int y, int zoom) {
+        return new Tile(SOURCE, x, y, zoom);
+    }
+
+    /**
+     * Without viewport, all tiles have the same priority and none is stale.
+     */
+    @Test
+    void testNoViewport() {
+        TileDownloadPriority priority = new TileDownloadPriority();
+        assertEquals(0, priority.getPriority(tile(1, 2, 3)));
+        assertFalse(priority.isStale(tile(1, 2, 3)));
+    }
+
+    /**
+     * Tiles close to the viewport centre and at the viewport zoom level come first.
+     */
+    @Test
+    void testPriority() {
+        TileDownloadPriority priority = new TileDownloadPriority();
+        assertTrue(priority.setViewport(10, 100, 109, 200, 209));
+        assertFalse(priority.setViewport(10, 100, 109, 200, 209));
+        double centre = priority.getPriority(tile(105, 205, 10));
+        double border = priority.getPriority(tile(100, 200, 10));
+        double parent = priority.getPriority(tile(52, 102, 9));
+        assertEquals(0, centre);
+        assertTrue(centre < border);
+        // the parent tile covers the centre of the viewport, only one zoom level away
+        assertEquals(1, parent);
+    }
+
+    /**
+     * Tiles outside of the viewport margin or at higher zoom levels are stale.
+     */
+    @Test
+    void testStale() {
+        TileDownloadPriority priority = new TileDownloadPriority();
+        priority.setViewport(10, 100, 109, 200, 209);
+        assertFalse(priority.isStale(tile(100, 200, 10)));
+        assertFalse(priority.isStale(tile(111, 211, 10)));
+        assertTrue(priority.isStale(tile(112, 205, 10)));
+        assertTrue(priority.isStale(tile(105, 190, 10)));
+        assertTrue(priority.isStale(tile(210, 410, 11)));
+        assertFalse(priority.isStale(tile(50, 100, 9)));
+        assertTrue(priority.isStale(tile(0, 0, 9)));
+        priority.clearViewport();
+        assertFalse(priority.isStale(tile(0, 0, 9)));
+    }
+}
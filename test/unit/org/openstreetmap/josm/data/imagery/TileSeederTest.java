@@ -0,0 +1,185 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.imagery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.geom.Area;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.jcs3.access.behavior.ICacheAccess;
+import org.awaitility.Awaitility;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.gui.jmapviewer.Tile;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileLoaderListener;
+import org.openstreetmap.gui.jmapviewer.tilesources.TMSTileSource;
+import org.openstreetmap.josm.data.cache.BufferedImageCacheEntry;
+import org.openstreetmap.josm.data.cache.JCSCacheManager;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests for class {@link TileSeeder}.
+ */
+public class TileSeederTest {
+
+    /**
+     * Setup tests
+     */
+    @Rule
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences().timeout(60_000);
+
+    /**
+     * mocked tile server
+     */
+    @Rule
+    public WireMockRule tileServer = new WireMockRule(WireMockConfiguration.options().dynamicPort());
+
+    private static final Area WORLD = new Area(new Rectangle2D.Double(-180, -85, 360, 170));
+
+    /**
+     * Setup test.
+     * @throws IOException never
+     */
+    @Before
+    public void setUp() throws IOException {
+        getCache().clear();
+        BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        tileServer.stubFor(WireMock.get(WireMock.urlMatching("/tms/.*"))
+                .willReturn(WireMock.aResponse().withStatus(200).withHeader("Content-Type", "image/png").withBody(out.toByteArray())));
+    }
+
+    private static ICacheAccess<String, BufferedImageCacheEntry> getCache() {
+        return JCSCacheManager.getCache("test");
+    }
+
+    private TileSeeder createSeeder(Area area, int minZoom, int maxZoom) {
+        return createSeeder(area, minZoom, maxZoom, UnaryOperator.identity());
+    }
+
+    private TileSeeder createSeeder(Area area, int minZoom, int maxZoom, UnaryOperator<TileLoaderListener> listenerWrapper) {
+        TMSTileSource tileSource = new TMSTileSource(new ImageryInfo("seed", tileServer.url("/tms")));
+        return new TileSeeder(tileSource,
+                listener -> new TMSCachedTileLoader(listenerWrapper.apply(listener), getCache(),
+                        new TileJobOptions(30_000, 30_000, null, TimeUnit.DAYS.toSeconds(1))),
+                area, minZoom, maxZoom, 0, 4);
+    }
+
+    private int getRequestCount() {
+        return tileServer.findAll(WireMock.getRequestedFor(WireMock.urlMatching("/tms/.*"))).size();
+    }
+
+    /**
+     * Test of {@link TileSeeder#enumerateTiles}
+     */
+    @Test
+    public void testEnumerateTiles() {
+        TMSTileSource tileSource = new TMSTileSource(new ImageryInfo("seed", "http://localhost"));
+        assertEquals(1 + 4 + 16, TileSeeder.enumerateTiles(tileSource, WORLD, 0, 2, 100).size());
+        // north-eastern quarter of the world only intersects one tile at zoom 1
+        List<Tile> tiles = TileSeeder.enumerateTiles(tileSource, new Area(new Rectangle2D.Double(10, 10, 10, 10)), 1, 1, 100);
+        assertEquals(1, tiles.size());
+        assertEquals(1, tiles.get(0).getXtile());
+        assertEquals(0, tiles.get(0).getYtile());
+        assertTrue(TileSeeder.enumerateTiles(tileSource, new Area(), 0, 10, 100).isEmpty());
+    }
+
+    /**
+     * Test of {@link TileSeeder#enumerateTiles} with too many tiles
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testEnumerateTilesTooMany() {
+        TileSeeder.enumerateTiles(new TMSTileSource(new ImageryInfo("seed", "http://localhost")), WORLD, 0, 3, 20);
+    }
+
+    /**
+     * Test that all tiles are downloaded, and that a second run is served from cache.
+     */
+    @Test
+    public void testSeed() {
+        try (TileSeeder seeder = createSeeder(WORLD, 0, 2)) {
+            seeder.run();
+            assertTrue(seeder.isFinished());
+            assertEquals(21, seeder.getTotalCount());
+            assertEquals(21, seeder.getSucceededCount());
+            assertEquals(0, seeder.getFailedCount());
+            assertEquals(0, seeder.getInFlightCount());
+            assertTrue(seeder.getTilesPerSecond() > 0);
+        }
+        tileServer.verify(21, WireMock.getRequestedFor(WireMock.urlMatching("/tms/.*")));
+
+        try (TileSeeder warm = createSeeder(WORLD, 0, 2)) {
+            warm.run();
+            assertEquals(21, warm.getSucceededCount());
+        }
+        tileServer.verify(21, WireMock.getRequestedFor(WireMock.urlMatching("/tms/.*")));
+    }
+
+    /**
+     * Test that a seeding canceled while loading tiles can be resumed, and that the next run only loads the remaining tiles.
+     */
+    @Test
+    public void testResume() {
+        AtomicReference<TileSeeder> seederRef = new AtomicReference<>();
+        AtomicInteger finished = new AtomicInteger();
+        try (TileSeeder seeder = createSeeder(WORLD, 0, 2, listener -> (tile, success) -> {
+            listener.tileLoadingFinished(tile, success);
+            if (finished.incrementAndGet() == 5) {
+                seederRef.get().cancel();
+            }
+        })) {
+            seederRef.set(seeder);
+            seeder.run();
+            // tiles which were already being downloaded when the seeder was canceled are still processed
+            Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> seeder.getInFlightCount() == 0);
+            int processed = seeder.getProcessedCount();
+            assertFalse(seeder.isFinished());
+            assertTrue(Integer.toString(processed), processed >= 5 && processed < 21);
+            assertEquals(processed, seeder.getSucceededCount());
+            assertEquals(processed, getRequestCount());
+
+            seeder.run();
+            assertTrue(seeder.isFinished());
+            assertEquals(21, seeder.getSucceededCount());
+            assertEquals(0, seeder.getFailedCount());
+            // each tile was downloaded only once
+            tileServer.verify(21, WireMock.getRequestedFor(WireMock.urlMatching("/tms/.*")));
+        }
+    }
+
+    /**
+     * Test that the download threads of the seeder are stopped when it is closed.
+     */
+    @Test
+    public void testClose() {
+        TileSeeder seeder = createSeeder(WORLD, 0, 1);
+        ThreadPoolExecutor executor = ((TMSCachedTileLoader) seeder.getTileLoader()).getDownloadExecutor();
+        seeder.run();
+        assertTrue(seeder.isFinished());
+        assertFalse(executor.isShutdown());
+        seeder.close();
+        assertTrue(executor.isShutdown());
+    }
+}
@@ -1370,4 +1370,42 @@ class DataSetMergerTest {
         assertEquals(w1b, visitor.getConflicts().iterator().next().getMy());
     }
 
+    /**
+     * Merge of a large dataset, where the merge targets are looked up in parallel.
+     */
+    @Test
+    void testParallelMerge() {
+        DataSetMerger.PROP_PARALLEL_CHUNK_SIZE.put(10);
+        for (int i = 1; i <= 200; i++) {
+            Node myN1 = new Node(i * 2L, 1);
+            myN1.setCoor(new LatLon(i / 100.0, 0));
+            my.addPrimitive(myN1);
+            Node n1 = new Node(i * 2L, 1);
+            n1.setCoor(new LatLon(i / 100.0, 0));
+            n1.put("name", "n" + i);
+            their.addPrimitive(n1);
+            if (i % 2 == 0) {
+                // new node in both datasets: merged onto my new node
+                my.addPrimitive(new Node(new LatLon(i / 100.0, 1)));
+            }
+            Node n2 = new Node(new LatLon(i / 100.0, 1));
+            their.addPrimitive(n2);
+            Way w = new Way(i, 1);
+            w.setNodes(Arrays.asList(n1, n2));
+            their.addPrimitive(w);
+        }
+        int myNodes = my.getNodes().size();
+
+        DataSetMerger visitor = new DataSetMerger(my, their);
+        visitor.merge();
+
+        assertTrue(visitor.getConflicts().isEmpty());
+        assertEquals(200, my.getWays().size());
+        // the new nodes of odd ways are added, the other ones are merged
+        assertEquals(myNodes + 100, my.getNodes().size());
+        for (Way w : my.getWays()) {
+            assertEquals("n" + w.getId(), w.firstNode().get("name"));
+            assertEquals(w.getId() * 2, w.firstNode().getId());
+        }
+    }
 }
@@ -0,0 +1,171 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.osm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.event.DataChangedEvent;
+import org.openstreetmap.josm.data.osm.event.PrimitiveFlagsChangedEvent;
+import org.openstreetmap.josm.data.osm.event.PrimitivesRemovedEvent;
+import org.openstreetmap.josm.data.osm.event.TagsChangedEvent;
+import org.openstreetmap.josm.data.osm.event.WayNodesChangedEvent;
+import org.openstreetmap.josm.data.osm.search.SearchParseError;
+import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.gui.layer.OsmDataLayer;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests for class {@link FilterModel}.
+ */
+class FilterModelTest {
+
+    /**
+     * We need preferences and layers for this.
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences().projection();
+
+    private DataSet ds;
+    private Way track;
+    private Way primary;
+    private Node trackNode;
+
+    /**
+     * Setup test.
+     */
+    @BeforeEach
+    public void setUp() {
+        ds = new DataSet();
+        Node n1 = new Node(new LatLon(0, 0));
+        Node n2 = new Node(new LatLon(0, 1));
+        trackNode = new Node(new LatLon(0, 2));
+        track = new Way();
+        track.setNodes(Arrays.asList(n1, n2, trackNode));
+        track.put("highway", "track");
+        primary = new Way();
+        primary.setNodes(Arrays.asList(n1, new Node(new LatLon(1, 0))));
+        primary.put("highway", "primary");
+        primary.getNodes().forEach(ds::addPrimitive);
+        ds.addPrimitive(n2);
+        ds.addPrimitive(trackNode);
+        ds.addPrimitive(track);
+        ds.addPrimitive(primary);
+        MainApplication.getLayerManager().addLayer(new OsmDataLayer(ds, "test", null));
+    }
+
+    private static FilterModel newModel(String text) {
+        FilterModel model = new FilterModel();
+        Filter filter = new Filter();
+        filter.text = text;
+        filter.hiding = true;
+        model.addFilter(filter);
+        return model;
+    }
+
+    private static void assertSameState(FilterModel model, String text) {
+        FilterModel expected = newModel(text);
+        expected.executeFilters();
+        assertEquals(expected.getDisabledAndHiddenCount(), model.getDisabledAndHiddenCount());
+        assertEquals(expected.getDisabledCount(), model.getDisabledCount());
+    }
+
+    /**
+     * Tests that only the primitives touched by an event are filtered again with local filters.
+     */
+    @Test
+    void testLocalFilter() {
+        FilterModel model = newModel("highway=track");
+        model.executeFilters();
+        // the way and its nodes which are not shared with the primary road
+        assertEquals(3, model.getDisabledAndHiddenCount());
+        assertTrue(trackNode.isDisabledAndHidden());
+
+        Map<String, String> keys = track.getKeys();
+        track.put("highway", "primary");
+        model.executeFilters(new TagsChangedEvent(ds, track, keys));
+        assertFalse(track.isDisabled());
+        assertFalse(trackNode.isDisabled());
+        assertEquals(0, model.getDisabledAndHiddenCount());
+        assertSameState(model, "highway=track");
+
+        keys = primary.getKeys();
+        primary.put("highway", "track");
+        model.executeFilters(new DataChangedEvent(ds, Collections.singletonList(new TagsChangedEvent(ds, primary, keys))));
+        assertTrue(primary.isDisabledAndHidden());
+        assertEquals(2, model.getDisabledAndHiddenCount());
+        assertSameState(model, "highway=track");
+
+        ds.removePrimitive(primary);
+        model.executeFilters(new PrimitivesRemovedEvent(ds, Collections.singleton(primary), false));
+        assertFalse(primary.isDisabled());
+        // the remaining node of the removed way has no parent way anymore
+        assertEquals(0, model.getDisabledAndHiddenCount());
+        assertSameState(model, "highway=track");
+    }
+
+    /**
+     * Tests that a node removed from a hidden way is shown again.
+     */
+    @Test
+    void testNodeRemovedFromHiddenWay() {
+        FilterModel model = newModel("highway=track");
+        model.executeFilters();
+        assertTrue(trackNode.isDisabledAndHidden());
+
+        track.removeNode(trackNode);
+        model.executeFilters(new WayNodesChangedEvent(ds, track));
+        assertFalse(trackNode.isDisabled());
+        assertTrue(track.isDisabledAndHidden());
+        assertEquals(2, model.getDisabledAndHiddenCount());
+        assertSameState(model, "highway=track");
+    }
+
+    /**
+     * Tests that flag changes are handled without filtering all primitives again.
+     */
+    @Test
+    void testFlagsChanged() {
+        Node node = new Node(1, 1);
+        node.setCoor(new LatLon(5, 5));
+        ds.addPrimitive(node);
+        FilterModel model = newModel("modified");
+        model.executeFilters();
+        // new primitives are modified
+        assertEquals(6, model.getDisabledAndHiddenCount());
+        assertFalse(node.isDisabled());
+        node.setModified(true);
+        model.executeFilters(new PrimitiveFlagsChangedEvent(ds, node));
+        assertTrue(node.isDisabledAndHidden());
+        assertEquals(7, model.getDisabledAndHiddenCount());
+        assertSameState(model, "modified");
+    }
+
+    /**
+     * Tests that filters depending on other primitives are detected.
+     * @throws SearchParseError never
+     */
+    @Test
+    void testIsLocal() throws SearchParseError {
+        assertTrue(FilterMatcher.of(newFilter("highway=track"), newFilter("type:way -modified")).isLocal());
+        assertFalse(FilterMatcher.of(newFilter("highway=track"), newFilter("child highway=track")).isLocal());
+        assertFalse(FilterMatcher.of(newFilter("areasize:10-")).isLocal());
+    }
+
+    private static Filter newFilter(String text) {
+        Filter filter = new Filter();
+        filter.text = text;
+        return filter;
+    }
+}
@@ -0,0 +1,121 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.osm.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent.DatasetEventType;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests of {@link CoalescedDataChangedEvent} class.
+ */
+class CoalescedDataChangedEventTest {
+
+    /**
+     * Setup test.
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules();
+
+    private static class CoalescingListener extends DataSetListenerAdapter implements CoalescingDataSetListener {
+        final List<CoalescedDataChangedEvent> events = new ArrayList<>();
+
+        CoalescingListener() {
+            super(e -> {
+                throw new AssertionError("Single event fired to a coalescing listener: " + e);
+            });
+        }
+
+        @Override
+        public void coalescedDataChanged(CoalescedDataChangedEvent event) {
+            events.add(event);
+        }
+    }
+
+    /**
+     * Tests that all the changes of a transaction are delivered as one event, indexed by primitive.
+     */
+    @Test
+    void testTransaction() {
+        DataSet ds = new DataSet();
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            Node n = new Node(new LatLon(0, i / 1000.0));
+            n.put("name", "n" + i);
+            ds.addPrimitive(n);
+            nodes.add(n);
+        }
+        CoalescingListener coalescing = new CoalescingListener();
+        List<AbstractDatasetChangedEvent> single = new ArrayList<>();
+        ds.addDataSetListener(coalescing);
+        ds.addDataSetListener(new DataSetListenerAdapter(single::add));
+
+        ds.update(() -> {
+            for (Node n : nodes) {
+                n.put("highway", "crossing");
+                n.put("crossing", "zebra");
+            }
+            nodes.get(0).setCoor(new LatLon(1, 1));
+        });
+
+        // other listeners still receive the usual event
+        assertEquals(1, single.size());
+        assertTrue(single.get(0) instanceof DataChangedEvent);
+        assertNull(((DataChangedEvent) single.get(0)).getEvents());
+
+        assertEquals(1, coalescing.events.size());
+        CoalescedDataChangedEvent event = coalescing.events.get(0);
+        assertNull(event.getEvents());
+        assertEquals(EnumSet.of(DatasetEventType.TAGS_CHANGED, DatasetEventType.NODE_MOVED), event.getTypes());
+        assertEquals(600, event.getPrimitives().size());
+        assertEquals(600, event.getPrimitives(DatasetEventType.TAGS_CHANGED).size());
+        assertEquals(Collections.singleton(nodes.get(0)), event.getPrimitives(DatasetEventType.NODE_MOVED));
+        assertEquals(EnumSet.of(DatasetEventType.TAGS_CHANGED, DatasetEventType.NODE_MOVED), event.getTypes(nodes.get(0)));
+        assertEquals(EnumSet.of(DatasetEventType.TAGS_CHANGED), event.getTypes(nodes.get(1)));
+        // tags before the first change
+        assertEquals(Collections.singletonMap("name", "n1"), event.getOriginalKeys(nodes.get(1)));
+
+        ds.removeDataSetListener(coalescing);
+        ds.update(() -> nodes.get(1).put("name", "foo"));
+        assertEquals(1, coalescing.events.size());
+    }
+
+    /**
+     * Tests that the single events are kept for small transactions.
+     */
+    @Test
+    void testSmallTransaction() {
+        DataSet ds = new DataSet();
+        Node n = new Node(LatLon.ZERO);
+        ds.addPrimitive(n);
+        CoalescingListener coalescing = new CoalescingListener();
+        ds.addDataSetListener(coalescing);
+        ds.update(() -> {
+            n.put("name", "foo");
+            n.put("name", "bar");
+        });
+        assertEquals(1, coalescing.events.size());
+        CoalescedDataChangedEvent event = coalescing.events.get(0);
+        assertNotNull(event.getEvents());
+        assertEquals(2, event.getEvents().size());
+        assertEquals(Collections.singleton(n), event.getPrimitives());
+        assertTrue(event.getOriginalKeys(n).isEmpty());
+        assertNull(event.getOriginalKeys(new Node()));
+    }
+}
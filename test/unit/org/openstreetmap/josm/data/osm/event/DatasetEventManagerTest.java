@@ -0,0 +1,136 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.osm.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent.DatasetEventType;
+import org.openstreetmap.josm.data.osm.event.DatasetEventManager.FireMode;
+import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.gui.layer.OsmDataLayer;
+import org.openstreetmap.josm.gui.util.GuiHelper;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests of {@link DatasetEventManager} class.
+ */
+class DatasetEventManagerTest {
+
+    /**
+     * Setup test.
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences();
+
+    private static class CoalescingListener extends DataSetListenerAdapter implements CoalescingDataSetListener {
+        final List<CoalescedDataChangedEvent> events = new ArrayList<>();
+
+        CoalescingListener() {
+            super(e -> {
+                throw new AssertionError("Single event fired to a coalescing listener: " + e);
+            });
+        }
+
+        @Override
+        public void coalescedDataChanged(CoalescedDataChangedEvent event) {
+            events.add(event);
+        }
+    }
+
+    private static void sync() {
+        GuiHelper.runInEDTAndWait(() -> { });
+    }
+
+    /**
+     * Counts the events received by the listeners of the active data set for a bulk edit,
+     * and checks that coalescing listeners receive all the changed primitives once.
+     */
+    @Test
+    void testBulkEdit() {
+        final int count = 5000;
+        DataSet ds = new DataSet();
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Node n = new Node(new LatLon(0, i / 10_000.0));
+            ds.addPrimitive(n);
+            nodes.add(n);
+        }
+        OsmDataLayer layer = new OsmDataLayer(ds, "bulk", null);
+        MainApplication.getLayerManager().addLayer(layer);
+        // deliver the events of the layer change before counting
+        sync();
+        CoalescingListener immediate = new CoalescingListener();
+        CoalescingListener inEdt = new CoalescingListener();
+        List<AbstractDatasetChangedEvent> single = new ArrayList<>();
+        List<AbstractDatasetChangedEvent> consolidated = new ArrayList<>();
+        DataSetListenerAdapter singleAdapter = new DataSetListenerAdapter(single::add);
+        DataSetListenerAdapter consolidatedAdapter = new DataSetListenerAdapter(consolidated::add);
+        DatasetEventManager manager = DatasetEventManager.getInstance();
+        manager.addDatasetListener(immediate, FireMode.IMMEDIATELY);
+        manager.addDatasetListener(inEdt, FireMode.IN_EDT_CONSOLIDATED);
+        manager.addDatasetListener(singleAdapter, FireMode.IN_EDT);
+        manager.addDatasetListener(consolidatedAdapter, FireMode.IN_EDT_CONSOLIDATED);
+        try {
+            // one transaction changing the tags of all nodes
+            ds.update(() -> nodes.forEach(n -> n.put("highway", "crossing")));
+            sync();
+            assertEquals(1, single.size());
+            assertEquals(1, consolidated.size());
+            // the usual event does not tell which primitives changed
+            assertNull(((DataChangedEvent) consolidated.get(0)).getEvents());
+            for (CoalescingListener listener : new CoalescingListener[] {immediate, inEdt}) {
+                assertEquals(1, listener.events.size());
+                CoalescedDataChangedEvent event = listener.events.get(0);
+                assertEquals(EnumSet.of(DatasetEventType.TAGS_CHANGED), event.getTypes());
+                assertEquals(new HashSet<>(nodes), event.getPrimitives());
+                listener.events.clear();
+            }
+            single.clear();
+            consolidated.clear();
+
+            // several transactions, all processed by the same run of the event dispatch thread
+            GuiHelper.runInEDTAndWait(() -> {
+                for (int i = 0; i < 10; i++) {
+                    Node n = nodes.get(i);
+                    ds.update(() -> n.put("crossing", "zebra"));
+                }
+            });
+            sync();
+            assertEquals(10, single.size());
+            assertEquals(1, consolidated.size());
+            assertEquals(10, immediate.events.size());
+            assertEquals(1, inEdt.events.size());
+            assertEquals(new HashSet<>(nodes.subList(0, 10)), inEdt.events.get(0).getPrimitives());
+            assertEquals(10, inEdt.events.get(0).getEvents().size());
+            inEdt.events.clear();
+
+            // changing the active data set changes everything
+            MainApplication.getLayerManager().removeLayer(layer);
+            sync();
+            assertEquals(1, inEdt.events.size());
+            assertTrue(inEdt.events.get(0).getTypes().contains(DatasetEventType.DATA_CHANGED));
+        } finally {
+            manager.removeDatasetListener(immediate);
+            manager.removeDatasetListener(inEdt);
+            manager.removeDatasetListener(singleAdapter);
+            manager.removeDatasetListener(consolidatedAdapter);
+            if (MainApplication.getLayerManager().containsLayer(layer)) {
+                MainApplication.getLayerManager().removeLayer(layer);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.osm.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Filter;
+import org.openstreetmap.josm.data.osm.FilterWorker;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests for class {@link ParallelMatcher}.
+ */
+class ParallelMatcherTest {
+
+    /**
+     * We need preferences for this.
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences();
+
+    /**
+     * Tests which searches are thread-safe.
+     * @throws SearchParseError never
+     */
+    @Test
+    void testIsThreadSafe() throws SearchParseError {
+        for (String search : new String[] {"highway=*", "name:foo", "-building", "type:way highway=primary OR railway",
+                "nodes:2-", "modified", "child highway=*", "id:1-100", "waylength:100-"}) {
+            assertTrue(SearchCompiler.compile(search).isThreadSafe(), search);
+        }
+        for (String search : new String[] {"areasize:100-", "highway=* OR areasize:100-", "selected", "indownloadedarea"}) {
+            assertFalse(SearchCompiler.compile(search).isThreadSafe(), search);
+        }
+    }
+
+    /**
+     * Tests that the results are returned in the order of the input.
+     */
+    @Test
+    void testMapAndFilter() {
+        ParallelMatcher.PROP_CHUNK_SIZE.put(7);
+        List<Integer> input = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        assertEquals(input.stream().map(i -> i * 2).collect(Collectors.toList()), ParallelMatcher.map(input, i -> i * 2));
+        assertEquals(input.stream().filter(i -> i % 3 == 0).collect(Collectors.toList()),
+                ParallelMatcher.filter(input, i -> i % 3 == 0));
+    }
+
+    /**
+     * Tests that filters evaluated in parallel give the same results as when evaluated sequentially.
+     * @throws SearchParseError never
+     */
+    @Test
+    void testFilters() throws SearchParseError {
+        DataSet ds = new DataSet();
+        for (int i = 0; i < 500; i++) {
+            Node n1 = new Node(new LatLon(i / 10.0, 0));
+            Node n2 = new Node(new LatLon(i / 10.0, 1));
+            Way w = new Way();
+            w.setNodes(Arrays.asList(n1, n2));
+            w.put("highway", i % 2 == 0 ? "primary" : "track");
+            if (i % 5 == 0) {
+                n1.put("name", "foo");
+            }
+            ds.addPrimitive(n1);
+            ds.addPrimitive(n2);
+            ds.addPrimitive(w);
+        }
+        Filter filter = new Filter();
+        filter.text = "highway=track";
+        filter.hiding = true;
+
+        ParallelMatcher.PROP_ENABLED.put(false);
+        FilterWorker.executeFilters(ds.allPrimitives(), filter);
+        List<OsmPrimitive> sequential = getFiltered(ds);
+        FilterWorker.clearFilterFlags(ds.allPrimitives());
+
+        ParallelMatcher.PROP_ENABLED.put(true);
+        ParallelMatcher.PROP_CHUNK_SIZE.put(10);
+        FilterWorker.executeFilters(ds.allPrimitives(), filter);
+        assertEquals(sequential, getFiltered(ds));
+        // 250 ways and their untagged nodes
+        assertEquals(250 + 500 - 50, sequential.size());
+    }
+
+    private static List<OsmPrimitive> getFiltered(DataSet ds) {
+        List<OsmPrimitive> result = new ArrayList<>();
+        for (OsmPrimitive p : ds.allPrimitives()) {
+            if (p.isDisabledAndHidden()) {
+                result.add(p);
+            }
+        }
+        return result;
+    }
+}
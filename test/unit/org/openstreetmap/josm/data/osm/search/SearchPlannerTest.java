@@ -0,0 +1,136 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.data.osm.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.data.Bounds;
+import org.openstreetmap.josm.data.DataSource;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.data.osm.search.SearchCompiler.Match;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests for class {@link SearchPlanner}.
+ */
+class SearchPlannerTest {
+
+    /**
+     * We need preferences for this.
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences();
+
+    private DataSet ds;
+    private Node n1;
+    private Node n2;
+    private Way w1;
+
+    /**
+     * Setup test.
+     */
+    @BeforeEach
+    public void setUp() {
+        ds = new DataSet();
+        n1 = new Node(new LatLon(1, 1));
+        n1.put("highway", "bus_stop");
+        n1.put("name", "Main Street");
+        n2 = new Node(new LatLon(5, 5));
+        n2.put("amenity", "bench");
+        Node n3 = new Node(new LatLon(1.5, 1.5));
+        w1 = new Way();
+        w1.setNodes(Arrays.asList(n1, n3));
+        w1.put("highway", "residential");
+        w1.put("Name", "main street");
+        ds.addPrimitive(n1);
+        ds.addPrimitive(n2);
+        ds.addPrimitive(n3);
+        ds.addPrimitive(w1);
+        ds.addDataSource(new DataSource(new Bounds(0, 0, 2, 2), "test"));
+    }
+
+    private Set<OsmPrimitive> scan(Match m) {
+        return ds.allPrimitives().stream().filter(m).collect(Collectors.toSet());
+    }
+
+    private Set<OsmPrimitive> plan(Match m) {
+        Collection<OsmPrimitive> candidates = SearchPlanner.getCandidates(ds, m);
+        assertNotNull(candidates, m.toString());
+        // the candidates must contain all matching primitives
+        assertTrue(candidates.containsAll(scan(m)), m.toString());
+        return candidates.stream().filter(m).collect(Collectors.toSet());
+    }
+
+    /**
+     * Checks that indexed searches give the same results as testing all primitives.
+     * @throws SearchParseError never
+     */
+    @Test
+    void testSameResults() throws SearchParseError {
+        for (String search : new String[] {"highway=bus_stop", "highway=*", "highway=* type:way", "name:main",
+                "name:Main", "highway=residential OR amenity=bench", "type:node", "type:node indownloadedarea",
+                "highway=* -type:way", "amenity=bench modified"}) {
+            Match m = SearchCompiler.compile(search);
+            assertEquals(scan(m), plan(m), search);
+        }
+    }
+
+    /**
+     * Checks which terms are looked up in indexes.
+     * @throws SearchParseError never
+     */
+    @Test
+    void testCandidates() throws SearchParseError {
+        assertEquals(new HashSet<>(Arrays.asList(n1)), new HashSet<>(SearchPlanner.getCandidates(ds,
+                SearchCompiler.compile("highway=bus_stop"))));
+        assertEquals(new HashSet<>(Arrays.asList(n1, w1)), new HashSet<>(SearchPlanner.getCandidates(ds,
+                SearchCompiler.compile("highway=*"))));
+        assertEquals(new HashSet<>(Arrays.asList(w1)), new HashSet<>(SearchPlanner.getCandidates(ds,
+                SearchCompiler.compile("highway=* type:way"))));
+        assertNull(SearchPlanner.getCandidates(ds, SearchCompiler.compile("modified")));
+        assertNull(SearchPlanner.getCandidates(ds, SearchCompiler.compile("-highway=*")));
+        assertNull(SearchPlanner.getCandidates(ds, SearchCompiler.compile("highway=* OR modified")));
+    }
+
+    /**
+     * Checks that the index follows changes of the data set.
+     * @throws SearchParseError never
+     */
+    @Test
+    void testIndexUpdates() throws SearchParseError {
+        Match m = SearchCompiler.compile("highway=bus_stop");
+        assertEquals(scan(m), plan(m));
+        n2.put("highway", "bus_stop");
+        assertEquals(2, plan(m).size());
+        n1.remove("highway");
+        assertEquals(1, plan(m).size());
+        ds.beginUpdate();
+        try {
+            n1.put("highway", "bus_stop");
+            ds.removePrimitive(n2);
+        } finally {
+            ds.endUpdate();
+        }
+        assertEquals(new HashSet<>(Arrays.asList(n1)), plan(m));
+        ds.clear();
+        assertTrue(plan(m).isEmpty());
+    }
+}
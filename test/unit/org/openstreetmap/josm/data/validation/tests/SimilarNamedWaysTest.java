@@ -4,9 +4,18 @@ package org.openstreetmap.josm.data.validation.tests;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
+import java.util.Arrays;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openstreetmap.josm.JOSMFixture;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.data.validation.OsmValidator;
+import org.openstreetmap.josm.data.validation.TestError;
+import org.openstreetmap.josm.gui.progress.NullProgressMonitor;
 
 /**
  * Unit test of {@link SimilarNamedWays}
@@ -83,4 +92,43 @@ class SimilarNamedWaysTest {
      void testSimilarNamesRegression() {
          assertFalse(test.similaryName("Unnecessary Name", "Third"));
      }
+
+    /**
+     * Test similarly named ways found in a data set.
+     */
+    @Test
+    void testDataSet() {
+        DataSet ds = new DataSet();
+        String[] names = {"Testname", "Church Street", "Testxame", "Testname", "Water Street", "Chursh Street"};
+        for (int i = 0; i < names.length; i++) {
+            Node n1 = new Node(new LatLon(0, i * 1e-5));
+            Node n2 = new Node(new LatLon(1e-5, i * 1e-5));
+            Way w = new Way();
+            w.setNodes(Arrays.asList(n1, n2));
+            w.put("name", names[i]);
+            ds.addPrimitive(n1);
+            ds.addPrimitive(n2);
+            ds.addPrimitive(w);
+        }
+        // a distant way is not compared
+        Node n1 = new Node(new LatLon(10, 10));
+        Node n2 = new Node(new LatLon(10, 10.00001));
+        Way far = new Way();
+        far.setNodes(Arrays.asList(n1, n2));
+        far.put("name", "Testnamx");
+        ds.addPrimitive(n1);
+        ds.addPrimitive(n2);
+        ds.addPrimitive(far);
+
+        OsmValidator.initializeGridDetail();
+        test.startTest(NullProgressMonitor.INSTANCE);
+        test.visit(ds.allPrimitives());
+        test.endTest();
+
+        assertEquals(3, test.getErrors().size());
+        for (TestError error : test.getErrors()) {
+            assertEquals(2, error.getPrimitives().size());
+            assertFalse(error.getPrimitives().contains(far));
+        }
+    }
 }
@@ -0,0 +1,160 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.gui.layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.data.osm.event.PrimitivesAddedEvent;
+import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.io.OsmReader;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests for class {@link AutosaveJournal}.
+ */
+class AutosaveJournalTest {
+    /**
+     * We need preferences and a home directory for this.
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences().projection();
+
+    private AutosaveTask task;
+
+    /**
+     * Setup test.
+     */
+    @BeforeEach
+    public void setUp() {
+        AutosaveJournal.PROP_ENABLED.put(true);
+        // test data is tiny, only compact the journal when asked to
+        AutosaveJournal.PROP_MAX_SIZE_PERCENT.put(Integer.MAX_VALUE / 100);
+        task = new AutosaveTask();
+    }
+
+    /**
+     * Cleanup test.
+     */
+    @AfterEach
+    public void tearDown() {
+        task.cancel();
+    }
+
+    private File getSnapshot() {
+        File[] files = task.getAutosaveDir().toFile().listFiles((dir, name) -> name.endsWith(".osm"));
+        assertNotNull(files);
+        assertEquals(1, files.length);
+        return files[0];
+    }
+
+    private static DataSet read(File file) throws Exception {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return OsmReader.parseDataSet(in, null);
+        }
+    }
+
+    private static Node getNode(DataSet ds, LatLon ll) {
+        return ds.getNodes().stream().filter(n -> ll.equals(n.getCoor())).findFirst().orElse(null);
+    }
+
+    /**
+     * Tests that changes are appended to the journal instead of rewriting the layer, and that they can be replayed.
+     * @throws Exception in case of error
+     */
+    @Test
+    void testJournalAndReplay() throws Exception {
+        DataSet data = new DataSet();
+        Node n1 = new Node(new LatLon(10, 10));
+        Node n2 = new Node(new LatLon(20, 20));
+        data.addPrimitive(n1);
+        data.addPrimitive(n2);
+        MainApplication.getLayerManager().addLayer(new OsmDataLayer(data, "OsmData", null));
+        task.schedule();
+        task.run();
+        File snapshot = getSnapshot();
+        File journal = AutosaveJournal.getJournalFile(snapshot);
+        assertFalse(journal.exists());
+
+        Node n3 = new Node(new LatLon(30, 30));
+        data.addPrimitive(n3);
+        Way w = new Way();
+        w.setNodes(Arrays.asList(n1, n3));
+        data.addPrimitive(w);
+        n1.setCoor(new LatLon(15, 15));
+        n2.put("name", "foo");
+        task.run();
+        assertEquals(snapshot, getSnapshot());
+        assertTrue(journal.exists());
+
+        data.removePrimitive(n2);
+        task.run();
+        assertEquals(snapshot, getSnapshot());
+
+        // simulate a crash while writing a record
+        Files.write(journal.toPath(), "1000\n<osm".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertTrue(AutosaveJournal.replay(snapshot));
+        assertFalse(journal.exists());
+        DataSet recovered = read(snapshot);
+        assertEquals(2, recovered.getNodes().size());
+        assertNull(getNode(recovered, new LatLon(10, 10)));
+        assertNotNull(getNode(recovered, new LatLon(15, 15)));
+        List<Way> ways = new ArrayList<>(recovered.getWays());
+        assertEquals(1, ways.size());
+        assertEquals(getNode(recovered, new LatLon(30, 30)), ways.get(0).lastNode());
+        assertFalse(AutosaveJournal.replay(snapshot));
+    }
+
+    /**
+     * Tests that a new snapshot is written when the journal has too many records.
+     * @throws IOException in case of I/O error
+     */
+    @Test
+    void testCompaction() throws IOException {
+        AutosaveJournal.PROP_MAX_RECORDS.put(2);
+        DataSet data = new DataSet();
+        MainApplication.getLayerManager().addLayer(new OsmDataLayer(data, "OsmData", null));
+        task.schedule();
+        AutosaveJournal journal = new AutosaveJournal(data);
+        assertTrue(journal.isSnapshotNeeded());
+        File snapshot = new File(task.getAutosaveDir().toFile(), "test.osm");
+        Files.write(snapshot.toPath(), new byte[1000]);
+        journal.startSnapshot(snapshot);
+        assertFalse(journal.isSnapshotNeeded());
+        assertFalse(journal.writeRecord());
+        for (int i = 0; i < 2; i++) {
+            Node n = new Node(new LatLon(i, i));
+            data.addPrimitive(n);
+            journal.processDatasetEvent(new PrimitivesAddedEvent(data, Collections.singleton(n), false));
+            assertTrue(journal.writeRecord());
+        }
+        assertTrue(journal.isSnapshotNeeded());
+        Files.delete(AutosaveJournal.getJournalFile(snapshot).toPath());
+        Files.delete(snapshot.toPath());
+    }
+}
@@ -3,7 +3,9 @@ package org.openstreetmap.josm.gui.layer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -12,6 +14,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.TimeZone;
 
 import javax.swing.JScrollPane;
@@ -21,11 +24,14 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import org.openstreetmap.josm.TestUtils;
 import org.openstreetmap.josm.data.gpx.GpxData;
 import org.openstreetmap.josm.data.gpx.GpxTrack;
+import org.openstreetmap.josm.data.gpx.GpxTrackPoints;
+import org.openstreetmap.josm.data.gpx.GpxTrackSegment;
 import org.openstreetmap.josm.data.gpx.IGpxTrackSegment;
 import org.openstreetmap.josm.data.gpx.WayPoint;
 import org.openstreetmap.josm.data.osm.DataSet;
 import org.openstreetmap.josm.data.projection.Projections;
 import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.gui.layer.gpx.GpxDrawHelper;
 import org.openstreetmap.josm.gui.widgets.HtmlPanel;
 import org.openstreetmap.josm.io.GpxReaderTest;
 import org.openstreetmap.josm.testutils.JOSMTestRules;
@@ -240,6 +246,41 @@ public class GpxLayerTest {
         }
     }
 
+    /**
+     * Checks that the points of a track segment read from a file are still stored in columns after a paint,
+     * with their drawing state, and that the way points are created once with this state.
+     * @throws Exception if any error occurs
+     */
+    @Test
+    void testPaintKeepsTrackPoints() throws Exception {
+        GpxLayer layer = getMinimalGpxLayer();
+        GpxTrackSegment segment = (GpxTrackSegment) layer.data.getTracks().iterator().next().getSegments().iterator().next();
+        GpxTrackPoints points = segment.getTrackPoints();
+        assertNotNull(points);
+        try {
+            MainApplication.getLayerManager().addLayer(layer);
+            List<WayPoint> visibleSegments = new ArrayList<>();
+            GpxDrawHelper helper = new GpxDrawHelper(layer);
+            helper.readPreferences();
+            helper.drawAll(TestUtils.newGraphics(), MainApplication.getMap().mapView, visibleSegments, layer.data.recalculateBounds());
+            assertEquals(3, visibleSegments.size());
+        } finally {
+            MainApplication.getLayerManager().removeLayer(layer);
+        }
+        assertSame(points, segment.getTrackPoints());
+        assertEquals(3, segment.getWayPoints().size());
+        assertFalse(points.isDrawLine(0));
+        assertTrue(points.isDrawLine(1));
+        assertTrue(points.isDrawLine(2));
+        assertNotNull(points.getWayPoint(2).customColoring);
+        // the way points are created with the drawing state of the points, and are then kept
+        List<WayPoint> wpts = new ArrayList<>(segment.getWayPoints());
+        assertTrue(wpts.get(1).drawLine);
+        assertNotNull(wpts.get(2).customColoring);
+        assertSame(wpts.get(2), segment.getWayPoints().stream().skip(2).findFirst().orElse(null));
+        assertSame(points, segment.getTrackPoints());
+    }
+
     /**
      * Unit test of {@link GpxLayer#getChangesetSourceTag}.
      */
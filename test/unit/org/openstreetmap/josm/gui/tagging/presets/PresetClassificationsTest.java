@@ -1,6 +1,7 @@
 // License: GPL. For details, see LICENSE file.
 package org.openstreetmap.josm.gui.tagging.presets;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -78,4 +79,21 @@ class PresetClassificationsTest {
         assertFalse(getMatchingPresetNames("route", tram).toString().contains("Bus"),
                 "railway=tram should not match 'Bus'");
     }
+
+    /**
+     * Test search of short, partial and accented words.
+     */
+    @Test
+    void testPartialWords() {
+        final OsmPrimitive node = OsmUtils.createPrimitive("node");
+        assertTrue(getMatchingPresetNames("bak", node).contains("Bakery"));
+        assertTrue(getMatchingPresetNames("B", node).contains("Bakery"));
+        assertTrue(getMatchingPresetNames("akery", node).contains("Bakery"));
+        assertTrue(getMatchingPresetNames("bâkéry", node).contains("Bakery"));
+        assertTrue(getMatchingPresetNames("shops/bakery", node).contains("Bakery"));
+        assertFalse(getMatchingPresetNames("transport/bakery", node).contains("Bakery"));
+        assertTrue(getMatchingPresetNames("xqzj", node).isEmpty());
+        assertEquals(getMatchingPresets("", node).size(), getMatchingPresets(" ", node).size());
+        assertFalse(getMatchingPresets("", node).isEmpty());
+    }
 }
@@ -1,16 +1,26 @@
 // License: GPL. For details, see LICENSE file.
 package org.openstreetmap.josm.gui.tagging.presets;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.data.osm.OsmUtils;
 import org.openstreetmap.josm.testutils.JOSMTestRules;
 import org.openstreetmap.josm.tools.Logging;
+import org.xml.sax.SAXException;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import net.trajano.commons.testing.UtilityClassTestUtil;
@@ -36,6 +46,29 @@ public class TaggingPresetsTest {
         UtilityClassTestUtil.assertUtilityClassWellDefined(TaggingPresets.class);
     }
 
+    /**
+     * Tests that the preset index finds the same presets as a full scan.
+     * @throws SAXException if any XML error occurs
+     * @throws IOException if any I/O error occurs
+     */
+    @Test
+    void testPresetIndex() throws SAXException, IOException {
+        final Collection<TaggingPreset> presets = TaggingPresetReader.readAll("resource://data/defaultpresets.xml", false);
+        final TaggingPresetIndex index = new TaggingPresetIndex(presets);
+        final Collection<TaggingPresetType> types = EnumSet.allOf(TaggingPresetType.class);
+        for (String tags : new String[] {"amenity=restaurant cuisine=pizza", "highway=residential name=Main", "building=yes",
+                "shop=bakery opening_hours=24/7 wheelchair=yes", "type=multipolygon landuse=forest", "name=Nothing"}) {
+            final Map<String, String> keys = OsmUtils.createPrimitive("node " + tags).getKeys();
+            final List<TaggingPreset> expected = presets.stream()
+                    .filter(preset -> preset.matches(types, keys, false))
+                    .collect(Collectors.toList());
+            assertEquals(expected, index.getMatchingPresets(keys, preset -> preset.matches(types, keys, false)), tags);
+            if (tags.contains("=yes")) {
+                assertFalse(expected.isEmpty(), tags);
+            }
+        }
+    }
+
     /**
      * Wait for asynchronous icon loading
      * @param presets presets collection
@@ -0,0 +1,141 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+import org.openstreetmap.josm.tools.Utils;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests of {@link Compression} class.
+ */
+class CompressionTest {
+
+    /**
+     * Setup rule
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences();
+
+    /**
+     * Tests that files compressed by blocks in parallel are decompressed as a single stream.
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testParallelRoundTrip() throws IOException {
+        // several blocks of compressible data
+        byte[] data = new byte[3 * 1024 * 1024 + 123];
+        Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        for (String extension : new String[] {".osm.gz", ".osm.bz2", ".osm.xz", ".osm"}) {
+            assertArrayEquals(data, roundTrip(data, extension), extension);
+            assertArrayEquals(new byte[0], roundTrip(new byte[0], extension), extension);
+        }
+    }
+
+    private static byte[] roundTrip(byte[] data, String extension) throws IOException {
+        File file = File.createTempFile("josm.CompressionTest", extension);
+        try {
+            try (OutputStream out = Compression.getCompressedFileOutputStream(file)) {
+                // uneven writes
+                out.write(data, 0, Math.min(data.length, 1000));
+                if (data.length > 1000) {
+                    out.write(data[1000]);
+                    out.write(data, 1001, data.length - 1001);
+                }
+            }
+            if (data.length > 0 && !extension.equals(".osm")) {
+                assertTrue(file.length() < data.length, extension);
+            }
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            try (InputStream in = Compression.getUncompressedFileInputStream(file)) {
+                byte[] buffer = new byte[10000];
+                int n;
+                while ((n = in.read(buffer)) >= 0) {
+                    result.write(buffer, 0, n);
+                }
+            }
+            return result.toByteArray();
+        } finally {
+            Utils.deleteFile(file);
+        }
+    }
+
+    /**
+     * Tests that flushing a stream compressed in parallel does not end a compressed block.
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testParallelFlush() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        byte[] data = "flushed data".getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = new ParallelCompressorOutputStream(compressed, Compression.GZIP, ForkJoinPool.commonPool(), 1024)) {
+            for (byte b : data) {
+                out.write(b);
+                out.flush();
+            }
+            assertEquals(0, compressed.size());
+        }
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (InputStream in = Compression.GZIP.getUncompressedInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            int b;
+            while ((b = in.read()) >= 0) {
+                result.write(b);
+            }
+        }
+        assertArrayEquals(data, result.toByteArray());
+    }
+
+    /**
+     * Tests that the reader thread of a stream which is not closed stops once the stream is garbage collected.
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testReadAheadNotClosed() throws IOException {
+        EndlessInputStream source = new EndlessInputStream();
+        readOneByte(new ReadAheadInputStream(source, 16, 2));
+        Awaitility.await().atMost(20, TimeUnit.SECONDS).until(() -> {
+            System.gc();
+            return source.closed;
+        });
+    }
+
+    private static void readOneByte(InputStream in) throws IOException {
+        assertEquals(0, in.read());
+    }
+
+    private static final class EndlessInputStream extends InputStream {
+        private volatile boolean closed;
+
+        @Override
+        public int read() {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.Changeset;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.gui.progress.NullProgressMonitor;
+import org.openstreetmap.josm.gui.progress.ProgressMonitor;
+import org.openstreetmap.josm.spi.preferences.Config;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests of {@link OsmServerWriter} class.
+ */
+class OsmServerWriterTest {
+
+    /**
+     * Setup test.
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences();
+
+    /**
+     * Local stand-in for the OSM API, answering diff uploads of created primitives.
+     */
+    private static class StandInApi extends OsmApi {
+        private static final Pattern CREATED = Pattern.compile("<(node|way) id='(-\\d+)'");
+        final List<String> requests = new ArrayList<>();
+        private long nextId = 1000;
+
+        StandInApi(String serverUrl) {
+            super(serverUrl);
+        }
+
+        @Override
+        public void initialize(ProgressMonitor monitor, boolean fastFail) {
+            // Do nothing
+        }
+
+        @Override
+        public void updateChangeset(Changeset changeset, ProgressMonitor monitor) {
+            // Do nothing
+        }
+
+        @Override
+        protected synchronized String sendDiffUploadRequest(String diffUploadRequest, ProgressMonitor monitor) {
+            requests.add(diffUploadRequest);
+            StringBuilder response = new StringBuilder("<diffResult version='0.6'>");
+            Matcher m = CREATED.matcher(diffUploadRequest);
+            while (m.find()) {
+                response.append('<').append(m.group(1)).append(" old_id='").append(m.group(2))
+                        .append("' new_id='").append(nextId++).append("' new_version='1'/>");
+            }
+            return response.append("</diffResult>").toString();
+        }
+    }
+
+    /**
+     * Tests that chunks uploaded in a pipeline refer to the ids assigned to the primitives created by previous chunks.
+     * @throws OsmTransferException never
+     */
+    @Test
+    void testPipelinedUpload() throws OsmTransferException {
+        Config.getPref().put("osm-server.url", "http://stand-in.xxx/api");
+        StandInApi api = new StandInApi("http://stand-in.xxx/api");
+        OsmApi.cacheInstance(api);
+
+        DataSet ds = new DataSet();
+        List<OsmPrimitive> toUpload = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Node n1 = new Node(new LatLon(i, 0));
+            Node n2 = new Node(new LatLon(i, 1));
+            Way w = new Way();
+            w.setNodes(Arrays.asList(n1, n2));
+            ds.addPrimitive(n1);
+            ds.addPrimitive(n2);
+            ds.addPrimitive(w);
+            toUpload.addAll(Arrays.asList(n1, n2, w));
+        }
+
+        // chunks of 2, most of them with a way referring to new nodes of the previous chunk
+        OsmServerWriter writer = new OsmServerWriter();
+        writer.uploadOsm(new UploadStrategySpecification().setStrategy(UploadStrategy.CHUNKED_DATASET_STRATEGY).setChunkSize(2),
+                toUpload, new Changeset(1), NullProgressMonitor.INSTANCE);
+
+        assertEquals(9, api.requests.size());
+        assertEquals(toUpload.size(), writer.getProcessedPrimitives().size());
+        for (OsmPrimitive osm : toUpload) {
+            assertFalse(osm.isNew(), osm::toString);
+        }
+        // new nodes are only referred to in the request creating them
+        Pattern ref = Pattern.compile("<nd ref='(-\\d+)'");
+        for (String request : api.requests) {
+            Matcher m = ref.matcher(request);
+            while (m.find()) {
+                assertTrue(request.contains("<node id='" + m.group(1) + "'"), request);
+            }
+        }
+        assertTrue(writer.getTimings().getPrepareTime() >= 0);
+    }
+}
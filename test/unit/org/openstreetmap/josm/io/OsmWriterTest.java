@@ -3,12 +3,14 @@ package org.openstreetmap.josm.io;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -16,19 +18,34 @@ import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.openstreetmap.josm.data.coor.LatLon;
 import org.openstreetmap.josm.data.osm.Changeset;
 import org.openstreetmap.josm.data.osm.DataSet;
 import org.openstreetmap.josm.data.osm.DownloadPolicy;
+import org.openstreetmap.josm.data.osm.Node;
 import org.openstreetmap.josm.data.osm.NodeData;
+import org.openstreetmap.josm.data.osm.Relation;
+import org.openstreetmap.josm.data.osm.RelationMember;
 import org.openstreetmap.josm.data.osm.UploadPolicy;
 import org.openstreetmap.josm.data.osm.User;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 /**
  * Unit tests of {@link OsmWriter} class.
  */
 class OsmWriterTest {
 
+    /**
+     * Setup rule
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences();
+
     /**
      * Unit test of {@link OsmWriter#byIdComparator}.
      */
@@ -114,4 +131,45 @@ class OsmWriterTest {
                     stringWriter.toString().replace("\r", ""));
         }
     }
+
+    /**
+     * Test that large data sets serialized in parallel chunks give the same output as when written sequentially.
+     */
+    @Test
+    void testParallelWrite() {
+        DataSet ds = new DataSet();
+        Relation r = new Relation();
+        for (int i = 0; i < 200; i++) {
+            Node n1 = new Node(new LatLon(i / 100.0, 0.123456789));
+            Node n2 = new Node(new LatLon(i / 100.0, -1));
+            n1.put("name", "<'foo\" & \tbar'>" + i);
+            Way w = new Way();
+            w.setNodes(Arrays.asList(n1, n2));
+            w.put("highway", "track");
+            ds.addPrimitive(n1);
+            ds.addPrimitive(n2);
+            ds.addPrimitive(w);
+            r.addMember(new RelationMember(i % 2 == 0 ? "outer" : "a&b", w));
+        }
+        ds.addPrimitive(r);
+
+        OsmWriter.PROP_PARALLEL.put(false);
+        String sequential = write(ds);
+        OsmWriter.PROP_PARALLEL.put(true);
+        OsmWriter.PROP_PARALLEL_CHUNK_SIZE.put(7);
+        assertEquals(sequential, write(ds));
+        assertTrue(sequential.contains(" lon='0.123456789'"), sequential);
+        assertTrue(sequential.contains("<tag k='name' v='&lt;&apos;foo&quot; &amp; &#x9;bar&apos;&gt;0' />"), sequential);
+        assertTrue(sequential.contains(" role='a&amp;b' />"), sequential);
+    }
+
+    private static String write(DataSet ds) {
+        StringWriter stringWriter = new StringWriter();
+        try (OsmWriter osmWriter = OsmWriterFactory.createOsmWriter(new PrintWriter(stringWriter), false, OsmWriter.DEFAULT_API_VERSION)) {
+            osmWriter.write(ds);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return stringWriter.toString();
+    }
 }
@@ -0,0 +1,83 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.TestUtils;
+import org.openstreetmap.josm.gui.tagging.presets.TaggingPreset;
+import org.openstreetmap.josm.gui.tagging.presets.TaggingPresetItem;
+import org.openstreetmap.josm.gui.tagging.presets.TaggingPresetReader;
+import org.openstreetmap.josm.gui.tagging.presets.items.KeyedItem;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+import org.xml.sax.SAXException;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests of {@link ParsedSourceCache} class.
+ */
+class ParsedSourceCacheTest {
+
+    /**
+     * Setup test.
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences();
+
+    /**
+     * Tests that cache entries are only returned for the content they were computed from.
+     */
+    @Test
+    void testGetPut() {
+        ParsedSourceCache cache = new ParsedSourceCache("test", 1);
+        String source = "resource://ParsedSourceCacheTest/testGetPut";
+        byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+        String longValue = new String(new char[70000]).replace('\0', 'é');
+        cache.put(source, content, longValue, (s, out) -> ParsedSourceCache.writeString(out, s));
+
+        assertEquals(longValue, cache.get(source, content, ParsedSourceCache::readString));
+        assertNull(cache.get(source, "changed".getBytes(StandardCharsets.UTF_8), ParsedSourceCache::readString));
+        assertNull(cache.get(source + "/other", content, ParsedSourceCache::readString));
+        assertNull(new ParsedSourceCache("test", 2).get(source, content, ParsedSourceCache::readString));
+        assertNull(cache.get(source, content, in -> {
+            throw new IOException("invalid entry");
+        }));
+    }
+
+    /**
+     * Tests that presets read from cache are the same as the parsed ones.
+     * @throws SAXException if any XML error occurs
+     * @throws IOException if any I/O error occurs
+     */
+    @Test
+    void testPresets() throws SAXException, IOException {
+        String source = TestUtils.getTestDataRoot() + "preset_chunk.xml";
+        List<String> parsed = describe(TaggingPresetReader.readAll(source, false));
+        List<String> cached = describe(TaggingPresetReader.readAll(source, false));
+        assertEquals(1, parsed.size());
+        assertEquals(parsed, cached);
+    }
+
+    private static List<String> describe(Collection<TaggingPreset> presets) {
+        List<String> result = new ArrayList<>();
+        for (TaggingPreset preset : presets) {
+            result.add(preset.getName() + preset.data.stream().map(ParsedSourceCacheTest::describe).collect(Collectors.toList()));
+        }
+        return result;
+    }
+
+    private static String describe(TaggingPresetItem item) {
+        return item instanceof KeyedItem ? ((KeyedItem) item).key : item.getClass().getSimpleName();
+    }
+}
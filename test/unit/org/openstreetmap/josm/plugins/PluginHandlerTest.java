@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -16,6 +17,7 @@ import java.util.stream.Stream;
 import javax.swing.JOptionPane;
 import javax.swing.JScrollPane;
 
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.Test;
 import org.openstreetmap.josm.TestUtils;
@@ -24,6 +26,7 @@ import org.openstreetmap.josm.gui.preferences.plugin.PluginPreferenceTest;
 import org.openstreetmap.josm.gui.widgets.JosmTextArea;
 import org.openstreetmap.josm.plugins.PluginHandler.DeprecatedPlugin;
 import org.openstreetmap.josm.plugins.PluginHandler.PluginInformationAction;
+import org.openstreetmap.josm.spi.preferences.Config;
 import org.openstreetmap.josm.testutils.JOSMTestRules;
 import org.openstreetmap.josm.testutils.mockers.HelpAwareOptionPaneMocker;
 import org.openstreetmap.josm.testutils.mockers.JOptionPaneSimpleMocker;
@@ -41,7 +44,7 @@ class PluginHandlerTest {
      */
     @RegisterExtension
     @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
-    public JOSMTestRules test = new JOSMTestRules();
+    public JOSMTestRules test = new JOSMTestRules().preferences();
 
     /**
      * Unit test of methods {@link DeprecatedPlugin#equals} and {@link DeprecatedPlugin#hashCode}.
@@ -182,4 +185,51 @@ class PluginHandlerTest {
         assertEquals(0, (int) invocationLogEntry[0]);
         assertEquals("Plugin information", invocationLogEntry[2]);
     }
+
+    /**
+     * Unit test of {@link PluginHandler#loadPlugins} and {@link PluginHandler#getLoadingTimesInformation},
+     * with and without the parallel preloading of the plugin classes.
+     * @throws PluginException if an error occurs
+     */
+    @Test
+    void testLoadPlugins() throws PluginException {
+        final List<PluginProxy> originalPluginList = new ArrayList<>(PluginHandler.pluginList);
+        final File pluginDir = new File(TestUtils.getTestDataRoot(), "__files/plugin");
+        try {
+            for (boolean parallel : new boolean[] {true, false}) {
+                PluginHandler.pluginList.clear();
+                PluginHandler.pluginPreloadTimes.clear();
+                PluginHandler.pluginInstantiationTimes.clear();
+                Config.getPref().putBoolean("plugins.parallel-loading", parallel);
+                List<PluginInformation> plugins = Arrays.asList(
+                        new PluginInformation(new File(pluginDir, "baz_plugin.v7.jar"), "baz_plugin"),
+                        new PluginInformation(new File(pluginDir, "qux_plugin.v432.jar"), "qux_plugin"));
+                PluginHandler.loadPlugins(null, plugins, null);
+
+                // qux_plugin has a lower stage and is instantiated first
+                assertEquals(Arrays.asList("qux_plugin", "baz_plugin"),
+                        PluginHandler.pluginList.stream().map(pp -> pp.getPluginInformation().name).collect(Collectors.toList()));
+                assertEquals("org.openstreetmap.josm.plugins.baz.BazPlugin", PluginHandler.getPlugin("baz_plugin").getClass().getName());
+                assertEquals(2, PluginHandler.pluginInstantiationTimes.size());
+                boolean preloaded = parallel && Runtime.getRuntime().availableProcessors() > 1;
+                if (preloaded) {
+                    // the preloading tasks may still be recording their times
+                    Awaitility.await().until(() -> PluginHandler.pluginPreloadTimes.size() == 2);
+                } else {
+                    assertTrue(PluginHandler.pluginPreloadTimes.isEmpty());
+                }
+
+                List<String> times = PluginHandler.getLoadingTimesInformation();
+                assertEquals(2, times.size());
+                String regex = (preloaded ? "classes [^,]+, " : "") + "instantiation [^,]+";
+                assertTrue(times.get(0).matches("qux_plugin: " + regex), times.get(0));
+                assertTrue(times.get(1).matches("baz_plugin: " + regex), times.get(1));
+                assertTrue(PluginHandler.getBugReportInformation().contains("baz_plugin (7)"));
+            }
+        } finally {
+            PluginHandler.pluginList.clear();
+            PluginHandler.pluginList.addAll(originalPluginList);
+            Config.getPref().put("plugins.parallel-loading", null);
+        }
+    }
 }
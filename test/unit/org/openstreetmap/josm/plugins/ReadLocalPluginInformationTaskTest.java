@@ -0,0 +1,67 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.TestUtils;
+import org.openstreetmap.josm.gui.progress.NullProgressMonitor;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests of {@link ReadLocalPluginInformationTask} class.
+ */
+class ReadLocalPluginInformationTaskTest {
+
+    /**
+     * Setup test.
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences();
+
+    /**
+     * Unit test of {@link ReadLocalPluginInformationTask#scanLocalPluginRepository}: the manifests read in parallel
+     * are processed in order, through {@link ReadLocalPluginInformationTask#processJarFile(File, String)}.
+     */
+    @Test
+    void testScanLocalPluginRepository() {
+        final File pluginDir = new File(TestUtils.getTestDataRoot(), "__files/plugin");
+        final List<String> processed = Collections.synchronizedList(new ArrayList<>());
+        ReadLocalPluginInformationTask task = new ReadLocalPluginInformationTask(NullProgressMonitor.INSTANCE) {
+            @Override
+            protected void processJarFile(File f, String pluginName) throws PluginException {
+                processed.add(pluginName);
+                super.processJarFile(f, pluginName);
+            }
+        };
+        task.scanLocalPluginRepository(NullProgressMonitor.INSTANCE, pluginDir);
+
+        // the hook is called for each jar file in the order of the directory listing, including the invalid ones
+        List<String> expected = new ArrayList<>();
+        for (File f : pluginDir.listFiles((dir, name) -> name.endsWith(".jar") || name.endsWith(".jar.new"))) {
+            expected.add(f.getName().substring(0, f.getName().length() - 4));
+        }
+        assertEquals(expected, processed);
+
+        Map<String, PluginInformation> plugins = task.getAvailablePlugins().stream()
+                .collect(Collectors.toMap(PluginInformation::getName, Function.identity()));
+        assertEquals(expected.size() - 1, plugins.size());
+        assertFalse(plugins.containsKey("corrupted_plugin"));
+        assertEquals("7", plugins.get("baz_plugin.v7").localversion);
+        assertEquals("31772", plugins.get("dummy_plugin.v31772").localversion);
+        assertEquals(42, plugins.get("qux_plugin.v432").stage);
+    }
+}
@@ -2,6 +2,7 @@
 package org.openstreetmap.josm.spi.lifecycle;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -52,4 +53,16 @@ class LifecycleTest {
         assertTrue(listener.updated);
         assertTrue(listener.finished);
     }
+
+    /**
+     * Unit test of {@link Lifecycle#getInitializationTimes}.
+     */
+    @Test
+    void testInitializationTimes() {
+        new InitializationTask("testInitializationTimes", () -> { }).call();
+        new InitializationTask("testInitializationTimes", () -> { }).call();
+        Long time = Lifecycle.getInitializationTimes().get("testInitializationTimes");
+        assertNotNull(time);
+        assertTrue(time >= 0);
+    }
 }
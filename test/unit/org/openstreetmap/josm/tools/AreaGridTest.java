@@ -0,0 +1,89 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Area;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests of {@link AreaGrid} class.
+ */
+class AreaGridTest {
+
+    private static Area createArea(Random random, int size) {
+        Path2D.Double path = new Path2D.Double(Path2D.WIND_EVEN_ODD);
+        for (int i = 0; i < size; i++) {
+            double angle = 2 * Math.PI * i / size;
+            double radius = 20 + random.nextDouble() * 20;
+            double x = 50 + radius * Math.cos(angle);
+            double y = 50 + radius * Math.sin(angle);
+            if (i == 0) {
+                path.moveTo(x, y);
+            } else {
+                path.lineTo(x, y);
+            }
+        }
+        path.closePath();
+        // a hole
+        path.append(new Rectangle2D.Double(45, 45, 10, 10), false);
+        return new Area(path);
+    }
+
+    /**
+     * Tests that the points answered by the grid are the ones of the area.
+     */
+    @Test
+    void testContainsPoint() {
+        Random random = new Random(42);
+        Area area = createArea(random, 500);
+        AreaGrid grid = new AreaGrid(area);
+        int answered = 0;
+        for (int i = 0; i < 10_000; i++) {
+            double x = random.nextDouble() * 120 - 10;
+            double y = random.nextDouble() * 120 - 10;
+            Boolean result = grid.contains(x, y);
+            if (result != null) {
+                answered++;
+                assertEquals(area.contains(x, y), result, x + " " + y);
+            }
+        }
+        assertTrue(answered > 8_000, Integer.toString(answered));
+        assertEquals(Boolean.TRUE, grid.contains(50, 35));
+        assertEquals(Boolean.FALSE, grid.contains(50, 50));
+        assertEquals(Boolean.FALSE, grid.contains(-1, 50));
+    }
+
+    /**
+     * Tests that the rectangles answered by the grid are entirely inside or outside of the area.
+     */
+    @Test
+    void testContainsRectangle() {
+        Random random = new Random(42);
+        Area area = createArea(random, 500);
+        AreaGrid grid = new AreaGrid(area);
+        for (int i = 0; i < 1_000; i++) {
+            double x = random.nextDouble() * 120 - 10;
+            double y = random.nextDouble() * 120 - 10;
+            double size = random.nextDouble() * 5;
+            Boolean result = grid.contains(x, y, x + size, y + size);
+            if (Boolean.TRUE.equals(result)) {
+                assertTrue(area.contains(x, y, size, size), x + " " + y);
+            } else if (Boolean.FALSE.equals(result)) {
+                Area intersection = new Area(new Rectangle2D.Double(x, y, size, size));
+                intersection.intersect(area);
+                assertTrue(intersection.isEmpty(), x + " " + y);
+            }
+        }
+        assertEquals(Boolean.TRUE, grid.contains(49, 34, 51, 36));
+        assertEquals(Boolean.FALSE, grid.contains(48, 48, 52, 52));
+        assertEquals(Boolean.FALSE, grid.contains(-10, -10, -5, -5));
+        assertNull(grid.contains(40, 40, 60, 60));
+    }
+}
@@ -0,0 +1,87 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.BBox;
+
+/**
+ * Unit tests of {@link GeoPropertyIndex} class.
+ */
+class GeoPropertyIndexTest {
+
+    /**
+     * The northern hemisphere, with a slow look-up by box.
+     */
+    private static class NorthProperty implements GeoProperty<Boolean> {
+        @Override
+        public Boolean get(LatLon ll) {
+            return ll.lat() >= 0;
+        }
+
+        @Override
+        public Boolean get(BBox box) {
+            Thread.yield();
+            if (box.getBottomRightLat() >= 0) {
+                return Boolean.TRUE;
+            } else if (box.getTopLeftLat() <= 0) {
+                return Boolean.FALSE;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Test of {@link GeoPropertyIndex#get} method.
+     */
+    @Test
+    void testGet() {
+        GeoPropertyIndex<Boolean> index = new GeoPropertyIndex<>(new NorthProperty(), 24);
+        assertEquals(Boolean.TRUE, index.get(new LatLon(48.8567, 2.3508)));
+        assertEquals(Boolean.FALSE, index.get(new LatLon(-33.8688, 151.2093)));
+        assertEquals(Boolean.TRUE, index.get(new LatLon(0, 0)));
+        assertEquals(Boolean.TRUE, index.get(new LatLon(90, 180)));
+    }
+
+    /**
+     * Test of concurrent look-ups on new indexes, whose root level is created by the first look-up.
+     * @throws Exception if a look-up fails
+     */
+    @Test
+    void testConcurrentGet() throws Exception {
+        final int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                GeoPropertyIndex<Boolean> index = new GeoPropertyIndex<>(new NorthProperty(), 24);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    final double lat = (t % 2 == 0 ? 1 : -1) * (10 + t);
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        for (int k = 0; k < 10; k++) {
+                            assertEquals(lat >= 0, index.get(new LatLon(lat, k * 10)));
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -4,6 +4,7 @@ package org.openstreetmap.josm.tools;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.InputStream;
@@ -12,11 +13,14 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.Test;
 import org.openstreetmap.josm.TestUtils;
+import org.openstreetmap.josm.command.Command;
 import org.openstreetmap.josm.data.coor.EastNorth;
 import org.openstreetmap.josm.data.coor.LatLon;
 import org.openstreetmap.josm.data.osm.DataSet;
@@ -199,6 +203,91 @@ class GeometryTest {
         assertEquals(Geometry.PolygonIntersection.CROSSING, Geometry.polygonIntersection(poly1, poly2));
     }
 
+    /**
+     * Test of {@link Geometry#polygonIntersection} method with polygons whose bounding boxes do not or barely overlap.
+     */
+    @Test
+    void testPolygonIntersectionBounds() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            List<Node> poly1 = randomTriangle(random);
+            List<Node> poly2 = randomTriangle(random);
+            assertEquals(Geometry.polygonIntersectionResult(Geometry.getArea(poly1), Geometry.getArea(poly2),
+                    Geometry.INTERSECTION_EPS_EAST_NORTH).a, Geometry.polygonIntersection(poly1, poly2));
+            assertEquals(Geometry.polygonIntersectionResult(Geometry.getArea(poly1), Geometry.getArea(poly2), 0).a,
+                    Geometry.polygonIntersection(Geometry.getArea(poly1), Geometry.getArea(poly2), 0));
+        }
+    }
+
+    private static List<Node> randomTriangle(Random random) {
+        double x = random.nextInt(20);
+        double y = random.nextInt(20);
+        Node node1 = new Node(new EastNorth(x, y));
+        Node node2 = new Node(new EastNorth(x + random.nextInt(5) * 1e-5, y + random.nextInt(5)));
+        Node node3 = new Node(new EastNorth(x + random.nextInt(5), y + random.nextInt(5) * 1e-5));
+        return Arrays.asList(node1, node2, node3, node1);
+    }
+
+    /**
+     * Test of {@link Geometry#getSegmentSegmentIntersection} method.
+     */
+    @Test
+    void testSegmentSegmentIntersection() {
+        EastNorth intersection = Geometry.getSegmentSegmentIntersection(
+                new EastNorth(0, 0), new EastNorth(10, 10), new EastNorth(0, 10), new EastNorth(10, 0));
+        assertEquals(new EastNorth(5, 5), intersection);
+        assertNull(Geometry.getSegmentSegmentIntersection(
+                new EastNorth(0, 0), new EastNorth(4, 4), new EastNorth(0, 10), new EastNorth(10, 0)));
+        double[] result = new double[2];
+        assertTrue(Geometry.getSegmentSegmentIntersection(0, 0, 10, 0, 5, -5, 5, 5, result));
+        assertEquals(5, result[0], 1e-12);
+        assertEquals(0, result[1], 1e-12);
+        assertFalse(Geometry.getSegmentSegmentIntersection(0, 0, 10, 0, 0, 1, 10, 1, null));
+    }
+
+    /**
+     * Test of {@link Geometry#addIntersections} method with large ways, crossing many times.
+     */
+    @Test
+    void testAddIntersections() {
+        DataSet ds = new DataSet();
+        int teeth = 2000;
+        // a saw crossing the bottom side of a rectangle between each tooth
+        List<Node> sawNodes = new ArrayList<>();
+        for (int i = 0; i <= teeth; i++) {
+            sawNodes.add(new Node(new EastNorth(10 * i, i % 2 == 0 ? -10 : 10)));
+        }
+        sawNodes.add(new Node(new EastNorth(10 * teeth, -100)));
+        sawNodes.add(new Node(new EastNorth(0, -100)));
+        List<Node> rectangleNodes = Arrays.asList(new Node(new EastNorth(-5, 0)), new Node(new EastNorth(10 * teeth + 5, 0)),
+                new Node(new EastNorth(10 * teeth + 5, 100)), new Node(new EastNorth(-5, 100)));
+        List<Way> ways = new ArrayList<>();
+        for (List<Node> nodes : Arrays.asList(sawNodes, rectangleNodes)) {
+            Way way = new Way();
+            nodes.forEach(ds::addPrimitive);
+            way.setNodes(nodes);
+            way.addNode(nodes.get(0));
+            ds.addPrimitive(way);
+            ways.add(way);
+        }
+
+        List<Command> cmds = new ArrayList<>();
+        assertEquals(1, Geometry.addIntersections(ways, true, cmds).size());
+        assertTrue(cmds.isEmpty());
+        Set<Node> intersections = Geometry.addIntersections(ways, false, cmds);
+        assertEquals(teeth, intersections.size());
+        assertEquals(teeth + 2, cmds.size());
+        cmds.forEach(Command::executeCommand);
+        assertEquals(sawNodes.size() + 1 + teeth, ways.get(0).getNodesCount());
+        assertEquals(rectangleNodes.size() + 1 + teeth, ways.get(1).getNodesCount());
+        for (int i = 0; i < teeth; i++) {
+            // the intersections are added in the order of the saw
+            EastNorth en = ways.get(1).getNode(i + 1).getEastNorth();
+            assertEquals(10 * i + 5, en.east(), 1e-6);
+            assertEquals(0, en.north(), 1e-6);
+        }
+    }
+
     /**
      * Test of {@link Geometry#polygonIntersection} method with two V-shapes
      */
@@ -0,0 +1,115 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.tools;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.josm.spi.preferences.Config;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests of {@link Http2Client} class.
+ */
+public class Http2ClientTest {
+
+    /**
+     * Setup tests
+     */
+    @Rule
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences().timeout(30000);
+
+    /**
+     * HTTP mock.
+     */
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(options().dynamicPort());
+
+    /**
+     * Skips tests when {@code java.net.http} is not available.
+     */
+    @Before
+    public void setUp() {
+        assumeTrue(Http2Client.isAvailable());
+    }
+
+    /**
+     * Test of {@link Http2Client#createPreferred}
+     * @throws IOException never
+     */
+    @Test
+    public void testCreatePreferred() throws IOException {
+        URL url = new URL(wireMockRule.url("/"));
+        assertTrue(Http2Client.createPreferred(url, "GET") instanceof Http1Client);
+        Config.getPref().putBoolean("http.http2", true);
+        assertTrue(Http2Client.createPreferred(url, "GET") instanceof Http2Client);
+        assertTrue(Http2Client.createPreferred(new URL("file:/tmp/foo"), "GET") instanceof Http1Client);
+    }
+
+    /**
+     * Test a {@code GET} request with conditional headers.
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testGet() throws IOException {
+        wireMockRule.stubFor(get(urlEqualTo("/tile"))
+                .willReturn(aResponse().withStatus(200)
+                        .withHeader("Content-Type", "image/png")
+                        .withHeader("ETag", "\"abc\"")
+                        .withHeader("Last-Modified", "Wed, 21 Oct 2015 07:28:00 GMT")
+                        .withBody("tile")));
+        HttpClient.Response response = new Http2Client(new URL(wireMockRule.url("/tile")), "GET")
+                .setIfModifiedSince(1_000_000_000_000L)
+                .setHeader("If-None-Match", "\"abc\"")
+                .connect();
+        assertEquals(200, response.getResponseCode());
+        assertEquals("image/png", response.getContentType());
+        assertEquals("\"abc\"", response.getHeaderField("etag"));
+        assertEquals(1445412480000L, response.getLastModified());
+        assertEquals("tile", response.fetchContent());
+        wireMockRule.verify(getRequestedFor(urlEqualTo("/tile"))
+                .withHeader("If-None-Match", equalTo("\"abc\""))
+                .withHeader("If-Modified-Since", equalTo("Sun, 09 Sep 2001 01:46:40 GMT"))
+                .withHeader("User-Agent", containing("JOSM")));
+    }
+
+    /**
+     * Test a {@code POST} request and a redirect.
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    public void testPostAndRedirect() throws IOException {
+        wireMockRule.stubFor(post(urlEqualTo("/old"))
+                .willReturn(aResponse().withStatus(307).withHeader("Location", "/new")));
+        wireMockRule.stubFor(post(urlEqualTo("/new"))
+                .willReturn(aResponse().withStatus(201).withBody("created")));
+        HttpClient.Response response = new Http2Client(new URL(wireMockRule.url("/old")), "POST")
+                .setRequestBody("data".getBytes(StandardCharsets.UTF_8))
+                .connect();
+        assertEquals(201, response.getResponseCode());
+        assertEquals("created", response.fetchContent());
+        assertTrue(response.getURL().toString().endsWith("/new"));
+        wireMockRule.verify(postRequestedFor(urlEqualTo("/new")).withRequestBody(equalTo("data")));
+    }
+}
@@ -0,0 +1,67 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.data.preferences.BooleanProperty;
+import org.openstreetmap.josm.data.preferences.IntegerProperty;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import net.trajano.commons.testing.UtilityClassTestUtil;
+
+/**
+ * Unit tests of {@link ParallelUtils} class.
+ */
+class ParallelUtilsTest {
+
+    /**
+     * Setup test.
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().preferences();
+
+    /**
+     * Tests that {@code ParallelUtils} satisfies utility class criteria.
+     * @throws ReflectiveOperationException if an error occurs
+     */
+    @Test
+    void testUtilityClass() throws ReflectiveOperationException {
+        UtilityClassTestUtil.assertUtilityClassWellDefined(ParallelUtils.class);
+    }
+
+    /**
+     * Tests that the results are returned in the order of the input.
+     */
+    @Test
+    void testMapAndMapChunks() {
+        List<Integer> input = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        assertEquals(input.stream().map(i -> i * 2).collect(Collectors.toList()), ParallelUtils.map(input, i -> i * 2, 7));
+        List<Integer> sizes = ParallelUtils.mapChunks(input, List::size, 7);
+        assertEquals(143, sizes.size());
+        assertEquals(Integer.valueOf(1000 % 7), sizes.get(142));
+        assertEquals(input, ParallelUtils.mapChunks(input, ArrayList::new, 7).stream().flatMap(List::stream).collect(Collectors.toList()));
+    }
+
+    /**
+     * Tests that each caller decides with its own preferences.
+     */
+    @Test
+    void testIsParallel() {
+        BooleanProperty enabled = new BooleanProperty("test.parallel", true);
+        IntegerProperty chunkSize = new IntegerProperty("test.parallel.chunk-size", 10);
+        assertFalse(ParallelUtils.isParallel(enabled, chunkSize, 10));
+        assertEquals(Runtime.getRuntime().availableProcessors() > 1, ParallelUtils.isParallel(enabled, chunkSize, 11));
+        enabled.put(false);
+        assertFalse(ParallelUtils.isParallel(enabled, chunkSize, 11));
+    }
+}
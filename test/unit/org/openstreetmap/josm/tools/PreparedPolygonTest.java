@@ -0,0 +1,135 @@
+// License: GPL. For details, see LICENSE file.
+package org.openstreetmap.josm.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Path2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openstreetmap.josm.data.coor.EastNorth;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.testutils.JOSMTestRules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Unit tests of {@link PreparedPolygon} class.
+ */
+class PreparedPolygonTest {
+
+    /**
+     * Nodes need a projection.
+     */
+    @RegisterExtension
+    @SuppressFBWarnings(value = "URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public JOSMTestRules test = new JOSMTestRules().projection();
+
+    private static List<Node> polygon(double... coordinates) {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < coordinates.length; i += 2) {
+            nodes.add(new Node(new EastNorth(coordinates[i], coordinates[i + 1])));
+        }
+        return nodes;
+    }
+
+    /**
+     * Test of {@link PreparedPolygon#contains} and {@link PreparedPolygon#getSignedArea} with a square.
+     */
+    @Test
+    void testSquare() {
+        List<Node> square = polygon(0, 0, 10, 0, 10, 10, 0, 10);
+        square.add(square.get(0));
+        PreparedPolygon polygon = new PreparedPolygon(square);
+        assertEquals(5, polygon.getNodesCount());
+        assertTrue(polygon.contains(5, 5));
+        assertTrue(polygon.contains(new EastNorth(0.1, 9.9)));
+        assertFalse(polygon.contains(15, 5));
+        assertFalse(polygon.contains(5, -5));
+        assertEquals(100, polygon.getSignedArea(), 1e-9);
+        Collections.reverse(square);
+        assertEquals(-100, new PreparedPolygon(square).getSignedArea(), 1e-9);
+        assertTrue(polygon.boundsIntersect(9, 9, 20, 20));
+        assertFalse(polygon.boundsIntersect(11, 0, 20, 10));
+    }
+
+    /**
+     * Test of {@link PreparedPolygon#contains} with degenerated polygons.
+     */
+    @Test
+    void testDegenerated() {
+        assertFalse(new PreparedPolygon(Collections.emptyList()).contains(0, 0));
+        assertFalse(new PreparedPolygon(polygon(0, 0)).contains(0, 0));
+        List<Node> unknown = polygon(0, 0, 10, 0, 10, 10);
+        unknown.add(new Node());
+        assertFalse(new PreparedPolygon(unknown).contains(9, 1));
+    }
+
+    /**
+     * Test of {@link PreparedPolygon#contains} with self-intersecting polygons, which work in xor-like manner.
+     */
+    @Test
+    void testRandomPolygons() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            double[] coordinates = new double[2 * (3 + random.nextInt(10))];
+            Path2D path = new Path2D.Double(Path2D.WIND_EVEN_ODD);
+            for (int j = 0; j < coordinates.length; j += 2) {
+                coordinates[j] = random.nextInt(100);
+                coordinates[j + 1] = random.nextInt(100);
+                if (j == 0) {
+                    path.moveTo(coordinates[j], coordinates[j + 1]);
+                } else {
+                    path.lineTo(coordinates[j], coordinates[j + 1]);
+                }
+            }
+            path.closePath();
+            List<Node> nodes = polygon(coordinates);
+            PreparedPolygon polygon = new PreparedPolygon(nodes);
+            for (int j = 0; j < 100; j++) {
+                Node node = new Node(new EastNorth(random.nextDouble() * 100, random.nextDouble() * 100));
+                String message = Arrays.toString(coordinates) + " " + node.getEastNorth();
+                assertEquals(path.contains(node.getEastNorth().getX(), node.getEastNorth().getY()), polygon.contains(node), message);
+                assertEquals(polygon.contains(node), Geometry.nodeInsidePolygon(node, nodes), message);
+            }
+        }
+    }
+
+    /**
+     * Test of {@link PreparedPolygon#contains} with large polygons, whose sides are indexed.
+     */
+    @Test
+    void testIndexedPolygons() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20; i++) {
+            // rounded coordinates, so that many points have the north coordinate of nodes
+            int size = 64 + random.nextInt(1000);
+            double[] coordinates = new double[2 * size];
+            for (int j = 0; j < size; j++) {
+                double angle = 2 * Math.PI * j / size;
+                double radius = 500 + random.nextInt(500);
+                coordinates[2 * j] = Math.round(radius * Math.cos(angle));
+                coordinates[2 * j + 1] = Math.round(radius * Math.sin(angle));
+            }
+            List<Node> nodes = polygon(coordinates);
+            PreparedPolygon polygon = new PreparedPolygon(nodes);
+            for (int j = 0; j < 1000; j++) {
+                Node node = new Node(new EastNorth(random.nextInt(2000) - 1000, random.nextInt(2000) - 1000));
+                assertEquals(Geometry.nodeInsidePolygon(node, nodes), polygon.contains(node), node::toString);
+            }
+            assertTrue(polygon.isIndexed());
+        }
+        // the sides of small polygons are not indexed
+        PreparedPolygon square = new PreparedPolygon(polygon(0, 0, 10, 0, 10, 10, 0, 10));
+        assertTrue(square.contains(5, 5));
+        assertTrue(square.contains(5, 5));
+        assertFalse(square.isIndexed());
+    }
+}
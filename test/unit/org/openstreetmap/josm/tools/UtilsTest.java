@@ -380,6 +380,23 @@ class UtilsTest {
         assertEquals(2, Utils.getLevenshteinDistance("ABjoYZ", "ABsmYZ"));
     }
 
+    /**
+     * Test of {@link Utils#getLevenshteinDistance(String, String, int)} method.
+     */
+    @Test
+    void testBoundedLevenshteinDistance() {
+        assertEquals(0, Utils.getLevenshteinDistance("foo", "foo", 2));
+        assertEquals(3, Utils.getLevenshteinDistance("foo", "bar", 2));
+        assertEquals(1, Utils.getLevenshteinDistance("bar", "baz", 2));
+        assertEquals(3, Utils.getLevenshteinDistance("foo", "", 2));
+        assertEquals(3, Utils.getLevenshteinDistance("foo", "", 3));
+        assertEquals(2, Utils.getLevenshteinDistance("ABjoYZ", "ABsmYZ", 2));
+        assertEquals(2, Utils.getLevenshteinDistance("ABjoYZ", "ABsmYZ", 1));
+        assertEquals(2, Utils.getLevenshteinDistance("Testname", "Tostxname", 2));
+        assertEquals(3, Utils.getLevenshteinDistance("Testname", "Tostxnam", 2));
+        assertEquals(3, Utils.getLevenshteinDistance("Testname", "Tostxnam", 3));
+    }
+
     /**
      * Test of {@link Utils#isSimilar} method.
      */